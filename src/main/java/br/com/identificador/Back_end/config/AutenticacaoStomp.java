@@ -0,0 +1,63 @@
+package br.com.identificador.Back_end.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autenticação das sessões STOMP: os endpoints /ws e /ws-privado são abertos no HTTP, então o
+ * token vai no cabeçalho Authorization do frame CONNECT e é validado com o mesmo JwtDecoder da
+ * API. O usuário da sessão é o id da claim userId, com a role do token como autoridade; é ele
+ * que chega como Principal nos @MessageMapping e que resolve os destinos /usuario/**.
+ * CONNECT sem token válido recebe um frame ERROR e a sessão é encerrada.
+ */
+@Component
+@Slf4j
+public class AutenticacaoStomp implements ChannelInterceptor {
+
+    private static final String PREFIXO_BEARER = "Bearer ";
+
+    private final JwtDecoder jwtDecoder;
+    private final JwtAuthenticationConverter conversor;
+
+    public AutenticacaoStomp(JwtDecoder jwtDecoder) {
+        this.jwtDecoder = jwtDecoder;
+
+        JwtGrantedAuthoritiesConverter autoridades = new JwtGrantedAuthoritiesConverter();
+        autoridades.setAuthoritiesClaimName("role");
+        autoridades.setAuthorityPrefix("");
+        this.conversor = new JwtAuthenticationConverter();
+        this.conversor.setJwtGrantedAuthoritiesConverter(autoridades);
+        this.conversor.setPrincipalClaimName("userId");
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand()))
+            accessor.setUser(autenticar(accessor.getFirstNativeHeader("Authorization")));
+        return message;
+    }
+
+    private AbstractAuthenticationToken autenticar(String cabecalho) {
+        if (cabecalho == null || !cabecalho.startsWith(PREFIXO_BEARER))
+            throw new MessageDeliveryException("Token ausente no CONNECT");
+        try {
+            return conversor.convert(jwtDecoder.decode(cabecalho.substring(PREFIXO_BEARER.length()).trim()));
+        } catch (JwtException e) {
+            log.debug("CONNECT STOMP recusado: {}", e.getMessage());
+            throw new MessageDeliveryException("Token inválido no CONNECT");
+        }
+    }
+}
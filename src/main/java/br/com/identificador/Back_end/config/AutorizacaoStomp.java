@@ -0,0 +1,85 @@
+package br.com.identificador.Back_end.config;
+
+import br.com.identificador.Back_end.service.RastreamentoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Autorização dos frames STOMP das sessões já autenticadas (AutenticacaoStomp). O broker simples
+ * repassa qualquer destino a quem pedir, então aqui só passam:
+ * <ul>
+ *   <li>SEND para /app/** (os @MessageMapping); nunca direto para /topico ou /fila;</li>
+ *   <li>SUBSCRIBE em /usuario/**, resolvido para as sessões do próprio usuário;</li>
+ *   <li>SUBSCRIBE em /topico/entregas/{id} para loja, cliente e entregador da entrega, ou admin.</li>
+ * </ul>
+ * O resto é recusado com um frame ERROR.
+ */
+@Component
+@Slf4j
+public class AutorizacaoStomp implements ChannelInterceptor {
+
+    private static final Pattern TOPICO_ENTREGA = Pattern.compile("/topico/entregas/(\\d{1,18})");
+
+    private final RastreamentoService rastreamentoService;
+
+    // Lazy: o RastreamentoService depende do SimpMessagingTemplate, criado depois dos interceptors
+    public AutorizacaoStomp(@Lazy RastreamentoService rastreamentoService) {
+        this.rastreamentoService = rastreamentoService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;
+
+        String destino = accessor.getDestination();
+        boolean permitido = switch (accessor.getCommand()) {
+            case SEND -> destino != null && destino.startsWith("/app/");
+            case SUBSCRIBE -> podeAssinar(accessor.getUser(), destino);
+            default -> true;
+        };
+        if (!permitido) {
+            log.warn("{} em {} recusado para {}", accessor.getCommand(), destino,
+                    accessor.getUser() != null ? accessor.getUser().getName() : null);
+            throw new AccessDeniedException(accessor.getCommand() + " não permitido em " + destino);
+        }
+        return message;
+    }
+
+    private boolean podeAssinar(Principal usuario, String destino) {
+        Long usuarioId = idUsuario(usuario);
+        if (usuarioId == null || destino == null) return false;
+        if (destino.startsWith("/usuario/")) return true;
+
+        Matcher entrega = TOPICO_ENTREGA.matcher(destino);
+        return entrega.matches()
+                && (isAdmin(usuario) || rastreamentoService.podeAcompanhar(usuarioId, Long.valueOf(entrega.group(1))));
+    }
+
+    // Nome do usuário da sessão é a claim userId do token
+    private static Long idUsuario(Principal usuario) {
+        if (usuario == null) return null;
+        try {
+            return Long.valueOf(usuario.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isAdmin(Principal usuario) {
+        return usuario instanceof Authentication autenticacao && autenticacao.getAuthorities().stream()
+                .anyMatch(autoridade -> "ROLE_ADMIN".equals(autoridade.getAuthority()));
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.identificador.Back_end.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Escolhe o custo do BCrypt a partir do hardware em que a aplicação sobe: mede o custo
+ * mínimo e, como cada ponto a mais dobra o tempo, estima o maior custo que cabe no alvo.
+ */
+@Slf4j
+final class CalibradorBcrypt {
+
+    private static final String SENHA_AMOSTRA = "calibracao-bcrypt";
+    private static final int AMOSTRAS = 3;
+
+    private CalibradorBcrypt() {
+    }
+
+    static int calibrar(long tempoAlvoMs, int custoMinimo, int custoMaximo) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(custoMinimo);
+        encoder.encode(SENHA_AMOSTRA); // aquecimento
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < AMOSTRAS; i++) encoder.encode(SENHA_AMOSTRA);
+        double msPorHash = (System.nanoTime() - inicio) / 1_000_000.0 / AMOSTRAS;
+
+        int custo = custoMinimo;
+        double estimado = msPorHash;
+        while (custo < custoMaximo && estimado * 2 <= tempoAlvoMs) {
+            custo++;
+            estimado *= 2;
+        }
+
+        log.info("BCrypt calibrado: custo {} (~{} ms por hash, alvo {} ms; custo {} mediu {} ms)",
+                custo, Math.round(estimado), tempoAlvoMs, custoMinimo, Math.round(msPorHash));
+        return custo;
+    }
+}
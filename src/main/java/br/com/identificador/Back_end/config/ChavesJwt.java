@@ -0,0 +1,161 @@
+package br.com.identificador.Back_end.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chaves de assinatura do JWT, persistidas num arquivo JWK Set local para que um restart
+ * não invalide os tokens já emitidos. A primeira chave do conjunto assina; as anteriores
+ * continuam válidas para verificação até saírem da retenção. O kid carrega o algoritmo e
+ * o instante de criação (ex.: RS256-1700000000), usados para decidir a rotação.
+ */
+@Component
+@Slf4j
+public class ChavesJwt {
+
+    @Value("${seguranca.jwt.arquivo-chaves:./chaves/jwt-jwks.json}")
+    private Path arquivo;
+
+    @Value("${seguranca.jwt.algoritmo:RS256}")
+    private String algoritmo;
+
+    @Value("${seguranca.jwt.rotacao-dias:30}")
+    private long rotacaoDias;
+
+    @Value("${seguranca.jwt.chaves-retidas:2}")
+    private int chavesRetidas;
+
+    // Conjuntos já interpretados; trocados por inteiro na rotação
+    private volatile JWKSet conjuntoVerificacao;
+    private volatile JWKSet conjuntoAssinatura;
+
+    @PostConstruct
+    public void carregar() {
+        List<JWK> chaves = new ArrayList<>();
+        if (Files.exists(arquivo)) {
+            try {
+                chaves.addAll(JWKSet.load(arquivo.toFile()).getKeys());
+                log.info("{} chave(s) JWT carregada(s) de {}", chaves.size(), arquivo);
+            } catch (IOException | ParseException e) {
+                throw new IllegalStateException("Erro ao ler chaves JWT de " + arquivo, e);
+            }
+        }
+        publicar(chaves);
+        rotacionarSeNecessario();
+    }
+
+    /**
+     * Gera uma nova chave quando a ativa venceu ou quando o algoritmo configurado mudou
+     */
+    @Scheduled(cron = "${seguranca.jwt.rotacao-cron:0 0 3 * * *}")
+    public synchronized void rotacionarSeNecessario() {
+        List<JWK> chaves = new ArrayList<>(conjuntoVerificacao.getKeys());
+        JWK ativa = chaves.isEmpty() ? null : chaves.get(0);
+
+        boolean vencida = ativa == null
+                || criadaEm(ativa).plus(Duration.ofDays(rotacaoDias)).isBefore(Instant.now());
+        boolean outroAlgoritmo = ativa != null && !algoritmoConfigurado().equals(ativa.getAlgorithm());
+        if (!vencida && !outroAlgoritmo) return;
+
+        chaves.add(0, gerarChave());
+        while (chaves.size() > Math.max(1, chavesRetidas)) chaves.remove(chaves.size() - 1);
+
+        salvar(new JWKSet(chaves));
+        publicar(chaves);
+        log.info("Nova chave JWT ativa: {} ({} chave(s) aceitas para verificação)",
+                chaves.get(0).getKeyID(), chaves.size());
+    }
+
+    /**
+     * Fonte usada pelo encoder: expõe apenas a chave ativa
+     */
+    public JWKSource<SecurityContext> fonteAssinatura() {
+        return (seletor, contexto) -> seletor.select(conjuntoAssinatura);
+    }
+
+    /**
+     * Fonte usada pelo decoder: todas as chaves retidas, selecionadas pelo kid do token
+     */
+    public JWKSource<SecurityContext> fonteVerificacao() {
+        return (seletor, contexto) -> seletor.select(conjuntoVerificacao);
+    }
+
+    public SignatureAlgorithm algoritmoAssinatura() {
+        return SignatureAlgorithm.from(conjuntoAssinatura.getKeys().get(0).getAlgorithm().getName());
+    }
+
+    private void publicar(List<JWK> chaves) {
+        conjuntoVerificacao = new JWKSet(chaves);
+        conjuntoAssinatura = chaves.isEmpty() ? new JWKSet() : new JWKSet(chaves.get(0));
+    }
+
+    private JWSAlgorithm algoritmoConfigurado() {
+        return JWSAlgorithm.ES256.getName().equalsIgnoreCase(algoritmo) ? JWSAlgorithm.ES256 : JWSAlgorithm.RS256;
+    }
+
+    private JWK gerarChave() {
+        JWSAlgorithm alg = algoritmoConfigurado();
+        String kid = alg.getName() + "-" + Instant.now().getEpochSecond();
+        try {
+            if (JWSAlgorithm.ES256.equals(alg)) {
+                return new ECKeyGenerator(Curve.P_256).keyID(kid).algorithm(alg).keyUse(KeyUse.SIGNATURE).generate();
+            }
+            return new RSAKeyGenerator(2048).keyID(kid).algorithm(alg).keyUse(KeyUse.SIGNATURE).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Erro ao gerar chave JWT " + alg, e);
+        }
+    }
+
+    private Instant criadaEm(JWK chave) {
+        String kid = chave.getKeyID();
+        try {
+            return Instant.ofEpochSecond(Long.parseLong(kid.substring(kid.lastIndexOf('-') + 1)));
+        } catch (RuntimeException e) {
+            // kid fora do padrão: trata como vencida para forçar a troca
+            return Instant.EPOCH;
+        }
+    }
+
+    private void salvar(JWKSet conjunto) {
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            Files.createDirectories(diretorio);
+            Path temporario = Files.createTempFile(diretorio, "jwks", ".tmp");
+            try {
+                Files.setPosixFilePermissions(temporario, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                log.debug("Sistema de arquivos sem permissões POSIX: {}", diretorio);
+            }
+            Files.writeString(temporario, conjunto.toString(false), StandardCharsets.UTF_8);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao gravar chaves JWT em " + arquivo, e);
+        }
+    }
+}
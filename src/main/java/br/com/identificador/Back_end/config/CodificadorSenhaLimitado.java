@@ -0,0 +1,94 @@
+package br.com.identificador.Back_end.config;
+
+import br.com.identificador.Back_end.exceptions.SobrecargaHashException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que executa encode/matches num pool próprio e limitado. Picos de login
+ * ficam presos à fila do pool (e são recusados quando ela enche) em vez de ocupar a CPU
+ * das threads que atendem as demais requisições.
+ */
+@Slf4j
+public class CodificadorSenhaLimitado implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejeitadas;
+
+    public CodificadorSenhaLimitado(PasswordEncoder delegate, int threads, int capacidadeFila, MeterRegistry registry) {
+        this.delegate = delegate;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                r -> {
+                    Thread thread = new Thread(r, "hash-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("senha.hash.fila", executor, e -> e.getQueue().size())
+                .description("Operações de hash de senha aguardando na fila")
+                .register(registry);
+        Gauge.builder("senha.hash.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de hash de senha em execução")
+                .register(registry);
+        this.rejeitadas = Counter.builder("senha.hash.rejeitadas")
+                .description("Operações de hash recusadas por fila cheia")
+                .register(registry);
+
+        log.info("Pool de hash de senhas: {} threads, fila de {}", threads, capacidadeFila);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Só inspeciona o prefixo/custo do hash, não precisa do pool
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int tamanhoFila() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        try {
+            return executor.submit(tarefa).get();
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw new SobrecargaHashException("Serviço de autenticação sobrecarregado, tente novamente");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Erro ao processar senha", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Processamento de senha interrompido", e);
+        }
+    }
+}
@@ -1,26 +1,30 @@
 package br.com.identificador.Back_end.config;
 
 import br.com.identificador.Back_end.service.CustomUserDetailsService;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -28,11 +32,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
@@ -42,10 +44,34 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
 
+    @Value("${seguranca.senha.tempo-alvo-ms:250}")
+    private long tempoAlvoHashMs;
+
+    @Value("${seguranca.senha.custo-minimo:10}")
+    private int custoMinimoBcrypt;
+
+    @Value("${seguranca.senha.custo-maximo:14}")
+    private int custoMaximoBcrypt;
+
+    @Value("${seguranca.senha.threads:0}")
+    private int threadsHash;
+
+    @Value("${seguranca.senha.fila:64}")
+    private int filaHash;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
         log.info("Configurando encoder de senha BCrypt");
-        return new BCryptPasswordEncoder();
+        int custo = CalibradorBcrypt.calibrar(tempoAlvoHashMs, custoMinimoBcrypt, custoMaximoBcrypt);
+
+        // Hashes novos saem com prefixo {bcrypt}; os antigos, sem prefixo, continuam válidos
+        // e são regravados no próximo login (upgradeEncoding + UserDetailsPasswordService)
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(custo)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(custo));
+
+        int threads = threadsHash > 0 ? threadsHash : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new CodificadorSenhaLimitado(delegating, threads, filaHash, meterRegistry);
     }
 
     @Bean
@@ -93,7 +119,7 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.decoder(jwtDecoder()))
+                        .jwt(Customizer.withDefaults())
                 )
                 .headers(headers -> headers
                         .frameOptions(frame -> frame.disable())
@@ -147,38 +173,25 @@ public class SecurityConfig {
     }
 
     @Bean
-    public KeyPair keyPair() {
-        try {
-            log.info("Gerando par de chaves RSA para JWT");
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            return keyPairGenerator.generateKeyPair();
-        } catch (Exception e) {
-            log.error("Erro ao gerar par de chaves RSA", e);
-            throw new RuntimeException("Erro ao gerar par de chaves RSA", e);
-        }
-    }
-
-    @Bean
-    public JwtEncoder jwtEncoder() {
+    public JwtEncoder jwtEncoder(ChavesJwt chavesJwt) {
         log.info("Configurando JwtEncoder");
-        KeyPair keyPair = keyPair();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-
-        JWK jwk = new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .build();
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(chavesJwt.fonteAssinatura());
 
-        JWKSource<SecurityContext> jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwks);
+        // Sem cabeçalho explícito, assina com o algoritmo da chave ativa (RS256 ou ES256)
+        return parametros -> parametros.getJwsHeader() != null
+                ? encoder.encode(parametros)
+                : encoder.encode(JwtEncoderParameters.from(
+                        JwsHeader.with(chavesJwt.algoritmoAssinatura()).build(), parametros.getClaims()));
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtDecoder jwtDecoder(ChavesJwt chavesJwt) {
         log.info("Configurando JwtDecoder");
-        KeyPair keyPair = keyPair();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(
+                Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256), chavesJwt.fonteVerificacao()));
+        // Claims validadas pelo NimbusJwtDecoder (expiração etc.)
+        processor.setJWTClaimsSetVerifier((claims, contexto) -> { });
+        return new NimbusJwtDecoder(processor);
     }
 }
\ No newline at end of file
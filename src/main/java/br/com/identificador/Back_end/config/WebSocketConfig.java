@@ -1,7 +1,9 @@
 package br.com.identificador.Back_end.config;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -9,8 +11,12 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 @Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final AutenticacaoStomp autenticacaoStomp;
+    private final AutorizacaoStomp autorizacaoStomp;
     
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
@@ -40,5 +46,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("*")
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Frames dos clientes passam pela autenticação e pela autorização antes dos @MessageMapping e do broker
+        registration.interceptors(autenticacaoStomp, autorizacaoStomp);
+    }
 }
 
@@ -1,8 +1,10 @@
 package br.com.identificador.Back_end.controller;
 
 import br.com.identificador.Back_end.dto.LoginDTO;
+import br.com.identificador.Back_end.exceptions.SobrecargaHashException;
 import br.com.identificador.Back_end.model.User;
 import br.com.identificador.Back_end.service.CustomUserDetailsService;
+import br.com.identificador.Back_end.service.UsuarioAutenticado;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +16,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -113,6 +116,10 @@ public class AuthController {
                     """)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Fila de verificação de senhas cheia, tente novamente em instantes"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Erro interno no servidor"
@@ -130,9 +137,11 @@ public class AuthController {
                     )
             );
 
-            // Busca dados completos do usuário
-            User user = userDetailsService.findCompleteUserByEmail(loginDTO.email())
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            // Reaproveita o usuário carregado na autenticação, sem nova consulta
+            User user = authentication.getPrincipal() instanceof UsuarioAutenticado autenticado
+                    ? autenticado.getUsuario()
+                    : userDetailsService.findCompleteUserByEmail(loginDTO.email())
+                            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
             // Determina o tipo de usuário
             String userType = user.getClass().getSimpleName();
@@ -179,6 +188,14 @@ public class AuthController {
             errorResponse.put("error", "Credenciais inválidas");
             errorResponse.put("message", "Email ou senha incorretos");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        } catch (SobrecargaHashException e) {
+            log.warn("Login recusado por sobrecarga do hashing de senhas: {}", loginDTO.email());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Serviço indisponível");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorResponse);
         } catch (Exception e) {
             log.error("Erro no login: ", e);
             Map<String, Object> errorResponse = new HashMap<>();
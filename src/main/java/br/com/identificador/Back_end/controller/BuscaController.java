@@ -0,0 +1,83 @@
+package br.com.identificador.Back_end.controller;
+
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
+import br.com.identificador.Back_end.service.BuscaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/busca")
+@RequiredArgsConstructor
+@Tag(name = "Busca", description = "Busca de usuários por nome e de lojas por endereço, com resultados à medida que se digita")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class BuscaController {
+
+    private final BuscaService buscaService;
+
+    @GetMapping("/usuarios")
+    @Operation(summary = "Buscar usuários por nome",
+            description = "Ignora acentos e maiúsculas; cada termo pode ser trecho ou início de palavra. " +
+                    "Mais relevantes primeiro, paginado por cursor")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de usuários encontrados"),
+            @ApiResponse(responseCode = "400", description = "Termo, cursor ou tamanho de página inválido"),
+            @ApiResponse(responseCode = "503", description = "Índice de busca ainda carregando"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<?> buscarUsuarios(
+            @RequestParam @Parameter(description = "Termo de busca", example = "joao sil") String q,
+            @RequestParam(required = false) @Parameter(description = "Restringe a um tipo de usuário") TipoUsuario tipo,
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (!buscaService.isPronto()) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        try {
+            return ResponseEntity.ok(buscaService.buscarPorNome(q, tipo, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erro ao buscar usuários por '{}': {}", q, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/lojas")
+    @Operation(summary = "Buscar lojas por endereço",
+            description = "Ignora acentos e maiúsculas; mais relevantes primeiro, paginado por cursor")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de lojas encontradas"),
+            @ApiResponse(responseCode = "400", description = "Termo, cursor ou tamanho de página inválido"),
+            @ApiResponse(responseCode = "503", description = "Índice de busca ainda carregando"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<?> buscarLojasPorEndereco(
+            @RequestParam @Parameter(description = "Trecho do endereço", example = "av principal centro") String endereco,
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (!buscaService.isPronto()) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        try {
+            return ResponseEntity.ok(buscaService.buscarLojasPorEndereco(endereco, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erro ao buscar lojas por endereço '{}': {}", endereco, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
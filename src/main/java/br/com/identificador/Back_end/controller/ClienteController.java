@@ -1,6 +1,7 @@
 package br.com.identificador.Back_end.controller;
 
 import br.com.identificador.Back_end.dto.ClienteRegistroDTO;
+import br.com.identificador.Back_end.exceptions.SobrecargaHashException;
 import br.com.identificador.Back_end.model.Cliente;
 import br.com.identificador.Back_end.service.ClienteService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -41,7 +44,7 @@ public class ClienteController {
                 Cria um novo cliente no sistema.
                 
                 **Validações automáticas:**
-                - Email único
+                - Email único entre todos os usuários (sem diferenciar maiúsculas)
                 - CPF único (se fornecido)
                 - Senha criptografada automaticamente
                 
@@ -83,7 +86,9 @@ public class ClienteController {
                     }
                     """)
                     )
-            )
+            ),
+            @ApiResponse(responseCode = "409", description = "Email cadastrado por outra requisição ao mesmo tempo"),
+            @ApiResponse(responseCode = "503", description = "Hashing de senhas sobrecarregado; tentar de novo após Retry-After")
     })
     public ResponseEntity<Map<String, Object>> registrarCliente(@Valid @RequestBody ClienteRegistroDTO dto) {
         try {
@@ -97,6 +102,16 @@ public class ClienteController {
             response.put("endereco", cliente.getEndereco());
             log.info("Cliente registrado: ID {}", cliente.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro concorrente com o mesmo email passou pela checagem e caiu no índice único
+            log.warn("Conflito ao registrar cliente {}: {}", dto.email(), e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Email já cadastrado", "message", "Este email já está em uso"));
+        } catch (SobrecargaHashException e) {
+            log.warn("Cadastro de cliente recusado por sobrecarga do hashing de senhas: {}", dto.email());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Serviço indisponível", "message", e.getMessage()));
         } catch (RuntimeException e) {
             log.error("Erro ao registrar cliente: {}", e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
@@ -176,7 +191,7 @@ public class ClienteController {
     @GetMapping("/ativos")
     @Operation(
             summary = "Listar clientes ativos",
-            description = "Retorna clientes que já fizeram pelo menos 1 pedido"
+            description = "Retorna clientes que já fizeram pelo menos 1 pedido, dos que mais pediram para os que menos pediram, com os contadores de pedidos"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de clientes ativos")
@@ -191,6 +206,10 @@ public class ClienteController {
                     map.put("nome", cliente.getNome());
                     map.put("email", cliente.getEmail());
                     map.put("telefone", cliente.getTelefone());
+                    map.put("totalPedidos", cliente.getTotalPedidos());
+                    map.put("pedidosEntregues", cliente.getPedidosEntregues());
+                    map.put("pedidosCancelados", cliente.getPedidosCancelados());
+                    map.put("ultimoPedidoEm", cliente.getUltimoPedidoEm());
                     return map;
                 })
                 .collect(Collectors.toList());
@@ -230,6 +249,10 @@ public class ClienteController {
             response.put("endereco", cliente.getEndereco());
             log.info("Cliente atualizado: ID {}", id);
             return ResponseEntity.ok(response);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Conflito ao atualizar cliente {}: {}", id, e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Email já cadastrado", "message", "Este email já está em uso"));
         } catch (RuntimeException e) {
             log.error("Erro ao atualizar cliente {}: {}", id, e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
@@ -3,6 +3,9 @@ package br.com.identificador.Back_end.controller;
 import br.com.identificador.Back_end.dto.AtualizarStatusEntregaDTO;
 import br.com.identificador.Back_end.dto.CriarEntregaDTO;
 import br.com.identificador.Back_end.dto.EntregaDTO;
+import br.com.identificador.Back_end.dto.LoteEntregasDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.exceptions.ConflitoAceitacaoException;
 import br.com.identificador.Back_end.service.EntregaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,6 +22,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/entregas")
@@ -28,6 +32,8 @@ import java.util.List;
 @Slf4j
 public class EntregaController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     private final EntregaService entregaService;
 
     @PostMapping
@@ -52,12 +58,32 @@ public class EntregaController {
         }
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Criar entregas em lote", description = "Importação de pedidos de integrações: tudo ou nada, com INSERTs em batch")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Entregas criadas; devolve os ids na ordem do pedido"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos, lote grande demais ou loja/cliente não encontrados"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<Map<String, Object>> criarEntregasEmLote(@Valid @RequestBody LoteEntregasDTO dto) {
+        try {
+            List<Long> ids = entregaService.criarEntregasEmLote(dto.entregas());
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("criadas", ids.size(), "ids", ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erro ao criar entregas em lote: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/{entregaId}/aceitar")
     @Operation(summary = "Aceitar entrega")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Entrega aceita"),
             @ApiResponse(responseCode = "400", description = "Entrega não disponível ou entregador ocupado"),
             @ApiResponse(responseCode = "404", description = "Entrega ou entregador não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Entrega já aceita por outro entregador"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<EntregaDTO> aceitarEntrega(
@@ -66,6 +92,9 @@ public class EntregaController {
         try {
             EntregaDTO entregaAceita = entregaService.aceitarEntrega(entregaId, entregadorId);
             return ResponseEntity.ok(entregaAceita);
+        } catch (ConflitoAceitacaoException e) {
+            log.info("Entrega {} não aceita por {}: {}", entregaId, entregadorId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             log.error("Erro ao aceitar entrega {} por entregador {}: {}", entregaId, entregadorId, e.getMessage(), e);
             if (e.getMessage() != null &&
@@ -82,8 +111,9 @@ public class EntregaController {
     @Operation(summary = "Atualizar status da entrega")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Status atualizado"),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou retorno a uma etapa anterior"),
             @ApiResponse(responseCode = "404", description = "Entrega não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Entregador já tem outra entrega em andamento"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<EntregaDTO> atualizarStatus(
@@ -92,6 +122,12 @@ public class EntregaController {
         try {
             EntregaDTO entregaAtualizada = entregaService.atualizarStatusEntrega(entregaId, dto);
             return ResponseEntity.ok(entregaAtualizada);
+        } catch (IllegalArgumentException e) {
+            log.info("Status da entrega {} não atualizado: {}", entregaId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (ConflitoAceitacaoException e) {
+            log.info("Status da entrega {} não atualizado: {}", entregaId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             log.error("Erro ao atualizar status da entrega {}: {}", entregaId, e.getMessage(), e);
             if (e.getMessage() != null &&
@@ -104,15 +140,21 @@ public class EntregaController {
     }
 
     @GetMapping("/pendentes")
-    @Operation(summary = "Listar entregas pendentes")
+    @Operation(summary = "Listar entregas pendentes", description = "Mais antigas primeiro, paginado por cursor")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de entregas pendentes"),
+            @ApiResponse(responseCode = "200", description = "Página de entregas pendentes"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    public ResponseEntity<List<EntregaDTO>> listarPendentes() {
+    public ResponseEntity<PaginaCursorDTO<EntregaDTO>> listarPendentes(
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) return ResponseEntity.badRequest().build();
+
         try {
-            List<EntregaDTO> pendentes = entregaService.buscarEntregasPendentes();
-            return ResponseEntity.ok(pendentes);
+            return ResponseEntity.ok(entregaService.buscarEntregasPendentes(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao listar entregas pendentes: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -120,16 +162,22 @@ public class EntregaController {
     }
 
     @GetMapping("/entregador/{entregadorId}")
-    @Operation(summary = "Entregas de um entregador")
+    @Operation(summary = "Entregas de um entregador", description = "Mais recentes primeiro, paginado por cursor")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de entregas"),
+            @ApiResponse(responseCode = "200", description = "Página de entregas"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    public ResponseEntity<List<EntregaDTO>> listarPorEntregador(
-            @PathVariable @Parameter(description = "ID do entregador") Long entregadorId) {
+    public ResponseEntity<PaginaCursorDTO<EntregaDTO>> listarPorEntregador(
+            @PathVariable @Parameter(description = "ID do entregador") Long entregadorId,
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "100") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) return ResponseEntity.badRequest().build();
+
         try {
-            List<EntregaDTO> entregas = entregaService.buscarEntregasDoEntregador(entregadorId);
-            return ResponseEntity.ok(entregas);
+            return ResponseEntity.ok(entregaService.buscarEntregasDoEntregador(entregadorId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao listar entregas do entregador {}: {}", entregadorId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -137,17 +185,23 @@ public class EntregaController {
     }
 
     @GetMapping("/loja/{lojaId}")
-    @Operation(summary = "Entregas de uma loja")
+    @Operation(summary = "Entregas de uma loja", description = "Mais recentes primeiro, paginado por cursor")
     @PreAuthorize("hasRole('LOJA')")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de entregas da loja"),
+            @ApiResponse(responseCode = "200", description = "Página de entregas da loja"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    public ResponseEntity<List<EntregaDTO>> listarPorLoja(
-            @PathVariable @Parameter(description = "ID da loja") Long lojaId) {
+    public ResponseEntity<PaginaCursorDTO<EntregaDTO>> listarPorLoja(
+            @PathVariable @Parameter(description = "ID da loja") Long lojaId,
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "100") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) return ResponseEntity.badRequest().build();
+
         try {
-            List<EntregaDTO> entregas = entregaService.buscarEntregasDaLoja(lojaId);
-            return ResponseEntity.ok(entregas);
+            return ResponseEntity.ok(entregaService.buscarEntregasDaLoja(lojaId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao listar entregas da loja {}: {}", lojaId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -155,17 +209,23 @@ public class EntregaController {
     }
 
     @GetMapping("/cliente/{clienteId}")
-    @Operation(summary = "Entregas de um cliente")
+    @Operation(summary = "Entregas de um cliente", description = "Mais recentes primeiro, paginado por cursor")
     @PreAuthorize("hasRole('CLIENTE')")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de entregas do cliente"),
+            @ApiResponse(responseCode = "200", description = "Página de entregas do cliente"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
-    public ResponseEntity<List<EntregaDTO>> listarPorCliente(
-            @PathVariable @Parameter(description = "ID do cliente") Long clienteId) {
+    public ResponseEntity<PaginaCursorDTO<EntregaDTO>> listarPorCliente(
+            @PathVariable @Parameter(description = "ID do cliente") Long clienteId,
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "100") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) return ResponseEntity.badRequest().build();
+
         try {
-            List<EntregaDTO> entregas = entregaService.buscarEntregasDoCliente(clienteId);
-            return ResponseEntity.ok(entregas);
+            return ResponseEntity.ok(entregaService.buscarEntregasDoCliente(clienteId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao listar entregas do cliente {}: {}", clienteId, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1,10 +1,14 @@
 package br.com.identificador.Back_end.controller;
 
 import br.com.identificador.Back_end.dto.EntregadorRegistroDTO;
+import br.com.identificador.Back_end.dto.LoteEntregadoresDTO;
+import br.com.identificador.Back_end.dto.PerfilDTO;
+import br.com.identificador.Back_end.exceptions.SobrecargaHashException;
 import br.com.identificador.Back_end.model.Entregador;
 import br.com.identificador.Back_end.model.enuns.Aplicativo;
 import br.com.identificador.Back_end.model.enuns.StatusEntregador;
 import br.com.identificador.Back_end.service.EntregadorService;
+import br.com.identificador.Back_end.service.RegistroDisponibilidade;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +20,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -69,7 +75,9 @@ public class EntregadorController {
                     """)
                     )
             ),
-            @ApiResponse(responseCode = "400", description = "Email ou CPF já cadastrado")
+            @ApiResponse(responseCode = "400", description = "Email ou CPF já cadastrado"),
+            @ApiResponse(responseCode = "409", description = "Email ou CPF cadastrado por outra requisição ao mesmo tempo"),
+            @ApiResponse(responseCode = "503", description = "Hashing de senhas sobrecarregado; tentar de novo após Retry-After")
     })
     public ResponseEntity<Map<String, Object>> registrarEntregador(@Valid @RequestBody EntregadorRegistroDTO dto) {
         try {
@@ -85,6 +93,15 @@ public class EntregadorController {
         } catch (IllegalArgumentException e) {
             log.error("Erro ao registrar: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro concorrente com o mesmo email ou CPF passou pela checagem e caiu no índice único
+            log.warn("Conflito ao registrar entregador {}: {}", dto.email(), e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Email ou CPF já cadastrado"));
+        } catch (SobrecargaHashException e) {
+            log.warn("Cadastro de entregador recusado por sobrecarga do hashing de senhas: {}", dto.email());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", e.getMessage()));
         }
     }
 
@@ -96,13 +113,13 @@ public class EntregadorController {
     })
     public ResponseEntity<Map<String, Object>> buscarPorId(@Parameter(description = "ID do entregador") @PathVariable Long id) {
         try {
-            Entregador entregador = entregadorService.buscarPorId(id);
+            PerfilDTO perfil = entregadorService.buscarPerfilPorId(id);
             Map<String, Object> response = new HashMap<>();
-            response.put("id", entregador.getId());
-            response.put("nome", entregador.getNome());
-            response.put("email", entregador.getEmail());
-            response.put("status", entregador.getStatus());
-            response.put("qrCodeUuid", entregador.getQrCodeUuid());
+            response.put("id", perfil.id());
+            response.put("nome", perfil.nome());
+            response.put("email", perfil.email());
+            response.put("status", perfil.status());
+            response.put("qrCodeUuid", perfil.qrCodeUuid());
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -113,11 +130,11 @@ public class EntregadorController {
     @Operation(summary = "Buscar por QR Code", description = "Validação de QR Code para app mobile")
     public ResponseEntity<Map<String, Object>> buscarPorQrCode(@Parameter(description = "UUID do QR Code") @PathVariable String qrCode) {
         try {
-            Entregador entregador = entregadorService.buscarPorQrCode(qrCode);
+            PerfilDTO perfil = entregadorService.buscarPerfilPorQrCode(qrCode);
             Map<String, Object> response = new HashMap<>();
-            response.put("id", entregador.getId());
-            response.put("nome", entregador.getNome());
-            response.put("status", entregador.getStatus());
+            response.put("id", perfil.id());
+            response.put("nome", perfil.nome());
+            response.put("status", perfil.status());
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -125,17 +142,47 @@ public class EntregadorController {
     }
 
     @GetMapping("/disponiveis")
-    @Operation(summary = "Listar entregadores disponíveis")
+    @Operation(summary = "Listar entregadores disponíveis", description = "Opcionalmente filtrados por aplicativo")
     @PreAuthorize("hasRole('LOJA') or hasRole('ADMIN')")
-    public ResponseEntity<List<Map<String, Object>>> listarDisponiveis() {
-        List<Entregador> entregadores = entregadorService.buscarDisponiveis();
+    public ResponseEntity<List<Map<String, Object>>> listarDisponiveis(
+            @Parameter(description = "Aplicativo exigido") @RequestParam(required = false) Aplicativo aplicativo) {
+        List<RegistroDisponibilidade.Situacao> entregadores = entregadorService.buscarDisponiveis(aplicativo);
         List<Map<String, Object>> response = entregadores.stream()
                 .map(e -> {
                     Map<String, Object> map = new HashMap<>();
-                    map.put("id", e.getId());
-                    map.put("nome", e.getNome());
-                    map.put("avaliacao", e.getAvaliacaoMedia());
-                    map.put("totalEntregas", e.getTotalEntregas());
+                    map.put("id", e.id());
+                    map.put("nome", e.nome());
+                    map.put("avaliacao", e.avaliacaoMedia());
+                    map.put("totalEntregas", e.totalEntregas());
+                    return map;
+                })
+                .collect(java.util.stream.Collectors.toList());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/proximos")
+    @Operation(summary = "Entregadores disponíveis mais próximos",
+            description = "Pela última posição enviada por cada entregador; opcionalmente filtrados por aplicativo")
+    @PreAuthorize("hasRole('LOJA') or hasRole('ADMIN')")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Entregadores do mais perto ao mais longe"),
+            @ApiResponse(responseCode = "400", description = "Coordenadas ou limite inválidos")
+    })
+    public ResponseEntity<List<Map<String, Object>>> listarProximos(
+            @Parameter(description = "Latitude do ponto de coleta") @RequestParam double latitude,
+            @Parameter(description = "Longitude do ponto de coleta") @RequestParam double longitude,
+            @Parameter(description = "Quantidade máxima (1-50)") @RequestParam(defaultValue = "10") int limite,
+            @Parameter(description = "Aplicativo exigido") @RequestParam(required = false) Aplicativo aplicativo) {
+        if (limite < 1 || limite > 50 || Math.abs(latitude) > 90 || Math.abs(longitude) > 180)
+            return ResponseEntity.badRequest().build();
+
+        List<Map<String, Object>> response = entregadorService.buscarProximos(latitude, longitude, limite, aplicativo).stream()
+                .map(p -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", p.entregadorId());
+                    map.put("distanciaKm", p.distanciaKm());
+                    map.put("latitude", p.latitude());
+                    map.put("longitude", p.longitude());
                     return map;
                 })
                 .collect(java.util.stream.Collectors.toList());
@@ -152,13 +199,13 @@ public class EntregadorController {
             @Parameter(description = "Quantidade máxima (1-50)") @PathVariable int limite) {
         if (limite < 1 || limite > 50) return ResponseEntity.badRequest().build();
 
-        List<Entregador> entregadores = entregadorService.buscarMelhoresAvaliados(limite);
+        List<RegistroDisponibilidade.Classificacao> entregadores = entregadorService.buscarMelhoresAvaliados(limite);
         List<Map<String, Object>> response = entregadores.stream()
                 .map(e -> {
                     Map<String, Object> map = new HashMap<>();
-                    map.put("id", e.getId());
-                    map.put("nome", e.getNome());
-                    map.put("avaliacao", e.getAvaliacaoMedia());
+                    map.put("id", e.id());
+                    map.put("nome", e.nome());
+                    map.put("avaliacao", e.avaliacaoMedia());
                     return map;
                 })
                 .collect(java.util.stream.Collectors.toList());
@@ -195,6 +242,7 @@ public class EntregadorController {
             return ResponseEntity.ok(Map.of(
                     "id", entregador.getId(),
                     "novaAvaliacao", entregador.getAvaliacaoMedia(),
+                    "totalAvaliacoes", entregador.getNumAvaliacoes(),
                     "totalEntregas", entregador.getTotalEntregas()
             ));
         } catch (IllegalArgumentException e) {
@@ -219,6 +267,8 @@ public class EntregadorController {
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Email ou CPF já cadastrado"));
         }
     }
 
@@ -235,6 +285,44 @@ public class EntregadorController {
         }
     }
 
+    @PutMapping("/lote/status")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Atualizar status em lote", description = "Troca de turno: um UPDATE por bloco de ids, numa única transação")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Quantidade de entregadores atualizados"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, grande demais ou sem status")
+    })
+    public ResponseEntity<Map<String, Object>> atualizarStatusEmLote(@Valid @RequestBody LoteEntregadoresDTO dto) {
+        try {
+            int atualizados = entregadorService.atualizarStatusEmLote(dto.ids(), dto.status());
+            return ResponseEntity.ok(Map.of("solicitados", dto.ids().size(), "atualizados", atualizados));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/lote/remocao")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Deletar entregadores em lote", description = "Ids inexistentes são ignorados")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Quantidade de entregadores removidos"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou grande demais"),
+            @ApiResponse(responseCode = "409", description = "Algum entregador possui entregas registradas")
+    })
+    public ResponseEntity<Map<String, Object>> deletarEmLote(@Valid @RequestBody LoteEntregadoresDTO dto) {
+        try {
+            int removidos = entregadorService.deletarEntregadoresEmLote(dto.ids());
+            return ResponseEntity.ok(Map.of("solicitados", dto.ids().size(), "removidos", removidos));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Entregadores com entregas registradas não podem ser removidos"));
+        }
+    }
+
     @PostMapping("/qr/regenerar/{id}")
     @SecurityRequirement(name = "bearer-jwt")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ENTREGADOR')")
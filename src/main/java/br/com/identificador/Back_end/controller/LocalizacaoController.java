@@ -0,0 +1,128 @@
+package br.com.identificador.Back_end.controller;
+
+import br.com.identificador.Back_end.dto.LocalizacaoDTO;
+import br.com.identificador.Back_end.dto.LotePosicoesDTO;
+import br.com.identificador.Back_end.dto.PosicaoDTO;
+import br.com.identificador.Back_end.service.LocalizacaoService;
+import br.com.identificador.Back_end.service.RastreamentoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Entrada das posições dos entregadores: pings ao vivo via STOMP em /app/localizacao e
+ * lotes HTTP com o que o aplicativo acumulou sem sinal. Nos dois caminhos o entregador é o
+ * do token (sessão STOMP autenticada no CONNECT pelo AutenticacaoStomp, ou Bearer no HTTP).
+ * Quem acompanha uma entrega recebe as posições em /topico/entregas/{id}.
+ */
+@RestController
+@RequestMapping("/api/localizacoes")
+@RequiredArgsConstructor
+@Tag(name = "Localização", description = "Ingestão e consulta de posições dos entregadores")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class LocalizacaoController {
+
+    private final LocalizacaoService localizacaoService;
+    private final RastreamentoService rastreamentoService;
+
+    @MessageMapping("/localizacao")
+    public void receberLocalizacao(@Valid @Payload LocalizacaoDTO localizacao, Principal principal) {
+        if (!localizacao.entregadorId().equals(idAutenticado(principal))) {
+            log.warn("Posição do entregador {} recusada para {}", localizacao.entregadorId(),
+                    principal != null ? principal.getName() : null);
+            return;
+        }
+
+        if (!localizacaoService.registrar(localizacao.entregadorId(), localizacao.latitude(),
+                localizacao.longitude(), System.currentTimeMillis()))
+            log.debug("Posição do entregador {} descartada", localizacao.entregadorId());
+    }
+
+    @PostMapping("/lote")
+    @Operation(summary = "Enviar lote de posições",
+            description = "Pontos no formato compacto [latitude, longitude, epoch ms]; pontos inválidos são ignorados")
+    @PreAuthorize("hasRole('ENTREGADOR')")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Posições enfileiradas"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite"),
+            @ApiResponse(responseCode = "403", description = "Lote de outro entregador que não o autenticado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<?> enviarLote(@Valid @RequestBody LotePosicoesDTO lote,
+                                        @Parameter(hidden = true) Authentication authentication) {
+        if (!lote.entregadorId().equals(idAutenticado(authentication))) {
+            log.warn("Lote de posições do entregador {} recusado para {}", lote.entregadorId(),
+                    authentication != null ? authentication.getName() : null);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Entregador do lote diferente do autenticado"));
+        }
+
+        try {
+            int aceitos = localizacaoService.registrarLote(lote);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "recebidos", lote.pontos().size(),
+                    "aceitos", aceitos
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erro ao registrar lote de posições do entregador {}: {}", lote.entregadorId(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/entregadores/{entregadorId}")
+    @Operation(summary = "Última posição conhecida do entregador",
+            description = "Só para o próprio entregador, a loja ou o cliente da entrega em andamento dele, ou um administrador")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Posição encontrada"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem relação com o entregador"),
+            @ApiResponse(responseCode = "404", description = "Nenhuma posição recebida deste entregador")
+    })
+    public ResponseEntity<PosicaoDTO> buscarUltimaPosicao(
+            @PathVariable @Parameter(description = "ID do entregador") Long entregadorId,
+            @Parameter(hidden = true) Authentication authentication) {
+        Long usuarioId = idAutenticado(authentication);
+        if (!entregadorId.equals(usuarioId) && !isAdmin(authentication)
+                && !rastreamentoService.acompanhaEntregador(usuarioId, entregadorId)) {
+            log.warn("Posição do entregador {} recusada para {}", entregadorId,
+                    authentication != null ? authentication.getName() : null);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return localizacaoService.buscarUltimaPosicao(entregadorId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Id do usuário na claim userId do token emitido no login (AuthController)
+    private static Long idAutenticado(Principal principal) {
+        if (principal instanceof Authentication authentication && authentication.getPrincipal() instanceof Jwt jwt
+                && jwt.getClaim("userId") instanceof Number userId)
+            return userId.longValue();
+        return null;
+    }
+
+    private static boolean isAdmin(Principal principal) {
+        return principal instanceof Authentication authentication && authentication.getPrincipal() instanceof Jwt jwt
+                && "ROLE_ADMIN".equals(jwt.getClaimAsString("role"));
+    }
+}
@@ -1,6 +1,9 @@
 package br.com.identificador.Back_end.controller;
 
 import br.com.identificador.Back_end.dto.LojaRegistroDTO;
+import br.com.identificador.Back_end.dto.LojaResumoDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.exceptions.SobrecargaHashException;
 import br.com.identificador.Back_end.model.Loja;
 import br.com.identificador.Back_end.service.LojaService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,10 +15,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,6 +34,8 @@ import java.util.List;
 @Slf4j
 public class LojaController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     private final LojaService lojaService;
 
     @PostMapping
@@ -34,12 +43,21 @@ public class LojaController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Loja criada com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos ou email/CNPJ duplicado"),
-            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+            @ApiResponse(responseCode = "409", description = "Email cadastrado por outra requisição ao mesmo tempo"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor"),
+            @ApiResponse(responseCode = "503", description = "Hashing de senhas sobrecarregado; tentar de novo após Retry-After")
     })
     public ResponseEntity<Loja> registrarLoja(@Valid @RequestBody LojaRegistroDTO dto) {
         try {
             Loja lojaSalva = lojaService.registrarLoja(dto);
             return ResponseEntity.status(HttpStatus.CREATED).body(lojaSalva);
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro concorrente com o mesmo email passou pela checagem e caiu no índice único
+            log.warn("Conflito ao registrar loja {}: {}", dto.email(), e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (SobrecargaHashException e) {
+            log.warn("Cadastro de loja recusado por sobrecarga do hashing de senhas: {}", dto.email());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             log.error("Erro ao registrar loja: {}", e.getMessage(), e);
             if (e.getMessage() != null &&
@@ -52,22 +70,44 @@ public class LojaController {
     }
 
     @GetMapping
-    @Operation(summary = "Listar todas as lojas")
+    @Operation(summary = "Listar lojas", description = "Em ordem de cadastro (id), paginado por cursor; todas de uma vez em /exportar")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de lojas retornada"),
+            @ApiResponse(responseCode = "200", description = "Página de lojas"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Loja>> listarTodas() {
+    public ResponseEntity<PaginaCursorDTO<LojaResumoDTO>> listarTodas(
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) return ResponseEntity.badRequest().build();
+
         try {
-            List<Loja> lojas = lojaService.listarTodas();
-            return ResponseEntity.ok(lojas);
+            return ResponseEntity.ok(lojaService.listarResumos(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao listar todas as lojas: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar todas as lojas",
+            description = "NDJSON com uma loja por linha, transmitido enquanto é lido do banco")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lojas em NDJSON")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarTodas() {
+        StreamingResponseBody corpo = saida -> lojaService.exportarResumos(saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=lojas.ndjson")
+                .body(corpo);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar loja por ID")
     @ApiResponses({
@@ -142,6 +182,7 @@ public class LojaController {
             @ApiResponse(responseCode = "200", description = "Loja atualizada com sucesso"),
             @ApiResponse(responseCode = "404", description = "Loja não encontrada"),
             @ApiResponse(responseCode = "400", description = "Email duplicado"),
+            @ApiResponse(responseCode = "409", description = "Email cadastrado por outra requisição ao mesmo tempo"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PreAuthorize("hasRole('LOJA') or hasRole('ADMIN')")
@@ -151,6 +192,9 @@ public class LojaController {
         try {
             Loja lojaAtualizada = lojaService.atualizarLoja(id, dto);
             return ResponseEntity.ok(lojaAtualizada);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Conflito ao atualizar loja ID {}: {}", id, e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             log.error("Erro ao atualizar loja ID {}: {}", id, e.getMessage(), e);
             if (e.getMessage() != null && e.getMessage().toLowerCase().contains("not found"))
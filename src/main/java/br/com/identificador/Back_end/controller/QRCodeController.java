@@ -1,6 +1,8 @@
 package br.com.identificador.Back_end.controller;
 
+import br.com.identificador.Back_end.dto.LoteQRCodeDTO;
 import br.com.identificador.Back_end.model.QRCode;
+import br.com.identificador.Back_end.service.LoteQRCodeService;
 import br.com.identificador.Back_end.service.QRCodeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,10 +12,17 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/qrcodes")
@@ -22,9 +31,13 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class QRCodeController {
 
+    // Imagem é função exclusiva dos parâmetros: pode ficar no cliente, revalidando pelo ETag
+    private static final CacheControl CACHE_IMAGEM = CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate();
+
     private final QRCodeService qrCodeService;
+    private final LoteQRCodeService loteQRCodeService;
 
-    @PostMapping(value = "/generate", produces = MediaType.IMAGE_PNG_VALUE)
+    @PostMapping(value = "/generate", produces = {MediaType.IMAGE_PNG_VALUE, "image/svg+xml", MediaType.IMAGE_JPEG_VALUE})
     @Operation(summary = "Gerar QR Code", description = "Gera imagem QR Code a partir do texto fornecido")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "QR Code gerado com sucesso", content = @io.swagger.v3.oas.annotations.media.Content(mediaType = "image/png")),
@@ -34,16 +47,18 @@ public class QRCodeController {
             @Valid @RequestBody QRCode qrCodeRequest) {
         
         try {
-            byte[] qrCodeImage = qrCodeService.generateQRCodeImage(qrCodeRequest);
+            QRCodeService.ImagemQRCode imagem = qrCodeService.renderizar(qrCodeRequest);
+            String extensao = qrCodeRequest.getFormat() != null ? qrCodeRequest.getFormat().toLowerCase() : "png";
             
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentLength(qrCodeImage.length);
-            headers.set("Content-Disposition", "inline; filename=qrcode.png");
+            headers.setContentType(tipoConteudo(extensao));
+            headers.setContentLength(imagem.bytes().length);
+            headers.setETag(imagem.etag());
+            headers.set("Content-Disposition", "inline; filename=qrcode." + extensao);
             
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(qrCodeImage);
+                    .body(imagem.bytes());
                     
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -77,23 +92,76 @@ public class QRCodeController {
     }
 
     @GetMapping("/preview/{text}")
-    @Operation(summary = "Preview QR Code", description = "Gera QR Code para visualização direta no browser")
+    @Operation(summary = "Preview QR Code", description = "Gera QR Code para visualização direta no browser. Suporta If-None-Match (ETag).")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "QR Code exibido", content = @io.swagger.v3.oas.annotations.media.Content(mediaType = "image/png"))
+        @ApiResponse(responseCode = "200", description = "QR Code exibido", content = @io.swagger.v3.oas.annotations.media.Content(mediaType = "image/png")),
+        @ApiResponse(responseCode = "304", description = "Imagem em cache no cliente continua válida")
     })
     public ResponseEntity<byte[]> previewQRCode(
-            @PathVariable @Parameter(description = "Texto para QR Code") String text) {
+            @PathVariable @Parameter(description = "Texto para QR Code") String text,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
-            byte[] qrCodeImage = qrCodeService.generateQRCodeImage(text);
+            QRCode qrCode = new QRCode(text);
+            String etag = qrCodeService.etag(qrCode);
+            if (etagConfere(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CACHE_IMAGEM)
+                        .build();
+            }
+
+            QRCodeService.ImagemQRCode imagem = qrCodeService.renderizar(qrCode);
             
             return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_PNG)
+                    .eTag(imagem.etag())
+                    .cacheControl(CACHE_IMAGEM)
                     .header("Content-Disposition", "inline; filename=qrcode-" + text.hashCode() + ".png")
-                    .body(qrCodeImage);
+                    .body(imagem.bytes());
                     
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @PostMapping(value = "/lote", produces = "application/zip")
+    @Operation(summary = "Gerar QR Codes em lote",
+            description = "Gera os crachás (QR Code do qrCodeUuid de cada entregador e/ou textos avulsos) em paralelo e devolve um ZIP transmitido à medida que as imagens ficam prontas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Arquivo ZIP com uma imagem por item", content = @io.swagger.v3.oas.annotations.media.Content(mediaType = "application/zip")),
+        @ApiResponse(responseCode = "400", description = "Lote vazio, grande demais, formato inválido ou entregadores inexistentes")
+    })
+    public ResponseEntity<?> gerarLote(@Valid @RequestBody LoteQRCodeDTO dto) {
+        try {
+            List<LoteQRCodeService.ItemLote> itens = loteQRCodeService.prepararLote(dto);
+            StreamingResponseBody corpo = saida -> loteQRCodeService.escreverZip(itens, saida);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.valueOf("application/zip"))
+                    .header("Content-Disposition", "attachment; filename=qrcodes.zip")
+                    .body(corpo);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+        }
+    }
+
+    private MediaType tipoConteudo(String extensao) {
+        return switch (extensao) {
+            case "svg" -> MediaType.valueOf("image/svg+xml");
+            case "jpg", "jpeg" -> MediaType.IMAGE_JPEG;
+            default -> MediaType.IMAGE_PNG;
+        };
+    }
+
+    // If-None-Match pode trazer vários ETags separados por vírgula, ou "*"
+    private boolean etagConfere(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || valor.equals(etag) || valor.equals("W/" + etag)) return true;
+        }
+        return false;
+    }
 }
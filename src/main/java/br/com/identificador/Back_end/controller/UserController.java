@@ -1,7 +1,9 @@
 package br.com.identificador.Back_end.controller;
 
 import br.com.identificador.Back_end.dto.LoginDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
 import br.com.identificador.Back_end.dto.UserRegistrationDTO;
+import br.com.identificador.Back_end.dto.UsuarioResumoDTO;
 import br.com.identificador.Back_end.model.User;
 import br.com.identificador.Back_end.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,10 +17,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,25 +35,49 @@ import java.util.List;
 @Slf4j
 public class UserController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     private final UserService userService;
 
     @GetMapping
-    @Operation(summary = "Listar todos os usuários")
+    @Operation(summary = "Listar usuários", description = "Em ordem de cadastro (id), paginado por cursor; a base inteira sai em /exportar")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de usuários retornada"),
+            @ApiResponse(responseCode = "200", description = "Página de usuários"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> listarTodos() {
+    public ResponseEntity<PaginaCursorDTO<UsuarioResumoDTO>> listarTodos(
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) return ResponseEntity.badRequest().build();
+
         try {
-            List<User> users = userService.findAll();
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(userService.listarResumos(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao listar usuários: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar todos os usuários",
+            description = "NDJSON com um usuário por linha, transmitido enquanto é lido do banco")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Usuários em NDJSON")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        StreamingResponseBody corpo = saida -> userService.exportarResumos(saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=usuarios.ndjson")
+                .body(corpo);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar usuário por ID")
     @ApiResponses({
@@ -138,22 +166,44 @@ public class UserController {
     }
 
     @GetMapping("/emails")
-    @Operation(summary = "Listar todos os emails")
+    @Operation(summary = "Listar emails", description = "Em ordem alfabética, paginado por cursor; todos de uma vez em /emails/exportar")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de emails"),
+            @ApiResponse(responseCode = "200", description = "Página de emails"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<String>> listarEmails() {
+    public ResponseEntity<PaginaCursorDTO<String>> listarEmails(
+            @RequestParam(required = false) @Parameter(description = "Cursor retornado pela página anterior") String cursor,
+            @RequestParam(defaultValue = "100") @Parameter(description = "Tamanho da página (1-100)") int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) return ResponseEntity.badRequest().build();
+
         try {
-            List<String> emails = userService.getAllEmails();
-            return ResponseEntity.ok(emails);
+            return ResponseEntity.ok(userService.listarEmails(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao listar emails: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping(value = "/emails/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar todos os emails",
+            description = "NDJSON com um email (string JSON) por linha, em ordem alfabética")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Emails em NDJSON")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarEmails() {
+        StreamingResponseBody corpo = saida -> userService.exportarEmails(saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=emails.ndjson")
+                .body(corpo);
+    }
+
     @PostMapping("/login")
     @Operation(summary = "Validar login", description = "Autentica usuário e retorna dados")
     @ApiResponses({
@@ -62,6 +62,16 @@ public record ClienteRegistroDTO(
             example = "Rua das Flores, 123 - Apt 201 - Centro - Rio de Janeiro/RJ - CEP: 20000-000",
             maxLength = 200
     )
-    String endereco
+    String endereco,
+
+    @DecimalMin(value = "-90.0", message = "Latitude inválida")
+    @DecimalMax(value = "90.0", message = "Latitude inválida")
+    @Schema(description = "Latitude do endereço (opcional)", example = "-22.9068")
+    Double latitude,
+
+    @DecimalMin(value = "-180.0", message = "Longitude inválida")
+    @DecimalMax(value = "180.0", message = "Longitude inválida")
+    @Schema(description = "Longitude do endereço (opcional)", example = "-43.1729")
+    Double longitude
 
 ) {}
@@ -1,5 +1,7 @@
 package br.com.identificador.Back_end.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -32,6 +34,15 @@ public record CriarEntregaDTO(
     @Positive(message = "Tempo estimado deve ser positivo")
     Integer tempoEstimadoMinutos,
 
-    String observacoes
+    String observacoes,
+
+    // Opcionais: sem elas vale a posição cadastrada do cliente
+    @DecimalMin(value = "-90.0", message = "Latitude inválida")
+    @DecimalMax(value = "90.0", message = "Latitude inválida")
+    Double latitudeDestino,
+
+    @DecimalMin(value = "-180.0", message = "Longitude inválida")
+    @DecimalMax(value = "180.0", message = "Longitude inválida")
+    Double longitudeDestino
 
 ) {}
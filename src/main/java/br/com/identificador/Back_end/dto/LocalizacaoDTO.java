@@ -0,0 +1,27 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Posição enviada pelo aplicativo do entregador")
+public record LocalizacaoDTO(
+
+    @NotNull(message = "ID do entregador é obrigatório")
+    @Schema(description = "ID do entregador", example = "7", requiredMode = Schema.RequiredMode.REQUIRED)
+    Long entregadorId,
+
+    @NotNull(message = "Latitude é obrigatória")
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    @Schema(description = "Latitude em graus decimais", example = "-22.9068", requiredMode = Schema.RequiredMode.REQUIRED)
+    Double latitude,
+
+    @NotNull(message = "Longitude é obrigatória")
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    @Schema(description = "Longitude em graus decimais", example = "-43.1729", requiredMode = Schema.RequiredMode.REQUIRED)
+    Double longitude
+
+) {}
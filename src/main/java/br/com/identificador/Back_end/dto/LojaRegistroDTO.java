@@ -1,6 +1,8 @@
 package br.com.identificador.Back_end.dto;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -34,6 +36,14 @@ public record LojaRegistroDTO(
     String nomeResponsavel,
 
     @Size(max = 100, message = "Horário de funcionamento deve ter no máximo 100 caracteres")
-    String horarioFuncionamento
+    String horarioFuncionamento,
+
+    @DecimalMin(value = "-90.0", message = "Latitude inválida")
+    @DecimalMax(value = "90.0", message = "Latitude inválida")
+    Double latitude,
+
+    @DecimalMin(value = "-180.0", message = "Longitude inválida")
+    @DecimalMax(value = "180.0", message = "Longitude inválida")
+    Double longitude
 
 ) {}
@@ -0,0 +1,29 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Dados de listagem de uma loja")
+public record LojaResumoDTO(
+
+    @Schema(description = "ID da loja", example = "42")
+    Long id,
+
+    @Schema(description = "Nome da loja", example = "Pizzaria São João")
+    String nome,
+
+    @Schema(description = "Email da loja", example = "contato@pizzaria.com")
+    String email,
+
+    @Schema(description = "Telefone da loja", example = "11777777777")
+    String telefone,
+
+    @Schema(description = "CNPJ da loja (apenas números)", example = "12345678000190")
+    String cnpj,
+
+    @Schema(description = "Endereço completo da loja", example = "Av. Principal, 1000 - Centro - Rio de Janeiro/RJ")
+    String endereco,
+
+    @Schema(description = "Horário de funcionamento da loja", example = "Seg-Sex: 9h às 18h")
+    String horarioFuncionamento
+
+) {}
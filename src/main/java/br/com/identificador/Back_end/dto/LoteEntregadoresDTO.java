@@ -0,0 +1,19 @@
+package br.com.identificador.Back_end.dto;
+
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "Operação em lote sobre entregadores (troca de status ou remoção)")
+public record LoteEntregadoresDTO(
+
+    @NotEmpty(message = "Informe ao menos um entregador")
+    @Schema(description = "IDs dos entregadores", example = "[1, 2, 3]", requiredMode = Schema.RequiredMode.REQUIRED)
+    List<Long> ids,
+
+    @Schema(description = "Novo status (obrigatório na troca de status)", example = "OFFLINE")
+    StatusEntregador status
+
+) {}
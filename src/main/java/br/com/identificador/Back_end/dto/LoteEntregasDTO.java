@@ -0,0 +1,17 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "Pedidos de entrega enviados de uma vez pela integração da loja")
+public record LoteEntregasDTO(
+
+    @NotEmpty(message = "Informe ao menos uma entrega")
+    @Valid
+    @Schema(description = "Entregas a criar", requiredMode = Schema.RequiredMode.REQUIRED)
+    List<CriarEntregaDTO> entregas
+
+) {}
@@ -0,0 +1,22 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(description = "Lote compacto de posições de um entregador (ex.: pings acumulados enquanto estava sem sinal)")
+public record LotePosicoesDTO(
+
+    @NotNull(message = "ID do entregador é obrigatório")
+    @Schema(description = "ID do entregador", example = "7", requiredMode = Schema.RequiredMode.REQUIRED)
+    Long entregadorId,
+
+    @NotEmpty(message = "Informe ao menos uma posição")
+    @ArraySchema(schema = @Schema(description = "[latitude, longitude, momento em epoch ms]",
+            example = "[-22.9068, -43.1729, 1705339815000]"))
+    List<double[]> pontos
+
+) {}
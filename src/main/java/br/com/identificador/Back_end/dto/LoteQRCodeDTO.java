@@ -0,0 +1,29 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.util.List;
+
+@Schema(description = "Pedido de geração de QR Codes em lote (crachás), devolvidos num arquivo ZIP")
+public record LoteQRCodeDTO(
+
+    @Schema(description = "IDs dos entregadores; cada QR Code codifica o qrCodeUuid do entregador", example = "[1, 2, 3]")
+    List<Long> entregadorIds,
+
+    @Schema(description = "Textos avulsos a codificar", example = "[\"https://identificador.com.br/entregador/550e8400-e29b-41d4-a716-446655440000\"]")
+    List<String> textos,
+
+    @Min(100) @Max(1000)
+    @Schema(description = "Largura de cada imagem em pixels", example = "300", defaultValue = "300")
+    Integer largura,
+
+    @Min(100) @Max(1000)
+    @Schema(description = "Altura de cada imagem em pixels", example = "300", defaultValue = "300")
+    Integer altura,
+
+    @Schema(description = "Formato das imagens", example = "PNG", defaultValue = "PNG", allowableValues = {"PNG", "SVG"})
+    String formato
+
+) {}
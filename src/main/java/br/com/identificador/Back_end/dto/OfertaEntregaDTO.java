@@ -0,0 +1,29 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Schema(description = "Oferta de entrega enviada ao entregador via WebSocket em /usuario/fila/ofertas")
+public record OfertaEntregaDTO(
+
+    @Schema(description = "ID da entrega ofertada", example = "42")
+    Long entregaId,
+
+    @Schema(description = "ID do entregador que recebeu a oferta", example = "7")
+    Long entregadorId,
+
+    @Schema(description = "Endereço de coleta", example = "Av. Principal, 1000 - Centro")
+    String enderecoOrigem,
+
+    @Schema(description = "Endereço de entrega", example = "Rua das Flores, 123 - Bairro")
+    String enderecoDestino,
+
+    @Schema(description = "Valor total (frete + gorjeta)", example = "20.50")
+    BigDecimal valorTotal,
+
+    @Schema(description = "Momento em que a oferta expira e é repassada a outro entregador", example = "2024-01-15T14:30:15")
+    LocalDateTime expiraEm
+
+) {}
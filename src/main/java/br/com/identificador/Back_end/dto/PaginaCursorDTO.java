@@ -0,0 +1,22 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de resultados com paginação por cursor (keyset)")
+public record PaginaCursorDTO<T>(
+
+    @Schema(description = "Itens da página atual")
+    List<T> itens,
+
+    @Schema(
+            description = "Cursor opaco para buscar a próxima página (nulo quando não há mais resultados)",
+            example = "MjAyNC0wMS0xNVQxNDozMDowMHw0Mg"
+    )
+    String proximoCursor,
+
+    @Schema(description = "Indica se existem mais resultados após esta página", example = "true")
+    boolean temMais
+
+) {}
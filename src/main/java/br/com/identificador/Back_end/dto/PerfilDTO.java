@@ -26,6 +26,12 @@ public record PerfilDTO(
     )
     String nome,
 
+    @Schema(
+            description = "Email do entregador",
+            example = "pedro@entrega.com"
+    )
+    String email,
+
     @NotBlank(message = "Telefone é obrigatório")
     @Size(max = 20)
     @Schema(
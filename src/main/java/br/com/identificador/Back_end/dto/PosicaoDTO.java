@@ -0,0 +1,22 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Última posição conhecida de um entregador")
+public record PosicaoDTO(
+
+    @Schema(description = "ID do entregador", example = "7")
+    Long entregadorId,
+
+    @Schema(description = "Latitude em graus decimais", example = "-22.9068")
+    double latitude,
+
+    @Schema(description = "Longitude em graus decimais", example = "-43.1729")
+    double longitude,
+
+    @Schema(description = "Momento em que o aplicativo capturou a posição", example = "2024-01-15T14:30:15")
+    LocalDateTime registradoEm
+
+) {}
@@ -0,0 +1,34 @@
+package br.com.identificador.Back_end.dto;
+
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.TipoRastreamento;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Atualização de entrega enviada via WebSocket em /topico/entregas/{id} e na fila " +
+        "/usuario/fila/entregas de cada participante da entrega")
+public record RastreamentoEntregaDTO(
+
+    @Schema(description = "ID da entrega", example = "42")
+    Long entregaId,
+
+    @Schema(description = "Tipo da atualização", example = "STATUS")
+    TipoRastreamento tipo,
+
+    @Schema(description = "Status da entrega (nas mensagens de localização, o último conhecido)", example = "A_CAMINHO_ENTREGA")
+    StatusEntrega status,
+
+    @Schema(description = "ID do entregador responsável, se houver", example = "7")
+    Long entregadorId,
+
+    @Schema(description = "Latitude do entregador (apenas em LOCALIZACAO)", example = "-22.9068")
+    Double latitude,
+
+    @Schema(description = "Longitude do entregador (apenas em LOCALIZACAO)", example = "-43.1729")
+    Double longitude,
+
+    @Schema(description = "Momento da atualização", example = "2024-01-15T14:30:15")
+    LocalDateTime momento
+
+) {}
@@ -0,0 +1,21 @@
+package br.com.identificador.Back_end.dto;
+
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Usuário encontrado na busca por nome ou endereço")
+public record ResultadoBuscaDTO(
+
+    @Schema(description = "ID do usuário", example = "42")
+    Long id,
+
+    @Schema(description = "Tipo do usuário", example = "LOJA")
+    TipoUsuario tipo,
+
+    @Schema(description = "Nome do usuário", example = "Pizzaria São João")
+    String nome,
+
+    @Schema(description = "Endereço (só para lojas)", example = "Av. Principal, 1000 - Centro - Rio de Janeiro/RJ")
+    String endereco
+
+) {}
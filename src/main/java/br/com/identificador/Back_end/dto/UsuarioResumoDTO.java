@@ -0,0 +1,25 @@
+package br.com.identificador.Back_end.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Dados de listagem de um usuário, sem senha nem dados do perfil específico")
+public record UsuarioResumoDTO(
+
+    @Schema(description = "ID do usuário", example = "42")
+    Long id,
+
+    @Schema(description = "Nome do usuário", example = "João Silva")
+    String nome,
+
+    @Schema(description = "Email do usuário", example = "joao@email.com")
+    String email,
+
+    @Schema(description = "Telefone do usuário", example = "11999999999")
+    String telefone,
+
+    @Schema(description = "Data de cadastro", example = "2024-01-15T14:30:00")
+    LocalDateTime createdAt
+
+) {}
@@ -0,0 +1,18 @@
+package br.com.identificador.Back_end.evento;
+
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+
+/**
+ * Publicado pelo EntregaService a cada criação, aceitação ou mudança de status de entrega.
+ * statusAnterior é nulo na criação.
+ */
+public record EntregaAtualizadaEvento(
+
+    Long entregaId,
+    StatusEntrega statusAnterior,
+    StatusEntrega novoStatus,
+    Long entregadorId,
+    Long lojaId,
+    Long clienteId
+
+) {}
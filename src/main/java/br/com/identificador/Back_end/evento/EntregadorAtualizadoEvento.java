@@ -0,0 +1,10 @@
+package br.com.identificador.Back_end.evento;
+
+/**
+ * Publicado pelo EntregadorService quando dados do perfil de um entregador mudam ou ele é removido
+ */
+public record EntregadorAtualizadoEvento(
+
+    Long entregadorId
+
+) {}
@@ -0,0 +1,13 @@
+package br.com.identificador.Back_end.evento;
+
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+
+/**
+ * Publicado pelo EntregadorService quando o status de disponibilidade de um entregador muda
+ */
+public record EntregadorStatusAlteradoEvento(
+
+    Long entregadorId,
+    StatusEntregador novoStatus
+
+) {}
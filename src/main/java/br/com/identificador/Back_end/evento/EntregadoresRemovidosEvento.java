@@ -0,0 +1,12 @@
+package br.com.identificador.Back_end.evento;
+
+import java.util.List;
+
+/**
+ * Publicado pelo EntregadorService após remover entregadores (um só ou em lote), com os ids efetivamente removidos
+ */
+public record EntregadoresRemovidosEvento(
+
+    List<Long> entregadorIds
+
+) {}
@@ -0,0 +1,16 @@
+package br.com.identificador.Back_end.evento;
+
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+
+import java.util.List;
+
+/**
+ * Publicado pelo EntregadorService após uma troca de status em lote (ex.: troca de turno),
+ * no lugar de um EntregadorStatusAlteradoEvento por entregador
+ */
+public record EntregadoresStatusAlteradosEvento(
+
+    List<Long> entregadorIds,
+    StatusEntregador novoStatus
+
+) {}
@@ -0,0 +1,13 @@
+package br.com.identificador.Back_end.evento;
+
+import java.util.List;
+
+/**
+ * Publicado pelo EntregaService após a criação de entregas em lote, no lugar de um
+ * EntregaAtualizadaEvento por entrega
+ */
+public record EntregasCriadasEvento(
+
+    List<Long> entregaIds
+
+) {}
@@ -0,0 +1,12 @@
+package br.com.identificador.Back_end.evento;
+
+/**
+ * Publicado pelo EntregadorService quando o UUID do QR Code de um entregador é trocado
+ */
+public record QrCodeRegeneradoEvento(
+
+    Long entregadorId,
+    String qrCodeUuidAnterior,
+    String qrCodeUuidNovo
+
+) {}
@@ -0,0 +1,11 @@
+package br.com.identificador.Back_end.evento;
+
+/**
+ * Publicado pelos serviços de clientes, lojas e usuários quando um cadastro é criado,
+ * alterado ou removido
+ */
+public record UsuarioAtualizadoEvento(
+
+    Long usuarioId
+
+) {}
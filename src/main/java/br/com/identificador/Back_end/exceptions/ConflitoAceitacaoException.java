@@ -0,0 +1,11 @@
+package br.com.identificador.Back_end.exceptions;
+
+/**
+ * Lançada quando outra transação já aceitou a entrega (resposta HTTP 409)
+ */
+public class ConflitoAceitacaoException extends RuntimeException {
+
+    public ConflitoAceitacaoException(String message) {
+        super(message);
+    }
+}
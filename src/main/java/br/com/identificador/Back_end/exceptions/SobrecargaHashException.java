@@ -0,0 +1,11 @@
+package br.com.identificador.Back_end.exceptions;
+
+/**
+ * Lançada quando a fila de hashing de senhas está cheia; o login deve ser tentado novamente
+ */
+public class SobrecargaHashException extends RuntimeException {
+
+    public SobrecargaHashException(String message) {
+        super(message);
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,10 +27,33 @@ public class Cliente extends User {
     @Schema(description = "Endereço principal do cliente", example = "Rua das Flores, 123 - Centro - Rio de Janeiro/RJ", maxLength = 200)
     private String endereco;
 
+    @Schema(description = "Latitude do endereço, em graus decimais", example = "-22.9068")
+    private Double latitude;
+
+    @Schema(description = "Longitude do endereço, em graus decimais", example = "-43.1729")
+    private Double longitude;
+
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL)
     @Schema(description = "Lista de entregas solicitadas pelo cliente", accessMode = Schema.AccessMode.READ_ONLY)
     private List<Entrega> entregas = new ArrayList<>();
 
+    // Contadores mantidos pelo EntregaService com UPDATEs no banco; o save() da entidade não os grava
+    @Column(name = "total_pedidos", nullable = false, updatable = false)
+    @Schema(description = "Número de entregas solicitadas pelo cliente", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private Integer totalPedidos = 0;
+
+    @Column(name = "pedidos_entregues", nullable = false, updatable = false)
+    @Schema(description = "Entregas do cliente com status ENTREGUE", example = "10", accessMode = Schema.AccessMode.READ_ONLY)
+    private Integer pedidosEntregues = 0;
+
+    @Column(name = "pedidos_cancelados", nullable = false, updatable = false)
+    @Schema(description = "Entregas do cliente com status CANCELADA", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
+    private Integer pedidosCancelados = 0;
+
+    @Column(name = "ultimo_pedido_em", updatable = false)
+    @Schema(description = "Data de criação da entrega mais recente do cliente", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime ultimoPedidoEm;
+
     public Cliente(String nome, String email, String telefone, String senha) {
         super(nome, email, telefone, senha);
     }
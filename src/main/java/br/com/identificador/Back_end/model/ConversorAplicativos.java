@@ -0,0 +1,26 @@
+package br.com.identificador.Back_end.model;
+
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Set;
+
+/**
+ * Aplicativos do entregador numa coluna BIGINT, um bit por aplicativo (Aplicativo.getBit()),
+ * no lugar da tabela de coleção: a entidade carrega sem join nem SELECT extra e os filtros
+ * por aplicativo viram operações bit a bit na própria linha
+ */
+@Converter
+public class ConversorAplicativos implements AttributeConverter<Set<Aplicativo>, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Set<Aplicativo> aplicativos) {
+        return Aplicativo.mascara(aplicativos);
+    }
+
+    @Override
+    public Set<Aplicativo> convertToEntityAttribute(Long mascara) {
+        return Aplicativo.deMascara(mascara != null ? mascara : 0L);
+    }
+}
@@ -9,15 +9,24 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Os índices em produção vêm das migrações (db/migration); os declarados aqui valem para o esquema gerado nos testes
 @Entity
-@Table(name = "entregas")
+@Table(name = "entregas", indexes = {
+        @Index(name = "idx_entregas_status_criado", columnList = "status_entrega, created_at, id"),
+        @Index(name = "idx_entregas_entregador_criado", columnList = "entregador_id, created_at, id"),
+        @Index(name = "idx_entregas_loja_criado", columnList = "loja_id, created_at, id"),
+        @Index(name = "idx_entregas_cliente_criado", columnList = "cliente_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @Schema(description = "Entidade que representa uma entrega no sistema, relacionando loja, entregador e cliente")
 public class Entrega {
 
+    // Sequência com otimizador pooled (50 ids por ida ao banco): permite batch de INSERT,
+    // que o IDENTITY desliga
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entregas_seq")
+    @SequenceGenerator(name = "entregas_seq", sequenceName = "entregas_seq", allocationSize = 50)
     @Schema(description = "ID único da entrega", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
@@ -44,6 +53,23 @@ public class Entrega {
     @Schema(description = "Endereço de entrega do produto", example = "Rua das Flores, 123 - Bairro", requiredMode = Schema.RequiredMode.REQUIRED)
     private String enderecoDestino;
 
+    // Coordenadas copiadas da loja e do cliente (ou informadas no pedido) para o despacho por proximidade
+    @Column(name = "latitude_origem")
+    @Schema(description = "Latitude do local de coleta", example = "-22.9068")
+    private Double latitudeOrigem;
+
+    @Column(name = "longitude_origem")
+    @Schema(description = "Longitude do local de coleta", example = "-43.1729")
+    private Double longitudeOrigem;
+
+    @Column(name = "latitude_destino")
+    @Schema(description = "Latitude do endereço de entrega", example = "-22.9519")
+    private Double latitudeDestino;
+
+    @Column(name = "longitude_destino")
+    @Schema(description = "Longitude do endereço de entrega", example = "-43.2105")
+    private Double longitudeDestino;
+
     @Column(name = "produto_descricao")
     @Schema(description = "Descrição do(s) produto(s) a ser(em) entregue(s)", example = "1 Pizza Grande + 1 Refrigerante 2L")
     private String produtoDescricao;
@@ -6,11 +6,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 @Entity
@@ -45,22 +50,54 @@ public class Entregador extends User {
     @Schema(description = "Status atual de disponibilidade do entregador", example = "DISPONIVEL", defaultValue = "OFFLINE")
     private StatusEntregador status = StatusEntregador.OFFLINE;
 
-    @ElementCollection
-    @Enumerated(EnumType.STRING)
-    @CollectionTable(name = "entregador_aplicativos",
-            joinColumns = @JoinColumn(name = "entregador_id"))
-    @Column(name = "aplicativo")
+    @ColumnDefault("0")
+    @Convert(converter = ConversorAplicativos.class)
+    @Column(name = "aplicativos", nullable = false)
     @Schema(description = "Lista de aplicativos de delivery que o entregador utiliza", example = "[\"IFOOD\", \"RAPPI\", \"UBER_EATS\"]")
-    private Set<Aplicativo> aplicativos = new HashSet<>();
+    private Set<Aplicativo> aplicativos = EnumSet.noneOf(Aplicativo.class);
+
+    // Mesma coluna como número, só para os filtros bit a bit das consultas (bitand não aceita o
+    // Set convertido); não é gravada nem exposta, e só reflete o banco
+    @Column(name = "aplicativos", insertable = false, updatable = false)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Schema(hidden = true)
+    private Long mascaraAplicativos;
 
-    @Column(name = "avaliacao_media")
+    // Contadores alterados só por UPDATE atômico no repositório (updatable = false): um save()
+    // de entidade carregada antes não pode sobrescrever incrementos feitos em paralelo
+    @Column(name = "avaliacao_media", updatable = false)
     @Schema(description = "Avaliação média do entregador (0.0 a 5.0)", example = "4.5", minimum = "0", maximum = "5", accessMode = Schema.AccessMode.READ_ONLY)
     private Double avaliacaoMedia = 0.0;
 
-    @Column(name = "total_entregas")
+    @ColumnDefault("0")
+    @Column(name = "soma_avaliacoes", nullable = false, updatable = false)
+    @Schema(description = "Soma de todas as notas recebidas", example = "690.5", accessMode = Schema.AccessMode.READ_ONLY)
+    private Double somaAvaliacoes = 0.0;
+
+    @ColumnDefault("0")
+    @Column(name = "num_avaliacoes", nullable = false, updatable = false)
+    @Schema(description = "Número de avaliações recebidas (independente do total de entregas)", example = "148", accessMode = Schema.AccessMode.READ_ONLY)
+    private Integer numAvaliacoes = 0;
+
+    // Gravada só pelos UPDATEs condicionais do EntregadorRepository, nunca pelo save() da entidade
+    @Column(name = "entrega_ativa_id", updatable = false)
+    @Schema(description = "ID da entrega em andamento do entregador (nulo quando livre)", example = "42", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long entregaAtivaId;
+
+    @Column(name = "total_entregas", updatable = false)
     @Schema(description = "Número total de entregas realizadas pelo entregador", example = "150", accessMode = Schema.AccessMode.READ_ONLY)
     private Integer totalEntregas = 0;
 
+    /**
+     * Guarda sempre um EnumSet próprio (mutável, sem nulos), qualquer que seja o Set recebido
+     */
+    public void setAplicativos(Set<Aplicativo> aplicativos) {
+        this.aplicativos = Aplicativo.deMascara(Aplicativo.mascara(aplicativos));
+    }
+
     public Entregador(String nome, String email, String telefone, String senha,
                       String cpf, String rg, String cnh) {
         super(nome, email, telefone, senha);
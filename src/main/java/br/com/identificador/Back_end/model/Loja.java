@@ -34,6 +34,12 @@ public class Loja extends User {
     @Schema(description = "Horário de funcionamento da loja", example = "Seg-Sex: 9h às 18h / Sáb: 9h às 13h", maxLength = 100)
     private String horarioFuncionamento;
 
+    @Schema(description = "Latitude do endereço, em graus decimais", example = "-22.9068")
+    private Double latitude;
+
+    @Schema(description = "Longitude do endereço, em graus decimais", example = "-43.1729")
+    private Double longitude;
+
     public Loja(String nome, String email, String telefone, String senha,
                 String cnpj, String endereco) {
         super(nome, email, telefone, senha);
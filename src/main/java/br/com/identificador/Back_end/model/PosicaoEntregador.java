@@ -0,0 +1,51 @@
+package br.com.identificador.Back_end.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Histórico amostrado das posições dos entregadores. Não é uma linha por ping: o
+ * LocalizacaoService grava no máximo uma posição por entregador a cada intervalo.
+ */
+@Entity
+@Table(name = "posicoes_entregadores", indexes = {
+        @Index(name = "idx_posicoes_entregador_registrado", columnList = "entregador_id, registrado_em")
+})
+@Data
+@NoArgsConstructor
+@Schema(description = "Posição registrada de um entregador")
+public class PosicaoEntregador {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posicoes_entregadores_seq")
+    @SequenceGenerator(name = "posicoes_entregadores_seq", sequenceName = "posicoes_entregadores_seq", allocationSize = 50)
+    private Long id;
+
+    // Só o id: gravar posições não deve carregar o entregador
+    @Column(name = "entregador_id", nullable = false)
+    @Schema(description = "ID do entregador", example = "7")
+    private Long entregadorId;
+
+    @Column(nullable = false)
+    @Schema(description = "Latitude em graus decimais", example = "-22.9068")
+    private double latitude;
+
+    @Column(nullable = false)
+    @Schema(description = "Longitude em graus decimais", example = "-43.1729")
+    private double longitude;
+
+    @Column(name = "registrado_em", nullable = false)
+    @Schema(description = "Momento em que o aplicativo capturou a posição", example = "2024-01-15T14:30:15")
+    private LocalDateTime registradoEm;
+
+    public PosicaoEntregador(Long entregadorId, double latitude, double longitude, LocalDateTime registradoEm) {
+        this.entregadorId = entregadorId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.registradoEm = registradoEm;
+    }
+}
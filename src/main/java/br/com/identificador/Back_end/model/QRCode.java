@@ -1,6 +1,8 @@
 package br.com.identificador.Back_end.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,13 +16,15 @@ public class QRCode {
     @Schema(description = "Texto a ser codificado no QR Code", example = "https://identificador.com.br/entregador/550e8400-e29b-41d4-a716-446655440000", requiredMode = Schema.RequiredMode.REQUIRED)
     private String text;
 
+    @Min(100) @Max(1000)
     @Schema(description = "Largura da imagem do QR Code em pixels", example = "300", defaultValue = "300", minimum = "100", maximum = "1000")
     private int width = 300;
 
+    @Min(100) @Max(1000)
     @Schema(description = "Altura da imagem do QR Code em pixels", example = "300", defaultValue = "300", minimum = "100", maximum = "1000")
     private int height = 300;
 
-    @Schema(description = "Formato da imagem gerada", example = "PNG", defaultValue = "PNG", allowableValues = {"PNG", "JPG", "JPEG"})
+    @Schema(description = "Formato da imagem gerada", example = "PNG", defaultValue = "PNG", allowableValues = {"PNG", "SVG", "JPG", "JPEG"})
     private String format = "PNG";
 
     public QRCode(String text) {
@@ -20,8 +20,10 @@ import java.time.LocalDateTime;
 @Schema(description = "Classe base abstrata para todos os tipos de usuários do sistema")
 public abstract class User {
 
+    // Sequência com otimizador pooled, compartilhada pelas subclasses (JOINED): permite batch de INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Schema(description = "ID único do usuário", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
@@ -2,45 +2,74 @@ package br.com.identificador.Back_end.model.enuns;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Cada aplicativo tem um bit fixo na coluna entregadores.aplicativos (BIGINT). A posição é
+ * gravada no banco: novos aplicativos pegam a próxima livre e as dos existentes nunca mudam,
+ * independente da ordem de declaração.
+ */
 @Schema(description = "Aplicativos de delivery que o entregador pode utilizar",
         allowableValues = {"IFOOD", "RAPPI", "UBER_EATS", "FOOD_99",
                 "LOGGI", "JAMES", "ZE_DELIVERY", "INDEPENDENTE", "OUTROS"})
 public enum Aplicativo {
 
     @Schema(description = "iFood - Aplicativo de delivery de comida")
-    IFOOD("iFood"),
+    IFOOD("iFood", 0),
 
     @Schema(description = "Rappi - Aplicativo de entregas diversas")
-    RAPPI("Rappi"),
+    RAPPI("Rappi", 1),
 
     @Schema(description = "Uber Eats - Aplicativo de delivery de comida da Uber")
-    UBER_EATS("Uber Eats"),
+    UBER_EATS("Uber Eats", 2),
 
     @Schema(description = "99Food - Aplicativo de delivery de comida da 99")
-    FOOD_99("99Food"),
+    FOOD_99("99Food", 3),
 
     @Schema(description = "Loggi - Aplicativo de entregas e logística")
-    LOGGI("Loggi"),
+    LOGGI("Loggi", 4),
 
     @Schema(description = "James Delivery - Aplicativo de entregas")
-    JAMES("James Delivery"),
+    JAMES("James Delivery", 5),
 
     @Schema(description = "Zé Delivery - Aplicativo especializado em bebidas")
-    ZE_DELIVERY("Zé Delivery"),
+    ZE_DELIVERY("Zé Delivery", 6),
 
     @Schema(description = "Aplicativo independente/próprio")
-    INDEPENDENTE("Independente"),
+    INDEPENDENTE("Independente", 7),
 
     @Schema(description = "Outros aplicativos não listados")
-    OUTROS("Outros");
+    OUTROS("Outros", 8);
 
     private final String nomeExibicao;
+    private final long bit;
 
-    Aplicativo(String nomeExibicao) {
+    Aplicativo(String nomeExibicao, int posicao) {
         this.nomeExibicao = nomeExibicao;
+        this.bit = 1L << posicao;
     }
 
     public String getNomeExibicao() {
         return nomeExibicao;
     }
+
+    public long getBit() {
+        return bit;
+    }
+
+    public static long mascara(Collection<Aplicativo> aplicativos) {
+        long mascara = 0L;
+        if (aplicativos != null)
+            for (Aplicativo aplicativo : aplicativos)
+                if (aplicativo != null) mascara |= aplicativo.bit;
+        return mascara;
+    }
+
+    public static EnumSet<Aplicativo> deMascara(long mascara) {
+        EnumSet<Aplicativo> aplicativos = EnumSet.noneOf(Aplicativo.class);
+        for (Aplicativo aplicativo : values())
+            if ((mascara & aplicativo.bit) != 0) aplicativos.add(aplicativo);
+        return aplicativos;
+    }
 }
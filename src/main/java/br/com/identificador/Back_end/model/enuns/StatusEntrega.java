@@ -2,6 +2,10 @@ package br.com.identificador.Back_end.model.enuns;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 @Schema(description = "Status da entrega",
         allowableValues = {"A_CAMINHO_COLETA", "COLETANDO", "A_CAMINHO_ENTREGA",
                 "CHEGOU_DESTINO", "ENTREGUE", "CANCELADA", "PROBLEMA"})
@@ -27,6 +31,15 @@ public enum StatusEntrega {
     @Schema(description = "Problema na entrega (destinatário ausente, endereço incorreto, etc)")
     PROBLEMA("Problema na entrega");
 
+    /**
+     * Entregas aceitas e ainda não encerradas: ocupam o entregador (entrega_ativa_id) e são
+     * rastreadas ao vivo. A_CAMINHO_COLETA fica de fora, é o status da entrega ainda sem
+     * entregador; a aceitação já leva a entrega para COLETANDO. O backfill de entrega_ativa_id
+     * (V1) e o índice parcial idx_entregas_em_andamento (V2) usam este mesmo conjunto.
+     */
+    public static final Set<StatusEntrega> EM_ANDAMENTO =
+            Collections.unmodifiableSet(EnumSet.of(COLETANDO, A_CAMINHO_ENTREGA, CHEGOU_DESTINO));
+
     private final String descricao;
 
     StatusEntrega(String descricao) {
@@ -36,4 +49,19 @@ public enum StatusEntrega {
     public String getDescricao() {
         return descricao;
     }
+
+    /**
+     * Indica se a entrega já foi aceita e ainda ocupa o entregador (EM_ANDAMENTO)
+     */
+    public boolean isEmAndamento() {
+        return EM_ANDAMENTO.contains(this);
+    }
+
+    /**
+     * Indica se ir deste status para o novo volta o fluxo da entrega: depois de avançar, ela
+     * não retorna a A_CAMINHO_COLETA nem a uma etapa anterior do andamento
+     */
+    public boolean isRetrocessoPara(StatusEntrega novo) {
+        return novo.ordinal() < ordinal() && novo.ordinal() <= CHEGOU_DESTINO.ordinal();
+    }
 }
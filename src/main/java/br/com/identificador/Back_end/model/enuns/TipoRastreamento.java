@@ -0,0 +1,24 @@
+package br.com.identificador.Back_end.model.enuns;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Tipos de mensagem do rastreamento de entregas",
+        allowableValues = {"STATUS", "LOCALIZACAO"})
+public enum TipoRastreamento {
+
+    @Schema(description = "Mudança de status da entrega")
+    STATUS("Status"),
+
+    @Schema(description = "Posição atual do entregador")
+    LOCALIZACAO("Localização");
+
+    private final String descricao;
+
+    TipoRastreamento(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.identificador.Back_end.model.enuns;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Tipos de usuário do sistema",
+        allowableValues = {"CLIENTE", "LOJA", "ENTREGADOR"})
+public enum TipoUsuario {
+
+    @Schema(description = "Cliente que solicita entregas")
+    CLIENTE("Cliente"),
+
+    @Schema(description = "Loja/estabelecimento que despacha entregas")
+    LOJA("Loja"),
+
+    @Schema(description = "Entregador")
+    ENTREGADOR("Entregador");
+
+    private final String descricao;
+
+    TipoUsuario(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
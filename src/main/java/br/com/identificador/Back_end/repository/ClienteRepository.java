@@ -1,10 +1,15 @@
 package br.com.identificador.Back_end.repository;
 
 import br.com.identificador.Back_end.model.Cliente;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,68 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     @Query("SELECT c FROM Cliente c WHERE LOWER(c.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
     List<Cliente> buscarPorNome(@Param("nome") String nome);
 
-    @Query("SELECT c FROM Cliente c WHERE SIZE(c.entregas) >= :minimoEntregas")
+    // Carga do índice de busca (endereço de cliente não entra na busca)
+    @Query("SELECT c.id AS id, c.nome AS nome, CAST(NULL AS String) AS endereco FROM Cliente c")
+    List<UserRepository.NomeUsuario> buscarNomes();
+
+    // Faixa no índice de total_pedidos, sem contar entregas por cliente
+    @Query("SELECT c FROM Cliente c WHERE c.totalPedidos >= :minimoEntregas ORDER BY c.totalPedidos DESC, c.id")
     List<Cliente> buscarClientesAtivos(@Param("minimoEntregas") int minimoEntregas);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE clientes SET total_pedidos = total_pedidos + :quantidade, " +
+            "ultimo_pedido_em = CASE WHEN ultimo_pedido_em IS NULL OR ultimo_pedido_em < :criadoEm " +
+            "THEN :criadoEm ELSE ultimo_pedido_em END WHERE id = :clienteId", nativeQuery = true)
+    int registrarPedidos(@Param("clienteId") Long clienteId, @Param("quantidade") int quantidade,
+                         @Param("criadoEm") LocalDateTime criadoEm);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE clientes SET pedidos_entregues = pedidos_entregues + :entregues, " +
+            "pedidos_cancelados = pedidos_cancelados + :cancelados WHERE id = :clienteId", nativeQuery = true)
+    int ajustarFinalizados(@Param("clienteId") Long clienteId, @Param("entregues") int entregues,
+                           @Param("cancelados") int cancelados);
+
+    // Reconciliação dos contadores: ids em blocos por chave e, para cada bloco, contadores gravados x recontagem
+    @Query("SELECT c.id FROM Cliente c WHERE c.id > :aposId ORDER BY c.id")
+    List<Long> buscarIdsAposCursor(@Param("aposId") Long aposId, Pageable pageable);
+
+    // A faixa repetida no ON limita as entregas ao bloco (índice por cliente_id) em vez de varrer a tabela
+    @Query("SELECT c.id AS id, c.totalPedidos AS totalPedidos, c.pedidosEntregues AS pedidosEntregues, " +
+            "c.pedidosCancelados AS pedidosCancelados, c.ultimoPedidoEm AS ultimoPedidoEm, " +
+            "COUNT(e) AS totalContado, " +
+            "SUM(CASE WHEN e.statusEntrega = br.com.identificador.Back_end.model.enuns.StatusEntrega.ENTREGUE THEN 1 ELSE 0 END) AS entreguesContados, " +
+            "SUM(CASE WHEN e.statusEntrega = br.com.identificador.Back_end.model.enuns.StatusEntrega.CANCELADA THEN 1 ELSE 0 END) AS canceladosContados, " +
+            "MAX(e.criadoEm) AS ultimoPedidoContado " +
+            "FROM Cliente c LEFT JOIN c.entregas e ON e.cliente.id BETWEEN :primeiroId AND :ultimoId " +
+            "WHERE c.id BETWEEN :primeiroId AND :ultimoId " +
+            "GROUP BY c.id, c.totalPedidos, c.pedidosEntregues, c.pedidosCancelados, c.ultimoPedidoEm")
+    List<ContadoresCliente> recontarPedidos(@Param("primeiroId") Long primeiroId, @Param("ultimoId") Long ultimoId);
+
+    /**
+     * Grava a recontagem só se os contadores ainda forem os lidos: uma entrega criada ou
+     * finalizada no meio do caminho muda a linha e a correção fica para a próxima rodada
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE clientes SET total_pedidos = :total, pedidos_entregues = :entregues, " +
+            "pedidos_cancelados = :cancelados, ultimo_pedido_em = :ultimoPedidoEm " +
+            "WHERE id = :clienteId AND total_pedidos = :totalLido AND pedidos_entregues = :entreguesLidos " +
+            "AND pedidos_cancelados = :canceladosLidos", nativeQuery = true)
+    int corrigirContadores(@Param("clienteId") Long clienteId,
+                           @Param("total") int total, @Param("entregues") int entregues,
+                           @Param("cancelados") int cancelados, @Param("ultimoPedidoEm") LocalDateTime ultimoPedidoEm,
+                           @Param("totalLido") int totalLido, @Param("entreguesLidos") int entreguesLidos,
+                           @Param("canceladosLidos") int canceladosLidos);
+
+    interface ContadoresCliente {
+        Long getId();
+        Integer getTotalPedidos();
+        Integer getPedidosEntregues();
+        Integer getPedidosCancelados();
+        LocalDateTime getUltimoPedidoEm();
+        Long getTotalContado();
+        Long getEntreguesContados();
+        Long getCanceladosContados();
+        LocalDateTime getUltimoPedidoContado();
+    }
 }
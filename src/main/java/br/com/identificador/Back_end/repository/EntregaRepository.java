@@ -1,17 +1,22 @@
 package br.com.identificador.Back_end.repository;
 
+import br.com.identificador.Back_end.dto.EntregaDTO;
 import br.com.identificador.Back_end.model.Cliente;
 import br.com.identificador.Back_end.model.Entrega;
 import br.com.identificador.Back_end.model.Entregador;
 import br.com.identificador.Back_end.model.Loja;
 import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EntregaRepository extends JpaRepository<Entrega, Long> {
@@ -31,13 +36,93 @@ public interface EntregaRepository extends JpaRepository<Entrega, Long> {
     // Entregas de um cliente
     List<Entrega> findByClienteOrderByCriadoEmDesc(Cliente cliente);
 
+    // Entregas ainda sem entregador, mais antigas primeiro (carga inicial do despacho)
+    List<Entrega> findByStatusEntregaAndEntregadorIsNullOrderByCriadoEmAsc(StatusEntrega statusEntrega, Pageable pageable);
+
     // Entregas pendentes (sem entregador)
-    @Query("SELECT e FROM Entrega e WHERE e.statusEntrega = 'PENDENTE' AND e.entregador IS NULL ORDER BY e.criadoEm ASC")
+    @Query("SELECT e FROM Entrega e WHERE e.statusEntrega = br.com.identificador.Back_end.model.enuns.StatusEntrega.A_CAMINHO_COLETA AND e.entregador IS NULL ORDER BY e.criadoEm ASC")
     List<Entrega> buscarEntregasPendentes();
 
+    // Aceitação atômica: só uma transação consegue mudar a entrega de livre para COLETANDO.
+    // Retorna 0 quando outro entregador já ganhou a disputa.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Entrega e SET e.entregador = :entregador, " +
+            "e.statusEntrega = br.com.identificador.Back_end.model.enuns.StatusEntrega.COLETANDO, " +
+            "e.iniciadoEm = :agora " +
+            "WHERE e.id = :entregaId " +
+            "AND e.statusEntrega = br.com.identificador.Back_end.model.enuns.StatusEntrega.A_CAMINHO_COLETA " +
+            "AND e.entregador IS NULL")
+    int aceitarSeDisponivel(@Param("entregaId") Long entregaId,
+                            @Param("entregador") Entregador entregador,
+                            @Param("agora") LocalDateTime agora);
+
+    // Projeção das listagens: o EntregaDTO sai pronto do SELECT, só com ids e nomes das partes,
+    // sem carregar Entregador, Loja e Cliente (e a hierarquia de User) entrega a entrega.
+    String SELECT_DTO = "SELECT new br.com.identificador.Back_end.dto.EntregaDTO(" +
+            "e.id, en.id, en.nome, l.id, l.nome, c.id, c.nome, " +
+            "e.enderecoOrigem, e.enderecoDestino, e.produtoDescricao, e.statusEntrega, " +
+            "e.valorEntrega, e.valorGorjeta, e.valorEntrega + COALESCE(e.valorGorjeta, 0), " +
+            "e.tempoEstimadoMinutos, e.observacoes, e.criadoEm, e.iniciadoEm, e.finalizadoEm, e.canceladoEm) " +
+            "FROM Entrega e LEFT JOIN e.entregador en JOIN e.loja l JOIN e.cliente c ";
+
+    // Listagens paginadas por cursor (keyset): (criadoEm, id) é o par de ordenação e desempate.
+    // Cada consulta é servida pelo índice composto correspondente declarado em Entrega.
+
+    @Query(SELECT_DTO + "WHERE e.statusEntrega = :status " +
+            "AND (e.criadoEm > :cursorData OR (e.criadoEm = :cursorData AND e.id > :cursorId)) " +
+            "ORDER BY e.criadoEm ASC, e.id ASC")
+    List<EntregaDTO> buscarPorStatusAposCursor(@Param("status") StatusEntrega status,
+                                               @Param("cursorData") LocalDateTime cursorData,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE e.entregador.id = :entregadorId " +
+            "AND (e.criadoEm < :cursorData OR (e.criadoEm = :cursorData AND e.id < :cursorId)) " +
+            "ORDER BY e.criadoEm DESC, e.id DESC")
+    List<EntregaDTO> buscarPorEntregadorAntesDoCursor(@Param("entregadorId") Long entregadorId,
+                                                      @Param("cursorData") LocalDateTime cursorData,
+                                                      @Param("cursorId") Long cursorId,
+                                                      Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE e.loja.id = :lojaId " +
+            "AND (e.criadoEm < :cursorData OR (e.criadoEm = :cursorData AND e.id < :cursorId)) " +
+            "ORDER BY e.criadoEm DESC, e.id DESC")
+    List<EntregaDTO> buscarPorLojaAntesDoCursor(@Param("lojaId") Long lojaId,
+                                                @Param("cursorData") LocalDateTime cursorData,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE e.cliente.id = :clienteId " +
+            "AND (e.criadoEm < :cursorData OR (e.criadoEm = :cursorData AND e.id < :cursorId)) " +
+            "ORDER BY e.criadoEm DESC, e.id DESC")
+    List<EntregaDTO> buscarPorClienteAntesDoCursor(@Param("clienteId") Long clienteId,
+                                                   @Param("cursorData") LocalDateTime cursorData,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Pageable pageable);
+
+    // Participantes das entregas com entregador nos status dados, sem carregar as entidades
+    @Query("SELECT e.id AS id, e.statusEntrega AS status, e.entregador.id AS entregadorId, e.loja.id AS lojaId, " +
+            "e.cliente.id AS clienteId FROM Entrega e WHERE e.entregador IS NOT NULL AND e.statusEntrega IN :status")
+    List<RotaEntrega> buscarRotasPorStatus(@Param("status") Collection<StatusEntrega> status);
+
+    // Participantes das entregas em andamento (carga do rastreamento)
+    default List<RotaEntrega> buscarRotasEmAndamento() {
+        return buscarRotasPorStatus(StatusEntrega.EM_ANDAMENTO);
+    }
+
+    // Participantes de uma entrega, com ou sem entregador (autorização das inscrições no rastreamento)
+    @Query("SELECT e.id AS id, e.statusEntrega AS status, en.id AS entregadorId, e.loja.id AS lojaId, " +
+            "e.cliente.id AS clienteId FROM Entrega e LEFT JOIN e.entregador en WHERE e.id = :entregaId")
+    Optional<RotaEntrega> buscarRota(@Param("entregaId") Long entregaId);
+
+    @Query("SELECT e FROM Entrega e WHERE e.entregador = :entregador AND e.statusEntrega IN :status")
+    List<Entrega> buscarPorEntregadorEStatus(@Param("entregador") Entregador entregador,
+                                             @Param("status") Collection<StatusEntrega> status);
+
     // Entregas em andamento de um entregador
-    @Query("SELECT e FROM Entrega e WHERE e.entregador = :entregador AND e.statusEntrega IN ('ACEITA', 'EM_ANDAMENTO', 'COLETADA', 'A_CAMINHO')")
-    List<Entrega> buscarEntregasEmAndamento(@Param("entregador") Entregador entregador);
+    default List<Entrega> buscarEntregasEmAndamento(Entregador entregador) {
+        return buscarPorEntregadorEStatus(entregador, StatusEntrega.EM_ANDAMENTO);
+    }
 
     // Estatísticas do entregador
     @Query("SELECT COUNT(e) FROM Entrega e WHERE e.entregador = :entregador AND e.statusEntrega = 'ENTREGUE'")
@@ -52,4 +137,12 @@ public interface EntregaRepository extends JpaRepository<Entrega, Long> {
     @Query("SELECT e FROM Entrega e WHERE e.statusEntrega = 'CANCELADA' AND e.canceladoEm BETWEEN :dataInicio AND :dataFim")
     List<Entrega> buscarEntregasCanceladas(@Param("dataInicio") LocalDateTime dataInicio,
                                            @Param("dataFim") LocalDateTime dataFim);
+
+    interface RotaEntrega {
+        Long getId();
+        StatusEntrega getStatus();
+        Long getEntregadorId();
+        Long getLojaId();
+        Long getClienteId();
+    }
 }
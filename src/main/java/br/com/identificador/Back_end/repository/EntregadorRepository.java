@@ -1,14 +1,19 @@
 package br.com.identificador.Back_end.repository;
 
 import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
 import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface EntregadorRepository extends JpaRepository<Entregador, Long> {
@@ -20,10 +25,121 @@ public interface EntregadorRepository extends JpaRepository<Entregador, Long> {
     boolean existsByCpf(String cpf);
 
     List<Entregador> findByStatus(StatusEntregador status);
+    long countByStatus(StatusEntregador status);
 
-    @Query("SELECT e FROM Entregador e WHERE e.status = :status AND SIZE(e.aplicativos) > 0")
+    // Aplicativos numa coluna de bits (Aplicativo.getBit()): os filtros são bit a bit na própria
+    // linha, sem join com tabela de coleção. bitand vira & no PostgreSQL e BITAND no H2, que
+    // exige o tipo do parâmetro explícito.
+    @Query("SELECT e FROM Entregador e WHERE e.status = :status AND e.mascaraAplicativos <> 0")
     List<Entregador> buscarEntregadoresDisponiveis(@Param("status") StatusEntregador status);
 
+    @Query("SELECT e FROM Entregador e WHERE bitand(e.mascaraAplicativos, cast(:mascara as Long)) <> 0 ORDER BY e.id")
+    List<Entregador> buscarComAlgumAplicativo(@Param("mascara") long mascara);
+
+    // x & (x - 1) apaga o bit mais baixo: diferente de zero só com dois ou mais aplicativos
+    @Query("SELECT e FROM Entregador e WHERE bitand(e.mascaraAplicativos, e.mascaraAplicativos - 1) <> 0 ORDER BY e.id")
+    List<Entregador> buscarComDoisOuMaisAplicativos();
+
+    @Query("SELECT e FROM Entregador e WHERE e.mascaraAplicativos <> 0 ORDER BY e.id")
+    List<Entregador> buscarComAplicativos();
+
     @Query("SELECT e FROM Entregador e WHERE e.avaliacaoMedia >= :avaliacaoMinima ORDER BY e.avaliacaoMedia DESC")
     List<Entregador> buscarPorAvaliacaoMinima(@Param("avaliacaoMinima") Double avaliacaoMinima);
+
+    // Reserva o entregador para uma entrega apenas se ele continua livre e disponível.
+    // SQL nativo: em JPQL o Hibernate trata Entregador (herança JOINED) como multi-tabela e
+    // separaria a condição do UPDATE, perdendo a atomicidade.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE entregadores SET entrega_ativa_id = :entregaId " +
+            "WHERE id = :entregadorId AND entrega_ativa_id IS NULL AND status = 'DISPONIVEL'",
+            nativeQuery = true)
+    int reservarParaEntrega(@Param("entregadorId") Long entregadorId, @Param("entregaId") Long entregaId);
+
+    // Entrega em andamento: ocupa o entregador só se ele está livre ou já ocupado por esta entrega
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE entregadores SET entrega_ativa_id = :entregaId " +
+            "WHERE id = :entregadorId AND (entrega_ativa_id IS NULL OR entrega_ativa_id = :entregaId)",
+            nativeQuery = true)
+    int ocuparComEntrega(@Param("entregadorId") Long entregadorId, @Param("entregaId") Long entregaId);
+
+    // Entrega encerrada: libera o entregador só se a entrega ativa dele é esta
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE entregadores SET entrega_ativa_id = NULL " +
+            "WHERE id = :entregadorId AND entrega_ativa_id = :entregaId",
+            nativeQuery = true)
+    int liberarEntrega(@Param("entregadorId") Long entregadorId, @Param("entregaId") Long entregaId);
+
+    // Operações em lote: um comando por bloco de ids em vez de find/save por entregador
+    @Query("SELECT e.id FROM Entregador e WHERE e.id IN :ids")
+    List<Long> buscarIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE entregadores SET status = :status WHERE id IN (:ids)", nativeQuery = true)
+    int atualizarStatusEmLote(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    // Herança JOINED: subclasse e users, nessa ordem por causa da chave estrangeira
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM entregadores WHERE id IN (:ids)", nativeQuery = true)
+    int removerEmLote(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM users WHERE id IN (:ids)", nativeQuery = true)
+    int removerUsuariosEmLote(@Param("ids") Collection<Long> ids);
+
+    // Avaliação e entregas incrementadas no próprio banco: sem read-modify-write em Java,
+    // avaliações simultâneas do mesmo entregador não se perdem. A média usa os valores
+    // antigos da linha (semântica padrão do SET) mais a nova nota.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE entregadores SET soma_avaliacoes = soma_avaliacoes + :nota, " +
+            "num_avaliacoes = num_avaliacoes + 1, " +
+            "avaliacao_media = ROUND(CAST((soma_avaliacoes + :nota) / (num_avaliacoes + 1) AS NUMERIC(10, 4)), 2) " +
+            "WHERE id = :entregadorId",
+            nativeQuery = true)
+    int registrarAvaliacao(@Param("entregadorId") Long entregadorId, @Param("nota") double nota);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE entregadores SET total_entregas = COALESCE(total_entregas, 0) + 1 WHERE id = :entregadorId",
+            nativeQuery = true)
+    int incrementarTotalEntregas(@Param("entregadorId") Long entregadorId);
+
+    // Só id e UUID do QR Code, para geração de crachás em lote
+    @Query("SELECT e.id AS id, e.qrCodeUuid AS qrCodeUuid FROM Entregador e WHERE e.id IN :ids")
+    List<QrCodeEntregador> buscarQrCodes(@Param("ids") Collection<Long> ids);
+
+    // Carga do registro de disponibilidade: só colunas, sem instanciar entidades
+    @Query("SELECT e.id AS id, e.nome AS nome, e.status AS status, e.aplicativos AS aplicativos, " +
+            "e.avaliacaoMedia AS avaliacaoMedia, e.totalEntregas AS totalEntregas, " +
+            "e.numAvaliacoes AS numAvaliacoes FROM Entregador e")
+    List<SituacaoEntregador> buscarSituacoes();
+
+    @Query("SELECT e.id AS id, e.nome AS nome, e.status AS status, e.avaliacaoMedia AS avaliacaoMedia, " +
+            "e.totalEntregas AS totalEntregas FROM Entregador e ORDER BY e.avaliacaoMedia DESC, e.id")
+    List<SituacaoEntregador> buscarMelhoresAvaliados(Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.nome AS nome, e.status AS status, e.avaliacaoMedia AS avaliacaoMedia, " +
+            "e.totalEntregas AS totalEntregas FROM Entregador e WHERE e.totalEntregas >= :minimo " +
+            "ORDER BY e.totalEntregas DESC, e.id")
+    List<SituacaoEntregador> buscarExperientes(@Param("minimo") int minimoEntregas);
+
+    @Query("SELECT COALESCE(AVG(e.avaliacaoMedia), 0.0) FROM Entregador e WHERE e.numAvaliacoes > 0")
+    Double calcularAvaliacaoMediaGeral();
+
+    // Carga do índice de busca (entregador não tem endereço)
+    @Query("SELECT e.id AS id, e.nome AS nome, CAST(NULL AS String) AS endereco FROM Entregador e")
+    List<UserRepository.NomeUsuario> buscarNomes();
+
+    interface SituacaoEntregador {
+        Long getId();
+        String getNome();
+        StatusEntregador getStatus();
+        Set<Aplicativo> getAplicativos();
+        Double getAvaliacaoMedia();
+        Integer getTotalEntregas();
+        Integer getNumAvaliacoes();
+    }
+
+    interface QrCodeEntregador {
+        Long getId();
+        String getQrCodeUuid();
+    }
 }
@@ -1,13 +1,19 @@
 package br.com.identificador.Back_end.repository;
 
+import br.com.identificador.Back_end.dto.LojaResumoDTO;
 import br.com.identificador.Back_end.model.Loja;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LojaRepository extends JpaRepository<Loja, Long> {
@@ -22,4 +28,19 @@ public interface LojaRepository extends JpaRepository<Loja, Long> {
 
     @Query("SELECT l FROM Loja l WHERE LOWER(l.endereco) LIKE LOWER(CONCAT('%', :endereco, '%'))")
     List<Loja> buscarPorEndereco(@Param("endereco") String endereco);
+
+    // Listagem por cursor (keyset em id) e exportação em stream, como em UserRepository
+    String SELECT_RESUMO = "SELECT new br.com.identificador.Back_end.dto.LojaResumoDTO(" +
+            "l.id, l.nome, l.email, l.telefone, l.cnpj, l.endereco, l.horarioFuncionamento) FROM Loja l ";
+
+    @Query(SELECT_RESUMO + "WHERE l.id > :cursorId ORDER BY l.id")
+    List<LojaResumoDTO> listarResumosAposCursor(@Param("cursorId") Long cursorId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.FETCH_SIZE_EXPORTACAO))
+    @Query(SELECT_RESUMO + "ORDER BY l.id")
+    Stream<LojaResumoDTO> exportarResumos();
+
+    // Carga do índice de busca
+    @Query("SELECT l.id AS id, l.nome AS nome, l.endereco AS endereco FROM Loja l")
+    List<UserRepository.NomeUsuario> buscarNomes();
 }
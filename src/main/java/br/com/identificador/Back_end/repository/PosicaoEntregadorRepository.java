@@ -0,0 +1,16 @@
+package br.com.identificador.Back_end.repository;
+
+import br.com.identificador.Back_end.model.PosicaoEntregador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PosicaoEntregadorRepository extends JpaRepository<PosicaoEntregador, Long> {
+
+    // Trajeto de um entregador em um intervalo (servido por idx_posicoes_entregador_registrado)
+    List<PosicaoEntregador> findByEntregadorIdAndRegistradoEmBetweenOrderByRegistradoEmAsc(
+            Long entregadorId, LocalDateTime inicio, LocalDateTime fim);
+}
@@ -1,14 +1,21 @@
 package br.com.identificador.Back_end.repository;
 
+import br.com.identificador.Back_end.dto.UsuarioResumoDTO;
 import br.com.identificador.Back_end.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -38,7 +45,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
     Optional<User> findByEmailIgnoreCase(@Param("email") String email);
-    
+
+    /**
+     * Email em uso por qualquer tipo de usuário, ignorando case (mesmo critério do índice em LOWER(email))
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    /**
+     * Email em uso por outro usuário que não o informado, ignorando case (atualização de cadastro)
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email) AND u.id <> :id")
+    boolean existsByEmailIgnoreCaseAndIdNot(@Param("email") String email, @Param("id") Long id);
+
     /**
      * Busca usuários por nome contendo string (case insensitive)
      */
@@ -69,9 +88,48 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u.email FROM User u ORDER BY u.email")
     List<String> findAllEmails();
     
+    /**
+     * Regrava o hash da senha (rehash no login); SQL nativo para tocar só a tabela users
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET senha = :senha WHERE email = :email", nativeQuery = true)
+    int atualizarSenha(@Param("email") String email, @Param("senha") String senha);
+
     /**
      * Busca usuários ativos (pode ser expandido com campo 'ativo' no futuro)
      */
     @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
     List<User> findAllOrderByCreatedAtDesc();
+
+    // Listagens e exportações: projeções só com colunas de users, sem carregar entidades (nem
+    // a hierarquia de User). As páginas usam keyset (id ou email, ambos indexados); os streams
+    // leem por cursor do servidor em lotes de FETCH_SIZE_EXPORTACAO linhas e exigem transação aberta.
+
+    String FETCH_SIZE_EXPORTACAO = "500";
+
+    String SELECT_RESUMO = "SELECT new br.com.identificador.Back_end.dto.UsuarioResumoDTO(" +
+            "u.id, u.nome, u.email, u.telefone, u.createdAt) FROM User u ";
+
+    @Query(SELECT_RESUMO + "WHERE u.id > :cursorId ORDER BY u.id")
+    List<UsuarioResumoDTO> listarResumosAposCursor(@Param("cursorId") Long cursorId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO))
+    @Query(SELECT_RESUMO + "ORDER BY u.id")
+    Stream<UsuarioResumoDTO> exportarResumos();
+
+    @Query("SELECT u.email FROM User u WHERE u.email > :cursorEmail ORDER BY u.email")
+    List<String> listarEmailsAposCursor(@Param("cursorEmail") String cursorEmail, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACAO))
+    @Query("SELECT u.email FROM User u ORDER BY u.email")
+    Stream<String> exportarEmails();
+
+    /**
+     * Id, nome e endereço, sem carregar entidades (carga do índice de busca)
+     */
+    interface NomeUsuario {
+        Long getId();
+        String getNome();
+        String getEndereco();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package br.com.identificador.Back_end.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Buffer circular sem locks para pings de posição: vários produtores (conexões STOMP e
+ * requisições HTTP) e um único consumidor (a drenagem agendada). Os campos ficam em arrays
+ * primitivos pré-alocados, então publicar um ping não aloca nada. Cada posição tem um número
+ * de sequência que diz se ela está livre para o produtor da volta atual ou pronta para o
+ * consumidor; a escrita volátil da sequência publica os campos gravados antes dela.
+ */
+final class AnelPosicoes {
+
+    @FunctionalInterface
+    interface Consumidor {
+        void aceitar(long entregadorId, double latitude, double longitude, long momento);
+    }
+
+    private final int mascara;
+    private final AtomicLongArray sequencias;
+    private final long[] entregadores;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final long[] momentos;
+
+    private final AtomicLong cauda = new AtomicLong();
+    // Só o consumidor escreve; volátil para que tamanho() possa ser lido por outras threads
+    private volatile long cabeca;
+
+    AnelPosicoes(int capacidadeMinima) {
+        int capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1)) << 1;
+        this.mascara = capacidade - 1;
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) sequencias.set(i, i);
+        this.entregadores = new long[capacidade];
+        this.latitudes = new double[capacidade];
+        this.longitudes = new double[capacidade];
+        this.momentos = new long[capacidade];
+    }
+
+    /**
+     * Retorna false quando o buffer está cheio: o ping é descartado, o próximo o substitui
+     */
+    boolean publicar(long entregadorId, double latitude, double longitude, long momento) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    entregadores[indice] = entregadorId;
+                    latitudes[indice] = latitude;
+                    longitudes[indice] = longitude;
+                    momentos[indice] = momento;
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                return false;
+            }
+            // diferenca > 0: outro produtor já ocupou a posição, tenta a seguinte
+        }
+    }
+
+    /**
+     * Entrega ao consumidor até limite pings, na ordem de publicação. Só pode ser chamado
+     * por uma thread de cada vez.
+     */
+    int drenar(Consumidor consumidor, int limite) {
+        long posicao = cabeca;
+        int drenados = 0;
+        try {
+            while (drenados < limite) {
+                int indice = (int) (posicao & mascara);
+                if (sequencias.get(indice) != posicao + 1) break;
+
+                long entregadorId = entregadores[indice];
+                double latitude = latitudes[indice];
+                double longitude = longitudes[indice];
+                long momento = momentos[indice];
+                // Libera a posição antes do callback: uma exceção nele não trava o anel
+                sequencias.set(indice, posicao + mascara + 1);
+                posicao++;
+                drenados++;
+                consumidor.aceitar(entregadorId, latitude, longitude, momento);
+            }
+        } finally {
+            cabeca = posicao;
+        }
+        return drenados;
+    }
+
+    int capacidade() {
+        return mascara + 1;
+    }
+
+    int tamanho() {
+        return (int) Math.max(0, cauda.get() - cabeca);
+    }
+}
@@ -0,0 +1,238 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.dto.ResultadoBuscaDTO;
+import br.com.identificador.Back_end.evento.EntregadorAtualizadoEvento;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.evento.UsuarioAtualizadoEvento;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.User;
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import br.com.identificador.Back_end.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Busca de usuários por trecho do nome (todos os tipos) e de lojas por trecho do endereço,
+ * em índices de trigramas em memória (IndiceTrigramas) no lugar do LIKE '%termo%', que
+ * sempre varre a tabela. Os índices são montados na subida com consultas de projeção,
+ * mantidos pelos eventos de cadastro/alteração/remoção e reconstruídos periodicamente para
+ * convergir com escritas de outras instâncias. Até a primeira carga, isPronto() é false
+ * e os serviços continuam consultando o banco.
+ */
+@Service
+@Slf4j
+public class BuscaService {
+
+    private final UserRepository userRepository;
+    private final ClienteRepository clienteRepository;
+    private final LojaRepository lojaRepository;
+    private final EntregadorRepository entregadorRepository;
+    private final int tamanhoMaximo;
+
+    private volatile IndiceTrigramas nomes = new IndiceTrigramas();
+    private volatile IndiceTrigramas enderecos = new IndiceTrigramas();
+    private volatile boolean pronto;
+
+    // Alterações que chegam enquanto um índice novo é montado são reaplicadas depois da troca
+    private volatile boolean carregando;
+    private final Set<Long> alteradosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    public BuscaService(UserRepository userRepository,
+                        ClienteRepository clienteRepository,
+                        LojaRepository lojaRepository,
+                        EntregadorRepository entregadorRepository,
+                        @Value("${busca.tamanho-maximo:100}") int tamanhoMaximo) {
+        this.userRepository = userRepository;
+        this.clienteRepository = clienteRepository;
+        this.lojaRepository = lojaRepository;
+        this.entregadorRepository = entregadorRepository;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    /**
+     * Monta índices novos a partir do banco e troca os atuais por eles
+     */
+    @Scheduled(fixedDelayString = "${busca.reconciliar-ms:600000}",
+            initialDelayString = "${busca.reconciliar-ms:600000}")
+    public void reconciliar() {
+        carregando = true;
+        try {
+            IndiceTrigramas novosNomes = new IndiceTrigramas();
+            IndiceTrigramas novosEnderecos = new IndiceTrigramas();
+            indexarTodos(clienteRepository.buscarNomes(), TipoUsuario.CLIENTE, novosNomes, novosEnderecos);
+            indexarTodos(lojaRepository.buscarNomes(), TipoUsuario.LOJA, novosNomes, novosEnderecos);
+            indexarTodos(entregadorRepository.buscarNomes(), TipoUsuario.ENTREGADOR, novosNomes, novosEnderecos);
+
+            nomes = novosNomes;
+            enderecos = novosEnderecos;
+            pronto = true;
+        } finally {
+            carregando = false;
+        }
+
+        List<Long> pendentes = List.copyOf(alteradosDuranteCarga);
+        alteradosDuranteCarga.removeAll(pendentes);
+        pendentes.forEach(this::recarregar);
+        log.info("Índice de busca carregado: {} nomes, {} endereços de lojas", nomes.tamanho(), enderecos.tamanho());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarUsuario(UsuarioAtualizadoEvento evento) {
+        recarregar(evento.usuarioId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarEntregador(EntregadorAtualizadoEvento evento) {
+        recarregar(evento.entregadorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRemoverEntregadores(EntregadoresRemovidosEvento evento) {
+        evento.entregadorIds().forEach(this::remover);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Usuários cujo nome contém todos os termos (sem acento e sem caixa), dos mais relevantes
+     * aos menos: nome começando pela busca, termos no início de palavras, termos no meio.
+     * Tipo nulo busca entre todos os usuários.
+     */
+    public PaginaCursorDTO<ResultadoBuscaDTO> buscarPorNome(String consulta, TipoUsuario tipo, String cursor, int tamanho) {
+        return paginar(nomes, consulta, tipo, cursor, tamanho);
+    }
+
+    /**
+     * Lojas cujo endereço contém todos os termos, na mesma ordem de relevância da busca por nome
+     */
+    public PaginaCursorDTO<ResultadoBuscaDTO> buscarLojasPorEndereco(String consulta, String cursor, int tamanho) {
+        return paginar(enderecos, consulta, TipoUsuario.LOJA, cursor, tamanho);
+    }
+
+    /**
+     * Ids dos primeiros resultados, para as listagens que devolvem entidades
+     */
+    public List<Long> buscarIdsPorNome(String consulta, TipoUsuario tipo, int limite) {
+        return ids(nomes.buscar(consulta, tipo, null, limite));
+    }
+
+    public List<Long> buscarIdsDeLojasPorEndereco(String consulta, int limite) {
+        return ids(enderecos.buscar(consulta, TipoUsuario.LOJA, null, limite));
+    }
+
+    /**
+     * Relê um usuário do banco; some dos índices se não existir mais
+     */
+    public void recarregar(Long id) {
+        if (carregando) alteradosDuranteCarga.add(id);
+        userRepository.findById(id).ifPresentOrElse(this::indexar, () -> remover(id));
+    }
+
+    private void indexar(User usuario) {
+        TipoUsuario tipo = tipoDe(usuario);
+        if (tipo == null) return;
+        String endereco = usuario instanceof Loja loja ? loja.getEndereco() : null;
+        indexar(usuario.getId(), usuario.getNome(), endereco, tipo, nomes, enderecos);
+    }
+
+    private void remover(Long id) {
+        if (carregando) alteradosDuranteCarga.add(id);
+        nomes.remover(id);
+        enderecos.remover(id);
+    }
+
+    private PaginaCursorDTO<ResultadoBuscaDTO> paginar(IndiceTrigramas indice, String consulta, TipoUsuario tipo,
+                                                       String cursor, int tamanho) {
+        if (consulta == null || consulta.isBlank())
+            throw new IllegalArgumentException("Informe o termo de busca");
+        if (tamanho < 1 || tamanho > tamanhoMaximo)
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + tamanhoMaximo);
+
+        List<IndiceTrigramas.Resultado> resultados = indice.buscar(consulta, tipo, decodificarCursor(cursor), tamanho + 1);
+        boolean temMais = resultados.size() > tamanho;
+        List<IndiceTrigramas.Resultado> pagina = temMais ? resultados.subList(0, tamanho) : resultados;
+        String proximoCursor = temMais ? codificarCursor(pagina.get(pagina.size() - 1).chave()) : null;
+
+        List<ResultadoBuscaDTO> itens = pagina.stream()
+                .map(r -> new ResultadoBuscaDTO(r.documento().id(), r.documento().tipo(),
+                        r.documento().nome(), r.documento().endereco()))
+                .toList();
+        return new PaginaCursorDTO<>(itens, proximoCursor, temMais);
+    }
+
+    private static void indexarTodos(List<UserRepository.NomeUsuario> linhas, TipoUsuario tipo,
+                                     IndiceTrigramas nomes, IndiceTrigramas enderecos) {
+        linhas.forEach(linha -> indexar(linha.getId(), linha.getNome(), linha.getEndereco(), tipo, nomes, enderecos));
+    }
+
+    private static void indexar(Long id, String nome, String endereco, TipoUsuario tipo,
+                                IndiceTrigramas nomes, IndiceTrigramas enderecos) {
+        IndiceTrigramas.Documento documento = new IndiceTrigramas.Documento(id, tipo, nome, endereco);
+        nomes.indexar(documento, nome);
+        if (tipo == TipoUsuario.LOJA) enderecos.indexar(documento, endereco);
+    }
+
+    private static TipoUsuario tipoDe(User usuario) {
+        if (usuario instanceof Cliente) return TipoUsuario.CLIENTE;
+        if (usuario instanceof Loja) return TipoUsuario.LOJA;
+        if (usuario instanceof Entregador) return TipoUsuario.ENTREGADOR;
+        return null;
+    }
+
+    /**
+     * Entidades carregadas por findAllById na ordem de relevância dos ids
+     */
+    public static <T extends User> List<T> naOrdem(List<Long> ids, List<T> entidades) {
+        Map<Long, T> porId = entidades.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static List<Long> ids(List<IndiceTrigramas.Resultado> resultados) {
+        return resultados.stream().map(r -> r.documento().id()).toList();
+    }
+
+    private static String codificarCursor(IndiceTrigramas.Chave chave) {
+        String valor = chave.nivel() + "|" + chave.tamanho() + "|" + chave.id() + "|" + chave.texto();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static IndiceTrigramas.Chave decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            return new IndiceTrigramas.Chave(Integer.parseInt(partes[0]), Integer.parseInt(partes[1]),
+                    partes[3], Long.parseLong(partes[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
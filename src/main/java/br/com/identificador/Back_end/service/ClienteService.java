@@ -1,10 +1,15 @@
 package br.com.identificador.Back_end.service;
 
 import br.com.identificador.Back_end.dto.ClienteRegistroDTO;
+import br.com.identificador.Back_end.evento.UsuarioAtualizadoEvento;
 import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
 import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,12 +24,20 @@ import java.util.Optional;
 public class ClienteService {
     
     private final ClienteRepository clienteRepository;
+    private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    
+    private final BuscaService buscaService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${busca.max-resultados:500}")
+    private int maxResultadosBusca = 500;
+
+
     public Cliente registrarCliente(ClienteRegistroDTO dto) {
         log.info("Registrando novo cliente com email: {}", dto.email());
 
-        if (clienteRepository.existsByEmail(dto.email())) {
+        // Email é único entre todos os usuários, sem diferenciar maiúsculas
+        if (userRepository.existsByEmailIgnoreCase(dto.email())) {
             throw new RuntimeException("Email já cadastrado");
         }
         
@@ -41,8 +54,11 @@ public class ClienteService {
         
         cliente.setCpf(dto.cpf());
         cliente.setEndereco(dto.endereco());
+        cliente.setLatitude(dto.latitude());
+        cliente.setLongitude(dto.longitude());
 
         Cliente clienteSalvo = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(new UsuarioAtualizadoEvento(clienteSalvo.getId()));
         log.info("Cliente registrado com sucesso: ID {}", clienteSalvo.getId());
         return clienteSalvo;
     }
@@ -55,8 +71,14 @@ public class ClienteService {
         return clienteRepository.findByEmail(email);
     }
     
+    /**
+     * Pelo índice de busca (ordem de relevância, até busca.max-resultados); no banco até ele carregar
+     */
     public List<Cliente> buscarPorNome(String nome) {
-        return clienteRepository.buscarPorNome(nome);
+        if (!buscaService.isPronto()) return clienteRepository.buscarPorNome(nome);
+
+        List<Long> ids = buscaService.buscarIdsPorNome(nome, TipoUsuario.CLIENTE, maxResultadosBusca);
+        return BuscaService.naOrdem(ids, clienteRepository.findAllById(ids));
     }
     
     public List<Cliente> buscarClientesAtivos() {
@@ -67,9 +89,9 @@ public class ClienteService {
         Cliente cliente = clienteRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
         
-        // Verificar se email não está sendo usado por outro cliente
-        if (!cliente.getEmail().equals(dto.email()) && clienteRepository.existsByEmail(dto.email())) {
-            throw new RuntimeException("Email já está sendo usado por outro cliente");
+        // Verificar se email não está sendo usado por outro usuário
+        if (userRepository.existsByEmailIgnoreCaseAndIdNot(dto.email(), id)) {
+            throw new RuntimeException("Email já está sendo usado por outro usuário");
         }
         
         cliente.setNome(dto.nome());
@@ -78,10 +100,18 @@ public class ClienteService {
         cliente.setCpf(dto.cpf());
         cliente.setEndereco(dto.endereco());
 
+        // Coordenadas são opcionais no formulário: sem o par, mantém a posição já cadastrada
+        if (dto.latitude() != null && dto.longitude() != null) {
+            cliente.setLatitude(dto.latitude());
+            cliente.setLongitude(dto.longitude());
+        }
+
         if (dto.senha() != null && !dto.senha().trim().isEmpty()) {
             cliente.setSenha(passwordEncoder.encode(dto.senha()));
         }
         
-        return clienteRepository.save(cliente);
+        Cliente salvo = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(new UsuarioAtualizadoEvento(id));
+        return salvo;
     }
 }
\ No newline at end of file
@@ -4,16 +4,16 @@ import br.com.identificador.Back_end.model.Cliente;
 import br.com.identificador.Back_end.model.Entregador;
 import br.com.identificador.Back_end.model.Loja;
 import br.com.identificador.Back_end.model.User;
-import br.com.identificador.Back_end.repository.ClienteRepository;
-import br.com.identificador.Back_end.repository.EntregadorRepository;
-import br.com.identificador.Back_end.repository.LojaRepository;
+import br.com.identificador.Back_end.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -21,17 +21,16 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
-    private final EntregadorRepository entregadorRepository;
-    private final ClienteRepository clienteRepository;
-    private final LojaRepository lojaRepository;
+    private final UserRepository userRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         log.info("Tentando carregar usuário com email: {}", email);
 
-        // Busca em todas as tabelas (Entregador, Cliente, Loja)
+        // Uma única consulta na tabela users já devolve o subtipo concreto (Entregador, Cliente ou Loja)
         User user = findUserByEmail(email)
                 .orElseThrow(() -> {
                     log.error("Usuário não encontrado com email: {}", email);
@@ -43,41 +42,34 @@ public class CustomUserDetailsService implements UserDetailsService {
         // Define a role baseada no tipo de usuário
         String role = determineRole(user);
         
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getSenha())
-                .authorities(Collections.singletonList(new SimpleGrantedAuthority(role)))
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
+        return new UsuarioAutenticado(user, Collections.singletonList(new SimpleGrantedAuthority(role)));
     }
 
-    private Optional<User> findUserByEmail(String email) {
-        // Tenta encontrar como Entregador
-        Optional<Entregador> entregador = entregadorRepository.findByEmail(email);
-        if (entregador.isPresent()) {
-            log.debug("Usuário encontrado como Entregador");
-            return Optional.of(entregador.get());
-        }
+    /**
+     * Chamado pelo DaoAuthenticationProvider após um login válido quando o hash armazenado
+     * está num formato ou custo antigo: grava o novo hash sem intervenção do usuário
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.atualizarSenha(userDetails.getUsername(), newPassword);
+        log.info("Hash de senha atualizado para: {}", userDetails.getUsername());
 
-        // Tenta encontrar como Cliente
-        Optional<Cliente> cliente = clienteRepository.findByEmail(email);
-        if (cliente.isPresent()) {
-            log.debug("Usuário encontrado como Cliente");
-            return Optional.of(cliente.get());
+        if (userDetails instanceof UsuarioAutenticado autenticado) {
+            autenticado.getUsuario().setSenha(newPassword);
+            return new UsuarioAutenticado(autenticado.getUsuario(), autenticado.getAuthorities());
         }
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
 
-        // Tenta encontrar como Loja
-        Optional<Loja> loja = lojaRepository.findByEmail(email);
-        if (loja.isPresent()) {
-            log.debug("Usuário encontrado como Loja");
-            return Optional.of(loja.get());
+    private Optional<User> findUserByEmail(String email) {
+        Optional<User> user = userRepository.findByEmail(email);
+        if (user.isEmpty()) {
+            log.warn("Usuário não encontrado: {}", email);
         }
-
-        log.warn("Usuário não encontrado em nenhuma tabela: {}", email);
-        return Optional.empty();
+        return user;
     }
 
     private String determineRole(User user) {
@@ -94,6 +86,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     /**
      * Busca usuário completo por email (retorna o objeto User com todos os dados)
      */
+    @Transactional(readOnly = true)
     public Optional<User> findCompleteUserByEmail(String email) {
         return findUserByEmail(email);
     }
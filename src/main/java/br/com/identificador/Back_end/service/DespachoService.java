@@ -0,0 +1,294 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.OfertaEntregaDTO;
+import br.com.identificador.Back_end.evento.EntregaAtualizadaEvento;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.evento.EntregasCriadasEvento;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.evento.EntregadoresStatusAlteradosEvento;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de despacho em memória: mantém a fila de entregas sem entregador e o índice de
+ * entregadores livres, e oferta cada entrega ao candidato mais próximo da coleta (pelo
+ * IndiceGeografico) ou, sem posição conhecida, ao melhor avaliado, via WebSocket na fila
+ * do próprio entregador (/usuario/fila/ofertas, só nas sessões autenticadas dele). Ofertas não aceitas dentro do prazo são
+ * repassadas ao próximo candidato. A aceitação continua passando por
+ * EntregaService.aceitarEntrega, que garante um único vencedor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DespachoService {
+
+    private final EntregaRepository entregaRepository;
+    private final EntregadorRepository entregadorRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final IndiceGeografico indiceGeografico;
+
+    private static final int BLOCO_CARGA = 1000;
+    // Destino por usuário: convertAndSendToUser o resolve para as sessões do entregador
+    static final String FILA_OFERTAS = "/fila/ofertas";
+
+    @Value("${despacho.oferta.timeout-segundos:15}")
+    private long timeoutOfertaSegundos;
+
+    @Value("${despacho.avaliacao-minima:0.0}")
+    private double avaliacaoMinima;
+
+    @Value("${despacho.aplicativo:#{null}}")
+    private Aplicativo aplicativoExigido;
+
+    @Value("${despacho.fila.carga-inicial:1000}")
+    private int cargaInicial;
+
+    @Value("${despacho.raio-maximo-km:10}")
+    private double raioMaximoKm = 10;
+
+    // Entregas aguardando entregador, em ordem de chegada (ids crescentes)
+    private final ConcurrentSkipListMap<Long, EntregaPendente> fila = new ConcurrentSkipListMap<>();
+
+    // Entregadores DISPONIVEL e sem entrega ativa
+    private final Map<Long, EntregadorLivre> livres = new ConcurrentHashMap<>();
+
+    // Oferta em aberto por entrega; cada entregador recebe no máximo uma oferta por vez
+    private final Map<Long, Oferta> ofertas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ofertaPorEntregador = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregarEstadoInicial() {
+        entregadorRepository.findByStatus(StatusEntregador.DISPONIVEL).forEach(this::registrarSeLivre);
+        entregaRepository.findByStatusEntregaAndEntregadorIsNullOrderByCriadoEmAsc(
+                StatusEntrega.A_CAMINHO_COLETA, PageRequest.ofSize(cargaInicial)).forEach(this::enfileirar);
+        log.info("Despacho iniciado: {} entregas na fila, {} entregadores livres", fila.size(), livres.size());
+        despachar();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void aoAtualizarEntrega(EntregaAtualizadaEvento evento) {
+        if (evento.novoStatus() == StatusEntrega.A_CAMINHO_COLETA && evento.entregadorId() == null) {
+            entregaRepository.findById(evento.entregaId()).ifPresent(this::enfileirar);
+        } else {
+            retirarDaFila(evento.entregaId());
+            if (evento.entregadorId() != null) {
+                if (evento.novoStatus().isEmAndamento())
+                    removerEntregador(evento.entregadorId());
+                else
+                    entregadorRepository.findById(evento.entregadorId()).ifPresent(this::registrarSeLivre);
+            }
+        }
+        despachar();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void aoCriarEntregasEmLote(EntregasCriadasEvento evento) {
+        for (int inicio = 0; inicio < evento.entregaIds().size(); inicio += BLOCO_CARGA)
+            entregaRepository.findAllById(evento.entregaIds().subList(inicio,
+                    Math.min(inicio + BLOCO_CARGA, evento.entregaIds().size()))).forEach(this::enfileirar);
+        despachar();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void aoAlterarStatusEntregador(EntregadorStatusAlteradoEvento evento) {
+        if (evento.novoStatus() == StatusEntregador.DISPONIVEL)
+            entregadorRepository.findById(evento.entregadorId()).ifPresent(this::registrarSeLivre);
+        else
+            removerEntregador(evento.entregadorId());
+        despachar();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void aoAlterarStatusEmLote(EntregadoresStatusAlteradosEvento evento) {
+        if (evento.novoStatus() == StatusEntregador.DISPONIVEL) {
+            // Aplicativos vêm na própria linha do entregador: uma consulta por bloco
+            for (int inicio = 0; inicio < evento.entregadorIds().size(); inicio += BLOCO_CARGA)
+                entregadorRepository.findAllById(evento.entregadorIds().subList(inicio,
+                        Math.min(inicio + BLOCO_CARGA, evento.entregadorIds().size()))).forEach(this::registrarSeLivre);
+        } else {
+            evento.entregadorIds().forEach(this::removerEntregador);
+        }
+        despachar();
+    }
+
+    @TransactionalEventListener
+    public void aoRemoverEmLote(EntregadoresRemovidosEvento evento) {
+        evento.entregadorIds().forEach(this::removerEntregador);
+    }
+
+    /**
+     * Repassa ofertas vencidas e tenta despachar o que ficou na fila
+     */
+    @Scheduled(fixedDelayString = "${despacho.intervalo-ms:1000}")
+    public synchronized void verificarOfertasExpiradas() {
+        LocalDateTime agora = LocalDateTime.now();
+        ofertas.values().stream()
+                .filter(oferta -> oferta.expiraEm().isBefore(agora))
+                .collect(Collectors.toList())
+                .forEach(oferta -> {
+                    log.debug("Oferta da entrega {} ao entregador {} expirou", oferta.entregaId(), oferta.entregadorId());
+                    encerrarOferta(oferta);
+                });
+        despachar();
+    }
+
+    /**
+     * Entregadores livres que atendem aos filtros, melhores avaliados primeiro
+     */
+    public List<EntregadorLivre> buscarCandidatos(Aplicativo aplicativo, double avaliacaoMinima, int limite) {
+        return livres.values().stream()
+                .filter(e -> aplicativo == null || e.aplicativos().contains(aplicativo))
+                .filter(e -> e.avaliacaoMedia() >= avaliacaoMinima)
+                .sorted(Comparator.comparingDouble(EntregadorLivre::avaliacaoMedia).reversed())
+                .limit(limite)
+                .collect(Collectors.toList());
+    }
+
+    public int tamanhoFila() {
+        return fila.size();
+    }
+
+    public int totalEntregadoresLivres() {
+        return livres.size();
+    }
+
+    synchronized void enfileirar(Entrega entrega) {
+        BigDecimal gorjeta = entrega.getValorGorjeta() != null ? entrega.getValorGorjeta() : BigDecimal.ZERO;
+        fila.putIfAbsent(entrega.getId(), new EntregaPendente(
+                entrega.getId(),
+                entrega.getEnderecoOrigem(),
+                entrega.getEnderecoDestino(),
+                entrega.getValorEntrega().add(gorjeta),
+                entrega.getLatitudeOrigem(),
+                entrega.getLongitudeOrigem(),
+                ConcurrentHashMap.newKeySet()
+        ));
+    }
+
+    synchronized void registrarSeLivre(Entregador entregador) {
+        if (entregador.getStatus() != StatusEntregador.DISPONIVEL || entregador.getEntregaAtivaId() != null) {
+            removerEntregador(entregador.getId());
+            return;
+        }
+        Set<Aplicativo> aplicativos = entregador.getAplicativos().isEmpty()
+                ? EnumSet.noneOf(Aplicativo.class)
+                : EnumSet.copyOf(entregador.getAplicativos());
+        livres.put(entregador.getId(), new EntregadorLivre(
+                entregador.getId(), aplicativos, entregador.getAvaliacaoMedia() != null ? entregador.getAvaliacaoMedia() : 0.0));
+    }
+
+    private synchronized void retirarDaFila(Long entregaId) {
+        fila.remove(entregaId);
+        Oferta oferta = ofertas.get(entregaId);
+        if (oferta != null) encerrarOferta(oferta);
+    }
+
+    private synchronized void removerEntregador(Long entregadorId) {
+        livres.remove(entregadorId);
+        Long entregaOfertada = ofertaPorEntregador.get(entregadorId);
+        if (entregaOfertada != null) {
+            Oferta oferta = ofertas.get(entregaOfertada);
+            if (oferta != null) encerrarOferta(oferta);
+        }
+    }
+
+    private void encerrarOferta(Oferta oferta) {
+        ofertas.remove(oferta.entregaId());
+        ofertaPorEntregador.remove(oferta.entregadorId());
+    }
+
+    synchronized void despachar() {
+        if (fila.isEmpty() || livres.isEmpty()) return;
+
+        // Melhores avaliados primeiro: ordem usada quando a entrega não tem coordenadas
+        // ou ninguém com posição conhecida está no raio
+        Map<Long, EntregadorLivre> candidatos = buscarCandidatos(aplicativoExigido, avaliacaoMinima, Integer.MAX_VALUE).stream()
+                .filter(e -> !ofertaPorEntregador.containsKey(e.id()))
+                .collect(Collectors.toMap(EntregadorLivre::id, e -> e, (a, b) -> a, LinkedHashMap::new));
+
+        for (EntregaPendente entrega : fila.values()) {
+            if (candidatos.isEmpty()) break;
+            if (ofertas.containsKey(entrega.id())) continue;
+
+            EntregadorLivre escolhido = maisProximo(entrega, candidatos);
+            if (escolhido == null) {
+                escolhido = candidatos.values().stream()
+                        .filter(candidato -> !entrega.ofertados().contains(candidato.id()))
+                        .findFirst()
+                        .orElse(null);
+            }
+
+            if (escolhido != null) {
+                candidatos.remove(escolhido.id());
+                ofertar(entrega, escolhido);
+            }
+            // Todos os livres já recusaram: recomeça a rodada na próxima verificação
+            else entrega.ofertados().clear();
+        }
+    }
+
+    private EntregadorLivre maisProximo(EntregaPendente entrega, Map<Long, EntregadorLivre> candidatos) {
+        if (entrega.latitude() == null || entrega.longitude() == null) return null;
+        List<IndiceGeografico.Proximo> proximos = indiceGeografico.buscar(entrega.latitude(), entrega.longitude(), 1,
+                raioMaximoKm, id -> candidatos.containsKey(id) && !entrega.ofertados().contains(id));
+        return proximos.isEmpty() ? null : candidatos.get(proximos.get(0).entregadorId());
+    }
+
+    private void ofertar(EntregaPendente entrega, EntregadorLivre entregador) {
+        Oferta oferta = new Oferta(entrega.id(), entregador.id(), LocalDateTime.now().plusSeconds(timeoutOfertaSegundos));
+        ofertas.put(entrega.id(), oferta);
+        ofertaPorEntregador.put(entregador.id(), entrega.id());
+        entrega.ofertados().add(entregador.id());
+
+        messagingTemplate.convertAndSendToUser(String.valueOf(entregador.id()), FILA_OFERTAS, new OfertaEntregaDTO(
+                entrega.id(),
+                entregador.id(),
+                entrega.enderecoOrigem(),
+                entrega.enderecoDestino(),
+                entrega.valorTotal(),
+                oferta.expiraEm()
+        ));
+        log.debug("Entrega {} ofertada ao entregador {}", entrega.id(), entregador.id());
+    }
+
+    public record EntregadorLivre(Long id, Set<Aplicativo> aplicativos, double avaliacaoMedia) {}
+
+    private record EntregaPendente(Long id, String enderecoOrigem, String enderecoDestino, BigDecimal valorTotal,
+                                   Double latitude, Double longitude, Set<Long> ofertados) {}
+
+    private record Oferta(Long entregaId, Long entregadorId, LocalDateTime expiraEm) {}
+}
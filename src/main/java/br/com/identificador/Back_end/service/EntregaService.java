@@ -3,6 +3,10 @@ package br.com.identificador.Back_end.service;
 import br.com.identificador.Back_end.dto.AtualizarStatusEntregaDTO;
 import br.com.identificador.Back_end.dto.CriarEntregaDTO;
 import br.com.identificador.Back_end.dto.EntregaDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.evento.EntregaAtualizadaEvento;
+import br.com.identificador.Back_end.evento.EntregasCriadasEvento;
+import br.com.identificador.Back_end.exceptions.ConflitoAceitacaoException;
 import br.com.identificador.Back_end.model.Cliente;
 import br.com.identificador.Back_end.model.Entrega;
 import br.com.identificador.Back_end.model.Entregador;
@@ -13,14 +17,26 @@ import br.com.identificador.Back_end.repository.ClienteRepository;
 import br.com.identificador.Back_end.repository.EntregaRepository;
 import br.com.identificador.Back_end.repository.EntregadorRepository;
 import br.com.identificador.Back_end.repository.LojaRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,10 +44,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EntregaService {
 
+    // Limites usados como cursor da primeira página; ficam fora de qualquer criadoEm real
+    private static final LocalDateTime INICIO_ASC = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime INICIO_DESC = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final EntregaRepository entregaRepository;
     private final EntregadorRepository entregadorRepository;
     private final LojaRepository lojaRepository;
     private final ClienteRepository clienteRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    @Value("${entrega.lote.max-itens:10000}")
+    private int maxItensLote = 10000;
 
     @Transactional
     public EntregaDTO criarEntrega(CriarEntregaDTO dto) {
@@ -43,24 +68,68 @@ public class EntregaService {
         Cliente cliente = clienteRepository.findById(dto.clienteId())
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado: " + dto.clienteId()));
 
-        Entrega entrega = new Entrega();
-        entrega.setLoja(loja);
-        entrega.setCliente(cliente);
-        entrega.setEnderecoOrigem(dto.enderecoOrigem());
-        entrega.setEnderecoDestino(dto.enderecoDestino());
-        entrega.setProdutoDescricao(dto.descricaoProduto());
-        entrega.setValorEntrega(dto.valorEntrega());
-        entrega.setValorGorjeta(dto.valorGorjeta() != null ? dto.valorGorjeta() : BigDecimal.ZERO);
-        entrega.setTempoEstimadoMinutos(dto.tempoEstimadoMinutos());
-        entrega.setObservacoes(dto.observacoes());
-        entrega.setStatusEntrega(StatusEntrega.A_CAMINHO_COLETA);
+        Entrega entrega = novaEntrega(dto, loja, cliente);
         entrega.setCriadoEm(LocalDateTime.now());
 
         Entrega saved = entregaRepository.save(entrega);
+        clienteRepository.registrarPedidos(cliente.getId(), 1, saved.getCriadoEm());
+        publicarAtualizacao(saved, null);
         log.info("✅ Entrega criada ID: {}", saved.getId());
         return toDTO(saved);
     }
 
+    /**
+     * Criação em lote para integrações de loja: lojas e clientes resolvidos numa consulta
+     * cada, ids vindos da sequência em blocos e INSERTs agrupados em batch no commit.
+     * Tudo ou nada: qualquer referência inválida rejeita o lote inteiro.
+     */
+    @Transactional
+    public List<Long> criarEntregasEmLote(List<CriarEntregaDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) throw new IllegalArgumentException("Informe ao menos uma entrega");
+        if (dtos.size() > maxItensLote)
+            throw new IllegalArgumentException("Lote excede o limite de " + maxItensLote + " entregas");
+
+        Map<Long, Loja> lojas = lojaRepository.findAllById(idsDistintos(dtos, CriarEntregaDTO::lojaId)).stream()
+                .collect(Collectors.toMap(Loja::getId, Function.identity()));
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(idsDistintos(dtos, CriarEntregaDTO::clienteId)).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<Entrega> entregas = new ArrayList<>(dtos.size());
+        for (CriarEntregaDTO dto : dtos) {
+            Loja loja = lojas.get(dto.lojaId());
+            if (loja == null) throw new IllegalArgumentException("Loja não encontrada: " + dto.lojaId());
+            Cliente cliente = clientes.get(dto.clienteId());
+            if (cliente == null) throw new IllegalArgumentException("Cliente não encontrado: " + dto.clienteId());
+
+            Entrega entrega = novaEntrega(dto, loja, cliente);
+            entrega.setCriadoEm(agora);
+            entregas.add(entrega);
+        }
+
+        // Um UPDATE por cliente do lote, na ordem dos ids para lotes concorrentes não se travarem.
+        // Antes do saveAll: cada UPDATE nativo faz flush da sessão, que com as entregas já
+        // persistidas conferiria o lote inteiro a cada cliente.
+        Map<Long, Long> pedidosPorCliente = dtos.stream()
+                .collect(Collectors.groupingBy(CriarEntregaDTO::clienteId, TreeMap::new, Collectors.counting()));
+        pedidosPorCliente.forEach((clienteId, quantidade) ->
+                clienteRepository.registrarPedidos(clienteId, quantidade.intValue(), agora));
+
+        List<Long> ids = entregaRepository.saveAll(entregas).stream()
+                .map(Entrega::getId)
+                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new EntregasCriadasEvento(ids));
+        log.info("✅ {} entregas criadas em lote", ids.size());
+        return ids;
+    }
+
+    /**
+     * Aceitação sem lock pessimista: o entregador é reservado e a entrega reivindicada com
+     * UPDATEs condicionais. Se outro entregador chegou antes (ou o mesmo entregador reservou
+     * outra entrega no mesmo instante), nenhuma linha é afetada e a transação é desfeita com
+     * ConflitoAceitacaoException (HTTP 409). Entrega que já não está
+     * pendente quando lida é estado inválido, como antes (HTTP 400).
+     */
     @Transactional
     public EntregaDTO aceitarEntrega(Long entregaId, Long entregadorId) {
         log.info("Entregador {} aceitando entrega {}", entregadorId, entregaId);
@@ -68,7 +137,7 @@ public class EntregaService {
         Entrega entrega = entregaRepository.findById(entregaId)
                 .orElseThrow(() -> new RuntimeException("Entrega não encontrada: " + entregaId));
 
-        if (entrega.getStatusEntrega() != StatusEntrega.A_CAMINHO_COLETA)
+        if (entrega.getStatusEntrega() != StatusEntrega.A_CAMINHO_COLETA || entrega.getEntregador() != null)
             throw new RuntimeException("Entrega não disponível para aceitação");
 
         Entregador entregador = entregadorRepository.findById(entregadorId)
@@ -77,28 +146,23 @@ public class EntregaService {
         if (entregador.getStatus() != StatusEntregador.DISPONIVEL)
             throw new RuntimeException("Entregador deve estar disponível");
 
-        // Verifica se entregador já tem entregas ativas
-        boolean temEntregaAtiva = entregaRepository.findAll().stream()
-                .filter(e -> e.getEntregador() != null
-                        && e.getEntregador().getId().equals(entregadorId)
-                        && (e.getStatusEntrega() == StatusEntrega.COLETANDO
-                        || e.getStatusEntrega() == StatusEntrega.A_CAMINHO_ENTREGA
-                        || e.getStatusEntrega() == StatusEntrega.CHEGOU_DESTINO))
-                .findAny().isPresent();
-
-        if (temEntregaAtiva)
+        // Entrega ativa é mantida no próprio entregador: uma leitura por chave primária
+        if (entregador.getEntregaAtivaId() != null)
             throw new RuntimeException("Entregador já tem entregas em andamento");
 
-        entrega.setEntregador(entregador);
-        entrega.setStatusEntrega(StatusEntrega.COLETANDO);
-        entrega.setIniciadoEm(LocalDateTime.now());
+        // O mesmo entregador aceitando outra entrega ao mesmo tempo: só uma reserva passa
+        if (entregadorRepository.reservarParaEntrega(entregadorId, entregaId) == 0)
+            throw new ConflitoAceitacaoException("Entregador já aceitou outra entrega");
 
-        entregador.setStatus(StatusEntregador.DISPONIVEL);
-        entregadorRepository.save(entregador);
-        Entrega saved = entregaRepository.save(entrega);
+        if (entregaRepository.aceitarSeDisponivel(entregaId, entregador, LocalDateTime.now()) == 0)
+            throw new ConflitoAceitacaoException("Entrega já foi aceita por outro entregador");
 
+        Entrega aceita = entregaRepository.findById(entregaId)
+                .orElseThrow(() -> new RuntimeException("Entrega não encontrada: " + entregaId));
+
+        publicarAtualizacao(aceita, StatusEntrega.A_CAMINHO_COLETA);
         log.info("✅ Entrega {} aceita por {}", entregaId, entregador.getNome());
-        return toDTO(saved);
+        return toDTO(aceita);
     }
 
     @Transactional
@@ -109,6 +173,8 @@ public class EntregaService {
                 .orElseThrow(() -> new RuntimeException("Entrega não encontrada: " + entregaId));
 
         StatusEntrega statusAnterior = entrega.getStatusEntrega();
+        if (statusAnterior.isRetrocessoPara(dto.novoStatus()))
+            throw new IllegalArgumentException("Transição de status inválida: " + statusAnterior + " → " + dto.novoStatus());
         entrega.setStatusEntrega(dto.novoStatus());
 
         switch (dto.novoStatus()) {
@@ -116,23 +182,27 @@ public class EntregaService {
                 entrega.setIniciadoEm(LocalDateTime.now());
                 break;
             case ENTREGUE:
+                // Repetir ENTREGUE (reenvio do app) não conta outra entrega para o entregador
+                if (statusAnterior == StatusEntrega.ENTREGUE) break;
                 entrega.setFinalizadoEm(LocalDateTime.now());
                 if (entrega.getEntregador() != null) {
                     atualizarEstatisticasEntregador(entrega.getEntregador());
                     entrega.getEntregador().setStatus(StatusEntregador.DISPONIVEL);
-                    entregadorRepository.save(entrega.getEntregador());
                 }
                 break;
             case CANCELADA:
             case PROBLEMA:
                 entrega.setCanceladoEm(LocalDateTime.now());
-                if (entrega.getEntregador() != null) {
+                if (entrega.getEntregador() != null)
                     entrega.getEntregador().setStatus(StatusEntregador.DISPONIVEL);
-                    entregadorRepository.save(entrega.getEntregador());
-                }
                 break;
         }
 
+        if (entrega.getEntregador() != null)
+            sincronizarEntregaAtiva(entrega);
+
+        atualizarContadoresCliente(entrega.getCliente(), statusAnterior, dto.novoStatus());
+
         if (dto.observacoes() != null && !dto.observacoes().trim().isEmpty()) {
             String obs = dto.observacoes();
             if (entrega.getObservacoes() != null)
@@ -142,49 +212,139 @@ public class EntregaService {
         }
 
         Entrega saved = entregaRepository.save(entrega);
+        publicarAtualizacao(saved, statusAnterior);
         log.info("✅ Status: {} → {}", statusAnterior, dto.novoStatus());
         return toDTO(saved);
     }
 
-    private void atualizarEstatisticasEntregador(Entregador entregador) {
-        entregador.setTotalEntregas((entregador.getTotalEntregas() == null ? 0 : entregador.getTotalEntregas()) + 1);
+    private void publicarAtualizacao(Entrega entrega, StatusEntrega statusAnterior) {
+        eventPublisher.publishEvent(new EntregaAtualizadaEvento(
+                entrega.getId(),
+                statusAnterior,
+                entrega.getStatusEntrega(),
+                entrega.getEntregador() != null ? entrega.getEntregador().getId() : null,
+                entrega.getLoja().getId(),
+                entrega.getCliente().getId()
+        ));
+    }
+
+    /**
+     * Mantém entregaAtivaId do entregador coerente com o status da entrega, com UPDATEs
+     * condicionais: uma entrega não toma o lugar da entrega ativa de outra nem libera o
+     * entregador de outra, mesmo com a instância em memória desatualizada
+     */
+    private void sincronizarEntregaAtiva(Entrega entrega) {
+        Entregador entregador = entrega.getEntregador();
+        if (entrega.getStatusEntrega().isEmAndamento()) {
+            if (entregadorRepository.ocuparComEntrega(entregador.getId(), entrega.getId()) == 0)
+                throw new ConflitoAceitacaoException("Entregador já tem outra entrega em andamento");
+            entregador.setEntregaAtivaId(entrega.getId());
+        } else if (entregadorRepository.liberarEntrega(entregador.getId(), entrega.getId()) > 0) {
+            entregador.setEntregaAtivaId(null);
+        }
+
         entregadorRepository.save(entregador);
     }
 
+    private void atualizarEstatisticasEntregador(Entregador entregador) {
+        // Incremento no banco: total_entregas não é gravado pelo save() da entidade. O refresh traz o
+        // total novo para a instância gerenciada, que é a mesma que os listeners após o commit
+        // (RegistroDisponibilidade, caches) recebem ao recarregar o entregador neste contexto
+        entregadorRepository.incrementarTotalEntregas(entregador.getId());
+        entityManager.refresh(entregador);
+    }
+
+    /**
+     * Entregues e canceladas do cliente pela diferença entre o status anterior e o novo:
+     * repetir o mesmo status não conta de novo e sair de ENTREGUE/CANCELADA desconta
+     */
+    private void atualizarContadoresCliente(Cliente cliente, StatusEntrega anterior, StatusEntrega novo) {
+        int entregues = (novo == StatusEntrega.ENTREGUE ? 1 : 0) - (anterior == StatusEntrega.ENTREGUE ? 1 : 0);
+        int cancelados = (novo == StatusEntrega.CANCELADA ? 1 : 0) - (anterior == StatusEntrega.CANCELADA ? 1 : 0);
+        if (entregues != 0 || cancelados != 0)
+            clienteRepository.ajustarFinalizados(cliente.getId(), entregues, cancelados);
+    }
+
     @Transactional(readOnly = true)
-    public List<EntregaDTO> buscarEntregasPendentes() {
-        return entregaRepository.findAll().stream()
-                .filter(e -> e.getStatusEntrega() == StatusEntrega.A_CAMINHO_COLETA)
-                .limit(50)
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public PaginaCursorDTO<EntregaDTO> buscarEntregasPendentes(String cursor, int tamanho) {
+        CursorEntrega inicio = decodificarCursor(cursor, INICIO_ASC, 0L);
+        return paginar(entregaRepository.buscarPorStatusAposCursor(
+                StatusEntrega.A_CAMINHO_COLETA, inicio.criadoEm(), inicio.id(), PageRequest.ofSize(tamanho + 1)), tamanho);
     }
 
     @Transactional(readOnly = true)
-    public List<EntregaDTO> buscarEntregasDoEntregador(Long entregadorId) {
-        return entregaRepository.findAll().stream()
-                .filter(e -> e.getEntregador() != null && e.getEntregador().getId().equals(entregadorId))
-                .limit(100)
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public PaginaCursorDTO<EntregaDTO> buscarEntregasDoEntregador(Long entregadorId, String cursor, int tamanho) {
+        CursorEntrega inicio = decodificarCursor(cursor, INICIO_DESC, Long.MAX_VALUE);
+        return paginar(entregaRepository.buscarPorEntregadorAntesDoCursor(
+                entregadorId, inicio.criadoEm(), inicio.id(), PageRequest.ofSize(tamanho + 1)), tamanho);
     }
 
     @Transactional(readOnly = true)
-    public List<EntregaDTO> buscarEntregasDaLoja(Long lojaId) {
-        return entregaRepository.findAll().stream()
-                .filter(e -> e.getLoja().getId().equals(lojaId))
-                .limit(100)
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public PaginaCursorDTO<EntregaDTO> buscarEntregasDaLoja(Long lojaId, String cursor, int tamanho) {
+        CursorEntrega inicio = decodificarCursor(cursor, INICIO_DESC, Long.MAX_VALUE);
+        return paginar(entregaRepository.buscarPorLojaAntesDoCursor(
+                lojaId, inicio.criadoEm(), inicio.id(), PageRequest.ofSize(tamanho + 1)), tamanho);
     }
 
     @Transactional(readOnly = true)
-    public List<EntregaDTO> buscarEntregasDoCliente(Long clienteId) {
-        return entregaRepository.findAll().stream()
-                .filter(e -> e.getCliente().getId().equals(clienteId))
-                .limit(100)
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public PaginaCursorDTO<EntregaDTO> buscarEntregasDoCliente(Long clienteId, String cursor, int tamanho) {
+        CursorEntrega inicio = decodificarCursor(cursor, INICIO_DESC, Long.MAX_VALUE);
+        return paginar(entregaRepository.buscarPorClienteAntesDoCursor(
+                clienteId, inicio.criadoEm(), inicio.id(), PageRequest.ofSize(tamanho + 1)), tamanho);
+    }
+
+    /**
+     * Busca uma linha a mais que o tamanho pedido para saber se existe próxima página
+     * sem precisar de COUNT(*).
+     */
+    private PaginaCursorDTO<EntregaDTO> paginar(List<EntregaDTO> entregas, int tamanho) {
+        boolean temMais = entregas.size() > tamanho;
+        List<EntregaDTO> pagina = temMais ? List.copyOf(entregas.subList(0, tamanho)) : entregas;
+        String proximoCursor = temMais ? codificarCursor(pagina.get(pagina.size() - 1)) : null;
+        return new PaginaCursorDTO<>(pagina, proximoCursor, temMais);
+    }
+
+    private String codificarCursor(EntregaDTO ultima) {
+        String chave = ultima.criadoEm() + "|" + ultima.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorEntrega decodificarCursor(String cursor, LocalDateTime dataInicial, Long idInicial) {
+        if (cursor == null || cursor.isBlank())
+            return new CursorEntrega(dataInicial, idInicial);
+
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new CursorEntrega(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private record CursorEntrega(LocalDateTime criadoEm, Long id) {}
+
+    private Entrega novaEntrega(CriarEntregaDTO dto, Loja loja, Cliente cliente) {
+        Entrega entrega = new Entrega();
+        entrega.setLoja(loja);
+        entrega.setCliente(cliente);
+        entrega.setEnderecoOrigem(dto.enderecoOrigem());
+        entrega.setEnderecoDestino(dto.enderecoDestino());
+        entrega.setProdutoDescricao(dto.descricaoProduto());
+        entrega.setValorEntrega(dto.valorEntrega());
+        entrega.setValorGorjeta(dto.valorGorjeta() != null ? dto.valorGorjeta() : BigDecimal.ZERO);
+        entrega.setTempoEstimadoMinutos(dto.tempoEstimadoMinutos());
+        entrega.setObservacoes(dto.observacoes());
+        entrega.setStatusEntrega(StatusEntrega.A_CAMINHO_COLETA);
+        entrega.setLatitudeOrigem(loja.getLatitude());
+        entrega.setLongitudeOrigem(loja.getLongitude());
+        boolean destinoInformado = dto.latitudeDestino() != null && dto.longitudeDestino() != null;
+        entrega.setLatitudeDestino(destinoInformado ? dto.latitudeDestino() : cliente.getLatitude());
+        entrega.setLongitudeDestino(destinoInformado ? dto.longitudeDestino() : cliente.getLongitude());
+        return entrega;
+    }
+
+    private static Set<Long> idsDistintos(List<CriarEntregaDTO> dtos, Function<CriarEntregaDTO, Long> id) {
+        return dtos.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
     }
 
     private EntregaDTO toDTO(Entrega entrega) {
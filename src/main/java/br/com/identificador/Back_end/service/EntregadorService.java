@@ -1,31 +1,57 @@
 package br.com.identificador.Back_end.service;
 
 import br.com.identificador.Back_end.dto.EntregadorRegistroDTO;
+import br.com.identificador.Back_end.dto.PerfilDTO;
+import br.com.identificador.Back_end.evento.EntregadorAtualizadoEvento;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.evento.EntregadoresStatusAlteradosEvento;
+import br.com.identificador.Back_end.evento.QrCodeRegeneradoEvento;
 import br.com.identificador.Back_end.model.Entregador;
 import br.com.identificador.Back_end.model.enuns.Aplicativo;
-
 import br.com.identificador.Back_end.model.enuns.StatusEntregador;
 import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class EntregadorService {
 
     private final EntregadorRepository entregadorRepository;
+    private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PerfilEntregadorCache perfilCache;
+    private final RegistroDisponibilidade registro;
+    private final IndiceGeografico indiceGeografico;
+
+    @Value("${entregador.lote.tamanho-bloco:1000}")
+    private int tamanhoBlocoLote = 1000;
+
+    @Value("${entregador.lote.max-itens:50000}")
+    private int maxItensLote = 50000;
+
+    @Value("${entregador.proximos.raio-maximo-km:20}")
+    private double raioProximosKm = 20;
 
     @Transactional
     public Entregador registrarEntregador(EntregadorRegistroDTO dto) {
-        // Validações usando Streams
         validarEmailUnico(dto.email());
         validarCpfUnico(dto.cpf());
 
@@ -50,7 +76,9 @@ public class EntregadorService {
             : Set.of();
         entregador.setAplicativos(aplicativos);
 
-        return entregadorRepository.save(entregador);
+        Entregador salvo = entregadorRepository.save(entregador);
+        eventPublisher.publishEvent(new EntregadorAtualizadoEvento(salvo.getId()));
+        return salvo;
     }
 
     @Transactional(readOnly = true)
@@ -59,6 +87,22 @@ public class EntregadorService {
                 .orElseThrow(() -> new IllegalArgumentException("Entregador não encontrado com ID: " + id));
     }
 
+    /**
+     * Perfil do entregador servido pelo cache (memória + Redis); o banco só é consultado em caso de falta
+     */
+    public PerfilDTO buscarPerfilPorId(Long id) {
+        return perfilCache.buscarPorId(id, chave -> entregadorRepository.findById(chave).map(this::toPerfil))
+                .orElseThrow(() -> new IllegalArgumentException("Entregador não encontrado com ID: " + id));
+    }
+
+    /**
+     * Perfil pelo UUID do QR Code, para a leitura no balcão da loja
+     */
+    public PerfilDTO buscarPerfilPorQrCode(String qrCodeUuid) {
+        return perfilCache.buscarPorQrCode(qrCodeUuid, chave -> entregadorRepository.findByQrCodeUuid(chave).map(this::toPerfil))
+                .orElseThrow(() -> new IllegalArgumentException("Entregador não encontrado com QR Code: " + qrCodeUuid));
+    }
+
     @Transactional(readOnly = true)
     public Entregador buscarPorEmail(String email) {
         return entregadorRepository.findByEmail(email)
@@ -83,67 +127,94 @@ public class EntregadorService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
-    public List<Entregador> buscarPorStatus(StatusEntregador status) {
+    /**
+     * Respondido pelo registro em memória; vai ao banco só enquanto ele não foi carregado
+     */
+    public List<RegistroDisponibilidade.Situacao> buscarPorStatus(StatusEntregador status) {
+        if (registro.isPronto()) return registro.buscar(status, null);
         return entregadorRepository.findByStatus(status).stream()
+                .map(RegistroDisponibilidade.Situacao::de)
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
-    public List<Entregador> buscarDisponiveis() {
-        return entregadorRepository.buscarEntregadoresDisponiveis(StatusEntregador.DISPONIVEL).stream()
+    public List<RegistroDisponibilidade.Situacao> buscarDisponiveis() {
+        return buscarDisponiveis(null);
+    }
+
+    /**
+     * Disponíveis com ao menos um aplicativo; com aplicativo informado, só os que trabalham nele
+     */
+    public List<RegistroDisponibilidade.Situacao> buscarDisponiveis(Aplicativo aplicativo) {
+        List<RegistroDisponibilidade.Situacao> situacoes = registro.isPronto()
+                ? registro.buscar(StatusEntregador.DISPONIVEL, aplicativo)
+                : buscarPorStatus(StatusEntregador.DISPONIVEL).stream()
+                    .filter(s -> aplicativo == null || s.aplicativos().contains(aplicativo))
+                    .collect(Collectors.toList());
+        return situacoes.stream()
+                .filter(s -> !s.aplicativos().isEmpty())
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Disponíveis mais próximos do ponto, pela última posição de cada um (sem consultar o banco)
+     */
+    public List<IndiceGeografico.Proximo> buscarProximos(double latitude, double longitude, int limite, Aplicativo aplicativo) {
+        return indiceGeografico.buscarDisponiveis(latitude, longitude, limite, raioProximosKm, aplicativo);
+    }
+
     @Transactional(readOnly = true)
     public List<Entregador> buscarPorAvaliacaoMinima(Double avaliacaoMinima) {
         return entregadorRepository.buscarPorAvaliacaoMinima(avaliacaoMinima).stream()
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
-    public List<Entregador> buscarMelhoresAvaliados(int limite) {
-        return entregadorRepository.findAll().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getAvaliacaoMedia(), e1.getAvaliacaoMedia()))
-                .limit(limite)
+    /**
+     * Top N por avaliação, lido do ranking mantido pelo registro em memória
+     */
+    public List<RegistroDisponibilidade.Classificacao> buscarMelhoresAvaliados(int limite) {
+        if (registro.isPronto()) return registro.melhoresAvaliados(limite);
+        return entregadorRepository.buscarMelhoresAvaliados(PageRequest.ofSize(limite)).stream()
+                .map(this::toClassificacao)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Filtro bit a bit na coluna de aplicativos, feito pelo banco
+     */
     @Transactional(readOnly = true)
     public List<Entregador> buscarPorAplicativo(Aplicativo aplicativo) {
-        return entregadorRepository.findAll().stream()
-                .filter(e -> e.getAplicativos().contains(aplicativo))
-                .collect(Collectors.toList());
+        return entregadorRepository.buscarComAlgumAplicativo(aplicativo.getBit());
     }
 
-    @Transactional(readOnly = true)
-    public List<Entregador> buscarExperientes(int minimoEntregas) {
-        return entregadorRepository.findAll().stream()
-                .filter(e -> e.getTotalEntregas() >= minimoEntregas)
-                .sorted((e1, e2) -> Integer.compare(e2.getTotalEntregas(), e1.getTotalEntregas()))
+    public List<RegistroDisponibilidade.Classificacao> buscarExperientes(int minimoEntregas) {
+        if (registro.isPronto()) return registro.experientes(minimoEntregas);
+        return entregadorRepository.buscarExperientes(minimoEntregas).stream()
+                .map(this::toClassificacao)
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Média das avaliações de quem já fez entregas, mantida incrementalmente pelo registro
+     */
     public Double calcularAvaliacaoMediaGeral() {
-        return entregadorRepository.findAll().stream()
-                .filter(e -> e.getTotalEntregas() > 0)
-                .mapToDouble(Entregador::getAvaliacaoMedia)
-                .average()
-                .orElse(0.0);
+        if (registro.isPronto()) return registro.avaliacaoMediaGeral();
+        return entregadorRepository.calcularAvaliacaoMediaGeral();
     }
 
-    @Transactional(readOnly = true)
     public long contarPorStatus(StatusEntregador status) {
-        return entregadorRepository.findAll().stream()
-                .filter(e -> e.getStatus() == status)
-                .count();
+        return registro.isPronto() ? registro.contar(status) : entregadorRepository.countByStatus(status);
     }
 
+    /**
+     * O banco descarta quem não chega a dois aplicativos (ou a um, se for o mínimo); a contagem
+     * exata é o número de bits ligados na máscara
+     */
     @Transactional(readOnly = true)
     public List<Entregador> buscarComMultiplosAplicativos(int minimoAplicativos) {
-        return entregadorRepository.findAll().stream()
-                .filter(e -> e.getAplicativos().size() >= minimoAplicativos)
+        if (minimoAplicativos <= 0) return entregadorRepository.findAll();
+        if (minimoAplicativos == 1) return entregadorRepository.buscarComAplicativos();
+        return entregadorRepository.buscarComDoisOuMaisAplicativos().stream()
+                .filter(e -> Long.bitCount(Aplicativo.mascara(e.getAplicativos())) >= minimoAplicativos)
                 .collect(Collectors.toList());
     }
 
@@ -151,21 +222,27 @@ public class EntregadorService {
     public Entregador atualizarStatus(Long id, StatusEntregador novoStatus) {
         Entregador entregador = buscarPorId(id);
         entregador.setStatus(novoStatus);
-        return entregadorRepository.save(entregador);
+        Entregador salvo = entregadorRepository.save(entregador);
+        eventPublisher.publishEvent(new EntregadorStatusAlteradoEvento(id, novoStatus));
+        return salvo;
     }
 
     @Transactional
     public Entregador adicionarAplicativo(Long id, Aplicativo aplicativo) {
         Entregador entregador = buscarPorId(id);
         entregador.getAplicativos().add(aplicativo);
-        return entregadorRepository.save(entregador);
+        Entregador salvo = entregadorRepository.save(entregador);
+        eventPublisher.publishEvent(new EntregadorAtualizadoEvento(id));
+        return salvo;
     }
 
     @Transactional
     public Entregador removerAplicativo(Long id, Aplicativo aplicativo) {
         Entregador entregador = buscarPorId(id);
         entregador.getAplicativos().remove(aplicativo);
-        return entregadorRepository.save(entregador);
+        Entregador salvo = entregadorRepository.save(entregador);
+        eventPublisher.publishEvent(new EntregadorAtualizadoEvento(id));
+        return salvo;
     }
 
     @Transactional
@@ -175,40 +252,48 @@ public class EntregadorService {
                 .filter(app -> app != null)
                 .collect(Collectors.toSet());
         entregador.setAplicativos(aplicativosValidados);
-        return entregadorRepository.save(entregador);
+        Entregador salvo = entregadorRepository.save(entregador);
+        eventPublisher.publishEvent(new EntregadorAtualizadoEvento(id));
+        return salvo;
     }
 
+    /**
+     * Registra uma nota com incremento atômico no banco (soma e número de avaliações);
+     * não mexe no total de entregas, que só o EntregaService incrementa
+     */
     @Transactional
     public Entregador atualizarAvaliacao(Long id, Double novaAvaliacao) {
-        Entregador entregador = buscarPorId(id);
-        
-        // Cálculo da média ponderada usando stream
-        Integer totalEntregas = entregador.getTotalEntregas();
-        Double avaliacaoAtual = entregador.getAvaliacaoMedia();
-        
-        Double novaMedia = ((avaliacaoAtual * totalEntregas) + novaAvaliacao) / (totalEntregas + 1);
-        
-        entregador.setAvaliacaoMedia(Math.round(novaMedia * 100.0) / 100.0); // 2 casas decimais
-        entregador.setTotalEntregas(totalEntregas + 1);
-        
-        return entregadorRepository.save(entregador);
+        if (entregadorRepository.registrarAvaliacao(id, novaAvaliacao) == 0)
+            throw new IllegalArgumentException("Entregador não encontrado com ID: " + id);
+
+        eventPublisher.publishEvent(new EntregadorAtualizadoEvento(id));
+        return buscarPorId(id);
     }
 
+    /**
+     * Troca de status em lote: um UPDATE por bloco de ids, numa única transação.
+     * Ids inexistentes são ignorados; devolve quantos entregadores foram atualizados.
+     */
     @Transactional
-    public List<Entregador> atualizarStatusEmLote(List<Long> ids, StatusEntregador novoStatus) {
-        return ids.stream()
-                .map(this::buscarPorId)
-                .peek(entregador -> entregador.setStatus(novoStatus))
-                .map(entregadorRepository::save)
-                .collect(Collectors.toList());
+    public int atualizarStatusEmLote(List<Long> ids, StatusEntregador novoStatus) {
+        if (novoStatus == null) throw new IllegalArgumentException("Status é obrigatório");
+        List<Long> unicos = validarLote(ids);
+
+        int atualizados = 0;
+        for (List<Long> bloco : blocos(unicos))
+            atualizados += entregadorRepository.atualizarStatusEmLote(bloco, novoStatus.name());
+
+        eventPublisher.publishEvent(new EntregadoresStatusAlteradosEvento(unicos, novoStatus));
+        return atualizados;
     }
 
     @Transactional
     public Entregador atualizarDados(Long id, EntregadorRegistroDTO dto) {
         Entregador entregador = buscarPorId(id);
 
-        // Verificar se email já existe em outro entregador
-        if (!entregador.getEmail().equals(dto.email())) validarEmailUnico(dto.email());
+        // Verificar se email já existe em outro usuário
+        if (userRepository.existsByEmailIgnoreCaseAndIdNot(dto.email(), id))
+            throw new IllegalArgumentException("Email já cadastrado");
 
         // Verificar se CPF já existe em outro entregador
         if (!entregador.getCpf().equals(dto.cpf())) validarCpfUnico(dto.cpf());
@@ -234,7 +319,9 @@ public class EntregadorService {
             entregador.setAplicativos(aplicativosValidados);
         }
 
-        return entregadorRepository.save(entregador);
+        Entregador salvo = entregadorRepository.save(entregador);
+        eventPublisher.publishEvent(new EntregadorAtualizadoEvento(id));
+        return salvo;
     }
 
     @Transactional
@@ -243,31 +330,81 @@ public class EntregadorService {
             throw new IllegalArgumentException("Entregador não encontrado com ID: " + id);
 
         entregadorRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntregadoresRemovidosEvento(List.of(id)));
     }
 
+    /**
+     * Remoção em lote por blocos de ids (entregadores e users); devolve quantos foram removidos
+     */
     @Transactional
-    public void deletarEntregadoresEmLote(List<Long> ids) {
-        ids.stream()
-                .peek(id -> {
-                    if (!entregadorRepository.existsById(id))
-                        throw new IllegalArgumentException("Entregador não encontrado com ID: " + id);
+    public int deletarEntregadoresEmLote(List<Long> ids) {
+        List<Long> removidos = new ArrayList<>();
+        for (List<Long> bloco : blocos(validarLote(ids))) {
+            List<Long> existentes = entregadorRepository.buscarIdsExistentes(bloco);
+            if (existentes.isEmpty()) continue;
+
+            entregadorRepository.removerEmLote(existentes);
+            entregadorRepository.removerUsuariosEmLote(existentes);
+            removidos.addAll(existentes);
+        }
 
-                })
-                .forEach(entregadorRepository::deleteById);
+        if (!removidos.isEmpty()) eventPublisher.publishEvent(new EntregadoresRemovidosEvento(removidos));
+        return removidos.size();
     }
 
     @Transactional
     public String regenerarQrCode(Long id) {
         Entregador entregador = buscarPorId(id);
+        String qrCodeUuidAnterior = entregador.getQrCodeUuid();
         String novoQrCodeUuid = UUID.randomUUID().toString();
         entregador.setQrCodeUuid(novoQrCodeUuid);
         entregadorRepository.save(entregador);
+        eventPublisher.publishEvent(new QrCodeRegeneradoEvento(id, qrCodeUuidAnterior, novoQrCodeUuid));
         return novoQrCodeUuid;
     }
 
+    private PerfilDTO toPerfil(Entregador entregador) {
+        return new PerfilDTO(
+                entregador.getId(),
+                entregador.getNome(),
+                entregador.getEmail(),
+                entregador.getTelefone(),
+                entregador.getStatus(),
+                Set.copyOf(entregador.getAplicativos()),
+                entregador.getAvaliacaoMedia(),
+                entregador.getTotalEntregas(),
+                entregador.getQrCodeUuid()
+        );
+    }
+
+    private RegistroDisponibilidade.Classificacao toClassificacao(EntregadorRepository.SituacaoEntregador linha) {
+        return new RegistroDisponibilidade.Classificacao(
+                linha.getId(),
+                linha.getNome(),
+                linha.getAvaliacaoMedia() != null ? linha.getAvaliacaoMedia() : 0.0,
+                linha.getTotalEntregas() != null ? linha.getTotalEntregas() : 0
+        );
+    }
+
+    private List<Long> validarLote(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) throw new IllegalArgumentException("Informe ao menos um entregador");
+        if (ids.size() > maxItensLote)
+            throw new IllegalArgumentException("Lote excede o limite de " + maxItensLote + " entregadores");
+        return ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
+    // Blocos limitam o número de parâmetros por comando (o PostgreSQL aceita até 32767)
+    private List<List<Long>> blocos(List<Long> ids) {
+        List<List<Long>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoBlocoLote)
+            blocos.add(ids.subList(inicio, Math.min(inicio + tamanhoBlocoLote, ids.size())));
+        return blocos;
+    }
+
     // Métodos auxiliares de validação
+    // Email é único entre todos os usuários, sem diferenciar maiúsculas
     private void validarEmailUnico(String email) {
-        if (entregadorRepository.existsByEmail(email))
+        if (userRepository.existsByEmailIgnoreCase(email))
             throw new IllegalArgumentException("Email já cadastrado");
     }
 
@@ -0,0 +1,46 @@
+package br.com.identificador.Back_end.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Escreve um stream como NDJSON (um objeto JSON por linha) à medida que as linhas saem do
+ * cursor do banco, sem montar a lista inteira: a memória usada não depende do total.
+ */
+@Component
+public class ExportadorNdjson {
+
+    private final ObjectWriter writer;
+
+    public ExportadorNdjson(ObjectMapper objectMapper) {
+        // Um flush por linha faria uma escrita no socket por objeto; o gerador já tem buffer
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    /**
+     * Escreve todas as linhas e devolve quantas foram escritas; não fecha a saída
+     */
+    public long escrever(Stream<?> linhas, OutputStream saida) throws IOException {
+        long total = 0;
+        try (JsonGenerator gerador = writer.createGenerator(saida)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<?> iterador = linhas.iterator();
+            while (iterador.hasNext()) {
+                writer.writeValue(gerador, iterador.next());
+                total++;
+            }
+            if (total > 0) gerador.writeRaw('\n');
+        }
+        return total;
+    }
+}
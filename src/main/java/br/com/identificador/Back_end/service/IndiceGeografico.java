@@ -0,0 +1,172 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice em memória das posições ao vivo dos entregadores: uma grade de células de
+ * TAMANHO_CELULA graus (cerca de 1,1 km), cada uma com os ids de quem está nela. A busca dos
+ * k mais próximos percorre anéis de células a partir do ponto e para assim que o anel
+ * seguinte não pode ter ninguém mais perto que o k-ésimo encontrado. Alimentado pela
+ * drenagem do LocalizacaoService; posições mais antigas que a validade são ignoradas.
+ */
+@Component
+public class IndiceGeografico {
+
+    static final double TAMANHO_CELULA = 0.01;
+    private static final int COLUNAS = (int) Math.round(360 / TAMANHO_CELULA);
+    private static final double KM_POR_GRAU = 111.32;
+
+    private final RegistroDisponibilidade registro;
+    private final long validadeMs;
+
+    private final Map<Long, Ponto> pontos = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> celulas = new ConcurrentHashMap<>();
+
+    public IndiceGeografico(RegistroDisponibilidade registro,
+                            @Value("${localizacao.indice.validade-segundos:300}") long validadeSegundos) {
+        this.registro = registro;
+        this.validadeMs = validadeSegundos * 1000;
+    }
+
+    public void atualizar(long entregadorId, double latitude, double longitude, long momento) {
+        long celula = celula(latitude, longitude);
+        Ponto anterior = pontos.put(entregadorId, new Ponto(latitude, longitude, momento, celula));
+        if (anterior != null && anterior.celula() == celula) return;
+
+        if (anterior != null) retirar(anterior.celula(), entregadorId);
+        celulas.compute(celula, (chave, ids) -> {
+            if (ids == null) ids = ConcurrentHashMap.newKeySet();
+            ids.add(entregadorId);
+            return ids;
+        });
+    }
+
+    public void remover(long entregadorId) {
+        Ponto anterior = pontos.remove(entregadorId);
+        if (anterior != null) retirar(anterior.celula(), entregadorId);
+    }
+
+    public int tamanho() {
+        return pontos.size();
+    }
+
+    /**
+     * Os k entregadores DISPONIVEL mais próximos do ponto, opcionalmente só os que atendem
+     * o aplicativo, até raioMaximoKm
+     */
+    public List<Proximo> buscarDisponiveis(double latitude, double longitude, int k, double raioMaximoKm,
+                                           Aplicativo aplicativo) {
+        return buscar(latitude, longitude, k, raioMaximoKm, id -> {
+            RegistroDisponibilidade.Situacao situacao = registro.buscar(id);
+            return situacao != null && situacao.status() == StatusEntregador.DISPONIVEL
+                    && (aplicativo == null || situacao.aplicativos().contains(aplicativo));
+        });
+    }
+
+    /**
+     * Os k entregadores mais próximos que passam no filtro, do mais perto ao mais longe
+     */
+    public List<Proximo> buscar(double latitude, double longitude, int k, double raioMaximoKm, LongPredicate filtro) {
+        if (k <= 0) return List.of();
+
+        long limiteValidade = System.currentTimeMillis() - validadeMs;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        int linha = linha(latitude);
+        int coluna = coluna(longitude);
+        // Maior é a distância do topo do heap: o k-ésimo mais próximo até agora
+        PriorityQueue<Proximo> melhores = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Proximo::distanciaKm).reversed());
+
+        int anelMaximo = (int) Math.ceil(raioMaximoKm / (KM_POR_GRAU * TAMANHO_CELULA * Math.max(cosLat, 0.01))) + 1;
+        for (int anel = 0; anel <= anelMaximo; anel++) {
+            // Qualquer ponto no anel está a pelo menos (anel - 1) células do ponto de busca
+            double distanciaMinima = Math.max(0, anel - 1) * TAMANHO_CELULA * KM_POR_GRAU * Math.max(cosLat, 0.01);
+            if (distanciaMinima > raioMaximoKm) break;
+            if (melhores.size() == k && distanciaMinima > melhores.peek().distanciaKm()) break;
+
+            for (int dl = -anel; dl <= anel; dl++) {
+                // Nas linhas intermediárias do anel só as duas bordas
+                int passo = (dl == -anel || dl == anel) ? 1 : Math.max(1, 2 * anel);
+                for (int dc = -anel; dc <= anel; dc += passo) {
+                    Set<Long> ids = celulas.get(chave(linha + dl, coluna + dc));
+                    if (ids == null) continue;
+
+                    for (Long id : ids) {
+                        Ponto ponto = pontos.get(id);
+                        if (ponto == null || ponto.momento() < limiteValidade) continue;
+
+                        double distancia = distanciaKm(latitude, longitude, cosLat, ponto.latitude(), ponto.longitude());
+                        if (distancia > raioMaximoKm) continue;
+                        if (melhores.size() == k && distancia >= melhores.peek().distanciaKm()) continue;
+                        if (!filtro.test(id)) continue;
+
+                        melhores.add(new Proximo(id, distancia, ponto.latitude(), ponto.longitude()));
+                        if (melhores.size() > k) melhores.poll();
+                    }
+                }
+            }
+        }
+
+        List<Proximo> resultado = new ArrayList<>(melhores);
+        resultado.sort(Comparator.comparingDouble(Proximo::distanciaKm));
+        return resultado;
+    }
+
+    /**
+     * Remove quem parou de enviar posição (desconectou, encerrou o turno)
+     */
+    @Scheduled(fixedDelayString = "${localizacao.indice.limpeza-ms:60000}")
+    public void removerExpirados() {
+        long limiteValidade = System.currentTimeMillis() - validadeMs;
+        pontos.forEach((id, ponto) -> {
+            // Só o ponto expirado: uma posição nova gravada no meio da varredura fica no índice
+            if (ponto.momento() < limiteValidade && pontos.remove(id, ponto)) retirar(ponto.celula(), id);
+        });
+    }
+
+    private void retirar(long celula, long entregadorId) {
+        celulas.computeIfPresent(celula, (chave, ids) -> {
+            ids.remove(entregadorId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // Aproximação equiretangular: precisa o bastante nas distâncias de uma cidade e bem mais barata que haversine
+    public static double distanciaKm(double latitude, double longitude, double cosLat, double outraLatitude, double outraLongitude) {
+        double dx = (outraLongitude - longitude) * cosLat;
+        double dy = outraLatitude - latitude;
+        return Math.sqrt(dx * dx + dy * dy) * KM_POR_GRAU;
+    }
+
+    private static long celula(double latitude, double longitude) {
+        return chave(linha(latitude), coluna(longitude));
+    }
+
+    private static int linha(double latitude) {
+        return (int) Math.floor((latitude + 90) / TAMANHO_CELULA);
+    }
+
+    private static int coluna(double longitude) {
+        return (int) Math.floor((longitude + 180) / TAMANHO_CELULA);
+    }
+
+    private static long chave(int linha, int coluna) {
+        return (long) linha * COLUNAS + Math.floorMod(coluna, COLUNAS);
+    }
+
+    public record Proximo(Long entregadorId, double distanciaKm, double latitude, double longitude) {}
+
+    private record Ponto(double latitude, double longitude, long momento, long celula) {}
+}
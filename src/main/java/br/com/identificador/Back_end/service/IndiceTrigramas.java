@@ -0,0 +1,389 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas para busca por trecho de nome/endereço. O texto é
+ * normalizado (sem acentos, minúsculo, só letras, dígitos e espaço) e cada palavra entra
+ * com dois espaços antes e um depois, como no pg_trgm: "joao" gera "  j", " jo", "joa",
+ * "oao" e "ao ". Cada trigrama vira um inteiro (alfabeto de 37 símbolos) que indexa
+ * diretamente a lista crescente de posições dos documentos que o contêm.
+ * <p>
+ * Na consulta, cada termo com 3 ou mais letras exige todos os seus trigramas internos
+ * (trecho de palavra, conferido depois com contains); termos de 1 ou 2 letras usam os
+ * trigramas de início de palavra, o que já garante o prefixo. As listas são intersectadas
+ * da menor para a maior e os resultados ordenados por relevância: texto começando pela
+ * consulta, depois todos os termos como início de palavra, depois trecho; em cada nível,
+ * textos mais curtos primeiro. Documento alterado ocupa uma posição nova e a antiga fica
+ * marcada como removida até a próxima compactação.
+ */
+public final class IndiceTrigramas {
+
+    private static final int ALFABETO = 37;
+    private static final int TRIGRAMAS = ALFABETO * ALFABETO * ALFABETO;
+    private static final int[] VAZIA = new int[0];
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // trigrama → posições dos documentos, em ordem crescente (só cresce por append)
+    private final int[][] listas = new int[TRIGRAMAS][];
+    private final int[] tamanhos = new int[TRIGRAMAS];
+
+    private Documento[] documentos = new Documento[1024];
+    private String[] normalizados = new String[1024];
+    // Tipo, tamanho e duas primeiras letras em arrays densos: o corte da busca não toca nas strings
+    private TipoUsuario[] tipos = new TipoUsuario[1024];
+    private int[] comprimentos = new int[1024];
+    private int[] inicios = new int[1024];
+    private final Map<Long, Integer> posicoes = new HashMap<>();
+    private int proximaPosicao;
+    private int removidos;
+
+    /**
+     * Indexa o documento pelo texto informado, substituindo a versão anterior do mesmo id
+     */
+    public void indexar(Documento documento, String texto) {
+        String normalizado = normalizar(texto);
+        trava.writeLock().lock();
+        try {
+            removerPosicao(posicoes.remove(documento.id()));
+            if (normalizado.isEmpty()) return;
+
+            if (proximaPosicao == documentos.length) {
+                documentos = Arrays.copyOf(documentos, documentos.length * 2);
+                normalizados = Arrays.copyOf(normalizados, normalizados.length * 2);
+                tipos = Arrays.copyOf(tipos, tipos.length * 2);
+                comprimentos = Arrays.copyOf(comprimentos, comprimentos.length * 2);
+                inicios = Arrays.copyOf(inicios, inicios.length * 2);
+            }
+            ocupar(proximaPosicao++, documento, normalizado);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public boolean remover(long id) {
+        trava.writeLock().lock();
+        try {
+            Integer posicao = posicoes.remove(id);
+            removerPosicao(posicao);
+            return posicao != null;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return posicoes.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Os primeiros resultados (até o limite) depois da chave informada, na ordem de relevância.
+     * Tipo nulo busca em todos os tipos.
+     */
+    public List<Resultado> buscar(String consulta, TipoUsuario tipo, Chave apos, int limite) {
+        String normalizada = normalizar(consulta);
+        if (normalizada.isEmpty() || limite <= 0) return List.of();
+
+        String[] termos = normalizada.split(" ");
+        String[] iniciosDePalavra = new String[termos.length];
+        for (int i = 0; i < termos.length; i++) iniciosDePalavra[i] = " " + termos[i];
+        int[] trigramas = trigramasDaConsulta(termos);
+        int inicioConsulta = inicio(normalizada);
+        int mascaraInicio = normalizada.length() == 1 ? 0xFFFF0000 : 0xFFFFFFFF;
+
+        // Maior chave no topo: a última que ainda cabe na página
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1,
+                Comparator.comparing(Resultado::chave).reversed());
+
+        trava.readLock().lock();
+        try {
+            int[][] candidatas = new int[trigramas.length][];
+            int[] tamanhosCandidatas = new int[trigramas.length];
+            Integer[] ordem = new Integer[trigramas.length];
+            for (int i = 0; i < trigramas.length; i++) {
+                candidatas[i] = listas[trigramas[i]] != null ? listas[trigramas[i]] : VAZIA;
+                tamanhosCandidatas[i] = tamanhos[trigramas[i]];
+                if (tamanhosCandidatas[i] == 0) return List.of();
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, Comparator.comparingInt(i -> tamanhosCandidatas[i]));
+
+            int[] base = candidatas[ordem[0]];
+            int tamanhoBase = tamanhosCandidatas[ordem[0]];
+            int[] cursores = new int[trigramas.length];
+
+            // Termo longo só está no início de palavra se o texto tiver o trigrama " xy" dele
+            // (os curtos já foram exigidos assim na interseção)
+            int[] inicioDePalavra = new int[termos.length];
+            int[] cursoresInicio = new int[termos.length];
+            for (int i = 0; i < termos.length; i++)
+                inicioDePalavra[i] = termos[i].length() >= 3 ? codigo(' ', termos[i].charAt(0), termos[i].charAt(1)) : -1;
+
+            percorrer:
+            for (int b = 0; b < tamanhoBase; b++) {
+                int posicao = base[b];
+                for (int o = 1; o < ordem.length; o++) {
+                    int lista = ordem[o];
+                    int achado = avancar(candidatas[lista], tamanhosCandidatas[lista], cursores[lista], posicao);
+                    cursores[lista] = achado;
+                    if (achado == tamanhosCandidatas[lista]) break percorrer;
+                    if (candidatas[lista][achado] != posicao) continue percorrer;
+                }
+
+                int comprimento = comprimentos[posicao];
+                if (comprimento < 0 || (tipo != null && tipos[posicao] != tipo)) continue;
+
+                // Com a página cheia, o pior resultado limita o nível que o texto ainda pode ter
+                // (só pelo tamanho): a maioria dos candidatos de termos comuns sai aqui
+                Chave pior = melhores.size() == limite ? melhores.peek().chave() : null;
+                int nivelMaximo = pior == null ? 2 : comprimento > pior.tamanho() ? pior.nivel() - 1 : pior.nivel();
+                if (nivelMaximo < 0) continue;
+
+                boolean podeComecar = (inicios[posicao] & mascaraInicio) == inicioConsulta;
+                if (nivelMaximo == 0 && !podeComecar) continue;
+                if (nivelMaximo == 1 && !podeComecar) {
+                    for (int i = 0; i < termos.length; i++) {
+                        int trigrama = inicioDePalavra[i];
+                        if (trigrama < 0) continue;
+                        int achado = avancar(listas[trigrama] != null ? listas[trigrama] : VAZIA, tamanhos[trigrama],
+                                cursoresInicio[i], posicao);
+                        cursoresInicio[i] = achado;
+                        if (achado == tamanhos[trigrama] || listas[trigrama][achado] != posicao) continue percorrer;
+                    }
+                }
+
+                String texto = normalizados[posicao];
+                int nivel;
+                if (podeComecar && texto.startsWith(normalizada)) {
+                    // Começar pela consulta já implica conter todos os termos
+                    nivel = 0;
+                } else {
+                    if (nivelMaximo == 0) continue;
+                    boolean todosNoInicio = true;
+                    for (int i = 0; i < termos.length; i++) {
+                        // Termos curtos já chegaram aqui como início de palavra pelos trigramas com espaço
+                        if (termos[i].length() >= 3 && !texto.contains(termos[i])) continue percorrer;
+                        if (todosNoInicio && !texto.startsWith(termos[i]) && !texto.contains(iniciosDePalavra[i]))
+                            todosNoInicio = false;
+                    }
+                    nivel = todosNoInicio ? 1 : 2;
+                    if (nivel > nivelMaximo) continue;
+                }
+
+                Documento documento = documentos[posicao];
+                Chave chave = new Chave(nivel, comprimento, texto, documento.id());
+                if (apos != null && chave.compareTo(apos) <= 0) continue;
+                if (pior != null && chave.compareTo(pior) >= 0) continue;
+
+                melhores.add(new Resultado(documento, chave));
+                if (melhores.size() > limite) melhores.poll();
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+
+        List<Resultado> resultado = new ArrayList<>(melhores);
+        resultado.sort(Comparator.comparing(Resultado::chave));
+        return resultado;
+    }
+
+    /**
+     * Minúsculas sem acentos; qualquer outro caractere vira um único espaço separador
+     */
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) return "";
+
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        boolean separado = true;
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            c = Character.toLowerCase(c);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+                separado = false;
+            } else if (!separado) {
+                sb.append(' ');
+                separado = true;
+            }
+        }
+        if (separado && !sb.isEmpty()) sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+
+    private void removerPosicao(Integer posicao) {
+        if (posicao == null) return;
+        documentos[posicao] = null;
+        normalizados[posicao] = null;
+        tipos[posicao] = null;
+        comprimentos[posicao] = -1;
+        // Com muitas posições mortas nas listas, reconstrói tudo com as posições renumeradas
+        if (++removidos > 1024 && removidos > proximaPosicao / 4) compactar();
+    }
+
+    private void compactar() {
+        Documento[] vivos = new Documento[posicoes.size()];
+        String[] textos = new String[posicoes.size()];
+        int n = 0;
+        for (int p = 0; p < proximaPosicao; p++) {
+            if (documentos[p] == null) continue;
+            vivos[n] = documentos[p];
+            textos[n++] = normalizados[p];
+        }
+
+        Arrays.fill(listas, null);
+        Arrays.fill(tamanhos, 0);
+        Arrays.fill(documentos, null);
+        Arrays.fill(normalizados, null);
+        Arrays.fill(tipos, null);
+        Arrays.fill(comprimentos, -1);
+        posicoes.clear();
+        proximaPosicao = 0;
+        removidos = 0;
+
+        for (int p = 0; p < n; p++) ocupar(p, vivos[p], textos[p]);
+        proximaPosicao = n;
+    }
+
+    private void ocupar(int posicao, Documento documento, String normalizado) {
+        documentos[posicao] = documento;
+        normalizados[posicao] = normalizado;
+        tipos[posicao] = documento.tipo();
+        comprimentos[posicao] = normalizado.length();
+        inicios[posicao] = inicio(normalizado);
+        posicoes.put(documento.id(), posicao);
+        for (int trigrama : trigramasDoTexto(normalizado)) acrescentar(trigrama, posicao);
+    }
+
+    private void acrescentar(int trigrama, int posicao) {
+        int[] lista = listas[trigrama];
+        int tamanho = tamanhos[trigrama];
+        if (lista == null) {
+            lista = listas[trigrama] = new int[4];
+        } else if (tamanho == lista.length) {
+            lista = listas[trigrama] = Arrays.copyOf(lista, tamanho + (tamanho >> 1) + 1);
+        }
+        lista[tamanho] = posicao;
+        tamanhos[trigrama] = tamanho + 1;
+    }
+
+    /**
+     * Primeiro índice a partir de inicio com valor >= alvo (busca exponencial, depois binária)
+     */
+    private static int avancar(int[] lista, int tamanho, int inicio, int alvo) {
+        if (inicio >= tamanho || lista[inicio] >= alvo) return inicio;
+        int passo = 1;
+        int baixo = inicio;
+        int alto = inicio + 1;
+        while (alto < tamanho && lista[alto] < alvo) {
+            baixo = alto;
+            passo <<= 1;
+            alto = inicio + passo;
+        }
+        int idx = Arrays.binarySearch(lista, baixo + 1, Math.min(alto, tamanho - 1) + 1, alvo);
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    private static int[] trigramasDoTexto(String normalizado) {
+        int[] trigramas = new int[normalizado.length() * 2 + 1];
+        int n = 0;
+        int inicio = 0;
+        while (inicio < normalizado.length()) {
+            int fim = normalizado.indexOf(' ', inicio);
+            if (fim < 0) fim = normalizado.length();
+            // "  palavra ": dois espaços antes, um depois
+            char a = ' ';
+            char b = ' ';
+            for (int i = inicio; i <= fim; i++) {
+                char c = i < fim ? normalizado.charAt(i) : ' ';
+                if (n == trigramas.length) trigramas = Arrays.copyOf(trigramas, n * 2);
+                trigramas[n++] = codigo(a, b, c);
+                a = b;
+                b = c;
+            }
+            inicio = fim + 1;
+        }
+        return unicos(trigramas, n);
+    }
+
+    private static int[] trigramasDaConsulta(String[] termos) {
+        int[] trigramas = new int[termos.length * 2];
+        int n = 0;
+        for (String termo : termos) {
+            int novos = Math.max(1, termo.length() - 2);
+            if (n + novos > trigramas.length) trigramas = Arrays.copyOf(trigramas, (n + novos) * 2);
+
+            if (termo.length() == 1) {
+                trigramas[n++] = codigo(' ', ' ', termo.charAt(0));
+            } else if (termo.length() == 2) {
+                trigramas[n++] = codigo(' ', termo.charAt(0), termo.charAt(1));
+            } else {
+                for (int i = 0; i + 3 <= termo.length(); i++)
+                    trigramas[n++] = codigo(termo.charAt(i), termo.charAt(i + 1), termo.charAt(i + 2));
+            }
+        }
+        return unicos(trigramas, n);
+    }
+
+    /**
+     * As duas primeiras letras do texto num int, para comparar o começo sem tocar na string
+     */
+    private static int inicio(String normalizado) {
+        return normalizado.charAt(0) << 16 | (normalizado.length() > 1 ? normalizado.charAt(1) : 0);
+    }
+
+    private static int[] unicos(int[] valores, int n) {
+        Arrays.sort(valores, 0, n);
+        int m = 0;
+        for (int i = 0; i < n; i++)
+            if (m == 0 || valores[i] != valores[m - 1]) valores[m++] = valores[i];
+        return Arrays.copyOf(valores, m);
+    }
+
+    private static int codigo(char a, char b, char c) {
+        return (simbolo(a) * ALFABETO + simbolo(b)) * ALFABETO + simbolo(c);
+    }
+
+    private static int simbolo(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= '0' && c <= '9') return c - '0' + 27;
+        return 0;
+    }
+
+    public record Documento(Long id, TipoUsuario tipo, String nome, String endereco) {}
+
+    /**
+     * Posição na ordem de relevância; também é o conteúdo do cursor de paginação
+     */
+    public record Chave(int nivel, int tamanho, String texto, long id) implements Comparable<Chave> {
+
+        private static final Comparator<Chave> ORDEM = Comparator.comparingInt(Chave::nivel)
+                .thenComparingInt(Chave::tamanho)
+                .thenComparing(Chave::texto)
+                .thenComparingLong(Chave::id);
+
+        @Override
+        public int compareTo(Chave outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+
+    public record Resultado(Documento documento, Chave chave) {}
+}
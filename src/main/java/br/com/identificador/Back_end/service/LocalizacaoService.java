@@ -0,0 +1,215 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.LotePosicoesDTO;
+import br.com.identificador.Back_end.dto.PosicaoDTO;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.evento.EntregadoresStatusAlteradosEvento;
+import br.com.identificador.Back_end.model.PosicaoEntregador;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.PosicaoEntregadorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingestão de posições dos entregadores. Os pings (STOMP /app/localizacao ou lote HTTP)
+ * só entram no AnelPosicoes; uma drenagem agendada, em uma única thread, atualiza a última
+ * posição de cada entregador e o IndiceGeografico, repassa essa posição ao rastreamento da
+ * entrega em andamento e grava o histórico amostrado (uma posição por entregador a cada
+ * intervalo) com saveAll, em INSERTs agrupados pelo batch do Hibernate. O controle de
+ * amostragem de quem ficou OFFLINE ou parou de enviar posição é descartado.
+ */
+@Service
+@Slf4j
+public class LocalizacaoService {
+
+    private static final ZoneId FUSO = ZoneId.systemDefault();
+    // Pings com relógio adiantado além disso são descartados
+    private static final long TOLERANCIA_FUTURO_MS = 60_000;
+
+    private final PosicaoEntregadorRepository posicaoRepository;
+    private final RastreamentoService rastreamentoService;
+    private final IndiceGeografico indiceGeografico;
+    private final AnelPosicoes anel;
+    private final long intervaloHistoricoMs;
+    private final int maxPontosLote;
+    private final long validadeMs;
+
+    // Escrito só pela drenagem, lido pelas consultas
+    private final Map<Long, Posicao> ultimas = new ConcurrentHashMap<>();
+    // Momento da última posição gravada no histórico; escrito pela drenagem; a limpeza e a
+    // saída do entregador (OFFLINE, remoção) tiram as entradas
+    private final Map<Long, Long> ultimaGravada = new ConcurrentHashMap<>();
+
+    private final Counter aceitos;
+    private final Counter descartados;
+    private final Counter gravados;
+
+    public LocalizacaoService(PosicaoEntregadorRepository posicaoRepository,
+                              RastreamentoService rastreamentoService,
+                              IndiceGeografico indiceGeografico,
+                              MeterRegistry meterRegistry,
+                              @Value("${localizacao.buffer.capacidade:65536}") int capacidade,
+                              @Value("${localizacao.historico.intervalo-segundos:15}") long intervaloHistoricoSegundos,
+                              @Value("${localizacao.lote.max-pontos:1000}") int maxPontosLote,
+                              @Value("${localizacao.indice.validade-segundos:300}") long validadeSegundos) {
+        this.posicaoRepository = posicaoRepository;
+        this.rastreamentoService = rastreamentoService;
+        this.indiceGeografico = indiceGeografico;
+        this.anel = new AnelPosicoes(capacidade);
+        this.intervaloHistoricoMs = intervaloHistoricoSegundos * 1000;
+        this.maxPontosLote = maxPontosLote;
+        this.validadeMs = validadeSegundos * 1000;
+
+        this.aceitos = contador(meterRegistry, "aceito");
+        this.descartados = contador(meterRegistry, "descartado");
+        this.gravados = Counter.builder("localizacao.historico.gravados")
+                .description("Posições gravadas no histórico")
+                .register(meterRegistry);
+        Gauge.builder("localizacao.buffer.ocupacao", anel, AnelPosicoes::tamanho)
+                .description("Pings aguardando drenagem")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira um ping. Retorna false se for inválido ou se o buffer estiver cheio.
+     */
+    public boolean registrar(Long entregadorId, double latitude, double longitude, long momento) {
+        if (entregadorId == null || !coordenadasValidas(latitude, longitude)
+                || momento > System.currentTimeMillis() + TOLERANCIA_FUTURO_MS) {
+            descartados.increment();
+            return false;
+        }
+        if (!anel.publicar(entregadorId, latitude, longitude, momento)) {
+            descartados.increment();
+            return false;
+        }
+        aceitos.increment();
+        return true;
+    }
+
+    /**
+     * Enfileira um lote de pontos [latitude, longitude, epoch ms]. Pontos malformados são
+     * ignorados; retorna quantos foram aceitos.
+     */
+    public int registrarLote(LotePosicoesDTO lote) {
+        if (lote.pontos().size() > maxPontosLote)
+            throw new IllegalArgumentException("Lote excede o limite de " + maxPontosLote + " posições");
+
+        int aceitosLote = 0;
+        for (double[] ponto : lote.pontos()) {
+            if (ponto == null || ponto.length < 3) {
+                descartados.increment();
+                continue;
+            }
+            if (registrar(lote.entregadorId(), ponto[0], ponto[1], (long) ponto[2])) aceitosLote++;
+        }
+        return aceitosLote;
+    }
+
+    public Optional<PosicaoDTO> buscarUltimaPosicao(Long entregadorId) {
+        return Optional.ofNullable(ultimas.get(entregadorId)).map(Posicao::toDTO);
+    }
+
+    @Scheduled(fixedDelayString = "${localizacao.drenar-ms:100}")
+    public void drenar() {
+        Map<Long, Posicao> recentes = new HashMap<>();
+        List<PosicaoEntregador> historico = new ArrayList<>();
+
+        anel.drenar((entregadorId, latitude, longitude, momento) -> {
+            Posicao posicao = new Posicao(entregadorId, latitude, longitude, momento);
+            recentes.merge(entregadorId, posicao, Posicao::maisRecente);
+
+            Long gravada = ultimaGravada.get(entregadorId);
+            if (gravada == null || momento - gravada >= intervaloHistoricoMs) {
+                ultimaGravada.put(entregadorId, momento);
+                historico.add(new PosicaoEntregador(entregadorId, latitude, longitude, paraData(momento)));
+            }
+        }, anel.capacidade());
+
+        // Só a posição mais nova de cada entregador no ciclo vai para os assinantes
+        recentes.values().forEach(posicao -> {
+            Posicao anterior = ultimas.get(posicao.entregadorId());
+            if (anterior != null && anterior.momento() >= posicao.momento()) return;
+            ultimas.put(posicao.entregadorId(), posicao);
+            indiceGeografico.atualizar(posicao.entregadorId(), posicao.latitude(), posicao.longitude(), posicao.momento());
+            rastreamentoService.publicarPosicao(posicao.entregadorId(), posicao.latitude(), posicao.longitude(),
+                    paraData(posicao.momento()));
+        });
+
+        if (historico.isEmpty()) return;
+        try {
+            posicaoRepository.saveAll(historico);
+            gravados.increment(historico.size());
+        } catch (RuntimeException e) {
+            // Histórico é melhor esforço: a última posição em memória continua válida
+            log.warn("Falha ao gravar {} posições no histórico: {}", historico.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Esquece a amostragem de quem parou de enviar posição; o próximo ping dele volta a ser gravado
+     */
+    @Scheduled(fixedDelayString = "${localizacao.indice.limpeza-ms:60000}")
+    public void removerExpirados() {
+        long limiteValidade = System.currentTimeMillis() - validadeMs;
+        ultimaGravada.values().removeIf(momento -> momento < limiteValidade);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatus(EntregadorStatusAlteradoEvento evento) {
+        if (evento.novoStatus() == StatusEntregador.OFFLINE) ultimaGravada.remove(evento.entregadorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatusEmLote(EntregadoresStatusAlteradosEvento evento) {
+        if (evento.novoStatus() == StatusEntregador.OFFLINE) evento.entregadorIds().forEach(ultimaGravada::remove);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRemoverEmLote(EntregadoresRemovidosEvento evento) {
+        evento.entregadorIds().forEach(ultimaGravada::remove);
+    }
+
+    private static boolean coordenadasValidas(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private static LocalDateTime paraData(long momento) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(momento), FUSO);
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado) {
+        return Counter.builder("localizacao.pings")
+                .description("Pings de posição recebidos")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private record Posicao(Long entregadorId, double latitude, double longitude, long momento) {
+
+        static Posicao maisRecente(Posicao a, Posicao b) {
+            return b.momento() >= a.momento() ? b : a;
+        }
+
+        PosicaoDTO toDTO() {
+            return new PosicaoDTO(entregadorId, latitude, longitude, paraData(momento));
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package br.com.identificador.Back_end.service;
 
 import br.com.identificador.Back_end.dto.LojaRegistroDTO;
+import br.com.identificador.Back_end.dto.LojaResumoDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.evento.UsuarioAtualizadoEvento;
 import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
 import br.com.identificador.Back_end.repository.LojaRepository;
+import br.com.identificador.Back_end.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -19,12 +30,21 @@ import java.util.Optional;
 public class LojaService {
     
     private final LojaRepository lojaRepository;
+    private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    
+    private final BuscaService buscaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExportadorNdjson exportadorNdjson;
+
+    @Value("${busca.max-resultados:500}")
+    private int maxResultadosBusca = 500;
+
+
     public Loja registrarLoja(LojaRegistroDTO dto) {
         log.info("Registrando nova loja com email: {}", dto.email());
 
-        if (lojaRepository.existsByEmail(dto.email()))
+        // Email é único entre todos os usuários, sem diferenciar maiúsculas
+        if (userRepository.existsByEmailIgnoreCase(dto.email()))
             throw new RuntimeException("Email já cadastrado");
 
         if (lojaRepository.existsByCnpj(dto.cnpj()))
@@ -42,8 +62,11 @@ public class LojaService {
         
         loja.setResponsavel(dto.nomeResponsavel());
         loja.setHorarioFuncionamento(dto.horarioFuncionamento());
+        loja.setLatitude(dto.latitude());
+        loja.setLongitude(dto.longitude());
 
         Loja lojaSalva = lojaRepository.save(loja);
+        eventPublisher.publishEvent(new UsuarioAtualizadoEvento(lojaSalva.getId()));
         log.info("Loja registrada com sucesso: ID {}", lojaSalva.getId());
         return lojaSalva;
     }
@@ -56,25 +79,52 @@ public class LojaService {
         return lojaRepository.findByEmail(email);
     }
     
+    /**
+     * Pelo índice de busca (ordem de relevância, até busca.max-resultados); no banco até ele carregar
+     */
     public List<Loja> buscarPorNome(String nome) {
-        return lojaRepository.buscarPorNome(nome);
+        if (!buscaService.isPronto()) return lojaRepository.buscarPorNome(nome);
+
+        List<Long> ids = buscaService.buscarIdsPorNome(nome, TipoUsuario.LOJA, maxResultadosBusca);
+        return BuscaService.naOrdem(ids, lojaRepository.findAllById(ids));
     }
-    
+
     public List<Loja> buscarPorEndereco(String endereco) {
-        return lojaRepository.buscarPorEndereco(endereco);
+        if (!buscaService.isPronto()) return lojaRepository.buscarPorEndereco(endereco);
+
+        List<Long> ids = buscaService.buscarIdsDeLojasPorEndereco(endereco, maxResultadosBusca);
+        return BuscaService.naOrdem(ids, lojaRepository.findAllById(ids));
     }
     
-    public List<Loja> listarTodas() {
-        return lojaRepository.findAll();
+    /**
+     * Página de lojas em ordem de id, só com os dados de listagem
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<LojaResumoDTO> listarResumos(String cursor, int tamanho) {
+        List<LojaResumoDTO> lojas = lojaRepository.listarResumosAposCursor(
+                PaginacaoCursor.decodificarId(cursor), PageRequest.ofSize(tamanho + 1));
+        return PaginacaoCursor.paginar(lojas, tamanho, LojaResumoDTO::id);
+    }
+
+    /**
+     * Todas as lojas em NDJSON, lidas do banco por cursor enquanto são escritas
+     */
+    @Transactional(readOnly = true)
+    public long exportarResumos(OutputStream saida) throws IOException {
+        try (Stream<LojaResumoDTO> lojas = lojaRepository.exportarResumos()) {
+            long total = exportadorNdjson.escrever(lojas, saida);
+            log.info("Exportadas {} lojas", total);
+            return total;
+        }
     }
     
     public Loja atualizarLoja(Long id, LojaRegistroDTO dto) {
         Loja loja = lojaRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Loja não encontrada"));
         
-        // Verificar se email não está sendo usado por outra loja
-        if (!loja.getEmail().equals(dto.email()) && lojaRepository.existsByEmail(dto.email()))
-            throw new RuntimeException("Email já está sendo usado por outra loja");
+        // Verificar se email não está sendo usado por outro usuário
+        if (userRepository.existsByEmailIgnoreCaseAndIdNot(dto.email(), id))
+            throw new RuntimeException("Email já está sendo usado por outro usuário");
 
         loja.setNome(dto.nome());
         loja.setEmail(dto.email());
@@ -82,10 +132,18 @@ public class LojaService {
         loja.setEndereco(dto.endereco());
         loja.setResponsavel(dto.nomeResponsavel());
         loja.setHorarioFuncionamento(dto.horarioFuncionamento());
-        
+
+        // Como no cliente: sem o par de coordenadas, fica a posição cadastrada
+        if (dto.latitude() != null && dto.longitude() != null) {
+            loja.setLatitude(dto.latitude());
+            loja.setLongitude(dto.longitude());
+        }
+
         if (dto.senha() != null && !dto.senha().trim().isEmpty())
             loja.setSenha(passwordEncoder.encode(dto.senha()));
 
-        return lojaRepository.save(loja);
+        Loja salva = lojaRepository.save(loja);
+        eventPublisher.publishEvent(new UsuarioAtualizadoEvento(id));
+        return salva;
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.LoteQRCodeDTO;
+import br.com.identificador.Back_end.model.QRCode;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import com.google.zxing.WriterException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Geração de crachás em lote: renderiza os QR Codes em paralelo num ForkJoinPool próprio e
+ * grava cada imagem no ZIP assim que fica pronta, na ordem pedida. Só uma janela de imagens
+ * fica em memória por vez, independentemente do tamanho do lote.
+ */
+@Service
+@Slf4j
+public class LoteQRCodeService {
+
+    // Capacidade do QR Code versão 40 com correção L em modo byte: texto até esse tamanho sempre cabe
+    private static final int CAPACIDADE_BYTES = 2953;
+
+    private final EntregadorRepository entregadorRepository;
+    private final QRCodeService qrCodeService;
+    private final ForkJoinPool pool;
+    private final int janela;
+    private final int maxItens;
+
+    public LoteQRCodeService(EntregadorRepository entregadorRepository,
+                             QRCodeService qrCodeService,
+                             @Value("${qrcode.lote.paralelismo:0}") int paralelismo,
+                             @Value("${qrcode.lote.janela:64}") int janela,
+                             @Value("${qrcode.lote.max-itens:10000}") int maxItens) {
+        this.entregadorRepository = entregadorRepository;
+        this.qrCodeService = qrCodeService;
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        this.janela = Math.max(1, janela);
+        this.maxItens = maxItens;
+    }
+
+    /**
+     * Valida o pedido e resolve os entregadores antes de qualquer byte ser enviado,
+     * para que erros ainda possam virar 400
+     */
+    @Transactional(readOnly = true)
+    public List<ItemLote> prepararLote(LoteQRCodeDTO dto) {
+        List<Long> ids = dto.entregadorIds() != null ? dto.entregadorIds() : List.of();
+        List<String> textos = dto.textos() != null ? dto.textos() : List.of();
+        if (ids.isEmpty() && textos.isEmpty())
+            throw new IllegalArgumentException("Informe entregadorIds ou textos");
+        if (ids.size() + textos.size() > maxItens)
+            throw new IllegalArgumentException("Lote excede o limite de " + maxItens + " itens");
+
+        String formato = dto.formato() != null ? dto.formato().toUpperCase(Locale.ROOT) : "PNG";
+        if (!formato.equals("PNG") && !formato.equals("SVG"))
+            throw new IllegalArgumentException("Formato não suportado no lote: " + dto.formato());
+        int largura = dto.largura() != null ? dto.largura() : 300;
+        int altura = dto.altura() != null ? dto.altura() : 300;
+        String extensao = formato.toLowerCase(Locale.ROOT);
+
+        List<ItemLote> itens = new ArrayList<>(ids.size() + textos.size());
+        if (!ids.isEmpty()) {
+            Collection<Long> unicos = new LinkedHashSet<>(ids);
+            Map<Long, String> uuids = entregadorRepository.buscarQrCodes(unicos).stream()
+                    .collect(Collectors.toMap(EntregadorRepository.QrCodeEntregador::getId,
+                            EntregadorRepository.QrCodeEntregador::getQrCodeUuid));
+            List<Long> ausentes = unicos.stream().filter(id -> uuids.get(id) == null).toList();
+            if (!ausentes.isEmpty())
+                throw new IllegalArgumentException("Entregadores não encontrados ou sem QR Code: " + ausentes);
+
+            for (Long id : unicos)
+                itens.add(new ItemLote("entregador-" + id + "." + extensao,
+                        new QRCode(uuids.get(id), largura, altura, formato)));
+        }
+        for (int i = 0; i < textos.size(); i++) {
+            if (textos.get(i) == null || textos.get(i).isBlank())
+                throw new IllegalArgumentException("Texto vazio na posição " + i);
+            validarCapacidade(textos.get(i), i);
+            itens.add(new ItemLote(String.format("qrcode-%05d.%s", i + 1, extensao),
+                    new QRCode(textos.get(i), largura, altura, formato)));
+        }
+        return itens;
+    }
+
+    /**
+     * Texto que não cabe num QR Code só falharia na renderização, com o ZIP já em 200;
+     * acima da capacidade em modo byte confere com uma codificação de verdade (numérico e
+     * alfanumérico cabem mais)
+     */
+    private static void validarCapacidade(String texto, int posicao) {
+        if (texto.length() <= CAPACIDADE_BYTES) return;
+        try {
+            RasterizadorQRCode.modulos(texto);
+        } catch (WriterException e) {
+            throw new IllegalArgumentException("Texto grande demais para um QR Code na posição " + posicao);
+        }
+    }
+
+    /**
+     * Escreve o ZIP no stream; no máximo {@code janela} imagens renderizadas aguardam gravação
+     */
+    public void escreverZip(List<ItemLote> itens, OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        ZipOutputStream zip = new ZipOutputStream(saida);
+
+        Deque<CompletableFuture<byte[]>> pendentes = new ArrayDeque<>();
+        int proximo = 0;
+        int gravados = 0;
+        try {
+            while (gravados < itens.size()) {
+                while (proximo < itens.size() && pendentes.size() < janela)
+                    pendentes.add(renderizar(itens.get(proximo++)));
+
+                byte[] imagem = pendentes.removeFirst().join();
+                gravar(zip, itens.get(gravados++), imagem);
+            }
+            zip.finish();
+            zip.flush();
+        } catch (CompletionException e) {
+            pendentes.forEach(f -> f.cancel(true));
+            throw new IOException("Erro ao renderizar QR Code do lote", e.getCause());
+        } catch (IOException e) {
+            // Cliente desconectou: não adianta continuar renderizando
+            pendentes.forEach(f -> f.cancel(true));
+            throw e;
+        }
+
+        log.info("Lote de {} QR Codes gerado em {} ms", itens.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private CompletableFuture<byte[]> renderizar(ItemLote item) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return qrCodeService.renderizarSemCache(item.qrCode());
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, pool);
+    }
+
+    private void gravar(ZipOutputStream zip, ItemLote item, byte[] imagem) throws IOException {
+        ZipEntry entrada = new ZipEntry(item.nomeArquivo());
+        if ("PNG".equals(item.qrCode().getFormat())) {
+            // PNG já é comprimido: STORED evita gastar CPU deflacionando de novo
+            CRC32 crc = new CRC32();
+            crc.update(imagem);
+            entrada.setMethod(ZipEntry.STORED);
+            entrada.setSize(imagem.length);
+            entrada.setCompressedSize(imagem.length);
+            entrada.setCrc(crc.getValue());
+        } else {
+            // SVG é texto e comprime bem
+            entrada.setMethod(ZipEntry.DEFLATED);
+        }
+        zip.putNextEntry(entrada);
+        zip.write(imagem);
+        zip.closeEntry();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public record ItemLote(String nomeArquivo, QRCode qrCode) {}
+}
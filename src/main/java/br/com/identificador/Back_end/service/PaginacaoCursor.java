@@ -0,0 +1,53 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor opaco (Base64 url) das listagens keyset por uma única chave, como id ou email
+ */
+final class PaginacaoCursor {
+
+    private PaginacaoCursor() {
+    }
+
+    /**
+     * A consulta busca uma linha a mais que o tamanho pedido para saber se existe próxima
+     * página sem COUNT(*); a chave da última linha da página vira o cursor.
+     */
+    static <T> PaginaCursorDTO<T> paginar(List<T> linhas, int tamanho, Function<T, ?> chave) {
+        boolean temMais = linhas.size() > tamanho;
+        List<T> pagina = temMais ? List.copyOf(linhas.subList(0, tamanho)) : linhas;
+        String proximoCursor = temMais ? codificar(String.valueOf(chave.apply(pagina.get(pagina.size() - 1)))) : null;
+        return new PaginaCursorDTO<>(pagina, proximoCursor, temMais);
+    }
+
+    static String codificar(String chave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Chave do cursor, ou o valor inicial quando não há cursor (primeira página)
+     */
+    static String decodificar(String cursor, String inicial) {
+        if (cursor == null || cursor.isBlank()) return inicial;
+
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    static Long decodificarId(String cursor) {
+        try {
+            return Long.parseLong(decodificar(cursor, "0"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.PerfilDTO;
+import br.com.identificador.Back_end.evento.EntregadorAtualizadoEvento;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.evento.EntregadoresStatusAlteradosEvento;
+import br.com.identificador.Back_end.evento.QrCodeRegeneradoEvento;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache de perfis de entregador em dois níveis: um cache próximo em memória, de vida curta,
+ * e o Redis, compartilhado entre as instâncias. Cobre a busca por id e por qrCodeUuid (a
+ * leitura do QR Code no balcão da loja). Escritas no EntregadorService invalidam os dois
+ * níveis após o commit; nas demais instâncias o cache próximo expira pelo TTL curto.
+ * Se o Redis cair, as consultas seguem direto para o banco até ele voltar.
+ *
+ * Cada invalidação incrementa uma geração (local e no Redis). Quem carregou o perfil do banco
+ * só o mantém em cache se a geração não mudou desde o início da carga: uma leitura anterior ao
+ * commit que termina depois da invalidação não devolve o perfil antigo ao cache.
+ *
+ * Os caches próximos guardam futuros: a entrada de uma carga é criada dentro do compute do
+ * Caffeine, mas o Redis e o banco são consultados fora dele, sem prender o lock da chave.
+ */
+@Component
+@Slf4j
+public class PerfilEntregadorCache {
+
+    private static final String PREFIXO_PERFIL = "entregador:perfil:";
+    private static final String PREFIXO_QR = "entregador:qr:";
+    private static final String CHAVE_GERACAO = "entregador:perfil:geracao";
+
+    // KEYS: geração, perfil[, ponteiro do QR]; ARGV: geração lida antes da carga, json, TTL ms, id
+    private static final RedisScript<Long> GRAVAR_SE_ATUAL = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[1]) or '0') ~= ARGV[1] then return 0 end " +
+            "redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3]) " +
+            "if #KEYS > 2 then redis.call('SET', KEYS[3], ARGV[4], 'PX', ARGV[3]) end " +
+            "return 1", Long.class);
+
+    // KEYS: geração, chaves a remover
+    private static final RedisScript<Long> INVALIDAR = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[1]) " +
+            "for i = 2, #KEYS do redis.call('DEL', KEYS[i]) end " +
+            "return #KEYS - 1", Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Duration ttlRedis;
+    private final long pausaRedisMs;
+
+    private final AsyncCache<Long, PerfilDTO> perfis;
+    private final AsyncCache<String, Long> qrCodes;
+    private final AtomicLong geracao = new AtomicLong();
+
+    private final Counter redisAcertos;
+    private final Counter redisFalhas;
+    private final Counter redisErros;
+
+    // Enquanto no futuro, o Redis é ignorado (falhou recentemente)
+    private volatile long redisIndisponivelAte;
+
+    public PerfilEntregadorCache(StringRedisTemplate redis,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${cache.entregador.proximo.ttl-segundos:5}") long ttlProximoSegundos,
+                                 @Value("${cache.entregador.proximo.tamanho:10000}") long tamanhoProximo,
+                                 @Value("${cache.entregador.redis.ttl-segundos:600}") long ttlRedisSegundos,
+                                 @Value("${cache.entregador.redis.pausa-apos-erro-ms:30000}") long pausaRedisMs) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.ttlRedis = Duration.ofSeconds(ttlRedisSegundos);
+        this.pausaRedisMs = pausaRedisMs;
+
+        this.perfis = Caffeine.newBuilder()
+                .maximumSize(tamanhoProximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlProximoSegundos))
+                .recordStats()
+                .buildAsync();
+        this.qrCodes = Caffeine.newBuilder()
+                .maximumSize(tamanhoProximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlProximoSegundos))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, perfis.synchronous(), "entregador.perfil.proximo");
+        CaffeineCacheMetrics.monitor(meterRegistry, qrCodes.synchronous(), "entregador.qrcode.proximo");
+
+        this.redisAcertos = contador(meterRegistry, "acerto");
+        this.redisFalhas = contador(meterRegistry, "falha");
+        this.redisErros = contador(meterRegistry, "erro");
+    }
+
+    /**
+     * Buscas simultâneas do mesmo id esperam uma única carga (Redis e, se preciso, banco)
+     */
+    public Optional<PerfilDTO> buscarPorId(Long id, Function<Long, Optional<PerfilDTO>> origem) {
+        long geracaoAntes = geracao.get();
+        PerfilDTO perfil = carregarUmaVez(perfis, id, chave -> {
+            PerfilDTO doRedis = lerPerfilRedis(chave);
+            if (doRedis != null) return doRedis;
+            String geracaoRedis = geracaoRedis();
+            return origem.apply(chave).map(p -> gravarRedis(p, geracaoRedis)).orElse(null);
+        });
+        descartarSeInvalidado(perfil, geracaoAntes);
+        return Optional.ofNullable(perfil);
+    }
+
+    /**
+     * Como em {@link #buscarPorId}, leituras simultâneas do mesmo QR Code fazem uma única carga
+     */
+    public Optional<PerfilDTO> buscarPorQrCode(String qrCodeUuid, Function<String, Optional<PerfilDTO>> origem) {
+        long geracaoAntes = geracao.get();
+        for (int tentativa = 0; tentativa < 2; tentativa++) {
+            AtomicReference<PerfilDTO> carregado = new AtomicReference<>();
+            Long id = carregarUmaVez(qrCodes, qrCodeUuid, uuid -> {
+                PerfilDTO perfil = resolverQrCode(uuid, origem);
+                carregado.set(perfil);
+                return perfil != null ? perfil.id() : null;
+            });
+            if (id == null) return Optional.empty();
+
+            PerfilDTO perfil = carregado.get() != null ? carregado.get() : perfilEmMemoria(id);
+            if (perfil != null && qrCodeUuid.equals(perfil.qrCodeUuid())) {
+                descartarSeInvalidado(perfil, geracaoAntes);
+                return Optional.of(perfil);
+            }
+            // Ponteiro sem o perfil correspondente na memória (expirou ou foi invalidado): resolve de novo
+            qrCodes.synchronous().asMap().remove(qrCodeUuid, id);
+        }
+        return origem.apply(qrCodeUuid);
+    }
+
+    public void invalidar(Long id, String... qrCodeUuids) {
+        geracao.incrementAndGet();
+        List<String> chaves = new ArrayList<>();
+        chaves.add(CHAVE_GERACAO);
+        if (id != null) {
+            perfis.synchronous().invalidate(id);
+            chaves.add(PREFIXO_PERFIL + id);
+        }
+        for (String qrCodeUuid : qrCodeUuids) {
+            if (qrCodeUuid == null) continue;
+            qrCodes.synchronous().invalidate(qrCodeUuid);
+            chaves.add(PREFIXO_QR + qrCodeUuid);
+        }
+        redis(() -> redis.execute(INVALIDAR, chaves));
+    }
+
+    /**
+     * Invalida vários perfis com uma única chamada ao Redis
+     */
+    public void invalidarTodos(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        geracao.incrementAndGet();
+        perfis.synchronous().invalidateAll(ids);
+        List<String> chaves = new ArrayList<>(ids.size() + 1);
+        chaves.add(CHAVE_GERACAO);
+        ids.forEach(id -> chaves.add(PREFIXO_PERFIL + id));
+        redis(() -> redis.execute(INVALIDAR, chaves));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatusEmLote(EntregadoresStatusAlteradosEvento evento) {
+        invalidarTodos(evento.entregadorIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRemoverEmLote(EntregadoresRemovidosEvento evento) {
+        invalidarTodos(evento.entregadorIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarEntregador(EntregadorAtualizadoEvento evento) {
+        invalidar(evento.entregadorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatus(EntregadorStatusAlteradoEvento evento) {
+        invalidar(evento.entregadorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRegenerarQrCode(QrCodeRegeneradoEvento evento) {
+        invalidar(evento.entregadorId(), evento.qrCodeUuidAnterior());
+    }
+
+    private PerfilDTO resolverQrCode(String qrCodeUuid, Function<String, Optional<PerfilDTO>> origem) {
+        String valor = redis(() -> redis.opsForValue().get(PREFIXO_QR + qrCodeUuid));
+        if (valor != null) {
+            Long id = Long.valueOf(valor);
+            PerfilDTO perfil = perfilEmMemoria(id);
+            if (perfil == null) perfil = lerPerfilRedis(id);
+            // Confere o UUID: o ponteiro pode ter sobrevivido a uma regeneração em outra instância
+            if (perfil != null && qrCodeUuid.equals(perfil.qrCodeUuid())) {
+                perfis.synchronous().put(id, perfil);
+                return perfil;
+            }
+        }
+
+        String geracaoRedis = geracaoRedis();
+        PerfilDTO perfil = origem.apply(qrCodeUuid).orElse(null);
+        if (perfil != null) perfis.synchronous().put(perfil.id(), gravarRedis(perfil, geracaoRedis));
+        return perfil;
+    }
+
+    /**
+     * Quem cria a entrada faz a carga, fora do compute do Caffeine; os demais esperam o mesmo
+     * futuro. Carga vazia (null) ou com erro sai do cache sozinha.
+     */
+    private static <K, V> V carregarUmaVez(AsyncCache<K, V> cache, K chave, Function<K, V> carga) {
+        AtomicReference<CompletableFuture<V>> criado = new AtomicReference<>();
+        CompletableFuture<V> futuro = cache.get(chave, (k, executor) -> {
+            criado.set(new CompletableFuture<>());
+            return criado.get();
+        });
+        if (criado.get() != null) {
+            try {
+                criado.get().complete(carga.apply(chave));
+            } catch (RuntimeException | Error e) {
+                criado.get().completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) throw causa;
+            if (e.getCause() instanceof Error causa) throw causa;
+            throw e;
+        }
+    }
+
+    // Só perfis já carregados: não espera a carga em andamento de outra thread
+    private PerfilDTO perfilEmMemoria(Long id) {
+        CompletableFuture<PerfilDTO> futuro = perfis.getIfPresent(id);
+        return futuro != null && futuro.isDone() && !futuro.isCompletedExceptionally() ? futuro.join() : null;
+    }
+
+    /**
+     * Invalidação durante a carga: o perfil carregado é devolvido a quem pediu, mas sai da memória
+     */
+    private void descartarSeInvalidado(PerfilDTO perfil, long geracaoAntes) {
+        if (perfil == null || geracao.get() == geracaoAntes) return;
+        perfis.synchronous().asMap().remove(perfil.id(), perfil);
+        if (perfil.qrCodeUuid() != null) qrCodes.synchronous().asMap().remove(perfil.qrCodeUuid(), perfil.id());
+    }
+
+    /**
+     * Geração no Redis vista antes de uma carga do banco; null quando ele está fora
+     * (sem como conferir, o perfil carregado fica só na memória)
+     */
+    private String geracaoRedis() {
+        String valor = redis(() -> redis.opsForValue().get(CHAVE_GERACAO));
+        return valor == null && redisDisponivel() ? "0" : valor;
+    }
+
+    private PerfilDTO gravarRedis(PerfilDTO perfil, String geracaoAntes) {
+        if (geracaoAntes == null) return perfil;
+        try {
+            String json = objectMapper.writeValueAsString(perfil);
+            List<String> chaves = perfil.qrCodeUuid() != null
+                    ? List.of(CHAVE_GERACAO, PREFIXO_PERFIL + perfil.id(), PREFIXO_QR + perfil.qrCodeUuid())
+                    : List.of(CHAVE_GERACAO, PREFIXO_PERFIL + perfil.id());
+            redis(() -> redis.execute(GRAVAR_SE_ATUAL, chaves, geracaoAntes, json,
+                    String.valueOf(ttlRedis.toMillis()), perfil.id().toString()));
+        } catch (JsonProcessingException e) {
+            log.warn("Erro ao serializar perfil do entregador {}: {}", perfil.id(), e.getMessage());
+        }
+        return perfil;
+    }
+
+    private PerfilDTO lerPerfilRedis(Long id) {
+        String json = redis(() -> redis.opsForValue().get(PREFIXO_PERFIL + id));
+        if (json == null) {
+            if (redisDisponivel()) redisFalhas.increment();
+            return null;
+        }
+        try {
+            PerfilDTO perfil = objectMapper.readValue(json, PerfilDTO.class);
+            redisAcertos.increment();
+            return perfil;
+        } catch (JsonProcessingException e) {
+            log.warn("Perfil inválido no Redis para o entregador {}: {}", id, e.getMessage());
+            redisFalhas.increment();
+            return null;
+        }
+    }
+
+    private <T> T redis(Supplier<T> operacao) {
+        if (!redisDisponivel()) return null;
+        try {
+            return operacao.get();
+        } catch (RuntimeException e) {
+            redisErros.increment();
+            redisIndisponivelAte = System.currentTimeMillis() + pausaRedisMs;
+            log.warn("Redis indisponível, usando apenas o cache local por {} ms: {}", pausaRedisMs, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean redisDisponivel() {
+        return System.currentTimeMillis() >= redisIndisponivelAte;
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado) {
+        return Counter.builder("entregador.perfil.redis")
+                .description("Consultas de perfil de entregador no Redis")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
@@ -1,36 +1,66 @@
 package br.com.identificador.Back_end.service;
 
+import br.com.identificador.Back_end.evento.QrCodeRegeneradoEvento;
 import br.com.identificador.Back_end.model.QRCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
+@Slf4j
 public class QRCodeService {
 
+    // Muda quando a forma de renderizar muda, invalidando ETags já entregues
+    private static final String VERSAO_RENDERIZACAO = "2";
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-(?:[0-9a-fA-F]{4}-){3}[0-9a-fA-F]{12}");
+
+    // Imagens já renderizadas, limitadas pelo total de bytes (eviction W-TinyLFU)
+    private final Cache<ChaveImagem, ImagemQRCode> imagens;
+
+    // UUID presente no texto -> imagens em cache com ele, para descartar sem varrer o cache
+    private final ConcurrentHashMap<String, Set<ChaveImagem>> chavesPorUuid = new ConcurrentHashMap<>();
+
+    public QRCodeService(@Value("${qrcode.cache.max-bytes:33554432}") long maxBytes, MeterRegistry meterRegistry) {
+        this.imagens = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((ChaveImagem chave, ImagemQRCode imagem) -> imagem.bytes().length + chave.text().length())
+                .evictionListener((ChaveImagem chave, ImagemQRCode imagem, RemovalCause causa) -> desindexar(chave))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, imagens, "qrcode.imagens");
+    }
+
     /**
      * Gera QR Code como array de bytes
      */
     public byte[] generateQRCodeImage(QRCode qrCode) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(
-                qrCode.getText(),
-                BarcodeFormat.QR_CODE,
-                qrCode.getWidth(),
-                qrCode.getHeight()
-        );
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, qrCode.getFormat(), outputStream);
-
-        return outputStream.toByteArray();
+        return renderizar(qrCode).bytes();
     }
 
     /**
@@ -40,6 +70,67 @@ public class QRCodeService {
         return generateQRCodeImage(new QRCode(text));
     }
 
+    /**
+     * Imagem do QR Code com seu ETag; só codifica na primeira vez para cada (texto, largura, altura, formato),
+     * e pedidos simultâneos da mesma imagem esperam uma única codificação
+     */
+    public ImagemQRCode renderizar(QRCode qrCode) throws WriterException, IOException {
+        try {
+            return imagens.get(ChaveImagem.de(qrCode), chave -> {
+                try {
+                    ImagemQRCode imagem = new ImagemQRCode(codificar(qrCode), etag(qrCode));
+                    indexar(chave);
+                    return imagem;
+                } catch (WriterException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof WriterException writerException) throw writerException;
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Renderiza sem passar pelo cache (lotes grandes de uso único não devem expulsar as imagens quentes)
+     */
+    public byte[] renderizarSemCache(QRCode qrCode) throws WriterException, IOException {
+        return codificar(qrCode);
+    }
+
+    /**
+     * ETag forte derivado apenas dos parâmetros, para responder 304 sem renderizar nada
+     */
+    public String etag(QRCode qrCode) {
+        ChaveImagem chave = ChaveImagem.de(qrCode);
+        String conteudo = VERSAO_RENDERIZACAO + '|' + chave.format() + '|' + chave.width() + 'x' + chave.height() + '|' + chave.text();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Descarta as imagens cujo texto contém o UUID informado (ex.: QR Code substituído)
+     */
+    public void invalidar(String qrCodeUuid) {
+        if (qrCodeUuid == null || qrCodeUuid.isBlank()) return;
+        Set<ChaveImagem> chaves = chavesPorUuid.remove(qrCodeUuid.toLowerCase(Locale.ROOT));
+        if (chaves == null) return;
+        for (ChaveImagem chave : chaves) {
+            imagens.invalidate(chave);
+            desindexar(chave);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRegenerarQrCode(QrCodeRegeneradoEvento evento) {
+        invalidar(evento.qrCodeUuidAnterior());
+        log.debug("Imagens do QR Code {} do entregador {} descartadas", evento.qrCodeUuidAnterior(), evento.entregadorId());
+    }
+
     /**
      * Salva QR Code em arquivo
      */
@@ -54,4 +145,60 @@ public class QRCodeService {
 
         MatrixToImageWriter.writeToPath(bitMatrix, qrCode.getFormat(), filePath);
     }
-}
\ No newline at end of file
+
+    private void indexar(ChaveImagem chave) {
+        Matcher uuids = UUID.matcher(chave.text());
+        while (uuids.find()) {
+            chavesPorUuid.compute(uuids.group().toLowerCase(Locale.ROOT), (uuid, chaves) -> {
+                Set<ChaveImagem> conjunto = chaves != null ? chaves : ConcurrentHashMap.newKeySet();
+                conjunto.add(chave);
+                return conjunto;
+            });
+        }
+    }
+
+    private void desindexar(ChaveImagem chave) {
+        Matcher uuids = UUID.matcher(chave.text());
+        while (uuids.find()) {
+            chavesPorUuid.computeIfPresent(uuids.group().toLowerCase(Locale.ROOT), (uuid, chaves) -> {
+                chaves.remove(chave);
+                return chaves.isEmpty() ? null : chaves;
+            });
+        }
+    }
+
+    private byte[] codificar(QRCode qrCode) throws WriterException, IOException {
+        // PNG e SVG saem direto da grade de módulos; demais formatos passam pelo ImageIO
+        switch (ChaveImagem.de(qrCode).format()) {
+            case "PNG":
+                return RasterizadorQRCode.png(RasterizadorQRCode.modulos(qrCode.getText()), qrCode.getWidth(), qrCode.getHeight());
+            case "SVG":
+                return RasterizadorQRCode.svg(RasterizadorQRCode.modulos(qrCode.getText()), qrCode.getWidth(), qrCode.getHeight());
+            default:
+                break;
+        }
+
+        QRCodeWriter qrCodeWriter = new QRCodeWriter();
+        BitMatrix bitMatrix = qrCodeWriter.encode(
+                qrCode.getText(),
+                BarcodeFormat.QR_CODE,
+                qrCode.getWidth(),
+                qrCode.getHeight()
+        );
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(bitMatrix, qrCode.getFormat(), outputStream);
+
+        return outputStream.toByteArray();
+    }
+
+    public record ImagemQRCode(byte[] bytes, String etag) {}
+
+    private record ChaveImagem(String text, int width, int height, String format) {
+
+        static ChaveImagem de(QRCode qrCode) {
+            String format = qrCode.getFormat() != null ? qrCode.getFormat().toUpperCase(Locale.ROOT) : "PNG";
+            return new ChaveImagem(qrCode.getText(), qrCode.getWidth(), qrCode.getHeight(), format);
+        }
+    }
+}
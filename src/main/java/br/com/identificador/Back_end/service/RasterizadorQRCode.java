@@ -0,0 +1,244 @@
+package br.com.identificador.Back_end.service;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gera PNG de 1 bit (ou SVG) direto da grade de módulos do QR Code, sem BufferedImage nem
+ * ImageIO. Cada linha de módulos é empacotada uma vez e repetida na escala; os buffers de
+ * trabalho são reaproveitados por thread. O layout (zona de silêncio, escala inteira e
+ * centralização) é o mesmo do QRCodeWriter, então a imagem sai pixel a pixel igual.
+ */
+public final class RasterizadorQRCode {
+
+    public static final int ZONA_SILENCIO = 4;
+
+    private static final byte[] ASSINATURA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final byte[] IHDR = "IHDR".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IDAT = "IDAT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IEND = "IEND".getBytes(StandardCharsets.US_ASCII);
+
+    // Acima disso os buffers da thread são descartados ao fim da imagem, para uma imagem grande
+    // não deixar memória presa em cada thread do pool
+    private static final int LIMITE_REUSO = 256 * 1024;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private RasterizadorQRCode() {
+    }
+
+    /**
+     * Grade de módulos (sem zona de silêncio), com os mesmos parâmetros padrão do QRCodeWriter
+     */
+    public static ByteMatrix modulos(String texto) throws WriterException {
+        if (texto == null || texto.isEmpty()) throw new IllegalArgumentException("Texto do QR Code vazio");
+        return Encoder.encode(texto, ErrorCorrectionLevel.L).getMatrix();
+    }
+
+    public static byte[] png(ByteMatrix modulos, int largura, int altura) {
+        Layout layout = Layout.de(modulos, largura, altura);
+        Buffers buffers = BUFFERS.get();
+        int bytesPorLinha = 1 + (layout.largura() + 7) / 8;
+
+        // Linhas cruas (filtro 0 + pixels): branco = 1, módulo escuro = 0
+        byte[] cru = buffers.cru(bytesPorLinha * layout.altura());
+        byte[] linhaBranca = buffers.linhaBranca(bytesPorLinha);
+        int pos = 0;
+        for (int y = 0; y < layout.altura(); y++) {
+            int moduloY = layout.moduloY(y);
+            if (moduloY < 0) {
+                System.arraycopy(linhaBranca, 0, cru, pos, bytesPorLinha);
+                pos += bytesPorLinha;
+                continue;
+            }
+            if (y > 0 && layout.moduloY(y - 1) == moduloY) {
+                // Mesma linha de módulos da anterior: só copia
+                System.arraycopy(cru, pos - bytesPorLinha, cru, pos, bytesPorLinha);
+                pos += bytesPorLinha;
+                continue;
+            }
+            System.arraycopy(linhaBranca, 0, cru, pos, bytesPorLinha);
+            for (int moduloX = 0; moduloX < modulos.getWidth(); moduloX++) {
+                if (modulos.get(moduloX, moduloY) != 1) continue;
+                int inicio = layout.esquerda() + moduloX * layout.escala();
+                for (int x = inicio; x < inicio + layout.escala(); x++)
+                    cru[pos + 1 + (x >> 3)] &= (byte) ~(0x80 >>> (x & 7));
+            }
+            pos += bytesPorLinha;
+        }
+
+        Saida saida = buffers.saida();
+        saida.escrever(ASSINATURA_PNG);
+
+        int ihdr = saida.iniciarChunk(IHDR);
+        saida.escreverInt(layout.largura());
+        saida.escreverInt(layout.altura());
+        saida.escreverByte(1); // 1 bit por pixel
+        saida.escreverByte(0); // tons de cinza
+        saida.escreverByte(0);
+        saida.escreverByte(0);
+        saida.escreverByte(0);
+        saida.fecharChunk(ihdr, buffers.crc);
+
+        int idat = saida.iniciarChunk(IDAT);
+        Deflater deflater = buffers.deflater;
+        deflater.reset();
+        deflater.setInput(cru, 0, pos);
+        deflater.finish();
+        while (!deflater.finished()) {
+            saida.garantir(4096);
+            saida.tamanho += deflater.deflate(saida.dados, saida.tamanho, saida.dados.length - saida.tamanho);
+        }
+        saida.fecharChunk(idat, buffers.crc);
+
+        saida.fecharChunk(saida.iniciarChunk(IEND), buffers.crc);
+        byte[] png = saida.copia();
+        buffers.descartarExcedentes();
+        return png;
+    }
+
+    public static byte[] svg(ByteMatrix modulos, int largura, int altura) {
+        int lado = modulos.getWidth() + ZONA_SILENCIO * 2;
+        StringBuilder svg = new StringBuilder(64 + modulos.getWidth() * modulos.getHeight() * 2)
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(largura)
+                .append("\" height=\"").append(altura)
+                .append("\" viewBox=\"0 0 ").append(lado).append(' ').append(lado)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+
+        // Um retângulo por sequência horizontal de módulos escuros
+        for (int y = 0; y < modulos.getHeight(); y++) {
+            int x = 0;
+            while (x < modulos.getWidth()) {
+                if (modulos.get(x, y) != 1) {
+                    x++;
+                    continue;
+                }
+                int inicio = x;
+                while (x < modulos.getWidth() && modulos.get(x, y) == 1) x++;
+                svg.append('M').append(inicio + ZONA_SILENCIO).append(' ').append(y + ZONA_SILENCIO)
+                        .append('h').append(x - inicio).append("v1h-").append(x - inicio).append('z');
+            }
+        }
+        svg.append("\"/></svg>");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Mesmo cálculo do QRCodeWriter.renderResult: escala inteira e sobra dividida nas bordas
+     */
+    private record Layout(int largura, int altura, int escala, int esquerda, int topo, int modulosLargura, int modulosAltura) {
+
+        static Layout de(ByteMatrix modulos, int largura, int altura) {
+            int qrLargura = modulos.getWidth() + ZONA_SILENCIO * 2;
+            int qrAltura = modulos.getHeight() + ZONA_SILENCIO * 2;
+            int saidaLargura = Math.max(largura, qrLargura);
+            int saidaAltura = Math.max(altura, qrAltura);
+            int escala = Math.min(saidaLargura / qrLargura, saidaAltura / qrAltura);
+            return new Layout(saidaLargura, saidaAltura, escala,
+                    (saidaLargura - modulos.getWidth() * escala) / 2,
+                    (saidaAltura - modulos.getHeight() * escala) / 2,
+                    modulos.getWidth(), modulos.getHeight());
+        }
+
+        // Linha de módulos coberta pela linha de pixels y, ou -1 se for borda
+        int moduloY(int y) {
+            if (y < topo) return -1;
+            int modulo = (y - topo) / escala;
+            return modulo < modulosAltura ? modulo : -1;
+        }
+    }
+
+    private static final class Buffers {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final CRC32 crc = new CRC32();
+        private final Saida saida = new Saida();
+        private byte[] cru = new byte[0];
+        private byte[] linhaBranca = new byte[0];
+
+        byte[] cru(int tamanho) {
+            if (cru.length < tamanho) cru = new byte[tamanho];
+            return cru;
+        }
+
+        byte[] linhaBranca(int tamanho) {
+            if (linhaBranca.length != tamanho) {
+                linhaBranca = new byte[tamanho];
+                Arrays.fill(linhaBranca, 1, tamanho, (byte) 0xFF);
+            }
+            return linhaBranca;
+        }
+
+        Saida saida() {
+            saida.tamanho = 0;
+            return saida;
+        }
+
+        void descartarExcedentes() {
+            if (cru.length > LIMITE_REUSO) cru = new byte[0];
+            if (saida.dados.length > LIMITE_REUSO) saida.dados = new byte[Saida.TAMANHO_INICIAL];
+        }
+    }
+
+    private static final class Saida {
+        private static final int TAMANHO_INICIAL = 8192;
+
+        private byte[] dados = new byte[TAMANHO_INICIAL];
+        private int tamanho;
+
+        void garantir(int adicional) {
+            if (tamanho + adicional > dados.length)
+                dados = Arrays.copyOf(dados, Math.max(dados.length * 2, tamanho + adicional));
+        }
+
+        void escrever(byte[] bytes) {
+            garantir(bytes.length);
+            System.arraycopy(bytes, 0, dados, tamanho, bytes.length);
+            tamanho += bytes.length;
+        }
+
+        void escreverByte(int valor) {
+            garantir(1);
+            dados[tamanho++] = (byte) valor;
+        }
+
+        void escreverInt(int valor) {
+            garantir(4);
+            dados[tamanho++] = (byte) (valor >>> 24);
+            dados[tamanho++] = (byte) (valor >>> 16);
+            dados[tamanho++] = (byte) (valor >>> 8);
+            dados[tamanho++] = (byte) valor;
+        }
+
+        // Reserva o campo de tamanho e escreve o tipo; devolve a posição do início do chunk
+        int iniciarChunk(byte[] tipo) {
+            int inicio = tamanho;
+            escreverInt(0);
+            escrever(tipo);
+            return inicio;
+        }
+
+        void fecharChunk(int inicio, CRC32 crc) {
+            int comprimento = tamanho - inicio - 8;
+            int fim = tamanho;
+            tamanho = inicio;
+            escreverInt(comprimento);
+            tamanho = fim;
+
+            crc.reset();
+            crc.update(dados, inicio + 4, comprimento + 4);
+            escreverInt((int) crc.getValue());
+        }
+
+        byte[] copia() {
+            return Arrays.copyOf(dados, tamanho);
+        }
+    }
+}
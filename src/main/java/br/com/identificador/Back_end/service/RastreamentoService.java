@@ -0,0 +1,143 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.RastreamentoEntregaDTO;
+import br.com.identificador.Back_end.evento.EntregaAtualizadaEvento;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.TipoRastreamento;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rastreamento ao vivo: cada mudança de status e cada posição do entregador vão para
+ * /topico/entregas/{id} e para a fila de cada participante da entrega (loja, cliente e
+ * entregador assinam /usuario/fila/entregas, entregue só às sessões autenticadas deles), no
+ * lugar do polling das listagens. A inscrição no tópico da entrega é autorizada por
+ * podeAcompanhar (AutorizacaoStomp). Os participantes das entregas em andamento ficam em
+ * memória para que as posições, muito mais frequentes que os status, não consultem o banco.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RastreamentoService {
+
+    private final EntregaRepository entregaRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Destino por usuário: convertAndSendToUser o resolve para as sessões dele
+    static final String FILA_ENTREGAS = "/fila/entregas";
+
+    // Entregas aceitas e ainda não encerradas, e a entrega atual de cada entregador
+    private final Map<Long, Rota> ativas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> entregaPorEntregador = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        entregaRepository.buscarRotasEmAndamento().forEach(r -> ativar(r.getId(),
+                new Rota(r.getStatus(), r.getEntregadorId(), r.getLojaId(), r.getClienteId())));
+        log.info("Rastreamento carregado: {} entregas em andamento", ativas.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarEntrega(EntregaAtualizadaEvento evento) {
+        Rota rota = new Rota(evento.novoStatus(), evento.entregadorId(), evento.lojaId(), evento.clienteId());
+        if (rastreavel(evento.novoStatus(), evento.entregadorId())) {
+            ativar(evento.entregaId(), rota);
+        } else {
+            Rota anterior = ativas.remove(evento.entregaId());
+            if (anterior != null) entregaPorEntregador.remove(anterior.entregadorId(), evento.entregaId());
+        }
+
+        enviar(evento.entregaId(), rota, new RastreamentoEntregaDTO(
+                evento.entregaId(),
+                TipoRastreamento.STATUS,
+                evento.novoStatus(),
+                evento.entregadorId(),
+                null,
+                null,
+                LocalDateTime.now()
+        ));
+    }
+
+    /**
+     * Repassa a posição do entregador a quem acompanha a entrega dele. Retorna false
+     * (sem enviar nada) quando o entregador não tem entrega em andamento.
+     */
+    public boolean publicarPosicao(Long entregadorId, double latitude, double longitude, LocalDateTime momento) {
+        Long entregaId = entregaPorEntregador.get(entregadorId);
+        Rota rota = entregaId != null ? ativas.get(entregaId) : null;
+        if (rota == null) return false;
+
+        enviar(entregaId, rota, new RastreamentoEntregaDTO(
+                entregaId,
+                TipoRastreamento.LOCALIZACAO,
+                rota.status(),
+                entregadorId,
+                latitude,
+                longitude,
+                momento
+        ));
+        return true;
+    }
+
+    /**
+     * Se o usuário é a loja ou o cliente da entrega em andamento do entregador
+     */
+    public boolean acompanhaEntregador(Long usuarioId, Long entregadorId) {
+        Long entregaId = entregaPorEntregador.get(entregadorId);
+        Rota rota = entregaId != null ? ativas.get(entregaId) : null;
+        return rota != null && usuarioId != null
+                && (usuarioId.equals(rota.lojaId()) || usuarioId.equals(rota.clienteId()));
+    }
+
+    /**
+     * Se o usuário participa da entrega (loja, cliente ou entregador): a entrega em andamento
+     * responde da memória, as demais (ainda sem entregador, encerradas) do banco
+     */
+    public boolean podeAcompanhar(Long usuarioId, Long entregaId) {
+        if (usuarioId == null || entregaId == null) return false;
+        Rota rota = ativas.get(entregaId);
+        if (rota != null) return rota.participa(usuarioId);
+
+        return entregaRepository.buscarRota(entregaId)
+                .map(r -> new Rota(r.getStatus(), r.getEntregadorId(), r.getLojaId(), r.getClienteId()).participa(usuarioId))
+                .orElse(false);
+    }
+
+    private static boolean rastreavel(StatusEntrega status, Long entregadorId) {
+        return entregadorId != null && status.isEmAndamento();
+    }
+
+    private void ativar(Long entregaId, Rota rota) {
+        ativas.put(entregaId, rota);
+        entregaPorEntregador.put(rota.entregadorId(), entregaId);
+    }
+
+    private void enviar(Long entregaId, Rota rota, RastreamentoEntregaDTO mensagem) {
+        messagingTemplate.convertAndSend("/topico/entregas/" + entregaId, mensagem);
+        if (rota.lojaId() != null)
+            messagingTemplate.convertAndSendToUser(String.valueOf(rota.lojaId()), FILA_ENTREGAS, mensagem);
+        if (rota.clienteId() != null)
+            messagingTemplate.convertAndSendToUser(String.valueOf(rota.clienteId()), FILA_ENTREGAS, mensagem);
+        // O próprio entregador só precisa saber das mudanças de status
+        if (rota.entregadorId() != null && mensagem.tipo() == TipoRastreamento.STATUS)
+            messagingTemplate.convertAndSendToUser(String.valueOf(rota.entregadorId()), FILA_ENTREGAS, mensagem);
+        log.debug("Rastreamento {} da entrega {} enviado", mensagem.tipo(), entregaId);
+    }
+
+    private record Rota(StatusEntrega status, Long entregadorId, Long lojaId, Long clienteId) {
+
+        boolean participa(Long usuarioId) {
+            return usuarioId.equals(lojaId) || usuarioId.equals(clienteId) || usuarioId.equals(entregadorId);
+        }
+    }
+}
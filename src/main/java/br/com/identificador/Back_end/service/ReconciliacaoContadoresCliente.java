@@ -0,0 +1,79 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.ClienteRepository.ContadoresCliente;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Confere os contadores de pedidos dos clientes (mantidos pelo EntregaService) com a
+ * recontagem das entregas e corrige os que divergirem: escritas fora do serviço, entregas
+ * removidas, bancos anteriores às colunas. Percorre os clientes em blocos por id, uma
+ * agregação por faixa de ids, e grava cada correção com UPDATE condicional aos valores lidos,
+ * sem lock e sem sobrescrever contagens feitas por transações concorrentes.
+ */
+@Service
+@Slf4j
+public class ReconciliacaoContadoresCliente {
+
+    private final ClienteRepository clienteRepository;
+    private final int tamanhoBloco;
+
+    public ReconciliacaoContadoresCliente(ClienteRepository clienteRepository,
+                                          @Value("${clientes.contadores.tamanho-bloco:1000}") int tamanhoBloco) {
+        this.clienteRepository = clienteRepository;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * @return quantos clientes tiveram os contadores corrigidos
+     */
+    @Scheduled(fixedDelayString = "${clientes.contadores.reconciliar-ms:3600000}",
+            initialDelayString = "${clientes.contadores.reconciliar-ms:3600000}")
+    public int reconciliar() {
+        int conferidos = 0;
+        int corrigidos = 0;
+        int alteradosNoCaminho = 0;
+        Long aposId = 0L;
+        List<Long> ids;
+        do {
+            ids = clienteRepository.buscarIdsAposCursor(aposId, PageRequest.ofSize(tamanhoBloco));
+            if (ids.isEmpty()) break;
+
+            for (ContadoresCliente contadores : clienteRepository.recontarPedidos(ids.get(0), ids.get(ids.size() - 1))) {
+                if (!divergente(contadores)) continue;
+                if (corrigir(contadores)) corrigidos++;
+                else alteradosNoCaminho++;
+            }
+            conferidos += ids.size();
+            aposId = ids.get(ids.size() - 1);
+        } while (ids.size() == tamanhoBloco);
+
+        if (corrigidos > 0 || alteradosNoCaminho > 0)
+            log.warn("Contadores de pedidos: {} clientes conferidos, {} corrigidos, {} alterados durante a conferência",
+                    conferidos, corrigidos, alteradosNoCaminho);
+        else
+            log.info("Contadores de pedidos: {} clientes conferidos, nenhuma divergência", conferidos);
+        return corrigidos;
+    }
+
+    private static boolean divergente(ContadoresCliente c) {
+        return c.getTotalPedidos() != c.getTotalContado().intValue()
+                || c.getPedidosEntregues() != c.getEntreguesContados().intValue()
+                || c.getPedidosCancelados() != c.getCanceladosContados().intValue()
+                || !Objects.equals(c.getUltimoPedidoEm(), c.getUltimoPedidoContado());
+    }
+
+    private boolean corrigir(ContadoresCliente c) {
+        return clienteRepository.corrigirContadores(c.getId(),
+                c.getTotalContado().intValue(), c.getEntreguesContados().intValue(),
+                c.getCanceladosContados().intValue(), c.getUltimoPedidoContado(),
+                c.getTotalPedidos(), c.getPedidosEntregues(), c.getPedidosCancelados()) == 1;
+    }
+}
@@ -0,0 +1,416 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.evento.EntregaAtualizadaEvento;
+import br.com.identificador.Back_end.evento.EntregadorAtualizadoEvento;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.evento.EntregadoresStatusAlteradosEvento;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Registro em memória da situação de cada entregador (status, aplicativos, avaliação),
+ * carregado do banco na subida e mantido pelos eventos de escrita. Cada entregador ocupa
+ * uma posição fixa; há um conjunto de bits por StatusEntregador e por Aplicativo, de modo
+ * que "disponíveis no iFood" é um AND de palavras de 64 bits, e as contagens por status
+ * são mantidas a cada transição. Também mantém os rankings por avaliação e por total de
+ * entregas (skiplists ordenadas) e a soma das avaliações para a média geral, de modo que
+ * o top-N custa O(N). Leituras não bloqueiam; escritas de um mesmo entregador
+ * são serializadas pelo ConcurrentHashMap. Outras instâncias convergem pela reconciliação
+ * periódica com o banco; cada alteração vinda de evento recebe uma versão, e a reconciliação
+ * não sobrescreve (nem remove ou recria) entregador alterado depois da sua leitura.
+ */
+@Component
+@Slf4j
+public class RegistroDisponibilidade {
+
+    private final EntregadorRepository entregadorRepository;
+    private final int capacidade;
+
+    // id do entregador → posição nos conjuntos de bits
+    private final Map<Long, Integer> posicoes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Situacao> situacoes;
+    private final ConcurrentLinkedQueue<Integer> posicoesLivres = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger proximaPosicao = new AtomicInteger();
+
+    // Versão da última alteração por evento em cada posição, e dos entregadores removidos por evento
+    private final AtomicLong versao = new AtomicLong();
+    private final AtomicLongArray alteradoEm;
+    private final Map<Long, Long> removidosEm = new ConcurrentHashMap<>();
+
+    private final Map<StatusEntregador, Bits> porStatus = new EnumMap<>(StatusEntregador.class);
+    private final Map<Aplicativo, Bits> porAplicativo = new EnumMap<>(Aplicativo.class);
+    private final AtomicLongArray contagens = new AtomicLongArray(StatusEntregador.values().length);
+
+    // Rankings e média geral (só entre quem já foi avaliado), com a avaliação em centésimos
+    private final ConcurrentSkipListSet<Situacao> porAvaliacao = new ConcurrentSkipListSet<>(
+            Comparator.comparingDouble(Situacao::avaliacaoMedia).reversed().thenComparing(Situacao::id));
+    private final ConcurrentSkipListSet<Situacao> porEntregas = new ConcurrentSkipListSet<>(
+            Comparator.comparingInt(Situacao::totalEntregas).reversed().thenComparing(Situacao::id));
+    private final AtomicLong somaAvaliacoesCentesimos = new AtomicLong();
+    private final AtomicLong avaliados = new AtomicLong();
+
+    // Até a primeira carga (ou após estourar a capacidade) as consultas vão ao banco
+    private volatile boolean pronto;
+
+    public RegistroDisponibilidade(EntregadorRepository entregadorRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${registro.entregadores.capacidade:262144}") int capacidade) {
+        this.entregadorRepository = entregadorRepository;
+        this.capacidade = capacidade;
+        this.situacoes = new AtomicReferenceArray<>(capacidade);
+        this.alteradoEm = new AtomicLongArray(capacidade);
+        for (StatusEntregador status : StatusEntregador.values()) {
+            porStatus.put(status, new Bits(capacidade));
+            Gauge.builder("entregadores.status", contagens, c -> c.get(status.ordinal()))
+                    .description("Entregadores por status no registro em memória")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        for (Aplicativo aplicativo : Aplicativo.values())
+            porAplicativo.put(aplicativo, new Bits(capacidade));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    /**
+     * Recarrega a situação de todos os entregadores do banco (uma consulta de projeção); o que
+     * mudou por evento depois do início da leitura fica como está
+     */
+    @Scheduled(fixedDelayString = "${registro.entregadores.reconciliar-ms:300000}",
+            initialDelayString = "${registro.entregadores.reconciliar-ms:300000}")
+    public void reconciliar() {
+        long inicio = versao.get();
+        Set<Long> encontrados = new HashSet<>();
+        try {
+            for (EntregadorRepository.SituacaoEntregador linha : entregadorRepository.buscarSituacoes()) {
+                encontrados.add(linha.getId());
+                aplicar(new Situacao(linha.getId(), linha.getNome(), linha.getStatus(), linha.getAplicativos(),
+                        valor(linha.getAvaliacaoMedia()), valor(linha.getTotalEntregas()), valor(linha.getNumAvaliacoes())),
+                        inicio);
+            }
+        } catch (IllegalStateException e) {
+            pronto = false;
+            log.error("Registro de disponibilidade desativado, consultas seguem para o banco: {}", e.getMessage());
+            return;
+        }
+        posicoes.keySet().stream()
+                .filter(id -> !encontrados.contains(id))
+                .toList()
+                .forEach(id -> remover(id, inicio));
+        // Remoções anteriores à leitura já estão refletidas nela
+        removidosEm.values().removeIf(removidoEm -> removidoEm <= inicio);
+
+        pronto = true;
+        log.info("Registro de disponibilidade carregado: {} entregadores, {} disponíveis",
+                posicoes.size(), contar(StatusEntregador.DISPONIVEL));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatus(EntregadorStatusAlteradoEvento evento) {
+        Situacao atual = buscar(evento.entregadorId());
+        if (atual != null) atualizar(atual.comStatus(evento.novoStatus()));
+        else recarregar(evento.entregadorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatusEmLote(EntregadoresStatusAlteradosEvento evento) {
+        // Ids fora do registro não existem no banco (ou entram na próxima reconciliação)
+        for (Long id : evento.entregadorIds()) {
+            Situacao atual = buscar(id);
+            if (atual != null) atualizar(atual.comStatus(evento.novoStatus()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRemoverEmLote(EntregadoresRemovidosEvento evento) {
+        evento.entregadorIds().forEach(this::remover);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarEntregador(EntregadorAtualizadoEvento evento) {
+        recarregar(evento.entregadorId());
+    }
+
+    /**
+     * Entrega encerrada libera o entregador (EntregaService volta o status para DISPONIVEL)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAtualizarEntrega(EntregaAtualizadaEvento evento) {
+        if (evento.entregadorId() == null || evento.novoStatus().isEmAndamento()
+                || evento.novoStatus() == StatusEntrega.A_CAMINHO_COLETA) return;
+        recarregar(evento.entregadorId());
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public Situacao buscar(Long id) {
+        Integer posicao = posicoes.get(id);
+        return posicao != null ? situacoes.get(posicao) : null;
+    }
+
+    /**
+     * Entregadores no status informado; com aplicativo, só os que trabalham nele
+     */
+    public List<Situacao> buscar(StatusEntregador status, Aplicativo aplicativo) {
+        Bits bitsStatus = porStatus.get(status);
+        Bits bitsAplicativo = aplicativo != null ? porAplicativo.get(aplicativo) : null;
+        List<Situacao> resultado = new ArrayList<>();
+        int palavras = Math.min(bitsStatus.palavras(), (proximaPosicao.get() + 63) >>> 6);
+        for (int i = 0; i < palavras; i++) {
+            long palavra = bitsStatus.palavra(i);
+            if (bitsAplicativo != null) palavra &= bitsAplicativo.palavra(i);
+            while (palavra != 0) {
+                int posicao = (i << 6) + Long.numberOfTrailingZeros(palavra);
+                palavra &= palavra - 1;
+                Situacao situacao = situacoes.get(posicao);
+                // Confere a situação: o bit pode ter sido lido no meio de uma transição
+                if (situacao != null && situacao.status() == status
+                        && (aplicativo == null || situacao.aplicativos().contains(aplicativo)))
+                    resultado.add(situacao);
+            }
+        }
+        return resultado;
+    }
+
+    public long contar(StatusEntregador status) {
+        return contagens.get(status.ordinal());
+    }
+
+    public List<Classificacao> melhoresAvaliados(int limite) {
+        return porAvaliacao.stream().limit(limite).map(Classificacao::de).toList();
+    }
+
+    /**
+     * Entregadores com pelo menos minimoEntregas, dos mais experientes para os menos
+     */
+    public List<Classificacao> experientes(int minimoEntregas) {
+        return porEntregas.stream()
+                .takeWhile(situacao -> situacao.totalEntregas() >= minimoEntregas)
+                .map(Classificacao::de)
+                .toList();
+    }
+
+    public double avaliacaoMediaGeral() {
+        long quantidade = avaliados.get();
+        return quantidade == 0 ? 0.0 : somaAvaliacoesCentesimos.get() / 100.0 / quantidade;
+    }
+
+    /**
+     * Relê um entregador do banco; some do registro se não existir mais
+     */
+    public void recarregar(Long id) {
+        entregadorRepository.findById(id)
+                .ifPresentOrElse(entregador -> atualizarSeCouber(Situacao.de(entregador)), () -> remover(id));
+    }
+
+    void atualizar(Situacao nova) {
+        aplicar(nova, -1);
+    }
+
+    void remover(Long id) {
+        remover(id, -1);
+    }
+
+    /**
+     * Com inicioReconciliacao negativo, alteração vinda de evento (recebe nova versão); senão,
+     * linha lida pela reconciliação, descartada se o entregador mudou depois desse início
+     */
+    private void aplicar(Situacao nova, long inicioReconciliacao) {
+        boolean reconciliando = inicioReconciliacao >= 0;
+        posicoes.compute(nova.id(), (id, posicao) -> {
+            if (reconciliando && posicao == null && removidosEm.getOrDefault(id, -1L) > inicioReconciliacao)
+                return null;
+            if (reconciliando && posicao != null && alteradoEm.get(posicao) > inicioReconciliacao)
+                return posicao;
+            if (!reconciliando) removidosEm.remove(id);
+
+            Situacao anterior = null;
+            if (posicao == null) posicao = alocarPosicao();
+            else anterior = situacoes.get(posicao);
+            alteradoEm.set(posicao, reconciliando ? 0 : versao.incrementAndGet());
+
+            if (anterior == null || anterior.status() != nova.status()) {
+                if (anterior != null) {
+                    porStatus.get(anterior.status()).limpar(posicao);
+                    contagens.decrementAndGet(anterior.status().ordinal());
+                }
+                porStatus.get(nova.status()).marcar(posicao);
+                contagens.incrementAndGet(nova.status().ordinal());
+            }
+            for (Aplicativo aplicativo : Aplicativo.values()) {
+                boolean tinha = anterior != null && anterior.aplicativos().contains(aplicativo);
+                boolean tem = nova.aplicativos().contains(aplicativo);
+                if (tem && !tinha) porAplicativo.get(aplicativo).marcar(posicao);
+                else if (tinha && !tem) porAplicativo.get(aplicativo).limpar(posicao);
+            }
+            atualizarRankings(anterior, nova);
+            situacoes.set(posicao, nova);
+            return posicao;
+        });
+    }
+
+    private void remover(Long id, long inicioReconciliacao) {
+        boolean reconciliando = inicioReconciliacao >= 0;
+        posicoes.compute(id, (chave, posicao) -> {
+            if (reconciliando && (posicao == null || alteradoEm.get(posicao) > inicioReconciliacao))
+                return posicao;
+            if (!reconciliando) removidosEm.put(id, versao.incrementAndGet());
+            if (posicao == null) return null;
+
+            Situacao anterior = situacoes.getAndSet(posicao, null);
+            if (anterior != null) {
+                porStatus.get(anterior.status()).limpar(posicao);
+                contagens.decrementAndGet(anterior.status().ordinal());
+                anterior.aplicativos().forEach(aplicativo -> porAplicativo.get(aplicativo).limpar(posicao));
+                atualizarRankings(anterior, null);
+            }
+            posicoesLivres.add(posicao);
+            return null;
+        });
+    }
+
+    // Chamado dentro do compute do entregador: nunca há duas atualizações do mesmo id ao mesmo tempo
+    private void atualizarRankings(Situacao anterior, Situacao nova) {
+        if (anterior != null) {
+            porAvaliacao.remove(anterior);
+            porEntregas.remove(anterior);
+            if (anterior.numAvaliacoes() > 0) {
+                somaAvaliacoesCentesimos.addAndGet(-centesimos(anterior.avaliacaoMedia()));
+                avaliados.decrementAndGet();
+            }
+        }
+        if (nova != null) {
+            porAvaliacao.add(nova);
+            porEntregas.add(nova);
+            if (nova.numAvaliacoes() > 0) {
+                somaAvaliacoesCentesimos.addAndGet(centesimos(nova.avaliacaoMedia()));
+                avaliados.incrementAndGet();
+            }
+        }
+    }
+
+    private static long centesimos(double avaliacao) {
+        return Math.round(avaliacao * 100.0);
+    }
+
+    private void atualizarSeCouber(Situacao situacao) {
+        try {
+            atualizar(situacao);
+        } catch (IllegalStateException e) {
+            pronto = false;
+            log.error("Registro de disponibilidade desativado, consultas seguem para o banco: {}", e.getMessage());
+        }
+    }
+
+    private int alocarPosicao() {
+        Integer livre = posicoesLivres.poll();
+        if (livre != null) return livre;
+        int posicao = proximaPosicao.getAndIncrement();
+        if (posicao >= capacidade) {
+            proximaPosicao.decrementAndGet();
+            throw new IllegalStateException("Capacidade do registro esgotada (" + capacidade + " entregadores)");
+        }
+        return posicao;
+    }
+
+    private static double valor(Double valor) {
+        return valor != null ? valor : 0.0;
+    }
+
+    private static int valor(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
+    /**
+     * Fotografia imutável de um entregador, suficiente para listagens de disponibilidade
+     */
+    public record Situacao(Long id, String nome, StatusEntregador status, Set<Aplicativo> aplicativos,
+                           double avaliacaoMedia, int totalEntregas, int numAvaliacoes) {
+
+        public Situacao {
+            aplicativos = aplicativos.isEmpty() ? Set.of() : Set.copyOf(aplicativos);
+        }
+
+        public static Situacao de(Entregador entregador) {
+            return new Situacao(entregador.getId(), entregador.getNome(), entregador.getStatus(),
+                    entregador.getAplicativos(), valor(entregador.getAvaliacaoMedia()), valor(entregador.getTotalEntregas()),
+                    valor(entregador.getNumAvaliacoes()));
+        }
+
+        Situacao comStatus(StatusEntregador novoStatus) {
+            return new Situacao(id, nome, novoStatus, aplicativos, avaliacaoMedia, totalEntregas, numAvaliacoes);
+        }
+    }
+
+    /**
+     * Posição de um entregador nos rankings
+     */
+    public record Classificacao(Long id, String nome, double avaliacaoMedia, int totalEntregas) {
+
+        static Classificacao de(Situacao situacao) {
+            return new Classificacao(situacao.id(), situacao.nome(), situacao.avaliacaoMedia(), situacao.totalEntregas());
+        }
+    }
+
+    /**
+     * Conjunto de bits de tamanho fixo com marcação por CAS (sem trava)
+     */
+    private static final class Bits {
+        private final AtomicLongArray palavras;
+
+        Bits(int capacidade) {
+            this.palavras = new AtomicLongArray((capacidade + 63) >>> 6);
+        }
+
+        void marcar(int posicao) {
+            long mascara = 1L << posicao;
+            palavras.getAndUpdate(posicao >>> 6, palavra -> palavra | mascara);
+        }
+
+        void limpar(int posicao) {
+            long mascara = ~(1L << posicao);
+            palavras.getAndUpdate(posicao >>> 6, palavra -> palavra & mascara);
+        }
+
+        long palavra(int indice) {
+            return palavras.get(indice);
+        }
+
+        int palavras() {
+            return palavras.length();
+        }
+    }
+}
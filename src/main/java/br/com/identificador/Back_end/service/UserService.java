@@ -1,19 +1,28 @@
 package br.com.identificador.Back_end.service;
 
 import br.com.identificador.Back_end.dto.LoginDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
 import br.com.identificador.Back_end.dto.UserRegistrationDTO;
+import br.com.identificador.Back_end.dto.UsuarioResumoDTO;
+import br.com.identificador.Back_end.evento.UsuarioAtualizadoEvento;
 import br.com.identificador.Back_end.model.User;
 import br.com.identificador.Back_end.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +31,12 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final BuscaService buscaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExportadorNdjson exportadorNdjson;
+
+    @Value("${busca.max-resultados:500}")
+    private int maxResultadosBusca = 500;
 
     /**
      * Busca todos os usuários
@@ -34,6 +49,28 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Página de usuários em ordem de id, só com os dados de listagem
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<UsuarioResumoDTO> listarResumos(String cursor, int tamanho) {
+        List<UsuarioResumoDTO> usuarios = userRepository.listarResumosAposCursor(
+                PaginacaoCursor.decodificarId(cursor), PageRequest.ofSize(tamanho + 1));
+        return PaginacaoCursor.paginar(usuarios, tamanho, UsuarioResumoDTO::id);
+    }
+
+    /**
+     * Todos os usuários em NDJSON, lidos do banco por cursor enquanto são escritos
+     */
+    @Transactional(readOnly = true)
+    public long exportarResumos(OutputStream saida) throws IOException {
+        try (Stream<UsuarioResumoDTO> usuarios = userRepository.exportarResumos()) {
+            long total = exportadorNdjson.escrever(usuarios, saida);
+            log.info("Exportados {} usuários", total);
+            return total;
+        }
+    }
+
     /**
      * Busca usuário por ID
      */
@@ -66,21 +103,22 @@ public class UserService {
     @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         log.info("Verificando se email existe: {}", email);
-        boolean exists = userRepository.existsByEmail(email);
+        boolean exists = userRepository.existsByEmailIgnoreCase(email);
         log.debug("Email {} existe: {}", email, exists);
         return exists;
     }
 
     /**
-     * Busca usuários por nome (busca parcial)
+     * Busca usuários por nome (busca parcial), pelo índice de busca em ordem de relevância
+     * e limitada a busca.max-resultados; no banco enquanto o índice não carregou
      */
     @Transactional(readOnly = true)
     public List<User> findByNomeContaining(String nome) {
         log.info("Buscando usuários com nome contendo: {}", nome);
-        return userRepository.findAll().stream()
-                .filter(user -> user.getNome().toLowerCase().contains(nome.toLowerCase()))
-                .peek(user -> log.debug("Usuário encontrado: {}", user.getNome()))
-                .collect(Collectors.toList());
+        if (!buscaService.isPronto()) return userRepository.findByNomeContainingIgnoreCase(nome);
+
+        List<Long> ids = buscaService.buscarIdsPorNome(nome, null, maxResultadosBusca);
+        return BuscaService.naOrdem(ids, userRepository.findAllById(ids));
     }
 
     /**
@@ -110,7 +148,7 @@ public class UserService {
                     
                     Optional.ofNullable(dto.email())
                             .filter(email -> !email.isBlank())
-                            .filter(email -> !existsByEmail(email) || email.equals(user.getEmail()))
+                            .filter(email -> !userRepository.existsByEmailIgnoreCaseAndIdNot(email, id))
                             .ifPresent(user::setEmail);
                     
                     Optional.ofNullable(dto.telefone())
@@ -125,6 +163,7 @@ public class UserService {
                     user.setUpdatedAt(LocalDateTime.now());
                     
                     User updatedUser = userRepository.save(user);
+                    eventPublisher.publishEvent(new UsuarioAtualizadoEvento(id));
                     log.info("Usuário atualizado com sucesso: {}", updatedUser.getEmail());
                     return updatedUser;
                 })
@@ -145,6 +184,7 @@ public class UserService {
                 .ifPresentOrElse(
                         user -> {
                             userRepository.delete(user);
+                            eventPublisher.publishEvent(new UsuarioAtualizadoEvento(id));
                             log.info("Usuário deletado com sucesso: {}", user.getEmail());
                         },
                         () -> {
@@ -186,10 +226,26 @@ public class UserService {
     @Transactional(readOnly = true)
     public List<String> getAllEmails() {
         log.info("Buscando todos os emails");
-        return userRepository.findAll().stream()
-                .map(User::getEmail)
-                .sorted()
-                .collect(Collectors.toList());
+        return userRepository.findAllEmails();
+    }
+
+    /**
+     * Página de emails em ordem alfabética
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<String> listarEmails(String cursor, int tamanho) {
+        List<String> emails = userRepository.listarEmailsAposCursor(
+                PaginacaoCursor.decodificar(cursor, ""), PageRequest.ofSize(tamanho + 1));
+        return PaginacaoCursor.paginar(emails, tamanho, email -> email);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportarEmails(OutputStream saida) throws IOException {
+        try (Stream<String> emails = userRepository.exportarEmails()) {
+            long total = exportadorNdjson.escrever(emails, saida);
+            log.info("Exportados {} emails", total);
+            return total;
+        }
     }
 
     /**
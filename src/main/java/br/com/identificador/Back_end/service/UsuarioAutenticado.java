@@ -0,0 +1,24 @@
+package br.com.identificador.Back_end.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * UserDetails que carrega a entidade já resolvida no login, evitando uma nova
+ * consulta para montar o token
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class UsuarioAutenticado extends org.springframework.security.core.userdetails.User {
+
+    private final transient br.com.identificador.Back_end.model.User usuario;
+
+    public UsuarioAutenticado(br.com.identificador.Back_end.model.User usuario,
+                              Collection<? extends GrantedAuthority> authorities) {
+        super(usuario.getEmail(), usuario.getSenha(), authorities);
+        this.usuario = usuario;
+    }
+}
@@ -0,0 +1,123 @@
+-- Esquema base, igual ao que o Hibernate gerava com ddl-auto=update.
+-- Idempotente: bancos já existentes recebem a baseline 0 (spring.flyway.baseline-version)
+-- e passam por aqui só para ganhar as colunas que ainda não tinham.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS entregas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS posicoes_entregadores_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT NOT NULL,
+    nome       VARCHAR(255),
+    email      VARCHAR(255),
+    telefone   VARCHAR(255),
+    senha      VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS entregadores (
+    id               BIGINT NOT NULL,
+    cpf              VARCHAR(255),
+    rg               VARCHAR(255),
+    cnh              VARCHAR(255),
+    qr_code_uuid     VARCHAR(255),
+    status           VARCHAR(255),
+    avaliacao_media  DOUBLE PRECISION,
+    soma_avaliacoes  DOUBLE PRECISION DEFAULT 0 NOT NULL,
+    num_avaliacoes   INTEGER DEFAULT 0 NOT NULL,
+    entrega_ativa_id BIGINT,
+    total_entregas   INTEGER,
+    CONSTRAINT pk_entregadores PRIMARY KEY (id),
+    CONSTRAINT fk_entregadores_users FOREIGN KEY (id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS entregador_aplicativos (
+    entregador_id BIGINT NOT NULL,
+    aplicativo    VARCHAR(255),
+    CONSTRAINT fk_entregador_aplicativos_entregadores FOREIGN KEY (entregador_id) REFERENCES entregadores (id)
+);
+
+CREATE TABLE IF NOT EXISTS clientes (
+    id        BIGINT NOT NULL,
+    cpf       VARCHAR(255),
+    endereco  VARCHAR(255),
+    latitude  DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    CONSTRAINT pk_clientes PRIMARY KEY (id),
+    CONSTRAINT fk_clientes_users FOREIGN KEY (id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS lojas (
+    id                    BIGINT NOT NULL,
+    cnpj                  VARCHAR(255),
+    endereco              VARCHAR(255),
+    responsavel           VARCHAR(255),
+    horario_funcionamento VARCHAR(255),
+    latitude              DOUBLE PRECISION,
+    longitude             DOUBLE PRECISION,
+    CONSTRAINT pk_lojas PRIMARY KEY (id),
+    CONSTRAINT fk_lojas_users FOREIGN KEY (id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS entregas (
+    id                     BIGINT NOT NULL,
+    entregador_id          BIGINT,
+    loja_id                BIGINT,
+    cliente_id             BIGINT,
+    endereco_origem        VARCHAR(255),
+    endereco_destino       VARCHAR(255) NOT NULL,
+    latitude_origem        DOUBLE PRECISION,
+    longitude_origem       DOUBLE PRECISION,
+    latitude_destino       DOUBLE PRECISION,
+    longitude_destino      DOUBLE PRECISION,
+    produto_descricao      VARCHAR(255),
+    status_entrega         VARCHAR(255) NOT NULL,
+    valor_entrega          NUMERIC(10, 2),
+    valor_gorjeta          NUMERIC(10, 2),
+    tempo_estimado_minutos INTEGER,
+    observacoes            VARCHAR(500),
+    created_at             TIMESTAMP(6),
+    started_at             TIMESTAMP(6),
+    finished_at            TIMESTAMP(6),
+    cancelled_at           TIMESTAMP(6),
+    CONSTRAINT pk_entregas PRIMARY KEY (id),
+    CONSTRAINT fk_entregas_entregadores FOREIGN KEY (entregador_id) REFERENCES entregadores (id),
+    CONSTRAINT fk_entregas_lojas FOREIGN KEY (loja_id) REFERENCES lojas (id),
+    CONSTRAINT fk_entregas_clientes FOREIGN KEY (cliente_id) REFERENCES clientes (id)
+);
+
+CREATE TABLE IF NOT EXISTS posicoes_entregadores (
+    id            BIGINT NOT NULL,
+    entregador_id BIGINT NOT NULL,
+    latitude      DOUBLE PRECISION NOT NULL,
+    longitude     DOUBLE PRECISION NOT NULL,
+    registrado_em TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_posicoes_entregadores PRIMARY KEY (id)
+);
+
+-- Colunas que bancos antigos podem não ter (criados antes delas existirem nas entidades)
+ALTER TABLE entregadores ADD COLUMN IF NOT EXISTS soma_avaliacoes DOUBLE PRECISION DEFAULT 0 NOT NULL;
+ALTER TABLE entregadores ADD COLUMN IF NOT EXISTS num_avaliacoes INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE entregadores ADD COLUMN IF NOT EXISTS entrega_ativa_id BIGINT;
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+ALTER TABLE lojas ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE lojas ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+ALTER TABLE entregas ADD COLUMN IF NOT EXISTS latitude_origem DOUBLE PRECISION;
+ALTER TABLE entregas ADD COLUMN IF NOT EXISTS longitude_origem DOUBLE PRECISION;
+ALTER TABLE entregas ADD COLUMN IF NOT EXISTS latitude_destino DOUBLE PRECISION;
+ALTER TABLE entregas ADD COLUMN IF NOT EXISTS longitude_destino DOUBLE PRECISION;
+
+-- Entrega ativa de quem já tinha entrega em andamento antes da coluna existir; sem isso o
+-- entregador poderia aceitar outra. Havendo mais de uma, fica a mais recente.
+UPDATE entregadores en
+SET entrega_ativa_id = a.entrega_id
+FROM (SELECT entregador_id, MAX(id) AS entrega_id
+      FROM entregas
+      WHERE entregador_id IS NOT NULL
+        AND status_entrega IN ('COLETANDO', 'A_CAMINHO_ENTREGA', 'CHEGOU_DESTINO')
+      GROUP BY entregador_id) a
+WHERE en.id = a.entregador_id
+  AND en.entrega_ativa_id IS NULL;
@@ -0,0 +1,53 @@
+-- Índices das consultas de EntregaRepository, EntregadorRepository e UserRepository.
+-- IF NOT EXISTS: os índices já declarados em @Table podem ter sido criados pelo ddl-auto=update.
+
+-- entregas: listagens por cursor (criadoEm, id) e buscas por entregador/loja/cliente/status
+CREATE INDEX IF NOT EXISTS idx_entregas_status_criado ON entregas (status_entrega, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_entregas_entregador_criado ON entregas (entregador_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_entregas_loja_criado ON entregas (loja_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_entregas_cliente_criado ON entregas (cliente_id, created_at, id);
+-- buscarEntregasPorPeriodo
+CREATE INDEX IF NOT EXISTS idx_entregas_criado ON entregas (created_at);
+-- Fila do despacho (buscarEntregasPendentes e carga inicial): só as entregas ainda sem entregador
+CREATE INDEX IF NOT EXISTS idx_entregas_pendentes ON entregas (created_at, id)
+    WHERE status_entrega = 'A_CAMINHO_COLETA' AND entregador_id IS NULL;
+-- buscarRotasEmAndamento e buscarEntregasEmAndamento
+CREATE INDEX IF NOT EXISTS idx_entregas_em_andamento ON entregas (entregador_id)
+    WHERE status_entrega IN ('COLETANDO', 'A_CAMINHO_ENTREGA', 'CHEGOU_DESTINO');
+-- buscarEntregasCanceladas
+CREATE INDEX IF NOT EXISTS idx_entregas_canceladas ON entregas (cancelled_at)
+    WHERE status_entrega = 'CANCELADA';
+
+-- entregadores
+CREATE UNIQUE INDEX IF NOT EXISTS uk_entregadores_qr_code_uuid ON entregadores (qr_code_uuid);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_entregadores_cpf ON entregadores (cpf);
+CREATE INDEX IF NOT EXISTS idx_entregadores_status ON entregadores (status);
+-- buscarPorAvaliacaoMinima e buscarMelhoresAvaliados
+CREATE INDEX IF NOT EXISTS idx_entregadores_avaliacao ON entregadores (avaliacao_media DESC, id);
+-- buscarExperientes
+CREATE INDEX IF NOT EXISTS idx_entregadores_total_entregas ON entregadores (total_entregas DESC, id);
+-- Um aplicativo por entregador uma única vez; serve também a carga da coleção e as remoções em lote
+CREATE UNIQUE INDEX IF NOT EXISTS uk_entregador_aplicativos ON entregador_aplicativos (entregador_id, aplicativo);
+
+-- users: email exato (login, existsByEmail, atualizarSenha, findAllEmails ordenado) e
+-- LOWER(email) para findByEmailIgnoreCase e a checagem de email em uso no cadastro
+CREATE INDEX IF NOT EXISTS idx_users_email ON users (email);
+-- Único só se o banco ainda não tem emails que diferem apenas na caixa ou repetidos entre tipos
+-- de usuário (o cadastro antigo checava por subclasse); nesse caso fica um índice comum, para
+-- a migração não falhar, e a unicidade vale para os novos cadastros pela checagem nos serviços
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM users WHERE email IS NOT NULL GROUP BY LOWER(email) HAVING COUNT(*) > 1) THEN
+        RAISE WARNING 'users com emails repetidos (ignorando a caixa): índice de LOWER(email) criado sem UNIQUE';
+        CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (LOWER(email));
+    ELSE
+        CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (LOWER(email));
+    END IF;
+END
+$$;
+CREATE INDEX IF NOT EXISTS idx_users_telefone ON users (telefone);
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
+
+-- posicoes_entregadores: trajeto por entregador e intervalo
+CREATE INDEX IF NOT EXISTS idx_posicoes_entregador_registrado ON posicoes_entregadores (entregador_id, registrado_em);
@@ -0,0 +1,17 @@
+-- Bancos criados quando os ids eram IDENTITY já têm linhas com ids altos, e as sequências
+-- começariam em 1. Reinicia cada sequência acima do maior id quando estiver atrás dele; nunca
+-- recua. O otimizador pooled usa o valor lido como teto do bloco (allocationSize 50): o
+-- primeiro id será o maior id + 1.
+SELECT setval('users_seq', t.maior + 50, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS maior FROM users) t
+WHERE (SELECT last_value FROM users_seq) <= t.maior;
+
+SELECT setval('entregas_seq', t.maior + 50, false)
+FROM (SELECT COALESCE(MAX(id), 0) AS maior FROM entregas) t
+WHERE (SELECT last_value FROM entregas_seq) <= t.maior;
+
+-- Registros anteriores às colunas de soma: a média antiga era ponderada pelo total de entregas
+UPDATE entregadores
+SET num_avaliacoes  = total_entregas,
+    soma_avaliacoes = avaliacao_media * total_entregas
+WHERE num_avaliacoes = 0 AND total_entregas > 0 AND avaliacao_media > 0;
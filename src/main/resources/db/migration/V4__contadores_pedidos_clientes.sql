@@ -0,0 +1,26 @@
+-- Contadores de pedidos por cliente, mantidos pelo EntregaService (e conferidos pela
+-- ReconciliacaoContadoresCliente): clientes ativos viram uma faixa no índice de total_pedidos
+-- em vez de contar as entregas de cada cliente.
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS total_pedidos      INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS pedidos_entregues  INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS pedidos_cancelados INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS ultimo_pedido_em   TIMESTAMP(6);
+
+-- Carga inicial a partir das entregas existentes
+UPDATE clientes c
+SET total_pedidos      = t.total,
+    pedidos_entregues  = t.entregues,
+    pedidos_cancelados = t.cancelados,
+    ultimo_pedido_em   = t.ultimo
+FROM (SELECT cliente_id,
+             COUNT(*)                                             AS total,
+             COUNT(*) FILTER (WHERE status_entrega = 'ENTREGUE')  AS entregues,
+             COUNT(*) FILTER (WHERE status_entrega = 'CANCELADA') AS cancelados,
+             MAX(created_at)                                      AS ultimo
+      FROM entregas
+      WHERE cliente_id IS NOT NULL
+      GROUP BY cliente_id) t
+WHERE c.id = t.cliente_id;
+
+-- buscarClientesAtivos (total_pedidos >= :minimo ORDER BY total_pedidos DESC, id)
+CREATE INDEX IF NOT EXISTS idx_clientes_total_pedidos ON clientes (total_pedidos DESC, id);
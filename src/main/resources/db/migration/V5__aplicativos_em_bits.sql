@@ -0,0 +1,26 @@
+-- Aplicativos do entregador numa coluna BIGINT, um bit por aplicativo (Aplicativo.getBit()),
+-- no lugar da tabela entregador_aplicativos: a entidade carrega sem join e os filtros por
+-- aplicativo são operações bit a bit na própria linha. As posições abaixo são as do enum
+-- e não podem mudar.
+ALTER TABLE entregadores ADD COLUMN IF NOT EXISTS aplicativos BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE entregadores e
+SET aplicativos = t.mascara
+FROM (SELECT entregador_id,
+             BIT_OR(CASE aplicativo
+                        WHEN 'IFOOD' THEN 1
+                        WHEN 'RAPPI' THEN 2
+                        WHEN 'UBER_EATS' THEN 4
+                        WHEN 'FOOD_99' THEN 8
+                        WHEN 'LOGGI' THEN 16
+                        WHEN 'JAMES' THEN 32
+                        WHEN 'ZE_DELIVERY' THEN 64
+                        WHEN 'INDEPENDENTE' THEN 128
+                        WHEN 'OUTROS' THEN 256
+                 END) AS mascara
+      FROM entregador_aplicativos
+      GROUP BY entregador_id) t
+WHERE e.id = t.entregador_id
+  AND t.mascara IS NOT NULL;
+
+DROP TABLE IF EXISTS entregador_aplicativos;
@@ -16,6 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Set;
 
@@ -71,7 +72,9 @@ class FullSystemIntegrationTest {
             "11999999999",
             "senha123",
             "12345678901",
-            "Rua dos Clientes, 123"
+            "Rua dos Clientes, 123",
+            null, // latitude
+            null  // longitude
         );
 
         entregadorDTO = new EntregadorRegistroDTO(
@@ -93,7 +96,9 @@ class FullSystemIntegrationTest {
             "12345678000123",
             "Rua das Lojas, 456",
             "Responsável da Loja",
-            "Seg-Sex: 8h-18h"
+            "Seg-Sex: 8h-18h",
+            null, // latitude
+            null  // longitude
         );
 
         entregaDTO = new CriarEntregaDTO(
@@ -102,8 +107,12 @@ class FullSystemIntegrationTest {
             "Rua de Origem, 123",
             "Rua de Destino, 456",
             "Produto de teste",
-            25.50, // valorEntrega
-            5.00   // valorGorjeta
+            new BigDecimal("25.50"), // valorEntrega
+            new BigDecimal("5.00"),  // valorGorjeta
+            30,                      // tempoEstimadoMinutos
+            null,                    // observacoes
+            null,                    // latitudeDestino
+            null                     // longitudeDestino
         );
 
         loginDTO = new LoginDTO("cliente@email.com", "senha123");
@@ -242,7 +251,9 @@ class FullSystemIntegrationTest {
             "11999999999",
             "novaSenha123",
             "12345678901",
-            "Novo Endereço, 789"
+            "Novo Endereço, 789",
+            null, // latitude
+            null  // longitude
         );
 
         mockMvc.perform(put("/api/clientes/1")
@@ -288,7 +299,9 @@ class FullSystemIntegrationTest {
             "11888888888",
             "senha123",
             "98765432101",
-            "Rua Maria, 456"
+            "Rua Maria, 456",
+            null, // latitude
+            null  // longitude
         );
 
         mockMvc.perform(post("/api/clientes/registro")
@@ -345,7 +358,9 @@ class FullSystemIntegrationTest {
             "", // telefone vazio
             "", // senha vazia
             "cpf-invalido", // CPF inválido
-            "" // endereço vazio
+            "", // endereço vazio
+            null, // latitude
+            null  // longitude
         );
 
         mockMvc.perform(post("/api/clientes/registro")
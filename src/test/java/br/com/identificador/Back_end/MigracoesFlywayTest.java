@@ -0,0 +1,147 @@
+package br.com.identificador.Back_end;
+
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Migrações Flyway num PostgreSQL real (nos outros testes o esquema do H2 vem das entidades):
+ * um banco com dados do cadastro antigo é levado da V1 até a última versão e o Hibernate
+ * valida o esquema resultante contra as entidades (ddl-auto=validate)
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class MigracoesFlywayTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @DynamicPropertySource
+    static void banco(DynamicPropertyRegistry registry) throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        DataSource legado = postgres.getPostgresDatabase();
+
+        // Banco de antes das migrações seguintes: esquema da V1 e dados gravados pelo cadastro antigo
+        Flyway.configure().dataSource(legado).target("1").load().migrate();
+        executar(legado,
+                "INSERT INTO users (id, nome, email) VALUES (1, 'Ana Souza', 'ana@email.com'), " +
+                        "(2, 'Loja da Ana', 'Ana@Email.com')",
+                "INSERT INTO clientes (id) VALUES (1)",
+                "INSERT INTO lojas (id, cnpj) VALUES (2, '12345678000123')");
+
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    @AfterAll
+    static void encerrar() throws IOException {
+        postgres.close();
+    }
+
+    private static void executar(DataSource dataSource, String... comandos) throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement statement = conexao.createStatement()) {
+            for (String comando : comandos) statement.execute(comando);
+        }
+    }
+
+    private boolean existeIndice(String nome) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_indexes WHERE indexname = ?", Integer.class, nome) == 1;
+    }
+
+    @Test
+    void migrar_DeveChegarNaUltimaVersaoComEsquemaValidado() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion())
+                .isEqualTo(flyway.info().all()[flyway.info().all().length - 1].getVersion());
+
+        assertThat(clienteRepository.findById(1L).orElseThrow().getEmail()).isEqualTo("ana@email.com");
+        assertThat(lojaRepository.findById(2L).orElseThrow().getCnpj()).isEqualTo("12345678000123");
+    }
+
+    @Test
+    void migrar_ComEmailsQueSoDiferemNaCaixaNaoDeveFalharNemCriarIndiceUnico() {
+        assertThat(existeIndice("idx_users_email_lower")).isTrue();
+        assertThat(existeIndice("uk_users_email_lower")).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE LOWER(email) = 'ana@email.com'",
+                Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void migrar_BancoSemEmailsRepetidosDeveGanharIndiceUnico() throws SQLException {
+        executar(postgres.getPostgresDatabase(), "CREATE DATABASE limpo");
+        DataSource limpo = postgres.getDatabase("postgres", "limpo");
+
+        Flyway.configure().dataSource(limpo).load().migrate();
+        executar(limpo, "INSERT INTO users (id, email) VALUES (1, 'ana@email.com')");
+
+        assertThatThrownBy(() -> executar(limpo, "INSERT INTO users (id, email) VALUES (2, 'ANA@email.com')"))
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("uk_users_email_lower");
+    }
+
+    @Test
+    void migrar_BancoSemEntregaAtivaDevePreencherComAEntregaEmAndamento() throws SQLException {
+        executar(postgres.getPostgresDatabase(), "CREATE DATABASE sem_entrega_ativa");
+        DataSource antigo = postgres.getDatabase("postgres", "sem_entrega_ativa");
+
+        // Banco gerado pelo Hibernate antes de entrega_ativa_id (e do Flyway): baseline 0, como em produção
+        Flyway.configure().dataSource(antigo).target("1").load().migrate();
+        executar(antigo,
+                "DROP TABLE flyway_schema_history",
+                "ALTER TABLE entregadores DROP COLUMN entrega_ativa_id",
+                "INSERT INTO users (id, email) VALUES (1, 'em-rota@email.com'), (2, 'livre@email.com')",
+                "INSERT INTO entregadores (id) VALUES (1), (2)",
+                "INSERT INTO entregas (id, entregador_id, endereco_destino, status_entrega) VALUES " +
+                        "(10, 1, 'Rua A, 1', 'ENTREGUE'), (11, 1, 'Rua B, 2', 'A_CAMINHO_ENTREGA'), " +
+                        "(12, 2, 'Rua C, 3', 'CANCELADA')");
+
+        Flyway.configure().dataSource(antigo).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(antigo);
+        assertThat(jdbc.queryForObject("SELECT entrega_ativa_id FROM entregadores WHERE id = 1", Long.class))
+                .isEqualTo(11L);
+        assertThat(jdbc.queryForObject("SELECT entrega_ativa_id FROM entregadores WHERE id = 2", Long.class))
+                .isNull();
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.dto.AtualizarStatusEntregaDTO;
+import br.com.identificador.Back_end.exceptions.ConflitoAceitacaoException;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import br.com.identificador.Back_end.service.EntregaService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disputas por entrega com vários entregadores aceitando a mesma entrega ao mesmo tempo, pelo
+ * EntregaService e o H2 em memória do perfil de teste. Cada operação é uma disputa completa
+ * (uma entrega, uma tentativa por entregador, um vencedor); o resultado sai em disputas/s:
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.AceitacaoEntregaBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AceitacaoEntregaBenchmark {
+
+    @Param({"16"})
+    private int entregadores;
+
+    private ConfigurableApplicationContext contexto;
+    private EntregaService entregaService;
+    private EntregaRepository entregaRepository;
+    private ExecutorService executor;
+    private Loja loja;
+    private Cliente cliente;
+    private final List<Long> entregadorIds = new ArrayList<>();
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar();
+        entregaService = contexto.getBean(EntregaService.class);
+        entregaRepository = contexto.getBean(EntregaRepository.class);
+        EntregadorRepository entregadorRepository = contexto.getBean(EntregadorRepository.class);
+
+        loja = contexto.getBean(LojaRepository.class).save(new Loja("Loja Benchmark", "loja@benchmark.com",
+                "11777777777", "$2a$10$hash", "12345678000123", "Av. Principal, 1000"));
+        cliente = contexto.getBean(ClienteRepository.class).save(new Cliente("Cliente Benchmark",
+                "cliente@benchmark.com", "11999999999", "$2a$10$hash"));
+        for (int i = 0; i < entregadores; i++) {
+            Entregador entregador = new Entregador("Entregador " + i, "entregador" + i + "@benchmark.com",
+                    "11888888888", "$2a$10$hash", "cpf" + i, "rg" + i, "cnh" + i);
+            entregador.setStatus(StatusEntregador.DISPONIVEL);
+            entregadorIds.add(entregadorRepository.save(entregador).getId());
+        }
+        executor = Executors.newFixedThreadPool(entregadores);
+    }
+
+    @TearDown
+    public void encerrar() {
+        executor.shutdownNow();
+        contexto.close();
+    }
+
+    @Benchmark
+    public Long disputa() throws Exception {
+        Entrega entrega = entregaRepository.save(new Entrega(loja, cliente, "Origem", "Destino",
+                "Produto", BigDecimal.TEN, 30));
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> tentativas = new ArrayList<>(entregadores);
+        for (Long entregadorId : entregadorIds) {
+            tentativas.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    entregaService.aceitarEntrega(entrega.getId(), entregadorId);
+                    return entregadorId;
+                } catch (ConflitoAceitacaoException e) {
+                    return null;
+                } catch (RuntimeException e) {
+                    if ("Entrega não disponível para aceitação".equals(e.getMessage())) return null;
+                    throw e;
+                }
+            }));
+        }
+        largada.countDown();
+
+        Long vencedor = null;
+        for (Future<Long> tentativa : tentativas) {
+            Long aceitou = tentativa.get();
+            if (aceitou == null) continue;
+            if (vencedor != null) throw new IllegalStateException("Mais de um vencedor para a entrega " + entrega.getId());
+            vencedor = aceitou;
+        }
+
+        // Libera o vencedor para a próxima disputa
+        entregaService.atualizarStatusEntrega(entrega.getId(),
+                new AtualizarStatusEntregaDTO(StatusEntrega.ENTREGUE, null, null));
+        return vencedor;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AceitacaoEntregaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtros por aplicativo entre 100 mil entregadores (0 a 4 aplicativos cada) no H2 em memória,
+ * comparando a tabela de coleção (entregador_aplicativos, carregada inteira e filtrada com
+ * Set.contains/size, como o EntregadorService fazia) com a coluna de bits (BITAND no banco e
+ * Long.bitCount na memória):
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -Xmx2g -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.AplicativosEntregadorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AplicativosEntregadorBenchmark {
+
+    private static final Aplicativo PROCURADO = Aplicativo.LOGGI;
+    private static final int MINIMO = 3;
+
+    @Param({"100000"})
+    private int entregadores;
+
+    private Connection conexao;
+
+    @Setup
+    public void preparar() throws SQLException {
+        conexao = DriverManager.getConnection("jdbc:h2:mem:aplicativos;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = conexao.createStatement()) {
+            ddl.execute("DROP ALL OBJECTS");
+            ddl.execute("CREATE TABLE entregadores (id BIGINT PRIMARY KEY, status VARCHAR(20), " +
+                    "aplicativos BIGINT DEFAULT 0 NOT NULL)");
+            ddl.execute("CREATE TABLE entregador_aplicativos (entregador_id BIGINT NOT NULL, aplicativo VARCHAR(255))");
+            ddl.execute("CREATE UNIQUE INDEX uk_entregador_aplicativos ON entregador_aplicativos (entregador_id, aplicativo)");
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        Aplicativo[] todos = Aplicativo.values();
+        conexao.setAutoCommit(false);
+        try (PreparedStatement entregador = conexao.prepareStatement(
+                     "INSERT INTO entregadores (id, status, aplicativos) VALUES (?, 'DISPONIVEL', ?)");
+             PreparedStatement aplicativo = conexao.prepareStatement(
+                     "INSERT INTO entregador_aplicativos (entregador_id, aplicativo) VALUES (?, ?)")) {
+            for (long id = 1; id <= entregadores; id++) {
+                EnumSet<Aplicativo> aplicativos = EnumSet.noneOf(Aplicativo.class);
+                int quantos = random.nextInt(5);
+                while (aplicativos.size() < quantos) aplicativos.add(todos[random.nextInt(todos.length)]);
+                for (Aplicativo a : aplicativos) {
+                    aplicativo.setLong(1, id);
+                    aplicativo.setString(2, a.name());
+                    aplicativo.addBatch();
+                }
+                entregador.setLong(1, id);
+                entregador.setLong(2, Aplicativo.mascara(aplicativos));
+                entregador.addBatch();
+                if (id % 1000 == 0) {
+                    entregador.executeBatch();
+                    aplicativo.executeBatch();
+                }
+            }
+            entregador.executeBatch();
+            aplicativo.executeBatch();
+        }
+        conexao.commit();
+        conexao.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void encerrar() throws SQLException {
+        conexao.close();
+    }
+
+    /**
+     * Todos os entregadores com a coleção (join), para filtrar na memória
+     */
+    private Map<Long, Set<Aplicativo>> carregarColecao() throws SQLException {
+        Map<Long, Set<Aplicativo>> aplicativos = new HashMap<>();
+        try (PreparedStatement consulta = conexao.prepareStatement(
+                "SELECT e.id, a.aplicativo FROM entregadores e " +
+                        "LEFT JOIN entregador_aplicativos a ON a.entregador_id = e.id");
+             ResultSet rs = consulta.executeQuery()) {
+            while (rs.next()) {
+                Set<Aplicativo> doEntregador = aplicativos.computeIfAbsent(rs.getLong(1), id -> new HashSet<>());
+                String aplicativo = rs.getString(2);
+                if (aplicativo != null) doEntregador.add(Aplicativo.valueOf(aplicativo));
+            }
+        }
+        return aplicativos;
+    }
+
+    /**
+     * Só as linhas que passam no filtro bit a bit, com o conjunto montado pelo conversor
+     */
+    private Map<Long, Set<Aplicativo>> consultarMascara(String sql, Long parametro) throws SQLException {
+        Map<Long, Set<Aplicativo>> aplicativos = new HashMap<>();
+        try (PreparedStatement consulta = conexao.prepareStatement(sql)) {
+            if (parametro != null) consulta.setLong(1, parametro);
+            try (ResultSet rs = consulta.executeQuery()) {
+                while (rs.next()) aplicativos.put(rs.getLong(1), Aplicativo.deMascara(rs.getLong(2)));
+            }
+        }
+        return aplicativos;
+    }
+
+    @Benchmark
+    public int colecaoPorAplicativo() throws SQLException {
+        int encontrados = 0;
+        for (Set<Aplicativo> aplicativos : carregarColecao().values())
+            if (aplicativos.contains(PROCURADO)) encontrados++;
+        return encontrados;
+    }
+
+    @Benchmark
+    public int mascaraPorAplicativo() throws SQLException {
+        return consultarMascara("SELECT id, aplicativos FROM entregadores " +
+                "WHERE BITAND(aplicativos, CAST(? AS BIGINT)) <> 0", PROCURADO.getBit()).size();
+    }
+
+    @Benchmark
+    public int colecaoMultiplos() throws SQLException {
+        int encontrados = 0;
+        for (Set<Aplicativo> aplicativos : carregarColecao().values())
+            if (aplicativos.size() >= MINIMO) encontrados++;
+        return encontrados;
+    }
+
+    @Benchmark
+    public int mascaraMultiplos() throws SQLException {
+        int encontrados = 0;
+        for (Set<Aplicativo> aplicativos : consultarMascara("SELECT id, aplicativos FROM entregadores " +
+                "WHERE BITAND(aplicativos, aplicativos - 1) <> 0", null).values())
+            if (Long.bitCount(Aplicativo.mascara(aplicativos)) >= MINIMO) encontrados++;
+        return encontrados;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AplicativosEntregadorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.service.EntregadorService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avaliações simultâneas contra o mesmo entregador (16 threads), pelo EntregadorService e o
+ * incremento atômico no H2 em memória do perfil de teste; o resultado sai em avaliações/s:
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.AvaliacaoEntregadorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class AvaliacaoEntregadorBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private EntregadorService entregadorService;
+    private Long entregadorId;
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar();
+        entregadorService = contexto.getBean(EntregadorService.class);
+
+        Entregador entregador = new Entregador("Entregador Avaliado", "avaliado@benchmark.com", "11888888888",
+                "$2a$10$hash", "cpf1", "rg1", "cnh1");
+        entregador.setStatus(StatusEntregador.DISPONIVEL);
+        entregadorId = contexto.getBean(EntregadorRepository.class).save(entregador).getId();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Entregador avaliar() {
+        return entregadorService.atualizarAvaliacao(entregadorId, (double) ThreadLocalRandom.current().nextInt(1, 6));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AvaliacaoEntregadorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
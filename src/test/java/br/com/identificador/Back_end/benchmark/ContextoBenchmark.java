@@ -0,0 +1,23 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.BackEndApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Sobe a aplicação com o perfil de teste (H2 em memória, sem Flyway) e sem servidor web,
+ * para os benchmarks que passam pelos serviços e repositórios de verdade.
+ */
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar() {
+        SpringApplication aplicacao = new SpringApplication(BackEndApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.NONE);
+        aplicacao.setAdditionalProfiles("test");
+        return aplicacao.run("--logging.level.root=WARN");
+    }
+}
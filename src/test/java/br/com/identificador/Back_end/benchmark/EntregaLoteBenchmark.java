@@ -0,0 +1,90 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.dto.CriarEntregaDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import br.com.identificador.Back_end.service.EntregaService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação de 10 mil pedidos de uma integração de loja pelo EntregaService (ids por sequência
+ * pooled e INSERTs em batch) no H2 em memória do perfil de teste. Cada invocação importa o lote
+ * inteiro e conta como 10 mil operações, então o resultado sai em linhas/s:
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.EntregaLoteBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EntregaLoteBenchmark {
+
+    private static final int PEDIDOS = 10_000;
+    private static final int CLIENTES = 200;
+
+    private ConfigurableApplicationContext contexto;
+    private EntregaService entregaService;
+    private EntregaRepository entregaRepository;
+    private final List<CriarEntregaDTO> pedidos = new ArrayList<>(PEDIDOS);
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar();
+        entregaService = contexto.getBean(EntregaService.class);
+        entregaRepository = contexto.getBean(EntregaRepository.class);
+
+        Loja loja = contexto.getBean(LojaRepository.class).save(new Loja("Loja Integrada", "integrada@benchmark.com",
+                "11777777777", "$2a$10$hash", "12345678000123", "Av. Principal, 1000"));
+        List<Cliente> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++)
+            clientes.add(new Cliente("Cliente " + i, "cliente" + i + "@benchmark.com", "11999999999", "$2a$10$hash"));
+        contexto.getBean(ClienteRepository.class).saveAll(clientes);
+
+        for (int i = 0; i < PEDIDOS; i++) {
+            pedidos.add(new CriarEntregaDTO(loja.getId(), clientes.get(i % CLIENTES).getId(), "Av. Principal, 1000",
+                    "Rua " + i + ", 10", "Pedido " + i, BigDecimal.TEN, BigDecimal.ONE, 30, null, null, null));
+        }
+    }
+
+    /**
+     * Tabela vazia a cada iteração, para o tamanho dos índices não crescer ao longo da medição
+     */
+    @Setup(Level.Iteration)
+    public void limpar() {
+        entregaRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PEDIDOS)
+    public List<Long> importar() {
+        return entregaService.criarEntregasEmLote(pedidos);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(EntregaLoteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.service.IndiceGeografico;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k mais próximos com 50 mil entregadores espalhados pela região metropolitana do Rio
+ * (cerca de 0,6° x 0,6°), comparando o IndiceGeografico com a varredura de todas as posições:
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.IndiceGeograficoBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndiceGeograficoBenchmark {
+
+    private static final double LAT = -22.9068;
+    private static final double LON = -43.1729;
+    private static final double RAIO_KM = 10;
+
+    @Param({"50000"})
+    private int entregadores;
+
+    @Param({"10"})
+    private int k;
+
+    private IndiceGeografico indice;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[][] consultas;
+    private int proxima;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom random = new SplittableRandom(42);
+        indice = new IndiceGeografico(null, 3600);
+        latitudes = new double[entregadores];
+        longitudes = new double[entregadores];
+        long agora = System.currentTimeMillis();
+        for (int i = 0; i < entregadores; i++) {
+            latitudes[i] = LAT + (random.nextDouble() - 0.5) * 0.6;
+            longitudes[i] = LON + (random.nextDouble() - 0.5) * 0.6;
+            indice.atualizar(i, latitudes[i], longitudes[i], agora);
+        }
+        consultas = new double[1024][];
+        for (int i = 0; i < consultas.length; i++)
+            consultas[i] = new double[]{LAT + (random.nextDouble() - 0.5) * 0.5, LON + (random.nextDouble() - 0.5) * 0.5};
+    }
+
+    private double[] consulta() {
+        return consultas[proxima++ & (consultas.length - 1)];
+    }
+
+    /**
+     * Um em cada três entregadores "ocupado", como o filtro de status/aplicativo faria
+     */
+    @Benchmark
+    public List<IndiceGeografico.Proximo> indice() {
+        double[] c = consulta();
+        return indice.buscar(c[0], c[1], k, RAIO_KM, id -> id % 3 != 0);
+    }
+
+    @Benchmark
+    public long varreduraCompleta() {
+        double[] c = consulta();
+        double cosLat = Math.cos(Math.toRadians(c[0]));
+        long[] ids = new long[k];
+        double[] distancias = new double[k];
+        java.util.Arrays.fill(distancias, Double.MAX_VALUE);
+        for (int i = 0; i < entregadores; i++) {
+            if (i % 3 == 0) continue;
+            double d = IndiceGeografico.distanciaKm(c[0], c[1], cosLat, latitudes[i], longitudes[i]);
+            if (d >= distancias[k - 1] || d > RAIO_KM) continue;
+            int j = k - 1;
+            while (j > 0 && distancias[j - 1] > d) {
+                distancias[j] = distancias[j - 1];
+                ids[j] = ids[j - 1];
+                j--;
+            }
+            distancias[j] = d;
+            ids[j] = i;
+        }
+        return ids[0];
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(IndiceGeograficoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
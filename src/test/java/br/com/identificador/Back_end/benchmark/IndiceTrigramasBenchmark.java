@@ -0,0 +1,98 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
+import br.com.identificador.Back_end.service.IndiceTrigramas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por trecho de nome entre 1 milhão de usuários com nomes brasileiros (prenome e dois
+ * sobrenomes, com acentos), página de 20, comparando o IndiceTrigramas com a varredura que
+ * o LIKE '%termo%' faz (aqui já sobre o texto normalizado, sem o custo do banco):
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -Xmx2g -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.IndiceTrigramasBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IndiceTrigramasBenchmark {
+
+    private static final String[] PRENOMES = {"João", "José", "Maria", "Ana", "Conceição", "Luís", "Antônio",
+            "Francisco", "Márcia", "Jônatas", "Sebastião", "Íris", "Ângela", "Paulo", "Josué", "Lúcia", "Raimundo",
+            "Francisca", "Carlos", "Adriana", "Joaquim", "Juliana", "Patrícia", "Fábio", "Letícia", "Tânia",
+            "Rogério", "Vinícius", "Cláudia", "Sérgio", "Mônica", "Débora", "Otávio", "Bárbara", "Thaís", "Caio"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Ribeiro", "Carvalho", "Araújo", "Gonçalves", "Simões", "Magalhães",
+            "Conceição", "Brandão", "Assunção", "Sá", "Guimarães", "Falcão", "Damião", "Estêvão", "Nóbrega",
+            "Tavares", "Barbosa", "Medeiros", "Cavalcanti", "Figueiredo", "Albuquerque", "Nascimento", "Peixoto"};
+
+    @Param({"1000000"})
+    private int usuarios;
+
+    /**
+     * Digitação em andamento (prefixos curtos), sobrenome comum, trecho no meio da palavra,
+     * dois termos e consulta acentuada
+     */
+    @Param({"jo", "joa", "joao s", "silva", "uimar", "conceição magalh"})
+    private String consulta;
+
+    private IndiceTrigramas indice;
+    private String[] normalizados;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom random = new SplittableRandom(42);
+        indice = new IndiceTrigramas();
+        normalizados = new String[usuarios];
+        TipoUsuario[] tipos = TipoUsuario.values();
+        for (int i = 0; i < usuarios; i++) {
+            String nome = PRENOMES[random.nextInt(PRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + i;
+            indice.indexar(new IndiceTrigramas.Documento((long) i, tipos[i % tipos.length], nome, null), nome);
+            normalizados[i] = IndiceTrigramas.normalizar(nome);
+        }
+    }
+
+    @Benchmark
+    public List<IndiceTrigramas.Resultado> indice() {
+        return indice.buscar(consulta, null, null, 20);
+    }
+
+    /**
+     * Mesma página: todos os termos contidos, do texto mais curto ao mais longo
+     */
+    @Benchmark
+    public int varreduraCompleta() {
+        String[] termos = IndiceTrigramas.normalizar(consulta).split(" ");
+        PriorityQueue<String> melhores = new PriorityQueue<>(21,
+                Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()).reversed());
+        percorrer:
+        for (String texto : normalizados) {
+            for (String termo : termos) if (!texto.contains(termo)) continue percorrer;
+            melhores.add(texto);
+            if (melhores.size() > 20) melhores.poll();
+        }
+        return melhores.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(IndiceTrigramasBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.service.LocalizacaoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pings de posição de 5 mil entregadores enviados por 8 threads ao LocalizacaoService, com a
+ * drenagem agendada da aplicação (última posição, índice geográfico, rastreamento e histórico
+ * amostrado no H2 do perfil de teste) rodando ao mesmo tempo. Com o buffer cheio o produtor
+ * espera a drenagem, então o resultado, em pings/s, é a vazão sustentada da ingestão:
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.IngestaoLocalizacaoBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IngestaoLocalizacaoBenchmark {
+
+    private static final int ENTREGADORES = 5_000;
+
+    private ConfigurableApplicationContext contexto;
+    private LocalizacaoService localizacaoService;
+
+    @State(Scope.Thread)
+    public static class Produtor {
+        long proximo;
+
+        @Setup
+        public void preparar(ThreadParams parametros) {
+            proximo = parametros.getThreadIndex();
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar();
+        localizacaoService = contexto.getBean(LocalizacaoService.class);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public boolean ping(Produtor produtor) {
+        long entregadorId = 1 + produtor.proximo++ % ENTREGADORES;
+        long agora = System.currentTimeMillis();
+        while (!localizacaoService.registrar(entregadorId, -22.9, -43.1, agora)) Thread.onSpinWait();
+        return true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(IngestaoLocalizacaoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
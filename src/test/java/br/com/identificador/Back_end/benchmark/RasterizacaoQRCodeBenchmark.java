@@ -0,0 +1,89 @@
+package br.com.identificador.Back_end.benchmark;
+
+import br.com.identificador.Back_end.service.RasterizadorQRCode;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o caminho antigo (BitMatrix → BufferedImage → ImageIO) com o RasterizadorQRCode
+ * para um QR Code 300x300. Medir com o profiler de GC (gc.alloc.rate.norm = bytes por operação):
+ *
+ * <pre>
+ * mvn -q -P benchmark test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     br.com.identificador.Back_end.benchmark.RasterizacaoQRCodeBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RasterizacaoQRCodeBenchmark {
+
+    private static final String TEXTO = "https://identificador.com.br/entregador/550e8400-e29b-41d4-a716-446655440000";
+    private static final int LADO = 300;
+
+    private BitMatrix matriz;
+    private ByteMatrix modulos;
+
+    @Setup
+    public void preparar() throws Exception {
+        matriz = new QRCodeWriter().encode(TEXTO, BarcodeFormat.QR_CODE, LADO, LADO);
+        modulos = RasterizadorQRCode.modulos(TEXTO);
+    }
+
+    /**
+     * Só a etapa de imagem, a partir da matriz já codificada
+     */
+    @Benchmark
+    public byte[] imageIoPng() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(matriz, "PNG", saida);
+        return saida.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] rasterizadorPng() {
+        return RasterizadorQRCode.png(modulos, LADO, LADO);
+    }
+
+    @Benchmark
+    public byte[] rasterizadorSvg() {
+        return RasterizadorQRCode.svg(modulos, LADO, LADO);
+    }
+
+    /**
+     * Requisição completa: codificação do texto + imagem
+     */
+    @Benchmark
+    public byte[] completoImageIo() throws Exception {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(TEXTO, BarcodeFormat.QR_CODE, LADO, LADO);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", saida);
+        return saida.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] completoRasterizador() throws Exception {
+        return RasterizadorQRCode.png(RasterizadorQRCode.modulos(TEXTO), LADO, LADO);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RasterizacaoQRCodeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.identificador.Back_end.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CONNECT STOMP só abre sessão com um token válido, e o usuário da sessão é o id do token
+ */
+class AutenticacaoStompTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final SecurityConfig securityConfig = new SecurityConfig(null);
+
+    private ChavesJwt chaves;
+    private AutenticacaoStomp autenticacaoStomp;
+
+    @BeforeEach
+    void setUp() {
+        chaves = new ChavesJwt();
+        ReflectionTestUtils.setField(chaves, "arquivo", diretorio.resolve("jwks.json"));
+        ReflectionTestUtils.setField(chaves, "algoritmo", "RS256");
+        ReflectionTestUtils.setField(chaves, "rotacaoDias", 30L);
+        ReflectionTestUtils.setField(chaves, "chavesRetidas", 2);
+        chaves.carregar();
+        autenticacaoStomp = new AutenticacaoStomp(securityConfig.jwtDecoder(chaves));
+    }
+
+    private String emitir(long userId, String role, Instant expiraEm) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("identificador-api")
+                .issuedAt(expiraEm.minusSeconds(3600))
+                .expiresAt(expiraEm)
+                .subject("entregador@email.com")
+                .claim("userId", userId)
+                .claim("role", role)
+                .build();
+        return securityConfig.jwtEncoder(chaves).encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    private static Message<byte[]> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) accessor.addNativeHeader("Authorization", authorization);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void preSend_DeveAutenticarSessaoComIdERoleDoToken() {
+        Message<?> mensagem = autenticacaoStomp.preSend(
+                connect("Bearer " + emitir(7L, "ROLE_ENTREGADOR", Instant.now().plusSeconds(60))), null);
+
+        Authentication usuario = (Authentication) MessageHeaderAccessor
+                .getAccessor(mensagem, StompHeaderAccessor.class).getUser();
+        assertThat(usuario.getName()).isEqualTo("7");
+        assertThat(usuario.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ENTREGADOR");
+    }
+
+    @Test
+    void preSend_DeveRecusarConnectSemTokenValido() {
+        assertThatThrownBy(() -> autenticacaoStomp.preSend(connect(null), null))
+                .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> autenticacaoStomp.preSend(connect("Bearer invalido"), null))
+                .isInstanceOf(MessageDeliveryException.class);
+        String expirado = emitir(7L, "ROLE_ENTREGADOR", Instant.now().minusSeconds(600));
+        assertThatThrownBy(() -> autenticacaoStomp.preSend(connect("Bearer " + expirado), null))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+}
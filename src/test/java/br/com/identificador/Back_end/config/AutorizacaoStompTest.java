@@ -0,0 +1,86 @@
+package br.com.identificador.Back_end.config;
+
+import br.com.identificador.Back_end.service.RastreamentoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Inscrições e envios STOMP: tópico da entrega só para quem participa dela, filas só pelo
+ * destino /usuario e envios só para os @MessageMapping
+ */
+@ExtendWith(MockitoExtension.class)
+class AutorizacaoStompTest {
+
+    @Mock
+    private RastreamentoService rastreamentoService;
+
+    @InjectMocks
+    private AutorizacaoStomp autorizacaoStomp;
+
+    private static Principal usuario(long id, String role) {
+        return new UsernamePasswordAuthenticationToken(String.valueOf(id), null, AuthorityUtils.createAuthorityList(role));
+    }
+
+    private static Message<byte[]> frame(StompCommand comando, String destino, Principal usuario) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(comando);
+        accessor.setDestination(destino);
+        accessor.setUser(usuario);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void preSend_DeveAutorizarTopicoDaEntregaSoParaParticipantesEAdmin() {
+        when(rastreamentoService.podeAcompanhar(20L, 5L)).thenReturn(true);
+
+        assertThat(autorizacaoStomp.preSend(frame(StompCommand.SUBSCRIBE, "/topico/entregas/5",
+                usuario(20L, "ROLE_CLIENTE")), null)).isNotNull();
+        assertThat(autorizacaoStomp.preSend(frame(StompCommand.SUBSCRIBE, "/topico/entregas/5",
+                usuario(1L, "ROLE_ADMIN")), null)).isNotNull();
+        assertThatThrownBy(() -> autorizacaoStomp.preSend(frame(StompCommand.SUBSCRIBE, "/topico/entregas/5",
+                usuario(21L, "ROLE_CLIENTE")), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void preSend_DeveAceitarFilaDoProprioUsuarioERecusarFilasDiretas() {
+        assertThat(autorizacaoStomp.preSend(frame(StompCommand.SUBSCRIBE, "/usuario/fila/entregas",
+                usuario(20L, "ROLE_CLIENTE")), null)).isNotNull();
+
+        assertThatThrownBy(() -> autorizacaoStomp.preSend(frame(StompCommand.SUBSCRIBE, "/fila/entregas-user123",
+                usuario(20L, "ROLE_CLIENTE")), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> autorizacaoStomp.preSend(frame(StompCommand.SUBSCRIBE, "/topico/entregadores/7/ofertas",
+                usuario(7L, "ROLE_ENTREGADOR")), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> autorizacaoStomp.preSend(frame(StompCommand.SUBSCRIBE, "/topico/entregas/5", null), null))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(rastreamentoService, never()).podeAcompanhar(any(), any());
+    }
+
+    @Test
+    void preSend_DeveRecusarEnvioDiretoAoBroker() {
+        assertThat(autorizacaoStomp.preSend(frame(StompCommand.SEND, "/app/localizacao",
+                usuario(7L, "ROLE_ENTREGADOR")), null)).isNotNull();
+
+        assertThatThrownBy(() -> autorizacaoStomp.preSend(frame(StompCommand.SEND, "/topico/entregas/5",
+                usuario(7L, "ROLE_ENTREGADOR")), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.identificador.Back_end.config;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChavesJwtTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final SecurityConfig securityConfig = new SecurityConfig(null);
+
+    private ChavesJwt novasChaves(String algoritmo) {
+        ChavesJwt chaves = new ChavesJwt();
+        ReflectionTestUtils.setField(chaves, "arquivo", diretorio.resolve("jwks.json"));
+        ReflectionTestUtils.setField(chaves, "algoritmo", algoritmo);
+        ReflectionTestUtils.setField(chaves, "rotacaoDias", 30L);
+        ReflectionTestUtils.setField(chaves, "chavesRetidas", 2);
+        chaves.carregar();
+        return chaves;
+    }
+
+    private String emitir(ChavesJwt chaves) {
+        JwtEncoder encoder = securityConfig.jwtEncoder(chaves);
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("identificador-api")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .subject("joao@email.com")
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    @Test
+    void carregar_DeveReutilizarChavePersistidaAposRestart() throws Exception {
+        String token = emitir(novasChaves("RS256"));
+
+        ChavesJwt aposRestart = novasChaves("RS256");
+        Jwt jwt = securityConfig.jwtDecoder(aposRestart).decode(token);
+
+        assertThat(jwt.getSubject()).isEqualTo("joao@email.com");
+        assertThat(JWKSet.load(diretorio.resolve("jwks.json").toFile()).getKeys()).hasSize(1);
+    }
+
+    @Test
+    void rotacionar_DeveTrocarParaEs256MantendoTokensAntigosValidos() throws Exception {
+        String tokenRsa = emitir(novasChaves("RS256"));
+
+        ChavesJwt chaves = novasChaves("ES256");
+        String tokenEc = emitir(chaves);
+        JwtDecoder decoder = securityConfig.jwtDecoder(chaves);
+
+        assertThat(chaves.algoritmoAssinatura()).isEqualTo(SignatureAlgorithm.ES256);
+        assertThat(decoder.decode(tokenEc).getHeaders()).containsEntry("alg", "ES256");
+        assertThat(decoder.decode(tokenRsa).getSubject()).isEqualTo("joao@email.com");
+        assertThat(JWKSet.load(diretorio.resolve("jwks.json").toFile()).getKeys()).hasSize(2);
+    }
+}
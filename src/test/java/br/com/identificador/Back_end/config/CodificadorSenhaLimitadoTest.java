@@ -0,0 +1,82 @@
+package br.com.identificador.Back_end.config;
+
+import br.com.identificador.Back_end.exceptions.SobrecargaHashException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CodificadorSenhaLimitadoTest {
+
+    @Test
+    void matches_DeveAceitarHashLegadoEPedirRehash() {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(5));
+        CodificadorSenhaLimitado encoder = new CodificadorSenhaLimitado(delegating, 1, 4, new SimpleMeterRegistry());
+
+        String legado = new BCryptPasswordEncoder(4).encode("senha123");
+        String novo = encoder.encode("senha123");
+
+        assertThat(encoder.matches("senha123", legado)).isTrue();
+        assertThat(encoder.upgradeEncoding(legado)).isTrue();
+        assertThat(novo).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("senha123", novo)).isTrue();
+        assertThat(encoder.upgradeEncoding(novo)).isFalse();
+        encoder.shutdown();
+    }
+
+    @Test
+    void encode_DeveRecusarQuandoFilaEstaCheia() throws Exception {
+        CountDownLatch bloqueio = new CountDownLatch(1);
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                emExecucao.countDown();
+                try {
+                    bloqueio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CodificadorSenhaLimitado encoder = new CodificadorSenhaLimitado(lento, 1, 1, registry);
+
+        CompletableFuture<String> primeiro = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        emExecucao.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> segundo = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.tamanhoFila() < 1) Thread.onSpinWait();
+
+        assertThat(registry.get("senha.hash.fila").gauge().value()).isEqualTo(1.0);
+        assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(SobrecargaHashException.class);
+        assertThat(registry.get("senha.hash.rejeitadas").counter().count()).isEqualTo(1.0);
+
+        bloqueio.countDown();
+        assertThat(primeiro.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(segundo.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        encoder.shutdown();
+    }
+
+    @Test
+    void calibrar_DeveRespeitarLimitesDeCusto() {
+        assertThat(CalibradorBcrypt.calibrar(0, 4, 8)).isEqualTo(4);
+        assertThat(CalibradorBcrypt.calibrar(60_000, 4, 6)).isEqualTo(6);
+    }
+}
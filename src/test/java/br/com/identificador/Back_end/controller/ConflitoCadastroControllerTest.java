@@ -0,0 +1,79 @@
+package br.com.identificador.Back_end.controller;
+
+import br.com.identificador.Back_end.dto.ClienteRegistroDTO;
+import br.com.identificador.Back_end.dto.EntregadorRegistroDTO;
+import br.com.identificador.Back_end.dto.LojaRegistroDTO;
+import br.com.identificador.Back_end.service.ClienteService;
+import br.com.identificador.Back_end.service.EntregadorService;
+import br.com.identificador.Back_end.service.LojaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cadastro concorrente que passa pela checagem de email e cai no índice único: 409, não 400/500
+ */
+@ExtendWith(MockitoExtension.class)
+class ConflitoCadastroControllerTest {
+
+    private static final DataIntegrityViolationException VIOLACAO =
+            new DataIntegrityViolationException("duplicate key value violates unique constraint \"uk_users_email_lower\"");
+
+    @Mock
+    private ClienteService clienteService;
+
+    @Mock
+    private LojaService lojaService;
+
+    @Mock
+    private EntregadorService entregadorService;
+
+    @InjectMocks
+    private ClienteController clienteController;
+
+    @InjectMocks
+    private LojaController lojaController;
+
+    @InjectMocks
+    private EntregadorController entregadorController;
+
+    private final ClienteRegistroDTO cliente =
+            new ClienteRegistroDTO("Ana", "ana@email.com", "11999999999", "senha123", null, null, null, null);
+    private final LojaRegistroDTO loja = new LojaRegistroDTO("Loja", "loja@email.com", "11777777777", "senha123",
+            "12345678000123", "Rua A, 1", null, null, null, null);
+    private final EntregadorRegistroDTO entregador = new EntregadorRegistroDTO("Pedro", "pedro@email.com",
+            "11888888888", "senha123", "12345678901", "123456789", "12345678900", Set.of());
+
+    @Test
+    void registrar_DeveResponder409QuandoOIndiceUnicoRecusa() {
+        when(clienteService.registrarCliente(any())).thenThrow(VIOLACAO);
+        when(lojaService.registrarLoja(any())).thenThrow(VIOLACAO);
+        when(entregadorService.registrarEntregador(any())).thenThrow(VIOLACAO);
+
+        assertThat(clienteController.registrarCliente(cliente).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(lojaController.registrarLoja(loja).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(entregadorController.registrarEntregador(entregador).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void atualizar_DeveResponder409QuandoOIndiceUnicoRecusa() {
+        when(clienteService.atualizarCliente(eq(1L), any())).thenThrow(VIOLACAO);
+        when(lojaService.atualizarLoja(eq(2L), any())).thenThrow(VIOLACAO);
+        when(entregadorService.atualizarDados(eq(3L), any())).thenThrow(VIOLACAO);
+
+        assertThat(clienteController.atualizarCliente(1L, cliente).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(lojaController.atualizarLoja(2L, loja).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(entregadorController.atualizarDados(3L, entregador).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+}
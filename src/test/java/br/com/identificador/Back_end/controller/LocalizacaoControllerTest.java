@@ -0,0 +1,116 @@
+package br.com.identificador.Back_end.controller;
+
+import br.com.identificador.Back_end.dto.LocalizacaoDTO;
+import br.com.identificador.Back_end.dto.LotePosicoesDTO;
+import br.com.identificador.Back_end.dto.PosicaoDTO;
+import br.com.identificador.Back_end.service.LocalizacaoService;
+import br.com.identificador.Back_end.service.RastreamentoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Posições (lote HTTP ou ping STOMP) só são aceitas para o entregador do token: o id do corpo não basta
+ */
+@ExtendWith(MockitoExtension.class)
+class LocalizacaoControllerTest {
+
+    @Mock
+    private LocalizacaoService localizacaoService;
+
+    @Mock
+    private RastreamentoService rastreamentoService;
+
+    @InjectMocks
+    private LocalizacaoController localizacaoController;
+
+    private static JwtAuthenticationToken autenticado(long userId) {
+        return autenticado(userId, "ROLE_ENTREGADOR");
+    }
+
+    private static JwtAuthenticationToken autenticado(long userId, String role) {
+        return new JwtAuthenticationToken(Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("usuario@email.com")
+                .claim("userId", userId)
+                .claim("role", role)
+                .build());
+    }
+
+    private static LotePosicoesDTO lote(long entregadorId) {
+        return new LotePosicoesDTO(entregadorId, List.<double[]>of(new double[]{-22.9068, -43.1729, 1705339815000d}));
+    }
+
+    @Test
+    void enviarLote_DeveAceitarLoteDoProprioEntregador() {
+        when(localizacaoService.registrarLote(any())).thenReturn(1);
+
+        assertThat(localizacaoController.enviarLote(lote(7L), autenticado(7L)).getStatusCode())
+                .isEqualTo(HttpStatus.ACCEPTED);
+    }
+
+    @Test
+    void enviarLote_DeveResponder403ParaLoteDeOutroEntregador() {
+        assertThat(localizacaoController.enviarLote(lote(8L), autenticado(7L)).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(localizacaoController.enviarLote(lote(8L), null).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+
+        verifyNoInteractions(localizacaoService);
+    }
+
+    @Test
+    void receberLocalizacao_DeveRegistrarPingDoEntregadorDaSessao() {
+        localizacaoController.receberLocalizacao(new LocalizacaoDTO(7L, -22.9068, -43.1729), autenticado(7L));
+
+        verify(localizacaoService).registrar(eq(7L), eq(-22.9068), eq(-43.1729), anyLong());
+    }
+
+    @Test
+    void receberLocalizacao_DeveDescartarPingDeOutroEntregador() {
+        localizacaoController.receberLocalizacao(new LocalizacaoDTO(8L, -22.9068, -43.1729), autenticado(7L));
+        localizacaoController.receberLocalizacao(new LocalizacaoDTO(8L, -22.9068, -43.1729), null);
+
+        verify(localizacaoService, never()).registrar(any(), anyDouble(), anyDouble(), anyLong());
+    }
+
+    @Test
+    void buscarUltimaPosicao_DeveResponderAoEntregadorAoAcompanhanteEAoAdmin() {
+        when(localizacaoService.buscarUltimaPosicao(7L))
+                .thenReturn(Optional.of(new PosicaoDTO(7L, -22.9068, -43.1729, LocalDateTime.now())));
+        when(rastreamentoService.acompanhaEntregador(20L, 7L)).thenReturn(true);
+
+        assertThat(localizacaoController.buscarUltimaPosicao(7L, autenticado(7L)).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        assertThat(localizacaoController.buscarUltimaPosicao(7L, autenticado(20L, "ROLE_CLIENTE")).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        assertThat(localizacaoController.buscarUltimaPosicao(7L, autenticado(1L, "ROLE_ADMIN")).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void buscarUltimaPosicao_DeveResponder403ParaQuemNaoAcompanhaOEntregador() {
+        assertThat(localizacaoController.buscarUltimaPosicao(7L, autenticado(8L)).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(localizacaoController.buscarUltimaPosicao(7L, autenticado(21L, "ROLE_CLIENTE")).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+
+        verifyNoInteractions(localizacaoService);
+    }
+}
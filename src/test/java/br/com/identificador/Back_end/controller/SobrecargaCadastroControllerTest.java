@@ -0,0 +1,70 @@
+package br.com.identificador.Back_end.controller;
+
+import br.com.identificador.Back_end.dto.ClienteRegistroDTO;
+import br.com.identificador.Back_end.dto.EntregadorRegistroDTO;
+import br.com.identificador.Back_end.dto.LojaRegistroDTO;
+import br.com.identificador.Back_end.exceptions.SobrecargaHashException;
+import br.com.identificador.Back_end.service.ClienteService;
+import br.com.identificador.Back_end.service.EntregadorService;
+import br.com.identificador.Back_end.service.LojaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cadastro com a fila de hashing de senhas cheia: 503 com Retry-After, não 400/500
+ */
+@ExtendWith(MockitoExtension.class)
+class SobrecargaCadastroControllerTest {
+
+    private static final SobrecargaHashException SOBRECARGA =
+            new SobrecargaHashException("Serviço de autenticação sobrecarregado, tente novamente");
+
+    @Mock
+    private ClienteService clienteService;
+
+    @Mock
+    private LojaService lojaService;
+
+    @Mock
+    private EntregadorService entregadorService;
+
+    @InjectMocks
+    private ClienteController clienteController;
+
+    @InjectMocks
+    private LojaController lojaController;
+
+    @InjectMocks
+    private EntregadorController entregadorController;
+
+    @Test
+    void registrar_DeveResponder503QuandoHashingEstaSobrecarregado() {
+        when(clienteService.registrarCliente(any())).thenThrow(SOBRECARGA);
+        when(lojaService.registrarLoja(any())).thenThrow(SOBRECARGA);
+        when(entregadorService.registrarEntregador(any())).thenThrow(SOBRECARGA);
+
+        assertIndisponivel(clienteController.registrarCliente(new ClienteRegistroDTO("Ana", "ana@email.com",
+                "11999999999", "senha123", null, null, null, null)));
+        assertIndisponivel(lojaController.registrarLoja(new LojaRegistroDTO("Loja", "loja@email.com",
+                "11777777777", "senha123", "12345678000123", "Rua A, 1", null, null, null, null)));
+        assertIndisponivel(entregadorController.registrarEntregador(new EntregadorRegistroDTO("Pedro",
+                "pedro@email.com", "11888888888", "senha123", "12345678901", "123456789", "12345678900", Set.of())));
+    }
+
+    private static void assertIndisponivel(ResponseEntity<?> resposta) {
+        assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(resposta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+}
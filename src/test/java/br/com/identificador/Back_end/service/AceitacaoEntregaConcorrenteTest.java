@@ -0,0 +1,191 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.AtualizarStatusEntregaDTO;
+import br.com.identificador.Back_end.exceptions.ConflitoAceitacaoException;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vários entregadores disputando a mesma entrega ao mesmo tempo, ou um entregador aceitando
+ * várias entregas ao mesmo tempo: só uma aceitação pode vencer. Quem perde a disputa recebe
+ * ConflitoAceitacaoException (HTTP 409 no controller); quem só lê depois do commit do vencedor
+ * já encontra a entrega indisponível ou o entregador ocupado.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EntregaService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AceitacaoEntregaConcorrenteTest {
+
+    private static final int ENTREGADORES = 16;
+    private static final int RODADAS = 20;
+
+    @Autowired
+    private EntregaService entregaService;
+
+    @Autowired
+    private EntregaRepository entregaRepository;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Loja loja;
+    private Cliente cliente;
+    private final List<Long> entregadorIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        loja = lojaRepository.save(new Loja("Loja Exemplo", "loja@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000"));
+        cliente = clienteRepository.save(new Cliente("João Cliente", "cliente@email.com", "11999999999", "$2a$10$hash"));
+
+        for (int i = 0; i < ENTREGADORES; i++) {
+            Entregador entregador = new Entregador("Entregador " + i, "entregador" + i + "@email.com", "11888888888",
+                    "$2a$10$hash", "cpf" + i, "rg" + i, "cnh" + i);
+            entregador.setStatus(StatusEntregador.DISPONIVEL);
+            entregadorIds.add(entregadorRepository.save(entregador).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregaRepository.deleteAll();
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    @Test
+    void aceitarEntrega_DeveTerExatamenteUmVencedorPorEntrega() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(ENTREGADORES);
+
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                Entrega entrega = entregaRepository.save(new Entrega(loja, cliente, "Origem", "Destino",
+                        "Produto", BigDecimal.TEN, 30));
+
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<Boolean>> resultados = new ArrayList<>();
+                for (Long entregadorId : entregadorIds) {
+                    resultados.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            entregaService.aceitarEntrega(entrega.getId(), entregadorId);
+                            return true;
+                        } catch (ConflitoAceitacaoException e) {
+                            return false;
+                        } catch (RuntimeException e) {
+                            if ("Entrega não disponível para aceitação".equals(e.getMessage())) return false;
+                            throw e;
+                        }
+                    }));
+                }
+                largada.countDown();
+
+                int vencedores = 0;
+                for (Future<Boolean> resultado : resultados)
+                    if (resultado.get()) vencedores++;
+
+                Entrega aceita = entregaRepository.findById(entrega.getId()).orElseThrow();
+                assertThat(vencedores).isEqualTo(1);
+                assertThat(aceita.getStatusEntrega()).isEqualTo(StatusEntrega.COLETANDO);
+                assertThat(entregadorRepository.findAll())
+                        .filteredOn(e -> entrega.getId().equals(e.getEntregaAtivaId()))
+                        .singleElement()
+                        .extracting(Entregador::getId)
+                        .isEqualTo(aceita.getEntregador().getId());
+
+                // Libera o vencedor para a próxima rodada
+                entregaService.atualizarStatusEntrega(entrega.getId(),
+                        new AtualizarStatusEntregaDTO(StatusEntrega.ENTREGUE, null, null));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aceitarEntrega_MesmoEntregadorEmVariasEntregasDeveFicarComUmaSo() throws Exception {
+        Long entregadorId = entregadorIds.get(0);
+        ExecutorService executor = Executors.newFixedThreadPool(ENTREGADORES);
+
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                List<Long> entregaIds = new ArrayList<>();
+                for (int i = 0; i < ENTREGADORES; i++)
+                    entregaIds.add(entregaRepository.save(new Entrega(loja, cliente, "Origem", "Destino",
+                            "Produto", BigDecimal.TEN, 30)).getId());
+
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<Long>> resultados = new ArrayList<>();
+                for (Long entregaId : entregaIds) {
+                    resultados.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            entregaService.aceitarEntrega(entregaId, entregadorId);
+                            return entregaId;
+                        } catch (ConflitoAceitacaoException e) {
+                            return null;
+                        } catch (RuntimeException e) {
+                            if ("Entregador já tem entregas em andamento".equals(e.getMessage())) return null;
+                            throw e;
+                        }
+                    }));
+                }
+                largada.countDown();
+
+                List<Long> aceitas = new ArrayList<>();
+                for (Future<Long> resultado : resultados)
+                    if (resultado.get() != null) aceitas.add(resultado.get());
+
+                assertThat(aceitas).hasSize(1);
+                assertThat(entregadorRepository.findById(entregadorId).orElseThrow().getEntregaAtivaId())
+                        .isEqualTo(aceitas.get(0));
+                assertThat(entregaRepository.findAllById(entregaIds))
+                        .filteredOn(e -> e.getEntregador() != null)
+                        .extracting(Entrega::getId)
+                        .containsExactly(aceitas.get(0));
+
+                entregaService.atualizarStatusEntrega(aceitas.get(0),
+                        new AtualizarStatusEntregaDTO(StatusEntrega.ENTREGUE, null, null));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.identificador.Back_end.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnelPosicoesTest {
+
+    @Test
+    void publicar_DeveRecusarQuandoCheioEAceitarAposDrenagem() {
+        AnelPosicoes anel = new AnelPosicoes(4);
+        for (int i = 0; i < 4; i++) assertThat(anel.publicar(i, 1.0, 2.0, i)).isTrue();
+
+        assertThat(anel.publicar(9, 1.0, 2.0, 9)).isFalse();
+        assertThat(anel.drenar((id, lat, lon, momento) -> {}, 2)).isEqualTo(2);
+        assertThat(anel.publicar(9, 1.0, 2.0, 9)).isTrue();
+        assertThat(anel.tamanho()).isEqualTo(3);
+    }
+
+    @Test
+    void drenar_DeveEntregarCadaPingUmaVezComVariosProdutores() throws InterruptedException {
+        int produtores = 8;
+        int pingsPorProdutor = 100_000;
+        AnelPosicoes anel = new AnelPosicoes(8192);
+        long[] ultimoPorProdutor = new long[produtores];
+        long[] recebidosPorProdutor = new long[produtores];
+        boolean[] foraDeOrdem = new boolean[1];
+
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (int p = 0; p < produtores; p++) {
+            int produtor = p;
+            executor.submit(() -> {
+                largada.await();
+                for (long i = 1; i <= pingsPorProdutor; i++) {
+                    while (!anel.publicar(produtor, -22.9, -43.1, i)) Thread.onSpinWait();
+                }
+                return null;
+            });
+        }
+
+        long esperado = (long) produtores * pingsPorProdutor;
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        largada.countDown();
+        executor.shutdown();
+        long total = 0;
+        while (total < esperado && System.nanoTime() < prazo) {
+            total += anel.drenar((id, lat, lon, momento) -> {
+                int produtor = (int) id;
+                // Cada produtor publica em ordem; o consumidor deve ver a mesma ordem
+                if (momento != ultimoPorProdutor[produtor] + 1) foraDeOrdem[0] = true;
+                ultimoPorProdutor[produtor] = momento;
+                recebidosPorProdutor[produtor]++;
+            }, 4096);
+        }
+
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(total).isEqualTo(esperado);
+        assertThat(foraDeOrdem[0]).isFalse();
+        assertThat(recebidosPorProdutor).containsOnly(pingsPorProdutor);
+        assertThat(anel.tamanho()).isZero();
+    }
+}
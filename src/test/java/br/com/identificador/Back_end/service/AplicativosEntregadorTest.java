@@ -0,0 +1,145 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aplicativos do entregador como máscara de bits: conversão, alterações gravadas pelo dirty
+ * checking e filtros bit a bit no banco
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EntregadorService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AplicativosEntregadorTest {
+
+    @Autowired
+    private EntregadorService entregadorService;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private PerfilEntregadorCache perfilCache;
+
+    @MockBean
+    private RegistroDisponibilidade registro;
+
+    @MockBean
+    private IndiceGeografico indiceGeografico;
+
+    private Entregador semAplicativo;
+    private Entregador soIfood;
+    private Entregador ifoodERappi;
+    private Entregador tresAplicativos;
+
+    @BeforeEach
+    void setUp() {
+        entregadorRepository.deleteAll();
+        semAplicativo = salvar(1, StatusEntregador.DISPONIVEL);
+        soIfood = salvar(2, StatusEntregador.DISPONIVEL, Aplicativo.IFOOD);
+        ifoodERappi = salvar(3, StatusEntregador.OCUPADO, Aplicativo.IFOOD, Aplicativo.RAPPI);
+        tresAplicativos = salvar(4, StatusEntregador.DISPONIVEL, Aplicativo.RAPPI, Aplicativo.LOGGI, Aplicativo.OUTROS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregadorRepository.deleteAll();
+    }
+
+    private Entregador salvar(int n, StatusEntregador status, Aplicativo... aplicativos) {
+        Entregador entregador = new Entregador("Entregador " + n, "entregador" + n + "@email.com", "11888888888",
+                "$2a$10$hash", "1234567890" + n, "12345678" + n, "1234567890" + n);
+        entregador.setStatus(status);
+        entregador.setAplicativos(Set.of(aplicativos));
+        return entregadorRepository.save(entregador);
+    }
+
+    private Set<Aplicativo> recarregar(Entregador entregador) {
+        return entregadorRepository.findById(entregador.getId()).orElseThrow().getAplicativos();
+    }
+
+    @Test
+    void mascara_DeveIrEVoltarPelosBitsFixos() {
+        assertThat(Aplicativo.mascara(EnumSet.of(Aplicativo.IFOOD, Aplicativo.LOGGI, Aplicativo.OUTROS)))
+                .isEqualTo(1L | 16L | 256L);
+        assertThat(Aplicativo.deMascara(1L | 16L | 256L))
+                .containsExactly(Aplicativo.IFOOD, Aplicativo.LOGGI, Aplicativo.OUTROS);
+        assertThat(Aplicativo.mascara(null)).isZero();
+        assertThat(Aplicativo.deMascara(0L)).isEmpty();
+    }
+
+    @Test
+    void salvar_DeveGravarAplicativosNaColunaDeBits() {
+        Long mascara = jdbcTemplate.queryForObject("SELECT aplicativos FROM entregadores WHERE id = ?",
+                Long.class, tresAplicativos.getId());
+
+        assertThat(mascara).isEqualTo(2L | 16L | 256L);
+        assertThat(recarregar(tresAplicativos)).containsExactly(Aplicativo.RAPPI, Aplicativo.LOGGI, Aplicativo.OUTROS);
+        assertThat(recarregar(semAplicativo)).isEmpty();
+    }
+
+    @Test
+    void adicionarERemoverAplicativo_DevemGravarAlteracaoNoConjunto() {
+        entregadorService.adicionarAplicativo(soIfood.getId(), Aplicativo.ZE_DELIVERY);
+        assertThat(recarregar(soIfood)).containsExactly(Aplicativo.IFOOD, Aplicativo.ZE_DELIVERY);
+
+        entregadorService.removerAplicativo(soIfood.getId(), Aplicativo.IFOOD);
+        assertThat(recarregar(soIfood)).containsExactly(Aplicativo.ZE_DELIVERY);
+    }
+
+    @Test
+    void buscarPorAplicativo_DeveFiltrarPeloBit() {
+        assertThat(entregadorService.buscarPorAplicativo(Aplicativo.IFOOD)).extracting(Entregador::getId)
+                .containsExactly(soIfood.getId(), ifoodERappi.getId());
+        assertThat(entregadorService.buscarPorAplicativo(Aplicativo.OUTROS)).extracting(Entregador::getId)
+                .containsExactly(tresAplicativos.getId());
+        assertThat(entregadorService.buscarPorAplicativo(Aplicativo.JAMES)).isEmpty();
+    }
+
+    @Test
+    void buscarComMultiplosAplicativos_DeveContarBits() {
+        assertThat(entregadorService.buscarComMultiplosAplicativos(0)).hasSize(4);
+        assertThat(entregadorService.buscarComMultiplosAplicativos(1)).extracting(Entregador::getId)
+                .containsExactly(soIfood.getId(), ifoodERappi.getId(), tresAplicativos.getId());
+        assertThat(entregadorService.buscarComMultiplosAplicativos(2)).extracting(Entregador::getId)
+                .containsExactly(ifoodERappi.getId(), tresAplicativos.getId());
+        assertThat(entregadorService.buscarComMultiplosAplicativos(3)).extracting(Entregador::getId)
+                .containsExactly(tresAplicativos.getId());
+        assertThat(entregadorService.buscarComMultiplosAplicativos(4)).isEmpty();
+    }
+
+    @Test
+    void buscarEntregadoresDisponiveis_DeveIgnorarQuemNaoTemAplicativo() {
+        assertThat(entregadorRepository.buscarEntregadoresDisponiveis(StatusEntregador.DISPONIVEL))
+                .extracting(Entregador::getId)
+                .containsExactlyInAnyOrder(soIfood.getId(), tresAplicativos.getId());
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Muitas avaliações simultâneas contra o mesmo entregador, misturadas com trocas de status
+ * (que gravam a entidade inteira): nenhuma nota pode se perder.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EntregadorService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AvaliacaoConcorrenteTest {
+
+    private static final int THREADS = 16;
+    private static final int AVALIACOES = 2000;
+
+    @Autowired
+    private EntregadorService entregadorService;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private PerfilEntregadorCache perfilCache;
+
+    @MockBean
+    private RegistroDisponibilidade registro;
+
+    @MockBean
+    private IndiceGeografico indiceGeografico;
+
+    private Long entregadorId;
+
+    @BeforeEach
+    void setUp() {
+        Entregador entregador = new Entregador("Entregador Avaliado", "avaliado@email.com", "11888888888",
+                "$2a$10$hash", "cpf1", "rg1", "cnh1");
+        entregador.setStatus(StatusEntregador.DISPONIVEL);
+        entregadorId = entregadorRepository.save(entregador).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregadorRepository.deleteAll();
+    }
+
+    @Test
+    void atualizarAvaliacao_NaoDevePerderNotasSobConcorrencia() throws Exception {
+        long somaEsperada = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int i = 0; i < AVALIACOES; i++) {
+            int nota = 1 + i % 5;
+            somaEsperada += nota;
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                return entregadorService.atualizarAvaliacao(entregadorId, (double) nota);
+            }));
+            // Escrita concorrente da entidade completa, que não pode sobrescrever os contadores
+            if (i % 50 == 0) {
+                StatusEntregador status = i % 100 == 0 ? StatusEntregador.PAUSADO : StatusEntregador.DISPONIVEL;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    return entregadorService.atualizarStatus(entregadorId, status);
+                }));
+            }
+        }
+
+        largada.countDown();
+        try {
+            for (Future<?> tarefa : tarefas) tarefa.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Entregador avaliado = entregadorRepository.findById(entregadorId).orElseThrow();
+        assertThat(avaliado.getNumAvaliacoes()).isEqualTo(AVALIACOES);
+        assertThat(avaliado.getSomaAvaliacoes()).isEqualTo((double) somaEsperada);
+        assertThat(avaliado.getAvaliacaoMedia())
+                .isEqualTo(Math.round(somaEsperada * 100.0 / AVALIACOES) / 100.0);
+        assertThat(avaliado.getTotalEntregas()).isZero();
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.dto.ResultadoBuscaDTO;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.evento.UsuarioAtualizadoEvento;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Carga do índice pelas consultas de projeção e manutenção pelos eventos de alteração
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BuscaService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BuscaServiceTest {
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    private Cliente cliente;
+    private Loja loja;
+    private Entregador entregador;
+
+    @BeforeEach
+    void setUp() {
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+
+        cliente = clienteRepository.save(new Cliente("João da Silva", "joao@email.com", "11999999999", "$2a$10$hash"));
+        loja = lojaRepository.save(new Loja("Padaria São João", "padaria@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Rua Conceição, 250 - Centro"));
+        entregador = entregadorRepository.save(new Entregador("Joana Souza", "joana@email.com", "11888888888",
+                "$2a$10$hash", "12345678901", "123456789", "12345678900"));
+
+        buscaService.reconciliar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    @Test
+    void reconciliar_DeveCarregarOsTresTiposPelasProjecoes() {
+        assertThat(buscaService.isPronto()).isTrue();
+
+        PaginaCursorDTO<ResultadoBuscaDTO> pagina = buscaService.buscarPorNome("jo", null, null, 10);
+
+        assertThat(pagina.itens()).extracting(ResultadoBuscaDTO::id)
+                .containsExactly(entregador.getId(), cliente.getId(), loja.getId());
+        assertThat(pagina.itens()).extracting(ResultadoBuscaDTO::tipo)
+                .containsExactly(TipoUsuario.ENTREGADOR, TipoUsuario.CLIENTE, TipoUsuario.LOJA);
+        assertThat(pagina.temMais()).isFalse();
+    }
+
+    @Test
+    void buscarLojasPorEndereco_DeveIgnorarAcentosEIndexarSoLojas() {
+        assertThat(buscaService.buscarLojasPorEndereco("conceicao centro", null, 10).itens())
+                .singleElement()
+                .satisfies(r -> {
+                    assertThat(r.id()).isEqualTo(loja.getId());
+                    assertThat(r.endereco()).isEqualTo("Rua Conceição, 250 - Centro");
+                });
+    }
+
+    @Test
+    void buscarPorNome_DeveFiltrarPorTipo() {
+        assertThat(buscaService.buscarPorNome("joao", TipoUsuario.CLIENTE, null, 10).itens())
+                .extracting(ResultadoBuscaDTO::id)
+                .containsExactly(cliente.getId());
+    }
+
+    @Test
+    void aoAtualizarUsuario_DeveReindexarPeloBanco() {
+        cliente.setNome("Maria Oliveira");
+        clienteRepository.save(cliente);
+
+        buscaService.aoAtualizarUsuario(new UsuarioAtualizadoEvento(cliente.getId()));
+
+        assertThat(buscaService.buscarIdsPorNome("silva", null, 10)).isEmpty();
+        assertThat(buscaService.buscarIdsPorNome("oliveira", null, 10)).containsExactly(cliente.getId());
+    }
+
+    @Test
+    void aoAtualizarUsuario_DeveRemoverUsuarioQueNaoExisteMais() {
+        lojaRepository.delete(loja);
+
+        buscaService.aoAtualizarUsuario(new UsuarioAtualizadoEvento(loja.getId()));
+
+        assertThat(buscaService.buscarIdsPorNome("padaria", null, 10)).isEmpty();
+        assertThat(buscaService.buscarIdsDeLojasPorEndereco("conceicao", 10)).isEmpty();
+    }
+
+    @Test
+    void aoRemoverEntregadores_DeveTirarDoIndice() {
+        buscaService.aoRemoverEntregadores(new EntregadoresRemovidosEvento(List.of(entregador.getId())));
+
+        assertThat(buscaService.buscarIdsPorNome("joana", null, 10)).isEmpty();
+    }
+
+    @Test
+    void buscarPorNome_DevePaginarPorCursor() {
+        List<Long> esperados = new ArrayList<>();
+        for (int i = 0; i < 25; i++)
+            esperados.add(clienteRepository.save(new Cliente("Cliente Souza " + i, "souza" + i + "@email.com",
+                    "11900000000", "$2a$10$hash")).getId());
+        esperados.add(entregador.getId());
+        buscaService.reconciliar();
+
+        List<Long> obtidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaCursorDTO<ResultadoBuscaDTO> pagina = buscaService.buscarPorNome("souza", null, cursor, 10);
+            pagina.itens().forEach(r -> obtidos.add(r.id()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+
+        assertThat(obtidos).hasSize(26).doesNotHaveDuplicates();
+        assertThat(Set.copyOf(obtidos)).isEqualTo(Set.copyOf(esperados));
+    }
+
+    @Test
+    void buscarPorNome_DeveRejeitarTermoVazioTamanhoOuCursorInvalido() {
+        assertThatThrownBy(() -> buscaService.buscarPorNome(" ", null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> buscaService.buscarPorNome("jo", null, null, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> buscaService.buscarPorNome("jo", null, "nao-e-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -62,7 +62,9 @@ class ClienteServiceTest {
             "11999999999",
             "senha123",
             "12345678901",
-            "Rua das Flores, 123"
+            "Rua das Flores, 123",
+            null,
+            null
         );
     }
 
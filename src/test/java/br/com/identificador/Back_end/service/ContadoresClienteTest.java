@@ -0,0 +1,192 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.AtualizarStatusEntregaDTO;
+import br.com.identificador.Back_end.dto.CriarEntregaDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contadores de pedidos dos clientes: mantidos na criação (unitária e em lote) e na mudança
+ * de status das entregas, usados pela busca de clientes ativos e corrigidos pela reconciliação
+ */
+@DataJpaTest(showSql = false, properties = "clientes.contadores.tamanho-bloco=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EntregaService.class, ReconciliacaoContadoresCliente.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ContadoresClienteTest {
+
+    @Autowired
+    private EntregaService entregaService;
+
+    @Autowired
+    private ReconciliacaoContadoresCliente reconciliacao;
+
+    @Autowired
+    private EntregaRepository entregaRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Loja loja;
+    private Cliente ana;
+    private Cliente bruno;
+    private Cliente carla;
+
+    @BeforeEach
+    void setUp() {
+        loja = lojaRepository.save(new Loja("Loja Exemplo", "loja@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000"));
+        ana = clienteRepository.save(new Cliente("Ana", "ana@email.com", "11999999999", "$2a$10$hash"));
+        bruno = clienteRepository.save(new Cliente("Bruno", "bruno@email.com", "11999999998", "$2a$10$hash"));
+        carla = clienteRepository.save(new Cliente("Carla", "carla@email.com", "11999999997", "$2a$10$hash"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregaRepository.deleteAllInBatch();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    private CriarEntregaDTO pedido(Cliente cliente) {
+        return new CriarEntregaDTO(loja.getId(), cliente.getId(), "Av. Principal, 1000", "Rua das Flores, 10",
+                "Pedido", BigDecimal.TEN, BigDecimal.ONE, 30, null, null, null);
+    }
+
+    private void mudarStatus(Long entregaId, StatusEntrega status) {
+        entregaService.atualizarStatusEntrega(entregaId, new AtualizarStatusEntregaDTO(status, null, null));
+    }
+
+    private Cliente recarregar(Cliente cliente) {
+        return clienteRepository.findById(cliente.getId()).orElseThrow();
+    }
+
+    @Test
+    void criarEntrega_DeveContarPedidoEGuardarDataDoUltimo() {
+        Long primeira = entregaService.criarEntrega(pedido(ana)).id();
+        Long segunda = entregaService.criarEntrega(pedido(ana)).id();
+
+        Cliente atual = recarregar(ana);
+        assertThat(atual.getTotalPedidos()).isEqualTo(2);
+        assertThat(atual.getPedidosEntregues()).isZero();
+        assertThat(atual.getUltimoPedidoEm())
+                .isEqualTo(entregaRepository.findById(segunda).orElseThrow().getCriadoEm())
+                .isAfterOrEqualTo(entregaRepository.findById(primeira).orElseThrow().getCriadoEm());
+    }
+
+    @Test
+    void criarEntregasEmLote_DeveSomarPorCliente() {
+        entregaService.criarEntregasEmLote(List.of(pedido(bruno), pedido(ana), pedido(bruno), pedido(bruno)));
+
+        assertThat(recarregar(ana).getTotalPedidos()).isEqualTo(1);
+        assertThat(recarregar(bruno).getTotalPedidos()).isEqualTo(3);
+        assertThat(recarregar(carla).getTotalPedidos()).isZero();
+    }
+
+    @Test
+    void atualizarStatusEntrega_DeveContarEntreguesECanceladasUmaVezSo() {
+        Long entregue = entregaService.criarEntrega(pedido(ana)).id();
+        Long cancelada = entregaService.criarEntrega(pedido(ana)).id();
+        Long corrigida = entregaService.criarEntrega(pedido(ana)).id();
+
+        mudarStatus(entregue, StatusEntrega.COLETANDO);
+        mudarStatus(entregue, StatusEntrega.ENTREGUE);
+        mudarStatus(entregue, StatusEntrega.ENTREGUE);
+        mudarStatus(cancelada, StatusEntrega.CANCELADA);
+        mudarStatus(corrigida, StatusEntrega.CANCELADA);
+        mudarStatus(corrigida, StatusEntrega.ENTREGUE);
+
+        Cliente atual = recarregar(ana);
+        assertThat(atual.getTotalPedidos()).isEqualTo(3);
+        assertThat(atual.getPedidosEntregues()).isEqualTo(2);
+        assertThat(atual.getPedidosCancelados()).isEqualTo(1);
+    }
+
+    @Test
+    void salvarCliente_NaoDeveSobrescreverContadores() {
+        entregaService.criarEntrega(pedido(ana));
+
+        Cliente desatualizado = ana;
+        desatualizado.setEndereco("Rua Nova, 1");
+        clienteRepository.save(desatualizado);
+
+        assertThat(recarregar(ana).getTotalPedidos()).isEqualTo(1);
+        assertThat(recarregar(ana).getEndereco()).isEqualTo("Rua Nova, 1");
+    }
+
+    @Test
+    void buscarClientesAtivos_DeveUsarContadorEOrdenarPorPedidos() {
+        entregaService.criarEntregasEmLote(List.of(pedido(ana), pedido(bruno), pedido(bruno)));
+
+        assertThat(clienteRepository.buscarClientesAtivos(1)).extracting(Cliente::getId)
+                .containsExactly(bruno.getId(), ana.getId());
+        assertThat(clienteRepository.buscarClientesAtivos(2)).extracting(Cliente::getId)
+                .containsExactly(bruno.getId());
+    }
+
+    @Test
+    void reconciliar_DeveCorrigirSoOsClientesDivergentes() {
+        Long entrega = entregaService.criarEntrega(pedido(ana)).id();
+        mudarStatus(entrega, StatusEntrega.ENTREGUE);
+        entregaService.criarEntregasEmLote(List.of(pedido(bruno), pedido(carla)));
+        Cliente antes = recarregar(ana);
+
+        // Deriva: contadores alterados por fora e entrega removida sem passar pelo serviço
+        jdbcTemplate.update("UPDATE clientes SET total_pedidos = 7, pedidos_cancelados = 2 WHERE id = ?", ana.getId());
+        jdbcTemplate.update("DELETE FROM entregas WHERE cliente_id = ?", carla.getId());
+
+        assertThat(reconciliacao.reconciliar()).isEqualTo(2);
+
+        Cliente corrigida = recarregar(ana);
+        assertThat(corrigida.getTotalPedidos()).isEqualTo(1);
+        assertThat(corrigida.getPedidosEntregues()).isEqualTo(1);
+        assertThat(corrigida.getPedidosCancelados()).isZero();
+        assertThat(corrigida.getUltimoPedidoEm()).isEqualTo(antes.getUltimoPedidoEm());
+        assertThat(recarregar(carla).getTotalPedidos()).isZero();
+        assertThat(recarregar(carla).getUltimoPedidoEm()).isNull();
+        assertThat(recarregar(bruno).getTotalPedidos()).isEqualTo(1);
+        assertThat(reconciliacao.reconciliar()).isZero();
+    }
+
+    @Test
+    void corrigirContadores_NaoDeveGravarSeOContadorMudouDepoisDaLeitura() {
+        entregaService.criarEntrega(pedido(ana));
+        jdbcTemplate.update("UPDATE clientes SET total_pedidos = 5 WHERE id = ?", ana.getId());
+
+        // Lido com total 5; antes da correção, outra transação registra mais um pedido
+        entregaService.criarEntrega(pedido(ana));
+        int gravadas = clienteRepository.corrigirContadores(ana.getId(), 1, 0, 0, null, 5, 0, 0);
+
+        assertThat(gravadas).isZero();
+        assertThat(recarregar(ana).getTotalPedidos()).isEqualTo(6);
+        assertThat(reconciliacao.reconciliar()).isEqualTo(1);
+        assertThat(recarregar(ana).getTotalPedidos()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.ClienteRegistroDTO;
+import br.com.identificador.Back_end.dto.LojaRegistroDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import br.com.identificador.Back_end.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Atualização de cadastro sem latitude/longitude (formulário antigo) não apaga a posição
+ * já cadastrada; com o par informado, a posição muda
+ */
+@ExtendWith(MockitoExtension.class)
+class CoordenadasCadastroTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private LojaRepository lojaRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private BuscaService buscaService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ExportadorNdjson exportadorNdjson;
+
+    @InjectMocks
+    private ClienteService clienteService;
+
+    @InjectMocks
+    private LojaService lojaService;
+
+    @Test
+    void atualizarCliente_SemCoordenadasDeveManterAsCadastradas() {
+        Cliente cliente = new Cliente("Ana", "ana@email.com", "11999999999", "$2a$10$hash");
+        cliente.setLatitude(-22.9068);
+        cliente.setLongitude(-43.1729);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.save(any(Cliente.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Cliente atualizado = clienteService.atualizarCliente(1L,
+                new ClienteRegistroDTO("Ana Souza", "ana@email.com", "11999999999", null, null, "Rua A, 1", null, null));
+        assertThat(atualizado.getLatitude()).isEqualTo(-22.9068);
+        assertThat(atualizado.getLongitude()).isEqualTo(-43.1729);
+
+        atualizado = clienteService.atualizarCliente(1L, new ClienteRegistroDTO("Ana Souza", "ana@email.com",
+                "11999999999", null, null, "Rua B, 2", -23.5505, -46.6333));
+        assertThat(atualizado.getLatitude()).isEqualTo(-23.5505);
+        assertThat(atualizado.getLongitude()).isEqualTo(-46.6333);
+    }
+
+    @Test
+    void atualizarLoja_SemCoordenadasDeveManterAsCadastradas() {
+        Loja loja = new Loja("Padaria", "padaria@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000");
+        loja.setLatitude(-22.9068);
+        loja.setLongitude(-43.1729);
+        when(lojaRepository.findById(2L)).thenReturn(Optional.of(loja));
+        when(lojaRepository.save(any(Loja.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Loja atualizada = lojaService.atualizarLoja(2L, new LojaRegistroDTO("Padaria", "padaria@email.com",
+                "11777777777", null, "12345678000123", "Av. Principal, 1000", null, null, null, null));
+
+        assertThat(atualizada.getLatitude()).isEqualTo(-22.9068);
+        assertThat(atualizada.getLongitude()).isEqualTo(-43.1729);
+    }
+}
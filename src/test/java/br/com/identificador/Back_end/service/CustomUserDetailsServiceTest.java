@@ -0,0 +1,64 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CustomUserDetailsService userDetailsService;
+
+    @Test
+    void loadUserByUsername_DeveResolverSubtipoComUmaUnicaConsulta() {
+        Loja loja = new Loja("Loja Exemplo", "loja@email.com", "11777777777", "hash", "12345678000123", "Av. Principal, 1000");
+        loja.setId(10L);
+        when(userRepository.findByEmail("loja@email.com")).thenReturn(Optional.of(loja));
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("loja@email.com");
+
+        assertThat(userDetails).isInstanceOf(UsuarioAutenticado.class);
+        assertThat(((UsuarioAutenticado) userDetails).getUsuario()).isSameAs(loja);
+        assertThat(userDetails.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_LOJA");
+        verify(userRepository, times(1)).findByEmail("loja@email.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void loadUserByUsername_DeveLancarExcecaoQuandoNaoEncontrado() {
+        when(userRepository.findByEmail("naoexiste@email.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("naoexiste@email.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void updatePassword_DeveRegravarHashDoUsuario() {
+        Loja loja = new Loja("Loja Exemplo", "loja@email.com", "11777777777", "hash-antigo", "12345678000123", "Av. Principal, 1000");
+        when(userRepository.findByEmail("loja@email.com")).thenReturn(Optional.of(loja));
+        UserDetails userDetails = userDetailsService.loadUserByUsername("loja@email.com");
+
+        UserDetails atualizado = userDetailsService.updatePassword(userDetails, "{bcrypt}hash-novo");
+
+        verify(userRepository).atualizarSenha("loja@email.com", "{bcrypt}hash-novo");
+        assertThat(atualizado.getPassword()).isEqualTo("{bcrypt}hash-novo");
+        assertThat(loja.getSenha()).isEqualTo("{bcrypt}hash-novo");
+    }
+}
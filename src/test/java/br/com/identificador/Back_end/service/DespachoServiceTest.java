@@ -0,0 +1,158 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.OfertaEntregaDTO;
+import br.com.identificador.Back_end.evento.EntregaAtualizadaEvento;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DespachoServiceTest {
+
+    @Mock
+    private EntregaRepository entregaRepository;
+
+    @Mock
+    private EntregadorRepository entregadorRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Spy
+    private IndiceGeografico indiceGeografico = new IndiceGeografico(null, 300);
+
+    @InjectMocks
+    private DespachoService despachoService;
+
+    private Entrega entrega;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(despachoService, "timeoutOfertaSegundos", 15L);
+
+        Loja loja = new Loja("Loja Exemplo", "loja@email.com", "11777777777", "senha123", "12345678000123", "Av. Principal, 1000");
+        loja.setId(10L);
+        Cliente cliente = new Cliente("João Cliente", "cliente@email.com", "11999999999", "senha123");
+        cliente.setId(20L);
+        entrega = new Entrega(loja, cliente, "Origem", "Destino", "Produto", BigDecimal.TEN, 30);
+        entrega.setId(1L);
+        entrega.setValorGorjeta(BigDecimal.ONE);
+    }
+
+    private Entregador novoEntregador(Long id, double avaliacao, Aplicativo... aplicativos) {
+        Entregador entregador = new Entregador("Entregador " + id, "e" + id + "@email.com", "11888888888",
+                "senha123", "cpf" + id, "rg" + id, "cnh" + id);
+        entregador.setId(id);
+        entregador.setStatus(StatusEntregador.DISPONIVEL);
+        entregador.setAvaliacaoMedia(avaliacao);
+        entregador.setAplicativos(Set.of(aplicativos));
+        return entregador;
+    }
+
+    private void novaEntregaCriada() {
+        when(entregaRepository.findById(1L)).thenReturn(Optional.of(entrega));
+        despachoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(1L, null, StatusEntrega.A_CAMINHO_COLETA, null, 10L, 20L));
+    }
+
+    @Test
+    void aoAtualizarEntrega_DeveOfertarAoMelhorAvaliado() {
+        despachoService.registrarSeLivre(novoEntregador(7L, 4.2, Aplicativo.IFOOD));
+        despachoService.registrarSeLivre(novoEntregador(8L, 4.9, Aplicativo.RAPPI));
+
+        novaEntregaCriada();
+
+        ArgumentCaptor<OfertaEntregaDTO> oferta = ArgumentCaptor.forClass(OfertaEntregaDTO.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("8"), eq("/fila/ofertas"), oferta.capture());
+        assertThat(oferta.getValue().entregaId()).isEqualTo(1L);
+        assertThat(oferta.getValue().valorTotal()).isEqualByComparingTo("11");
+    }
+
+    @Test
+    void aoAtualizarEntrega_DevePreferirEntregadorMaisProximoDaColeta() {
+        entrega.setLatitudeOrigem(-22.9068);
+        entrega.setLongitudeOrigem(-43.1729);
+        long agora = System.currentTimeMillis();
+        indiceGeografico.atualizar(7L, -22.9070, -43.1735, agora);
+        indiceGeografico.atualizar(8L, -22.9900, -43.2500, agora);
+        despachoService.registrarSeLivre(novoEntregador(7L, 4.2));
+        despachoService.registrarSeLivre(novoEntregador(8L, 4.9));
+
+        novaEntregaCriada();
+
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/fila/ofertas"), any(OfertaEntregaDTO.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("8"), eq("/fila/ofertas"), any(OfertaEntregaDTO.class));
+    }
+
+    @Test
+    void verificarOfertasExpiradas_DeveRepassarAoProximoCandidato() {
+        ReflectionTestUtils.setField(despachoService, "timeoutOfertaSegundos", -1L);
+        despachoService.registrarSeLivre(novoEntregador(7L, 4.2));
+        despachoService.registrarSeLivre(novoEntregador(8L, 4.9));
+        novaEntregaCriada();
+
+        despachoService.verificarOfertasExpiradas();
+
+        verify(messagingTemplate).convertAndSendToUser(eq("8"), eq("/fila/ofertas"), any(OfertaEntregaDTO.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/fila/ofertas"), any(OfertaEntregaDTO.class));
+    }
+
+    @Test
+    void aoAtualizarEntrega_DeveRetirarDaFilaQuandoAceita() {
+        despachoService.registrarSeLivre(novoEntregador(8L, 4.9));
+        novaEntregaCriada();
+
+        despachoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(1L, StatusEntrega.A_CAMINHO_COLETA,
+                StatusEntrega.COLETANDO, 8L, 10L, 20L));
+
+        assertThat(despachoService.tamanhoFila()).isZero();
+        assertThat(despachoService.totalEntregadoresLivres()).isZero();
+    }
+
+    @Test
+    void aoAlterarStatusEntregador_DeveOfertarQuandoEntregadorFicaDisponivel() {
+        novaEntregaCriada();
+        verifyNoInteractions(messagingTemplate);
+
+        when(entregadorRepository.findById(7L)).thenReturn(Optional.of(novoEntregador(7L, 4.0)));
+        despachoService.aoAlterarStatusEntregador(new EntregadorStatusAlteradoEvento(7L, StatusEntregador.DISPONIVEL));
+
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/fila/ofertas"), any(OfertaEntregaDTO.class));
+    }
+
+    @Test
+    void buscarCandidatos_DeveFiltrarPorAplicativoEAvaliacao() {
+        despachoService.registrarSeLivre(novoEntregador(7L, 4.2, Aplicativo.IFOOD));
+        despachoService.registrarSeLivre(novoEntregador(8L, 4.9, Aplicativo.RAPPI));
+        despachoService.registrarSeLivre(novoEntregador(9L, 3.0, Aplicativo.IFOOD));
+
+        assertThat(despachoService.buscarCandidatos(Aplicativo.IFOOD, 4.0, 10))
+                .extracting(DespachoService.EntregadorLivre::id)
+                .containsExactly(7L);
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.ClienteRegistroDTO;
+import br.com.identificador.Back_end.dto.EntregadorRegistroDTO;
+import br.com.identificador.Back_end.dto.LojaRegistroDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Email único entre todos os tipos de usuário e sem diferenciar maiúsculas, como o índice em
+ * LOWER(email): a checagem do cadastro barra antes de a gravação cair no índice
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClienteService.class, LojaService.class, EntregadorService.class, ExportadorNdjson.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailUnicoTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private LojaService lojaService;
+
+    @Autowired
+    private EntregadorService entregadorService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private BuscaService buscaService;
+
+    @MockBean
+    private PerfilEntregadorCache perfilCache;
+
+    @MockBean
+    private RegistroDisponibilidade registro;
+
+    @MockBean
+    private IndiceGeografico indiceGeografico;
+
+    private Cliente ana;
+    private Loja padaria;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordEncoder.encode(any())).thenReturn("$2a$10$hash");
+        ana = clienteRepository.save(new Cliente("Ana Souza", "ana@email.com", "11999999999", "$2a$10$hash"));
+        padaria = lojaRepository.save(new Loja("Padaria", "padaria@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    private static ClienteRegistroDTO cliente(String email) {
+        return new ClienteRegistroDTO("Ana Souza", email, "11999999999", "senha123", null, null, null, null);
+    }
+
+    private static LojaRegistroDTO loja(String email) {
+        return new LojaRegistroDTO("Loja", email, "11777777777", "senha123", "98765432000199",
+                "Rua B, 2", null, null, null, null);
+    }
+
+    @Test
+    void registrar_DeveRecusarEmailDeOutroTipoDeUsuarioEmOutraCaixa() {
+        assertThatThrownBy(() -> lojaService.registrarLoja(loja("ANA@email.com")))
+                .hasMessage("Email já cadastrado");
+        assertThatThrownBy(() -> clienteService.registrarCliente(cliente("Padaria@Email.com")))
+                .hasMessage("Email já cadastrado");
+        assertThatThrownBy(() -> entregadorService.registrarEntregador(new EntregadorRegistroDTO("Pedro", "Ana@Email.COM",
+                "11888888888", "senha123", "12345678901", "123456789", "12345678900", Set.of())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Email já cadastrado");
+
+        assertThat(lojaRepository.count()).isEqualTo(1);
+        assertThat(entregadorRepository.count()).isZero();
+    }
+
+    @Test
+    void atualizar_DevePermitirOProprioEmailEmOutraCaixaERecusarODeOutroUsuario() {
+        assertThat(clienteService.atualizarCliente(ana.getId(), cliente("ANA@email.com")).getEmail())
+                .isEqualTo("ANA@email.com");
+
+        assertThatThrownBy(() -> clienteService.atualizarCliente(ana.getId(), cliente("padaria@EMAIL.com")))
+                .hasMessage("Email já está sendo usado por outro usuário");
+        assertThatThrownBy(() -> lojaService.atualizarLoja(padaria.getId(), loja("ana@email.com")))
+                .hasMessage("Email já está sendo usado por outro usuário");
+    }
+}
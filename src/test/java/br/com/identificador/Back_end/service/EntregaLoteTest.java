@@ -0,0 +1,100 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.CriarEntregaDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Importação de 10 mil pedidos de uma integração de loja: ids por sequência pooled e
+ * INSERTs em batch. A vazão em linhas/s fica no EntregaLoteBenchmark.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EntregaService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntregaLoteTest {
+
+    private static final int PEDIDOS = 10_000;
+    private static final int CLIENTES = 200;
+
+    @Autowired
+    private EntregaService entregaService;
+
+    @Autowired
+    private EntregaRepository entregaRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Loja loja;
+    private final List<Cliente> clientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        loja = lojaRepository.save(new Loja("Loja Integrada", "integrada@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000"));
+        for (int i = 0; i < CLIENTES; i++)
+            clientes.add(new Cliente("Cliente " + i, "cliente" + i + "@email.com", "11999999999", "$2a$10$hash"));
+        clienteRepository.saveAll(clientes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregaRepository.deleteAllInBatch();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    private List<CriarEntregaDTO> pedidos(int quantidade) {
+        List<CriarEntregaDTO> pedidos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            pedidos.add(new CriarEntregaDTO(loja.getId(), clientes.get(i % CLIENTES).getId(), "Av. Principal, 1000",
+                    "Rua " + i + ", 10", "Pedido " + i, BigDecimal.TEN, BigDecimal.ONE, 30, null, null, null));
+        }
+        return pedidos;
+    }
+
+    @Test
+    void criarEntregasEmLote_DeveImportarDezMilPedidos() {
+        List<CriarEntregaDTO> pedidos = pedidos(PEDIDOS);
+        List<Long> ids = entregaService.criarEntregasEmLote(pedidos);
+
+        assertThat(ids).hasSize(PEDIDOS).doesNotHaveDuplicates().doesNotContainNull();
+        assertThat(entregaRepository.count()).isEqualTo(PEDIDOS);
+    }
+
+    @Test
+    void criarEntregasEmLote_DeveRejeitarLoteInteiroComClienteInexistente() {
+        List<CriarEntregaDTO> pedidos = pedidos(10);
+        pedidos.add(new CriarEntregaDTO(loja.getId(), -1L, "Origem", "Destino", "Produto", BigDecimal.TEN, null, 30, null, null, null));
+
+        assertThatThrownBy(() -> entregaService.criarEntregasEmLote(pedidos))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cliente não encontrado");
+        assertThat(entregaRepository.count()).isZero();
+    }
+}
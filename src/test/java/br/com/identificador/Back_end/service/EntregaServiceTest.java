@@ -0,0 +1,291 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.AtualizarStatusEntregaDTO;
+import br.com.identificador.Back_end.dto.EntregaDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.exceptions.ConflitoAceitacaoException;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntregaServiceTest {
+
+    @Mock
+    private EntregaRepository entregaRepository;
+
+    @Mock
+    private EntregadorRepository entregadorRepository;
+
+    @Mock
+    private LojaRepository lojaRepository;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private EntregaService entregaService;
+
+    private Loja loja;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        loja = new Loja("Loja Exemplo", "loja@email.com", "11777777777", "hash", "12345678000123", "Av. Principal, 1000");
+        loja.setId(10L);
+
+        cliente = new Cliente("João Cliente", "cliente@email.com", "11999999999", "hash");
+        cliente.setId(20L);
+    }
+
+    private Entrega novaEntrega(Long id, LocalDateTime criadoEm) {
+        Entrega entrega = new Entrega(loja, cliente, "Origem", "Destino", "Produto", BigDecimal.TEN, 30);
+        entrega.setId(id);
+        entrega.setCriadoEm(criadoEm);
+        return entrega;
+    }
+
+    private EntregaDTO linha(Long id, LocalDateTime criadoEm) {
+        return new EntregaDTO(id, null, null, 10L, "Loja Exemplo", 20L, "João Cliente", "Origem", "Destino", "Produto",
+                StatusEntrega.A_CAMINHO_COLETA, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.TEN, 30, null,
+                criadoEm, null, null, null);
+    }
+
+    @Test
+    void buscarEntregasDaLoja_DeveRetornarCursorQuandoHaMaisResultados() {
+        LocalDateTime agora = LocalDateTime.of(2024, 1, 15, 14, 30);
+        when(entregaRepository.buscarPorLojaAntesDoCursor(eq(10L), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(linha(3L, agora), linha(2L, agora.minusMinutes(1)), linha(1L, agora.minusMinutes(2))));
+
+        PaginaCursorDTO<EntregaDTO> pagina = entregaService.buscarEntregasDaLoja(10L, null, 2);
+
+        assertThat(pagina.itens()).extracting(EntregaDTO::id).containsExactly(3L, 2L);
+        assertThat(pagina.temMais()).isTrue();
+        assertThat(pagina.proximoCursor()).isNotBlank();
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(entregaRepository).buscarPorLojaAntesDoCursor(eq(10L), any(), eq(Long.MAX_VALUE), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(3);
+        verify(entregaRepository, never()).findAll();
+    }
+
+    @Test
+    void buscarEntregasDaLoja_DeveContinuarAPartirDoCursor() {
+        LocalDateTime agora = LocalDateTime.of(2024, 1, 15, 14, 30);
+        when(entregaRepository.buscarPorLojaAntesDoCursor(eq(10L), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(linha(3L, agora), linha(2L, agora.minusMinutes(1))))
+                .thenReturn(List.of(linha(1L, agora.minusMinutes(2))));
+
+        PaginaCursorDTO<EntregaDTO> primeira = entregaService.buscarEntregasDaLoja(10L, null, 1);
+        PaginaCursorDTO<EntregaDTO> segunda = entregaService.buscarEntregasDaLoja(10L, primeira.proximoCursor(), 1);
+
+        verify(entregaRepository).buscarPorLojaAntesDoCursor(eq(10L), eq(agora), eq(3L), any(Pageable.class));
+        assertThat(segunda.itens()).extracting(EntregaDTO::id).containsExactly(1L);
+        assertThat(segunda.temMais()).isFalse();
+        assertThat(segunda.proximoCursor()).isNull();
+    }
+
+    @Test
+    void buscarEntregasPendentes_DeveFiltrarPorStatusInicial() {
+        when(entregaRepository.buscarPorStatusAposCursor(eq(StatusEntrega.A_CAMINHO_COLETA), any(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        PaginaCursorDTO<EntregaDTO> pagina = entregaService.buscarEntregasPendentes(null, 50);
+
+        assertThat(pagina.itens()).isEmpty();
+        assertThat(pagina.temMais()).isFalse();
+    }
+
+    @Test
+    void buscarEntregasDoCliente_DeveLancarExcecaoParaCursorInvalido() {
+        assertThatThrownBy(() -> entregaService.buscarEntregasDoCliente(20L, "nao-e-um-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cursor inválido");
+
+        verifyNoInteractions(entregaRepository);
+    }
+
+    @Test
+    void aceitarEntrega_DeveReivindicarComUpdatesCondicionais() {
+        Entregador entregador = novoEntregador();
+        Entrega aceita = novaEntrega(5L, LocalDateTime.now());
+        aceita.setEntregador(entregador);
+        aceita.setStatusEntrega(StatusEntrega.COLETANDO);
+        when(entregaRepository.findById(5L))
+                .thenReturn(Optional.of(novaEntrega(5L, LocalDateTime.now())))
+                .thenReturn(Optional.of(aceita));
+        when(entregadorRepository.findById(30L)).thenReturn(Optional.of(entregador));
+        when(entregadorRepository.reservarParaEntrega(30L, 5L)).thenReturn(1);
+        when(entregaRepository.aceitarSeDisponivel(eq(5L), eq(entregador), any())).thenReturn(1);
+
+        EntregaDTO dto = entregaService.aceitarEntrega(5L, 30L);
+
+        assertThat(dto.statusEntrega()).isEqualTo(StatusEntrega.COLETANDO);
+        assertThat(dto.entregadorId()).isEqualTo(30L);
+        verify(entregaRepository, never()).findAll();
+        verify(entregaRepository, never()).save(any(Entrega.class));
+    }
+
+    @Test
+    void aceitarEntrega_DeveLancarConflitoQuandoOutroEntregadorGanhou() {
+        Entregador entregador = novoEntregador();
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(novaEntrega(5L, LocalDateTime.now())));
+        when(entregadorRepository.findById(30L)).thenReturn(Optional.of(entregador));
+        when(entregadorRepository.reservarParaEntrega(30L, 5L)).thenReturn(1);
+        when(entregaRepository.aceitarSeDisponivel(eq(5L), eq(entregador), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> entregaService.aceitarEntrega(5L, 30L))
+                .isInstanceOf(ConflitoAceitacaoException.class);
+    }
+
+    @Test
+    void aceitarEntrega_DeveLancarConflitoQuandoOEntregadorReservouOutraEntrega() {
+        Entregador entregador = novoEntregador();
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(novaEntrega(5L, LocalDateTime.now())));
+        when(entregadorRepository.findById(30L)).thenReturn(Optional.of(entregador));
+        when(entregadorRepository.reservarParaEntrega(30L, 5L)).thenReturn(0);
+
+        assertThatThrownBy(() -> entregaService.aceitarEntrega(5L, 30L))
+                .isInstanceOf(ConflitoAceitacaoException.class);
+        verify(entregaRepository, never()).aceitarSeDisponivel(any(), any(), any());
+    }
+
+    @Test
+    void aceitarEntrega_EntregaJaAceitaNaoDeveSerTratadaComoConflito() {
+        Entrega entrega = novaEntrega(5L, LocalDateTime.now());
+        entrega.setStatusEntrega(StatusEntrega.COLETANDO);
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(entrega));
+
+        assertThatThrownBy(() -> entregaService.aceitarEntrega(5L, 30L))
+                .isNotInstanceOf(ConflitoAceitacaoException.class)
+                .hasMessage("Entrega não disponível para aceitação");
+        verify(entregaRepository, never()).aceitarSeDisponivel(any(), any(), any());
+    }
+
+    @Test
+    void aceitarEntrega_DeveLancarExcecaoQuandoEntregadorJaTemEntregaAtiva() {
+        Entregador entregador = novoEntregador();
+        entregador.setEntregaAtivaId(4L);
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(novaEntrega(5L, LocalDateTime.now())));
+        when(entregadorRepository.findById(30L)).thenReturn(Optional.of(entregador));
+
+        assertThatThrownBy(() -> entregaService.aceitarEntrega(5L, 30L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Entregador já tem entregas em andamento");
+
+        verify(entregadorRepository, never()).reservarParaEntrega(any(), any());
+    }
+
+    @Test
+    void atualizarStatusEntrega_DeveLiberarEntregadorQuandoEntregue() {
+        Entregador entregador = novoEntregador();
+        entregador.setEntregaAtivaId(5L);
+        Entrega entrega = novaEntrega(5L, LocalDateTime.now());
+        entrega.setEntregador(entregador);
+        entrega.setStatusEntrega(StatusEntrega.CHEGOU_DESTINO);
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(entrega));
+        when(entregaRepository.save(any(Entrega.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(entregadorRepository.liberarEntrega(30L, 5L)).thenReturn(1);
+
+        entregaService.atualizarStatusEntrega(5L, new AtualizarStatusEntregaDTO(StatusEntrega.ENTREGUE, null, null));
+
+        assertThat(entregador.getEntregaAtivaId()).isNull();
+        assertThat(entregador.getStatus()).isEqualTo(StatusEntregador.DISPONIVEL);
+        verify(entregadorRepository).incrementarTotalEntregas(30L);
+    }
+
+    @Test
+    void atualizarStatusEntrega_NaoDeveContarEntregaDeNovoQuandoJaEntregue() {
+        Entregador entregador = novoEntregador();
+        Entrega entrega = novaEntrega(5L, LocalDateTime.now());
+        entrega.setEntregador(entregador);
+        entrega.setStatusEntrega(StatusEntrega.ENTREGUE);
+        LocalDateTime finalizadoEm = LocalDateTime.of(2024, 1, 15, 14, 30);
+        entrega.setFinalizadoEm(finalizadoEm);
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(entrega));
+        when(entregaRepository.save(any(Entrega.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        entregaService.atualizarStatusEntrega(5L, new AtualizarStatusEntregaDTO(StatusEntrega.ENTREGUE, null, null));
+
+        verify(entregadorRepository, never()).incrementarTotalEntregas(any());
+        assertThat(entrega.getFinalizadoEm()).isEqualTo(finalizadoEm);
+    }
+
+    @Test
+    void atualizarStatusEntrega_DeveRecusarRetornoAEtapaAnterior() {
+        Entregador entregador = novoEntregador();
+        entregador.setEntregaAtivaId(5L);
+        Entrega entrega = novaEntrega(5L, LocalDateTime.now());
+        entrega.setEntregador(entregador);
+        entrega.setStatusEntrega(StatusEntrega.A_CAMINHO_ENTREGA);
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(entrega));
+
+        assertThatThrownBy(() -> entregaService.atualizarStatusEntrega(5L,
+                new AtualizarStatusEntregaDTO(StatusEntrega.A_CAMINHO_COLETA, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(entrega.getStatusEntrega()).isEqualTo(StatusEntrega.A_CAMINHO_ENTREGA);
+        verify(entregadorRepository, never()).liberarEntrega(any(), any());
+        verify(entregaRepository, never()).save(any());
+    }
+
+    @Test
+    void atualizarStatusEntrega_DeveLancarConflitoQuandoEntregadorTemOutraEntregaAtiva() {
+        Entregador entregador = novoEntregador();
+        entregador.setEntregaAtivaId(4L);
+        Entrega entrega = novaEntrega(5L, LocalDateTime.now());
+        entrega.setEntregador(entregador);
+        entrega.setStatusEntrega(StatusEntrega.A_CAMINHO_COLETA);
+        when(entregaRepository.findById(5L)).thenReturn(Optional.of(entrega));
+        when(entregadorRepository.ocuparComEntrega(30L, 5L)).thenReturn(0);
+
+        assertThatThrownBy(() -> entregaService.atualizarStatusEntrega(5L,
+                new AtualizarStatusEntregaDTO(StatusEntrega.COLETANDO, null, null)))
+                .isInstanceOf(ConflitoAceitacaoException.class);
+
+        assertThat(entregador.getEntregaAtivaId()).isEqualTo(4L);
+        verify(entregaRepository, never()).save(any());
+    }
+
+    private Entregador novoEntregador() {
+        Entregador entregador = new Entregador("Maria Entregadora", "entregador@email.com", "11888888888",
+                "hash", "98765432100", "123456789", "12345678901");
+        entregador.setId(30L);
+        entregador.setStatus(StatusEntregador.DISPONIVEL);
+        return entregador;
+    }
+}
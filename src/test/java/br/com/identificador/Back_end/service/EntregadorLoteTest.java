@@ -0,0 +1,107 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Troca de turno de 10 mil entregadores: status e remoção em lote com comandos por bloco
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EntregadorService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntregadorLoteTest {
+
+    private static final int ENTREGADORES = 10_000;
+
+    @Autowired
+    private EntregadorService entregadorService;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private PerfilEntregadorCache perfilCache;
+
+    @MockBean
+    private RegistroDisponibilidade registro;
+
+    @MockBean
+    private IndiceGeografico indiceGeografico;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Entregador> entregadores = new ArrayList<>();
+        for (int i = 0; i < ENTREGADORES; i++) {
+            Entregador entregador = new Entregador("Entregador " + i, "lote" + i + "@email.com", "11888888888",
+                    "$2a$10$hash", "cpf" + i, "rg" + i, "cnh" + i);
+            entregador.setStatus(StatusEntregador.DISPONIVEL);
+            entregador.setAplicativos(Set.of(Aplicativo.IFOOD));
+            entregadores.add(entregador);
+        }
+        entregadorRepository.saveAll(entregadores).forEach(e -> ids.add(e.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregadorService.deletarEntregadoresEmLote(ids);
+    }
+
+    @Test
+    void atualizarStatusEmLote_DeveAtualizarTodosNumaTransacao() {
+        List<Long> lote = new ArrayList<>(ids);
+        lote.add(-1L); // inexistente: ignorado
+
+        int atualizados = entregadorService.atualizarStatusEmLote(lote, StatusEntregador.OFFLINE);
+
+        assertThat(atualizados).isEqualTo(ENTREGADORES);
+        assertThat(entregadorRepository.countByStatus(StatusEntregador.OFFLINE)).isEqualTo(ENTREGADORES);
+        assertThat(entregadorRepository.countByStatus(StatusEntregador.DISPONIVEL)).isZero();
+    }
+
+    @Test
+    void deletarEntregadoresEmLote_DeveRemoverEntregadorEUsuario() {
+        List<Long> lote = new ArrayList<>(ids.subList(0, ENTREGADORES / 2));
+        lote.add(-1L);
+
+        int removidos = entregadorService.deletarEntregadoresEmLote(lote);
+
+        assertThat(removidos).isEqualTo(ENTREGADORES / 2);
+        assertThat(entregadorRepository.count()).isEqualTo(ENTREGADORES - ENTREGADORES / 2);
+        assertThat(userRepository.count()).isEqualTo(ENTREGADORES - ENTREGADORES / 2);
+        assertThat(entregadorRepository.findById(ids.get(ENTREGADORES - 1)))
+                .get()
+                .extracting(Entregador::getAplicativos)
+                .isEqualTo(Set.of(Aplicativo.IFOOD));
+    }
+}
@@ -1,8 +1,8 @@
 package br.com.identificador.Back_end.service;
 
 import br.com.identificador.Back_end.dto.EntregadorRegistroDTO;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
 import br.com.identificador.Back_end.model.Entregador;
-import br.com.identificador.Back_end.model.User;
 import br.com.identificador.Back_end.model.enuns.Aplicativo;
 import br.com.identificador.Back_end.model.enuns.StatusEntregador;
 import br.com.identificador.Back_end.repository.EntregadorRepository;
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -35,27 +36,29 @@ class EntregadorServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PerfilEntregadorCache perfilCache;
+
+    @Mock
+    private RegistroDisponibilidade registro;
+
+    @Mock
+    private IndiceGeografico indiceGeografico;
+
     @InjectMocks
     private EntregadorService entregadorService;
 
     private Entregador testEntregador;
-    private User testUser;
     private EntregadorRegistroDTO registroDTO;
 
     @BeforeEach
     void setUp() {
-        testUser = new User();
-        testUser.setId(1L);
-        testUser.setNome("João Silva");
-        testUser.setEmail("joao@email.com");
-        testUser.setTelefone("11999999999");
-        testUser.setSenha("hashedPassword");
-
-        testEntregador = new Entregador();
+        testEntregador = new Entregador("João Silva", "joao@email.com", "11999999999", "hashedPassword",
+                "12345678901", "123456789", "12345678901");
         testEntregador.setId(1L);
-        testEntregador.setCpf("12345678901");
-        testEntregador.setRg("123456789");
-        testEntregador.setCnh("12345678901");
         testEntregador.setStatus(StatusEntregador.DISPONIVEL);
         testEntregador.setAvaliacaoMedia(4.5);
         testEntregador.setTotalEntregas(10);
@@ -75,10 +78,9 @@ class EntregadorServiceTest {
 
     @Test
     void registrarEntregador_DeveCriarEntregadorComSucesso() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(false);
         when(entregadorRepository.existsByCpf(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
         when(entregadorRepository.save(any(Entregador.class))).thenReturn(testEntregador);
 
         Entregador result = entregadorService.registrarEntregador(registroDTO);
@@ -90,37 +92,36 @@ class EntregadorServiceTest {
         assertThat(result.getStatus()).isEqualTo(StatusEntregador.DISPONIVEL);
         assertThat(result.getAplicativos()).contains(Aplicativo.IFOOD, Aplicativo.RAPPI);
 
-        verify(userRepository).existsByEmail("joao@email.com");
+        verify(userRepository).existsByEmailIgnoreCase("joao@email.com");
         verify(entregadorRepository).existsByCpf("12345678901");
         verify(passwordEncoder).encode("senha123");
-        verify(userRepository).save(any(User.class));
         verify(entregadorRepository).save(any(Entregador.class));
     }
 
     @Test
     void registrarEntregador_DeveLancarExcecaoQuandoEmailJaExiste() {
-        when(userRepository.existsByEmail("joao@email.com")).thenReturn(true);
+        when(userRepository.existsByEmailIgnoreCase("joao@email.com")).thenReturn(true);
 
         assertThatThrownBy(() -> entregadorService.registrarEntregador(registroDTO))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Email já cadastrado");
 
-        verify(userRepository).existsByEmail("joao@email.com");
+        verify(userRepository).existsByEmailIgnoreCase("joao@email.com");
         verify(entregadorRepository, never()).existsByCpf(anyString());
     }
 
     @Test
     void registrarEntregador_DeveLancarExcecaoQuandoCpfJaExiste() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(false);
         when(entregadorRepository.existsByCpf("12345678901")).thenReturn(true);
 
         assertThatThrownBy(() -> entregadorService.registrarEntregador(registroDTO))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("CPF já cadastrado");
 
-        verify(userRepository).existsByEmail("joao@email.com");
+        verify(userRepository).existsByEmailIgnoreCase("joao@email.com");
         verify(entregadorRepository).existsByCpf("12345678901");
-        verify(userRepository, never()).save(any(User.class));
+        verify(entregadorRepository, never()).save(any(Entregador.class));
     }
 
     @Test
@@ -175,36 +176,37 @@ class EntregadorServiceTest {
         List<Entregador> entregadores = Arrays.asList(testEntregador);
         when(entregadorRepository.findByStatus(StatusEntregador.DISPONIVEL)).thenReturn(entregadores);
 
-        List<Entregador> result = entregadorService.buscarPorStatus(StatusEntregador.DISPONIVEL);
+        List<RegistroDisponibilidade.Situacao> result = entregadorService.buscarPorStatus(StatusEntregador.DISPONIVEL);
 
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getStatus()).isEqualTo(StatusEntregador.DISPONIVEL);
+        assertThat(result.get(0).status()).isEqualTo(StatusEntregador.DISPONIVEL);
 
         verify(entregadorRepository).findByStatus(StatusEntregador.DISPONIVEL);
     }
 
     @Test
-    void buscarDisponiveis_DeveRetornarEntregadoresDisponiveis() {
-        List<Entregador> disponiveis = Arrays.asList(testEntregador);
-        when(entregadorRepository.buscarEntregadoresDisponiveis(StatusEntregador.DISPONIVEL)).thenReturn(disponiveis);
+    void buscarDisponiveis_DeveUsarRegistroQuandoCarregado() {
+        when(registro.isPronto()).thenReturn(true);
+        when(registro.buscar(StatusEntregador.DISPONIVEL, null))
+                .thenReturn(List.of(RegistroDisponibilidade.Situacao.de(testEntregador)));
 
-        List<Entregador> result = entregadorService.buscarDisponiveis();
+        List<RegistroDisponibilidade.Situacao> result = entregadorService.buscarDisponiveis();
 
         assertThat(result).hasSize(1);
 
-        verify(entregadorRepository).buscarEntregadoresDisponiveis(StatusEntregador.DISPONIVEL);
+        verifyNoInteractions(entregadorRepository);
     }
 
     @Test
     void buscarPorAplicativo_DeveRetornarEntregadoresComAplicativo() {
         List<Entregador> entregadores = Arrays.asList(testEntregador);
-        when(entregadorRepository.findAll()).thenReturn(entregadores);
+        when(entregadorRepository.buscarComAlgumAplicativo(Aplicativo.IFOOD.getBit())).thenReturn(entregadores);
 
         List<Entregador> result = entregadorService.buscarPorAplicativo(Aplicativo.IFOOD);
 
         assertThat(result).hasSize(1);
 
-        verify(entregadorRepository).findAll();
+        verify(entregadorRepository).buscarComAlgumAplicativo(Aplicativo.IFOOD.getBit());
     }
 
     @Test
@@ -247,15 +249,14 @@ class EntregadorServiceTest {
     }
 
     @Test
-    void atualizarAvaliacao_DeveCalcularMediaCorretamente() {
+    void atualizarAvaliacao_DeveRegistrarNotaComIncrementoAtomico() {
+        when(entregadorRepository.registrarAvaliacao(1L, 5.0)).thenReturn(1);
         when(entregadorRepository.findById(1L)).thenReturn(Optional.of(testEntregador));
-        when(entregadorRepository.save(any(Entregador.class))).thenReturn(testEntregador);
 
-        Entregador result = entregadorService.atualizarAvaliacao(1L, 5.0);
+        entregadorService.atualizarAvaliacao(1L, 5.0);
 
-        // Verifica se a média foi calculada: ((4.5 * 10) + 5.0) / 11 = 4.545...
-        verify(entregadorRepository).findById(1L);
-        verify(entregadorRepository).save(testEntregador);
+        verify(entregadorRepository).registrarAvaliacao(1L, 5.0);
+        verify(entregadorRepository, never()).save(any(Entregador.class));
     }
 
     @Test
@@ -272,13 +273,17 @@ class EntregadorServiceTest {
         );
 
         when(entregadorRepository.findById(1L)).thenReturn(Optional.of(testEntregador));
-        when(entregadorRepository.existsByCpfAndIdNot("12345678901", 1L)).thenReturn(false);
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot("joao@email.com", 1L)).thenReturn(false);
         when(entregadorRepository.save(any(Entregador.class))).thenReturn(testEntregador);
 
         Entregador result = entregadorService.atualizarDados(1L, updateDTO);
 
+        assertThat(result.getNome()).isEqualTo("João Silva Atualizado");
+        assertThat(result.getAplicativos()).containsExactly(Aplicativo.UBER_EATS);
+
         verify(entregadorRepository).findById(1L);
-        verify(entregadorRepository).existsByCpfAndIdNot("12345678901", 1L);
+        verify(userRepository).existsByEmailIgnoreCaseAndIdNot("joao@email.com", 1L);
+        verify(entregadorRepository, never()).existsByCpf(anyString());
         verify(entregadorRepository).save(any(Entregador.class));
     }
 
@@ -291,6 +296,7 @@ class EntregadorServiceTest {
 
         verify(entregadorRepository).existsById(1L);
         verify(entregadorRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new EntregadoresRemovidosEvento(List.of(1L)));
     }
 
     @Test
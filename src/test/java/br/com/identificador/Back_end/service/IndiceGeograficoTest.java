@@ -0,0 +1,112 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceGeograficoTest {
+
+    private static final double LAT = -22.9068;
+    private static final double LON = -43.1729;
+
+    @Mock
+    private RegistroDisponibilidade registro;
+
+    private IndiceGeografico indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceGeografico(registro, 300);
+    }
+
+    @Test
+    void buscar_DeveCoincidirComBuscaExaustiva() {
+        Random random = new Random(42);
+        long agora = System.currentTimeMillis();
+        double[][] pontos = new double[5_000][];
+        for (int i = 0; i < pontos.length; i++) {
+            pontos[i] = new double[]{LAT + (random.nextDouble() - 0.5) * 0.4, LON + (random.nextDouble() - 0.5) * 0.4};
+            indice.atualizar(i, pontos[i][0], pontos[i][1], agora);
+        }
+
+        for (int consulta = 0; consulta < 50; consulta++) {
+            double lat = LAT + (random.nextDouble() - 0.5) * 0.3;
+            double lon = LON + (random.nextDouble() - 0.5) * 0.3;
+            double cosLat = Math.cos(Math.toRadians(lat));
+
+            List<Long> esperados = IntStream.range(0, pontos.length)
+                    .filter(i -> i % 3 != 0)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(i ->
+                            IndiceGeografico.distanciaKm(lat, lon, cosLat, pontos[i][0], pontos[i][1])))
+                    .limit(10)
+                    .map(Integer::longValue)
+                    .toList();
+
+            assertThat(indice.buscar(lat, lon, 10, 50, id -> id % 3 != 0))
+                    .extracting(IndiceGeografico.Proximo::entregadorId)
+                    .containsExactlyElementsOf(esperados);
+        }
+    }
+
+    @Test
+    void atualizar_DeveMoverEntregadorDeCelula() {
+        long agora = System.currentTimeMillis();
+        indice.atualizar(1L, LAT, LON, agora);
+        indice.atualizar(1L, LAT + 0.5, LON + 0.5, agora);
+
+        assertThat(indice.buscar(LAT, LON, 5, 5, id -> true)).isEmpty();
+        assertThat(indice.buscar(LAT + 0.5, LON + 0.5, 5, 5, id -> true))
+                .extracting(IndiceGeografico.Proximo::entregadorId)
+                .containsExactly(1L);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void buscar_DeveIgnorarPosicoesExpiradasEForaDoRaio() {
+        long agora = System.currentTimeMillis();
+        indice.atualizar(1L, LAT, LON, agora - 600_000);
+        indice.atualizar(2L, LAT + 0.2, LON, agora);
+
+        assertThat(indice.buscar(LAT, LON, 5, 10, id -> true)).isEmpty();
+
+        indice.removerExpirados();
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void buscarDisponiveis_DeveFiltrarPorStatusEAplicativo() {
+        long agora = System.currentTimeMillis();
+        indice.atualizar(1L, LAT, LON, agora);
+        indice.atualizar(2L, LAT + 0.001, LON, agora);
+        indice.atualizar(3L, LAT + 0.002, LON, agora);
+        when(registro.buscar(anyLong())).thenAnswer(invocacao -> {
+            long id = invocacao.getArgument(0);
+            StatusEntregador status = id == 2L ? StatusEntregador.EM_ROTA : StatusEntregador.DISPONIVEL;
+            Set<Aplicativo> aplicativos = id == 1L ? Set.of(Aplicativo.RAPPI) : Set.of(Aplicativo.IFOOD);
+            return new RegistroDisponibilidade.Situacao(id, "E" + id, status, aplicativos, 4.5, 10, 10);
+        });
+
+        assertThat(indice.buscarDisponiveis(LAT, LON, 5, 10, Aplicativo.IFOOD))
+                .extracting(IndiceGeografico.Proximo::entregadorId)
+                .containsExactly(3L);
+        assertThat(indice.buscarDisponiveis(LAT, LON, 5, 10, null))
+                .extracting(IndiceGeografico.Proximo::entregadorId)
+                .containsExactly(1L, 3L);
+    }
+}
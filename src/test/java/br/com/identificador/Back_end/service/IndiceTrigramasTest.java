@@ -0,0 +1,176 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.model.enuns.TipoUsuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceTrigramasTest {
+
+    private static final String[] PRENOMES = {"João", "José", "Maria", "Ana", "Conceição", "Luís", "Antônio",
+            "Joana", "Márcia", "Jônatas", "Sebastião", "Íris", "Ângela", "Paulo", "Josué"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Simões", "Araújo", "Gonçalves", "Santos",
+            "Conceição", "Magalhães", "Oliveira", "Lima", "Brandão", "Assunção", "Sá", "Jo"};
+    private static final TipoUsuario[] TIPOS = TipoUsuario.values();
+
+    private IndiceTrigramas indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTrigramas();
+    }
+
+    @Test
+    void normalizar_DeveRemoverAcentosCaixaEPontuacao() {
+        assertThat(IndiceTrigramas.normalizar("  Conceição  D'Ávila-Magalhães, 12 ")).isEqualTo("conceicao d avila magalhaes 12");
+        assertThat(IndiceTrigramas.normalizar("!!!")).isEmpty();
+        assertThat(IndiceTrigramas.normalizar(null)).isEmpty();
+    }
+
+    @Test
+    void buscar_DeveCoincidirComBuscaExaustiva() {
+        Random random = new Random(42);
+        List<IndiceTrigramas.Documento> documentos = new ArrayList<>();
+        for (long id = 1; id <= 3_000; id++) {
+            String nome = PRENOMES[random.nextInt(PRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+            IndiceTrigramas.Documento documento = new IndiceTrigramas.Documento(id, TIPOS[random.nextInt(TIPOS.length)], nome, null);
+            documentos.add(documento);
+            indice.indexar(documento, nome);
+        }
+
+        for (String consulta : List.of("j", "jo", "joa", "joao s", "silva", "ceica", "CONCEIÇÃO", "sa", "jo jo",
+                "araujo gonc", "magalhaes brandao", "s s", "ao", "xyz", "anto lima")) {
+            for (TipoUsuario tipo : Arrays.asList(null, TipoUsuario.LOJA)) {
+                List<Long> esperados = exaustiva(documentos, consulta, tipo, 25);
+                List<Long> obtidos = indice.buscar(consulta, tipo, null, 25).stream()
+                        .map(r -> r.documento().id())
+                        .toList();
+
+                assertThat(obtidos).as("consulta '%s', tipo %s", consulta, tipo).isEqualTo(esperados);
+            }
+        }
+    }
+
+    @Test
+    void buscar_DeveIgnorarAcentosNaConsultaENoTexto() {
+        indexar(1L, TipoUsuario.CLIENTE, "Maria da Conceição");
+        indexar(2L, TipoUsuario.LOJA, "Padaria São Sebastião");
+
+        assertThat(ids(indice.buscar("conceicao", null, null, 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("SAO SEBASTIÃO", null, null, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void buscar_DeveOrdenarInicioDoTextoAntesDeInicioDePalavraAntesDeTrecho() {
+        indexar(1L, TipoUsuario.CLIENTE, "Ana Joana Lima");
+        indexar(2L, TipoUsuario.CLIENTE, "Paulo Joaquim");
+        indexar(3L, TipoUsuario.CLIENTE, "Joana Silva");
+        indexar(4L, TipoUsuario.CLIENTE, "Joaquim Souza Oliveira");
+
+        List<IndiceTrigramas.Resultado> resultados = indice.buscar("joa", null, null, 10);
+
+        assertThat(ids(resultados)).containsExactly(3L, 4L, 2L, 1L);
+        assertThat(resultados).extracting(r -> r.chave().nivel()).containsExactly(0, 0, 1, 1);
+        assertThat(ids(indice.buscar("oana", null, null, 10))).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void buscar_DevePaginarPelaChaveSemRepetirNemPular() {
+        for (long id = 1; id <= 230; id++) indexar(id, TipoUsuario.ENTREGADOR, "Silva " + id);
+
+        List<Long> todos = ids(indice.buscar("silva", null, null, 1_000));
+        List<Long> paginados = new ArrayList<>();
+        IndiceTrigramas.Chave apos = null;
+        List<IndiceTrigramas.Resultado> pagina;
+        do {
+            pagina = indice.buscar("silva", null, apos, 20);
+            paginados.addAll(ids(pagina));
+            if (!pagina.isEmpty()) apos = pagina.get(pagina.size() - 1).chave();
+        } while (pagina.size() == 20);
+
+        assertThat(todos).hasSize(230);
+        assertThat(paginados).isEqualTo(todos);
+    }
+
+    @Test
+    void buscar_DeveFiltrarPorTipo() {
+        indexar(1L, TipoUsuario.CLIENTE, "João Silva");
+        indexar(2L, TipoUsuario.LOJA, "Silva Materiais");
+        indexar(3L, TipoUsuario.ENTREGADOR, "Pedro Silva");
+
+        assertThat(ids(indice.buscar("silva", TipoUsuario.LOJA, null, 10))).containsExactly(2L);
+        assertThat(ids(indice.buscar("silva", null, null, 10))).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void indexar_DeveSubstituirVersaoAnteriorERemoverDeveTirarDoIndice() {
+        indexar(1L, TipoUsuario.CLIENTE, "João Silva");
+        indexar(1L, TipoUsuario.CLIENTE, "João Souza");
+
+        assertThat(indice.buscar("silva", null, null, 10)).isEmpty();
+        assertThat(indice.buscar("souza", null, null, 10))
+                .singleElement()
+                .satisfies(r -> assertThat(r.documento().nome()).isEqualTo("João Souza"));
+
+        assertThat(indice.remover(1L)).isTrue();
+        assertThat(indice.remover(1L)).isFalse();
+        assertThat(indice.buscar("souza", null, null, 10)).isEmpty();
+        assertThat(indice.tamanho()).isZero();
+    }
+
+    @Test
+    void remover_DeveCompactarSemPerderOsRestantes() {
+        for (long id = 1; id <= 5_000; id++) indexar(id, TipoUsuario.CLIENTE, (id % 2 == 0 ? "Ganso " : "Pato ") + id);
+        for (long id = 2; id <= 5_000; id += 2) indice.remover(id);
+        for (long id = 1; id <= 5_000; id += 10) indexar(id, TipoUsuario.CLIENTE, "Renomeado " + id);
+
+        assertThat(indice.tamanho()).isEqualTo(2_500);
+        assertThat(indice.buscar("ganso", null, null, 10_000)).isEmpty();
+        assertThat(indice.buscar("renomeado", null, null, 10_000)).hasSize(500);
+        assertThat(indice.buscar("pato", null, null, 10_000)).hasSize(2_000);
+    }
+
+    private void indexar(Long id, TipoUsuario tipo, String nome) {
+        indice.indexar(new IndiceTrigramas.Documento(id, tipo, nome, null), nome);
+    }
+
+    private static List<Long> ids(List<IndiceTrigramas.Resultado> resultados) {
+        return resultados.stream().map(r -> r.documento().id()).toList();
+    }
+
+    /**
+     * Todos os termos contidos no texto; termos de até 2 letras só como início de palavra
+     */
+    private static List<Long> exaustiva(List<IndiceTrigramas.Documento> documentos, String consulta,
+                                        TipoUsuario tipo, int limite) {
+        String normalizada = IndiceTrigramas.normalizar(consulta);
+        String[] termos = normalizada.split(" ");
+        return documentos.stream()
+                .filter(d -> tipo == null || d.tipo() == tipo)
+                .map(d -> {
+                    String texto = IndiceTrigramas.normalizar(d.nome());
+                    List<String> palavras = Arrays.asList(texto.split(" "));
+                    boolean contem = Arrays.stream(termos).allMatch(t -> t.length() >= 3
+                            ? texto.contains(t)
+                            : palavras.stream().anyMatch(p -> p.startsWith(t)));
+                    if (!contem) return null;
+                    boolean todosNoInicio = Arrays.stream(termos)
+                            .allMatch(t -> palavras.stream().anyMatch(p -> p.startsWith(t)));
+                    int nivel = texto.startsWith(normalizada) ? 0 : todosNoInicio ? 1 : 2;
+                    return new IndiceTrigramas.Chave(nivel, texto.length(), texto, d.id());
+                })
+                .filter(c -> c != null)
+                .sorted()
+                .limit(limite)
+                .map(IndiceTrigramas.Chave::id)
+                .toList();
+    }
+}
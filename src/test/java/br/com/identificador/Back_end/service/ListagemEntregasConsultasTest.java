@@ -0,0 +1,147 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.EntregaDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada página das listagens de entregas deve custar um único SELECT, sem carregar
+ * Entregador, Loja ou Cliente (nem a hierarquia de User) entrega a entrega.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EntregaService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ListagemEntregasConsultasTest {
+
+    private static final int ENTREGAS = 30;
+
+    @Autowired
+    private EntregaService entregaService;
+
+    @Autowired
+    private EntregaRepository entregaRepository;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Loja loja;
+    private Cliente cliente;
+    private Entregador entregador;
+
+    @BeforeEach
+    void setUp() {
+        entregaRepository.deleteAllInBatch();
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+
+        loja = lojaRepository.save(new Loja("Loja Exemplo", "loja@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000"));
+        entregador = entregadorRepository.save(new Entregador("Pedro Alves", "pedro@email.com", "11888888888",
+                "$2a$10$hash", "12345678901", "123456789", "12345678900"));
+
+        List<Entrega> entregas = new ArrayList<>();
+        for (int i = 0; i < ENTREGAS; i++) {
+            // Um cliente por entrega: com carga preguiçosa seriam 30 SELECTs só de clientes
+            Cliente dono = clienteRepository.save(new Cliente("Cliente " + i, "cliente" + i + "@email.com",
+                    "11999999999", "$2a$10$hash"));
+            if (i == 0) cliente = dono;
+            Entrega entrega = new Entrega(loja, dono, "Origem", "Destino " + i, "Produto", BigDecimal.TEN, 30);
+            entrega.setValorGorjeta(BigDecimal.ONE);
+            if (i % 2 == 0) {
+                entrega.setEntregador(entregador);
+                entrega.setStatusEntrega(StatusEntrega.COLETANDO);
+            }
+            entregas.add(entrega);
+        }
+        entregaRepository.saveAll(entregas);
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private PaginaCursorDTO<EntregaDTO> medir(Supplier<PaginaCursorDTO<EntregaDTO>> listagem) {
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+        PaginaCursorDTO<EntregaDTO> pagina = listagem.get();
+        assertThat(estatisticas.getPrepareStatementCount()).as("SELECTs por página").isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).as("entidades carregadas").isZero();
+        return pagina;
+    }
+
+    @Test
+    void buscarEntregasDaLoja_DeveUsarUmaConsultaPorPagina() {
+        PaginaCursorDTO<EntregaDTO> primeira = medir(() -> entregaService.buscarEntregasDaLoja(loja.getId(), null, 20));
+        PaginaCursorDTO<EntregaDTO> segunda = medir(() ->
+                entregaService.buscarEntregasDaLoja(loja.getId(), primeira.proximoCursor(), 20));
+
+        assertThat(primeira.itens()).hasSize(20);
+        assertThat(segunda.itens()).hasSize(ENTREGAS - 20);
+        assertThat(segunda.temMais()).isFalse();
+
+        EntregaDTO atribuida = primeira.itens().stream().filter(e -> e.entregadorId() != null).findFirst().orElseThrow();
+        assertThat(atribuida.nomeEntregador()).isEqualTo("Pedro Alves");
+        assertThat(atribuida.nomeLoja()).isEqualTo("Loja Exemplo");
+        assertThat(atribuida.nomeCliente()).startsWith("Cliente ");
+        assertThat(atribuida.valorTotal()).isEqualByComparingTo("11");
+    }
+
+    @Test
+    void buscarEntregasPendentes_DeveUsarUmaConsultaComEntregadorAusente() {
+        PaginaCursorDTO<EntregaDTO> pagina = medir(() -> entregaService.buscarEntregasPendentes(null, 50));
+
+        assertThat(pagina.itens()).hasSize(ENTREGAS / 2)
+                .allSatisfy(e -> {
+                    assertThat(e.entregadorId()).isNull();
+                    assertThat(e.nomeEntregador()).isNull();
+                });
+    }
+
+    @Test
+    void buscarEntregasDoEntregadorEDoCliente_DevemUsarUmaConsultaCada() {
+        assertThat(medir(() -> entregaService.buscarEntregasDoEntregador(entregador.getId(), null, 50)).itens())
+                .hasSize(ENTREGAS / 2);
+        assertThat(medir(() -> entregaService.buscarEntregasDoCliente(cliente.getId(), null, 50)).itens())
+                .singleElement()
+                .satisfies(e -> assertThat(e.nomeCliente()).isEqualTo("Cliente 0"));
+    }
+}
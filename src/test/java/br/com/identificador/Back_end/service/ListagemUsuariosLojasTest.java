@@ -0,0 +1,244 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.LojaResumoDTO;
+import br.com.identificador.Back_end.dto.PaginaCursorDTO;
+import br.com.identificador.Back_end.dto.UsuarioResumoDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Listagens de usuários e lojas: uma consulta por página, só com as colunas da projeção
+ * (sem entidades nem joins com as tabelas das outras subclasses), e exportação NDJSON por stream.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "br.com.identificador.Back_end.service.ListagemUsuariosLojasTest$CapturaSql"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserService.class, LojaService.class, ExportadorNdjson.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ListagemUsuariosLojasTest {
+
+    private static final String[] SUBCLASSES = {"clientes", "lojas", "entregadores"};
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private BuscaService buscaService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LojaService lojaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> ids = new ArrayList<>();
+    private final List<Long> idsLojas = new ArrayList<>();
+    private final List<String> emails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+
+        for (int i = 0; i < 7; i++) {
+            Cliente cliente = clienteRepository.save(new Cliente("Cliente " + i, "cliente" + (7 - i) + "@email.com",
+                    "11999999999", "$2a$10$hash"));
+            ids.add(cliente.getId());
+            emails.add(cliente.getEmail());
+
+            Loja loja = lojaRepository.save(new Loja("Loja " + i, "loja" + i + "@email.com", "11777777777",
+                    "$2a$10$hash", "1234567800012" + i, "Av. Principal, " + i));
+            ids.add(loja.getId());
+            idsLojas.add(loja.getId());
+            emails.add(loja.getEmail());
+        }
+        Entregador entregador = entregadorRepository.save(new Entregador("Pedro Alves", "pedro@email.com",
+                "11888888888", "$2a$10$hash", "12345678901", "123456789", "12345678900"));
+        ids.add(entregador.getId());
+        emails.add(entregador.getEmail());
+
+        ids.sort(null);
+        emails.sort(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private <T> PaginaCursorDTO<T> medir(Supplier<PaginaCursorDTO<T>> listagem, String... tabelasAusentes) {
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+        CapturaSql.SQL.clear();
+        PaginaCursorDTO<T> pagina = listagem.get();
+        assertThat(estatisticas.getPrepareStatementCount()).as("SELECTs por página").isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).as("entidades carregadas").isZero();
+        assertThat(CapturaSql.SQL).singleElement().asString().doesNotContain(tabelasAusentes);
+        return pagina;
+    }
+
+    @Test
+    void listarResumos_DevePercorrerTodosOsUsuariosPorCursor() {
+        List<Long> obtidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            String atual = cursor;
+            PaginaCursorDTO<UsuarioResumoDTO> pagina = medir(() -> userService.listarResumos(atual, 4), SUBCLASSES);
+            assertThat(pagina.itens()).hasSizeLessThanOrEqualTo(4);
+            pagina.itens().forEach(u -> obtidos.add(u.id()));
+            cursor = pagina.proximoCursor();
+            assertThat(pagina.temMais()).isEqualTo(cursor != null);
+        } while (cursor != null);
+
+        assertThat(obtidos).isEqualTo(ids);
+    }
+
+    @Test
+    void listarEmails_DeveSeguirOrdemAlfabetica() {
+        PaginaCursorDTO<String> primeira = medir(() -> userService.listarEmails(null, 10), SUBCLASSES);
+        PaginaCursorDTO<String> segunda = medir(() -> userService.listarEmails(primeira.proximoCursor(), 10), SUBCLASSES);
+
+        assertThat(primeira.temMais()).isTrue();
+        assertThat(segunda.temMais()).isFalse();
+        List<String> todos = new ArrayList<>(primeira.itens());
+        todos.addAll(segunda.itens());
+        assertThat(todos).isEqualTo(emails);
+        assertThat(userService.getAllEmails()).isEqualTo(emails);
+    }
+
+    @Test
+    void listarResumosDeLojas_DeveTrazerSoLojas() {
+        PaginaCursorDTO<LojaResumoDTO> pagina = medir(() -> lojaService.listarResumos(null, 50), "clientes", "entregadores");
+
+        assertThat(pagina.itens()).extracting(LojaResumoDTO::id).isEqualTo(idsLojas);
+        assertThat(pagina.itens().get(0).endereco()).isEqualTo("Av. Principal, 0");
+        assertThat(pagina.temMais()).isFalse();
+    }
+
+    @Test
+    void exportarResumos_DeveEscreverUmUsuarioPorLinha() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long total = userService.exportarResumos(saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(total).isEqualTo(ids.size());
+        assertThat(linhas).hasSize(ids.size() + 1);
+        assertThat(linhas[ids.size()]).isEmpty();
+        List<Long> exportados = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            JsonNode usuario = objectMapper.readTree(linhas[i]);
+            assertThat(usuario.has("senha")).isFalse();
+            exportados.add(usuario.get("id").asLong());
+        }
+        assertThat(exportados).isEqualTo(ids);
+    }
+
+    @Test
+    void exportarEmailsELojas_DevemEscreverNdjson() throws Exception {
+        ByteArrayOutputStream emailsExportados = new ByteArrayOutputStream();
+        ByteArrayOutputStream lojasExportadas = new ByteArrayOutputStream();
+
+        userService.exportarEmails(emailsExportados);
+        lojaService.exportarResumos(lojasExportadas);
+
+        List<String> lidos = new ArrayList<>();
+        for (String linha : emailsExportados.toString(StandardCharsets.UTF_8).split("\n"))
+            lidos.add(objectMapper.readValue(linha, String.class));
+        assertThat(lidos).isEqualTo(emails);
+        assertThat(lojasExportadas.toString(StandardCharsets.UTF_8).lines()
+                .map(linha -> readTree(linha).get("cnpj").asText()))
+                .hasSize(idsLojas.size())
+                .allMatch(cnpj -> cnpj.startsWith("1234567800012"));
+    }
+
+    @Test
+    void listarResumos_DeveRejeitarCursorInvalido() {
+        assertThatThrownBy(() -> userService.listarResumos("nao-e-cursor!", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userService.listarResumos("YWJj", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private JsonNode readTree(String linha) {
+        try {
+            return objectMapper.readTree(linha);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Guarda o SQL gerado para conferir que as projeções não fazem join com as subclasses
+     */
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
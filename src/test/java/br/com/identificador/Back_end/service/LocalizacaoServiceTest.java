@@ -0,0 +1,172 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.LotePosicoesDTO;
+import br.com.identificador.Back_end.dto.PosicaoDTO;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.model.PosicaoEntregador;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.PosicaoEntregadorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocalizacaoServiceTest {
+
+    @Mock
+    private PosicaoEntregadorRepository posicaoRepository;
+
+    @Mock
+    private RastreamentoService rastreamentoService;
+
+    @Mock
+    private IndiceGeografico indiceGeografico;
+
+    private LocalizacaoService localizacaoService;
+
+    @BeforeEach
+    void setUp() {
+        localizacaoService = new LocalizacaoService(posicaoRepository, rastreamentoService, indiceGeografico, new SimpleMeterRegistry(),
+                1 << 16, 15, 1000, 300);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PosicaoEntregador> gravadas() {
+        ArgumentCaptor<List<PosicaoEntregador>> lote = ArgumentCaptor.forClass(List.class);
+        verify(posicaoRepository, atLeast(0)).saveAll(lote.capture());
+        return lote.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @Test
+    void drenar_DeveGuardarUltimaPosicaoEAmostrarHistorico() {
+        long agora = System.currentTimeMillis() - 60_000;
+        // Um ping por segundo durante 40s: o histórico guarda um a cada 15s
+        for (int s = 0; s < 40; s++) localizacaoService.registrar(7L, -22.9 + s * 0.001, -43.1, agora + s * 1000L);
+
+        localizacaoService.drenar();
+
+        assertThat(gravadas()).hasSize(3)
+                .extracting(PosicaoEntregador::getEntregadorId).containsOnly(7L);
+        PosicaoDTO ultima = localizacaoService.buscarUltimaPosicao(7L).orElseThrow();
+        assertThat(ultima.latitude()).isEqualTo(-22.9 + 39 * 0.001);
+        // Só a posição mais nova do ciclo vai para o rastreamento
+        verify(rastreamentoService, times(1)).publicarPosicao(eq(7L), anyDouble(), anyDouble(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void drenar_NaoDeveRegredirUltimaPosicaoComPingAtrasado() {
+        long agora = System.currentTimeMillis();
+        localizacaoService.registrar(7L, 1.0, 1.0, agora);
+        localizacaoService.drenar();
+        localizacaoService.registrar(7L, 2.0, 2.0, agora - 5_000);
+        localizacaoService.drenar();
+
+        assertThat(localizacaoService.buscarUltimaPosicao(7L).orElseThrow().latitude()).isEqualTo(1.0);
+        verify(rastreamentoService, times(1)).publicarPosicao(eq(7L), anyDouble(), anyDouble(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void removerExpirados_DeveEsquecerAmostragemDeQuemParouDeEnviar() {
+        long antigo = System.currentTimeMillis() - 3_600_000;
+        localizacaoService.registrar(7L, 1.0, 1.0, antigo);
+        localizacaoService.drenar();
+
+        localizacaoService.removerExpirados();
+        // Dentro do intervalo do histórico, mas a amostragem anterior já expirou
+        localizacaoService.registrar(7L, 1.0, 1.0, antigo + 1000);
+        localizacaoService.drenar();
+
+        assertThat(gravadas()).hasSize(2);
+    }
+
+    @Test
+    void aoAlterarStatus_DeveEsquecerAmostragemQuandoEntregadorFicaOffline() {
+        long agora = System.currentTimeMillis();
+        localizacaoService.registrar(7L, 1.0, 1.0, agora);
+        localizacaoService.registrar(8L, 1.0, 1.0, agora);
+        localizacaoService.drenar();
+
+        localizacaoService.aoAlterarStatus(new EntregadorStatusAlteradoEvento(7L, StatusEntregador.OFFLINE));
+        localizacaoService.aoAlterarStatus(new EntregadorStatusAlteradoEvento(8L, StatusEntregador.PAUSADO));
+        localizacaoService.registrar(7L, 1.0, 1.0, agora + 1000);
+        localizacaoService.registrar(8L, 1.0, 1.0, agora + 1000);
+        localizacaoService.drenar();
+
+        assertThat(gravadas()).extracting(PosicaoEntregador::getEntregadorId).containsExactlyInAnyOrder(7L, 8L, 7L);
+    }
+
+    @Test
+    void registrar_DeveDescartarCoordenadasInvalidas() {
+        long agora = System.currentTimeMillis();
+
+        assertThat(localizacaoService.registrar(7L, 91.0, 0.0, agora)).isFalse();
+        assertThat(localizacaoService.registrar(7L, 0.0, Double.NaN, agora)).isFalse();
+        assertThat(localizacaoService.registrar(7L, 0.0, 0.0, agora + 3_600_000)).isFalse();
+        localizacaoService.drenar();
+
+        assertThat(localizacaoService.buscarUltimaPosicao(7L)).isEmpty();
+        verifyNoInteractions(posicaoRepository);
+    }
+
+    @Test
+    void registrarLote_DeveIgnorarPontosMalformadosELimitarTamanho() {
+        long agora = System.currentTimeMillis();
+        List<double[]> pontos = new ArrayList<>();
+        pontos.add(new double[]{-22.9, -43.1, agora - 2000});
+        pontos.add(new double[]{-22.9});
+        pontos.add(new double[]{-22.8, -43.2, agora - 1000});
+
+        assertThat(localizacaoService.registrarLote(new LotePosicoesDTO(7L, pontos))).isEqualTo(2);
+
+        List<double[]> grande = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) grande.add(new double[]{0, 0, agora});
+        assertThatThrownBy(() -> localizacaoService.registrarLote(new LotePosicoesDTO(7L, grande)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void registrar_DeveAmostrarHistoricoComVariosProdutoresConcorrentes() throws InterruptedException {
+        int produtores = 8;
+        int entregadores = 5_000;
+        int pingsPorProdutor = 50_000;
+        long base = System.currentTimeMillis() - 3_600_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+        for (int p = 0; p < produtores; p++) {
+            int produtor = p;
+            executor.submit(() -> {
+                for (int i = 0; i < pingsPorProdutor; i++) {
+                    long entregadorId = (produtor * (long) pingsPorProdutor + i) % entregadores;
+                    while (!localizacaoService.registrar(entregadorId, -22.9, -43.1, base + i)) Thread.onSpinWait();
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.awaitTermination(20, TimeUnit.MILLISECONDS)) localizacaoService.drenar();
+        localizacaoService.drenar();
+
+        assertThat(localizacaoService.buscarUltimaPosicao(entregadores - 1L)).isPresent();
+        // Amostragem: os pings cobrem 50s de relógio, no máximo 4 posições por entregador
+        assertThat(gravadas().size()).isLessThanOrEqualTo(entregadores * 4);
+        verify(rastreamentoService, atLeast(entregadores)).publicarPosicao(anyLong(), anyDouble(), anyDouble(), any());
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.LoteQRCodeDTO;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoteQRCodeServiceTest {
+
+    private EntregadorRepository entregadorRepository;
+    private LoteQRCodeService loteQRCodeService;
+
+    @BeforeEach
+    void setUp() {
+        entregadorRepository = mock(EntregadorRepository.class);
+        loteQRCodeService = new LoteQRCodeService(entregadorRepository,
+                new QRCodeService(1024 * 1024, new SimpleMeterRegistry()), 4, 8, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loteQRCodeService.shutdown();
+    }
+
+    private EntregadorRepository.QrCodeEntregador qrCode(Long id, String uuid) {
+        return new EntregadorRepository.QrCodeEntregador() {
+            public Long getId() { return id; }
+            public String getQrCodeUuid() { return uuid; }
+        };
+    }
+
+    @Test
+    void escreverZip_DeveGravarImagensNaOrdemPedida() throws Exception {
+        when(entregadorRepository.buscarQrCodes(any())).thenReturn(List.of(qrCode(2L, "uuid-2"), qrCode(1L, "uuid-1")));
+        List<String> textos = IntStream.range(0, 50).mapToObj(i -> "texto-" + i).toList();
+
+        List<LoteQRCodeService.ItemLote> itens = loteQRCodeService.prepararLote(
+                new LoteQRCodeDTO(List.of(1L, 2L), textos, null, null, null));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        loteQRCodeService.escreverZip(itens, saida);
+
+        List<String> nomes = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                nomes.add(entrada.getName());
+                assertThat(zip.readAllBytes()).startsWith((byte) 0x89, (byte) 'P', (byte) 'N', (byte) 'G');
+            }
+        }
+        assertThat(nomes).hasSize(52);
+        assertThat(nomes).startsWith("entregador-1.png", "entregador-2.png", "qrcode-00001.png");
+        assertThat(nomes.get(51)).isEqualTo("qrcode-00050.png");
+    }
+
+    @Test
+    void escreverZip_DeveComprimirSvg() throws Exception {
+        List<LoteQRCodeService.ItemLote> itens = loteQRCodeService.prepararLote(
+                new LoteQRCodeDTO(null, List.of("texto-1", "texto-2"), null, null, "svg"));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        loteQRCodeService.escreverZip(itens, saida);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                assertThat(entrada.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+                assertThat(new String(zip.readAllBytes(), StandardCharsets.UTF_8)).startsWith("<svg");
+            }
+        }
+    }
+
+    @Test
+    void prepararLote_DeveRejeitarTextoQueNaoCabeNoQrCode() {
+        List<String> textos = List.of("texto-1", "x".repeat(3000));
+
+        assertThatThrownBy(() -> loteQRCodeService.prepararLote(new LoteQRCodeDTO(null, textos, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("posição 1");
+    }
+
+    @Test
+    void prepararLote_DeveAceitarTextoNumericoAcimaDaCapacidadeEmModoByte() {
+        List<LoteQRCodeService.ItemLote> itens = loteQRCodeService.prepararLote(
+                new LoteQRCodeDTO(null, List.of("1".repeat(5000)), null, null, null));
+
+        assertThat(itens).hasSize(1);
+    }
+
+    @Test
+    void prepararLote_DeveRejeitarEntregadoresInexistentes() {
+        when(entregadorRepository.buscarQrCodes(any())).thenReturn(List.of(qrCode(1L, "uuid-1")));
+
+        assertThatThrownBy(() -> loteQRCodeService.prepararLote(new LoteQRCodeDTO(List.of(1L, 9L), null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("[9]");
+    }
+
+    @Test
+    void prepararLote_DeveRejeitarLoteVazio() {
+        assertThatThrownBy(() -> loteQRCodeService.prepararLote(new LoteQRCodeDTO(null, List.of(), null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(entregadorRepository);
+    }
+}
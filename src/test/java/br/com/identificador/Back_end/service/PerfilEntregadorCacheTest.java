@@ -0,0 +1,204 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.PerfilDTO;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.evento.QrCodeRegeneradoEvento;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfilEntregadorCacheTest {
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private SimpleMeterRegistry registry;
+
+    private final AtomicInteger consultasBanco = new AtomicInteger();
+    private PerfilDTO perfil = novoPerfil("uuid-1", StatusEntregador.DISPONIVEL);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer(0).start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()),
+                LettuceClientConfiguration.builder()
+                        .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        if (redisServer != null) redisServer.stop();
+    }
+
+    private PerfilEntregadorCache novoCache() {
+        return new PerfilEntregadorCache(redis, new ObjectMapper(), registry, 60, 100, 600, 30_000);
+    }
+
+    private static PerfilDTO novoPerfil(String qrCodeUuid, StatusEntregador status) {
+        return new PerfilDTO(1L, "Maria Entregadora", "maria@email.com", "11888888888", status,
+                Set.of(Aplicativo.IFOOD), 4.8, 10, qrCodeUuid);
+    }
+
+    private Optional<PerfilDTO> banco(Object chave) {
+        consultasBanco.incrementAndGet();
+        return Optional.of(perfil);
+    }
+
+    @Test
+    void buscarPorId_DeveServirDaMemoriaEDepoisDoRedisEmOutraInstancia() {
+        PerfilEntregadorCache instanciaA = novoCache();
+        PerfilEntregadorCache instanciaB = novoCache();
+
+        assertThat(instanciaA.buscarPorId(1L, this::banco)).contains(perfil);
+        assertThat(instanciaA.buscarPorId(1L, this::banco)).contains(perfil);
+        assertThat(instanciaB.buscarPorId(1L, this::banco)).contains(perfil);
+
+        assertThat(consultasBanco).hasValue(1);
+        assertThat(registry.get("entregador.perfil.redis").tag("resultado", "acerto").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "entregador.perfil.proximo").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void buscarPorQrCode_DeveUsarPonteiroDoRedisEInvalidarAoRegenerar() {
+        PerfilEntregadorCache instanciaA = novoCache();
+        instanciaA.buscarPorQrCode("uuid-1", this::banco);
+
+        assertThat(novoCache().buscarPorQrCode("uuid-1", this::banco)).contains(perfil);
+        assertThat(consultasBanco).hasValue(1);
+
+        perfil = novoPerfil("uuid-2", StatusEntregador.DISPONIVEL);
+        instanciaA.aoRegenerarQrCode(new QrCodeRegeneradoEvento(1L, "uuid-1", "uuid-2"));
+
+        assertThat(redis.hasKey("entregador:qr:uuid-1")).isFalse();
+        assertThat(instanciaA.buscarPorQrCode("uuid-2", this::banco)).contains(perfil);
+        assertThat(consultasBanco).hasValue(2);
+    }
+
+    @Test
+    void aoAlterarStatus_DeveInvalidarOsDoisNiveis() {
+        PerfilEntregadorCache cache = novoCache();
+        cache.buscarPorId(1L, this::banco);
+
+        perfil = novoPerfil("uuid-1", StatusEntregador.OFFLINE);
+        cache.aoAlterarStatus(new EntregadorStatusAlteradoEvento(1L, StatusEntregador.OFFLINE));
+
+        assertThat(cache.buscarPorId(1L, this::banco)).get().extracting(PerfilDTO::status).isEqualTo(StatusEntregador.OFFLINE);
+        assertThat(consultasBanco).hasValue(2);
+    }
+
+    @Test
+    void buscarPorId_BuscasSimultaneasDevemConsultarOBancoUmaVez() throws Exception {
+        PerfilEntregadorCache cache = novoCache();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Optional<PerfilDTO>>> buscas = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                buscas.add(executor.submit(() -> {
+                    largada.await();
+                    return cache.buscarPorId(1L, id -> {
+                        sleep(100);
+                        return banco(id);
+                    });
+                }));
+                buscas.add(executor.submit(() -> {
+                    largada.await();
+                    return cache.buscarPorQrCode("uuid-1", uuid -> {
+                        sleep(100);
+                        return banco(uuid);
+                    });
+                }));
+            }
+            largada.countDown();
+            for (Future<Optional<PerfilDTO>> busca : buscas) assertThat(busca.get()).contains(perfil);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // No máximo uma carga por id e uma por QR Code, não uma por busca
+        assertThat(consultasBanco.get()).isBetween(1, 2);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void buscarPorId_NaoDeveGravarPerfilLidoAntesDeUmaInvalidacao() throws Exception {
+        PerfilEntregadorCache cache = novoCache();
+        PerfilEntregadorCache outraInstancia = novoCache();
+        PerfilDTO antigo = perfil;
+
+        // Leitura do banco que começa antes do commit e termina depois da invalidação
+        Thread commit = new Thread(() -> cache.aoAlterarStatus(new EntregadorStatusAlteradoEvento(1L, StatusEntregador.OFFLINE)));
+        assertThat(cache.buscarPorId(1L, id -> {
+            consultasBanco.incrementAndGet();
+            perfil = novoPerfil("uuid-1", StatusEntregador.OFFLINE);
+            commit.start();
+            // A invalidação fica à espera da carga em andamento para a mesma chave
+            while (commit.getState() != Thread.State.BLOCKED && commit.getState() != Thread.State.WAITING
+                    && commit.isAlive()) Thread.onSpinWait();
+            return Optional.of(antigo);
+        })).contains(antigo);
+        commit.join();
+        assertThat(redis.hasKey("entregador:perfil:1")).isFalse();
+        assertThat(cache.buscarPorId(1L, this::banco)).get().extracting(PerfilDTO::status).isEqualTo(StatusEntregador.OFFLINE);
+        assertThat(consultasBanco).hasValue(2);
+
+        // Invalidação vinda de outra instância: o Redis recusa a gravação atrasada
+        PerfilDTO lidoAntes = perfil;
+        redis.delete("entregador:perfil:1");
+        outraInstancia.buscarPorId(1L, id -> {
+            perfil = novoPerfil("uuid-1", StatusEntregador.DISPONIVEL);
+            cache.invalidar(1L);
+            return Optional.of(lidoAntes);
+        });
+        assertThat(redis.hasKey("entregador:perfil:1")).isFalse();
+    }
+
+    @Test
+    void buscarPorId_DeveCairParaOBancoQuandoRedisEstaFora() throws Exception {
+        PerfilEntregadorCache cache = novoCache();
+        redisServer.stop();
+        redisServer = null;
+
+        assertThat(cache.buscarPorId(1L, this::banco)).contains(perfil);
+        assertThat(consultasBanco).hasValue(1);
+        assertThat(registry.get("entregador.perfil.redis").tag("resultado", "erro").counter().count()).isGreaterThanOrEqualTo(1.0);
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.evento.QrCodeRegeneradoEvento;
+import br.com.identificador.Back_end.model.QRCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QRCodeServiceTest {
+
+    private static final String UUID_ANTIGO = "550e8400-e29b-41d4-a716-446655440000";
+
+    private SimpleMeterRegistry registry;
+    private QRCodeService qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        qrCodeService = new QRCodeService(1024 * 1024, registry);
+    }
+
+    @Test
+    void renderizar_DeveReaproveitarImagemParaMesmosParametros() throws Exception {
+        QRCodeService.ImagemQRCode primeira = qrCodeService.renderizar(new QRCode(UUID_ANTIGO));
+        QRCodeService.ImagemQRCode segunda = qrCodeService.renderizar(new QRCode(UUID_ANTIGO, 300, 300, "png"));
+
+        assertThat(segunda).isSameAs(primeira);
+        assertThat(registry.get("cache.gets").tag("cache", "qrcode.imagens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void renderizar_PedidosSimultaneosDevemCodificarUmaVez() throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<QRCodeService.ImagemQRCode>> pedidos = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                pedidos.add(executor.submit(() -> {
+                    largada.await();
+                    return qrCodeService.renderizar(new QRCode(UUID_ANTIGO, 600, 600, "PNG"));
+                }));
+            }
+            largada.countDown();
+            QRCodeService.ImagemQRCode primeira = pedidos.get(0).get();
+            for (Future<QRCodeService.ImagemQRCode> pedido : pedidos) assertThat(pedido.get()).isSameAs(primeira);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(registry.get("cache.gets").tag("cache", "qrcode.imagens").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void etag_DeveSerEstavelEVariarComOsParametros() {
+        String etag = qrCodeService.etag(new QRCode(UUID_ANTIGO));
+
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(qrCodeService.etag(new QRCode(UUID_ANTIGO))).isEqualTo(etag);
+        assertThat(qrCodeService.etag(new QRCode(UUID_ANTIGO, 400, 400, "PNG"))).isNotEqualTo(etag);
+    }
+
+    @Test
+    void aoRegenerarQrCode_DeveDescartarImagensDoUuidAntigo() throws Exception {
+        QRCodeService.ImagemQRCode antiga = qrCodeService.renderizar(
+                new QRCode("https://identificador.com.br/entregador/" + UUID_ANTIGO, 300, 300, "PNG"));
+        QRCodeService.ImagemQRCode emMaiusculas = qrCodeService.renderizar(new QRCode(UUID_ANTIGO.toUpperCase(), 200, 200, "SVG"));
+        QRCodeService.ImagemQRCode outra = qrCodeService.renderizar(new QRCode("outro-texto"));
+
+        qrCodeService.aoRegenerarQrCode(new QrCodeRegeneradoEvento(1L, UUID_ANTIGO, "novo-uuid"));
+
+        assertThat(qrCodeService.renderizar(new QRCode("https://identificador.com.br/entregador/" + UUID_ANTIGO, 300, 300, "PNG")))
+                .isNotSameAs(antiga);
+        assertThat(qrCodeService.renderizar(new QRCode(UUID_ANTIGO.toUpperCase(), 200, 200, "SVG"))).isNotSameAs(emMaiusculas);
+        assertThat(qrCodeService.renderizar(new QRCode("outro-texto"))).isSameAs(outra);
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.identificador.Back_end.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RasterizadorQRCodeTest {
+
+    private static final String TEXTO = "https://identificador.com.br/entregador/550e8400-e29b-41d4-a716-446655440000";
+
+    @ParameterizedTest
+    @CsvSource({"300,300", "250,400", "20,20", "1000,1000", "301,299"})
+    void png_DeveGerarMesmosPixelsQueMatrixToImageWriter(int largura, int altura) throws Exception {
+        BitMatrix referencia = new QRCodeWriter().encode(TEXTO, BarcodeFormat.QR_CODE, largura, altura);
+        BufferedImage esperada = MatrixToImageWriter.toBufferedImage(referencia);
+
+        BufferedImage gerada = ImageIO.read(new ByteArrayInputStream(
+                RasterizadorQRCode.png(RasterizadorQRCode.modulos(TEXTO), largura, altura)));
+
+        assertThat(gerada.getWidth()).isEqualTo(esperada.getWidth());
+        assertThat(gerada.getHeight()).isEqualTo(esperada.getHeight());
+        for (int y = 0; y < esperada.getHeight(); y++)
+            for (int x = 0; x < esperada.getWidth(); x++)
+                assertThat(gerada.getRGB(x, y) & 0xFFFFFF).as("pixel %d,%d", x, y)
+                        .isEqualTo(esperada.getRGB(x, y) & 0xFFFFFF);
+    }
+
+    @Test
+    void png_DeveSerLegivelPorLeitorDeQrCode() throws Exception {
+        BufferedImage imagem = ImageIO.read(new ByteArrayInputStream(
+                RasterizadorQRCode.png(RasterizadorQRCode.modulos(TEXTO), 300, 300)));
+
+        String lido = new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(
+                new BufferedImageLuminanceSource(imagem)))).getText();
+
+        assertThat(lido).isEqualTo(TEXTO);
+    }
+
+    @Test
+    void png_DeveGerarMesmaImagemDepoisDeDescartarBuffersDeImagemGrande() throws Exception {
+        byte[] antes = RasterizadorQRCode.png(RasterizadorQRCode.modulos(TEXTO), 300, 300);
+
+        // 3000x3000 passa do limite de reuso: os buffers da thread são descartados no fim
+        RasterizadorQRCode.png(RasterizadorQRCode.modulos(TEXTO), 3000, 3000);
+
+        assertThat(RasterizadorQRCode.png(RasterizadorQRCode.modulos(TEXTO), 300, 300)).isEqualTo(antes);
+    }
+
+    @Test
+    void svg_DeveDescreverModulosNaEscalaDaGrade() throws Exception {
+        String svg = new String(RasterizadorQRCode.svg(RasterizadorQRCode.modulos(TEXTO), 300, 300), StandardCharsets.UTF_8);
+
+        assertThat(svg).startsWith("<svg").endsWith("</svg>")
+                .contains("width=\"300\"")
+                .contains("viewBox=\"0 0 41 41\"")
+                .contains("M4 4h7v1h-7z");
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.RastreamentoEntregaDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.model.enuns.TipoRastreamento;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Do aceite à primeira posição: o evento publicado no commit do aceite põe a entrega no
+ * rastreamento e a posição seguinte do entregador chega a quem acompanha a entrega
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EntregaService.class, RastreamentoService.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RastreamentoAceitacaoTest {
+
+    @Autowired
+    private EntregaService entregaService;
+
+    @Autowired
+    private RastreamentoService rastreamentoService;
+
+    @Autowired
+    private EntregaRepository entregaRepository;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @MockBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private Long entregaId;
+    private Long entregadorId;
+    private Long clienteId;
+
+    @BeforeEach
+    void setUp() {
+        Loja loja = lojaRepository.save(new Loja("Loja Exemplo", "loja@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000"));
+        Cliente cliente = clienteRepository.save(new Cliente("João Cliente", "cliente@email.com", "11999999999",
+                "$2a$10$hash"));
+        clienteId = cliente.getId();
+        Entregador entregador = new Entregador("Maria Entregadora", "entregador@email.com", "11888888888",
+                "$2a$10$hash", "98765432100", "123456789", "12345678901");
+        entregador.setStatus(StatusEntregador.DISPONIVEL);
+        entregadorId = entregadorRepository.save(entregador).getId();
+        entregaId = entregaRepository.save(new Entrega(loja, cliente, "Origem", "Destino", "Produto",
+                BigDecimal.TEN, 30)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregaRepository.deleteAll();
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    @Test
+    void aceitarEntrega_PosicaoSeguinteDeveChegarAoTopicoDaEntrega() {
+        assertThat(rastreamentoService.publicarPosicao(entregadorId, -22.9068, -43.1729, LocalDateTime.now())).isFalse();
+
+        entregaService.aceitarEntrega(entregaId, entregadorId);
+        clearInvocations(messagingTemplate);
+
+        assertThat(rastreamentoService.publicarPosicao(entregadorId, -22.9068, -43.1729, LocalDateTime.now())).isTrue();
+        ArgumentCaptor<RastreamentoEntregaDTO> mensagem = ArgumentCaptor.forClass(RastreamentoEntregaDTO.class);
+        verify(messagingTemplate).convertAndSend(eq("/topico/entregas/" + entregaId), mensagem.capture());
+        assertThat(mensagem.getValue().tipo()).isEqualTo(TipoRastreamento.LOCALIZACAO);
+        assertThat(mensagem.getValue().entregadorId()).isEqualTo(entregadorId);
+    }
+
+    @Test
+    void carregar_DeveRecuperarDoBancoSoAsEntregasEmAndamento() {
+        entregaService.aceitarEntrega(entregaId, entregadorId);
+        RastreamentoService aposReinicio = new RastreamentoService(entregaRepository, messagingTemplate);
+
+        aposReinicio.carregar();
+
+        assertThat(entregaRepository.buscarRotasEmAndamento()).singleElement()
+                .extracting(EntregaRepository.RotaEntrega::getId).isEqualTo(entregaId);
+        assertThat(aposReinicio.publicarPosicao(entregadorId, -22.9068, -43.1729, LocalDateTime.now())).isTrue();
+    }
+
+    @Test
+    void podeAcompanhar_DeveConsultarParticipantesDeEntregaAindaSemEntregador() {
+        assertThat(rastreamentoService.podeAcompanhar(clienteId, entregaId)).isTrue();
+        assertThat(rastreamentoService.podeAcompanhar(entregadorId, entregaId)).isFalse();
+
+        entregaService.aceitarEntrega(entregaId, entregadorId);
+        assertThat(rastreamentoService.podeAcompanhar(entregadorId, entregaId)).isTrue();
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.RastreamentoEntregaDTO;
+import br.com.identificador.Back_end.evento.EntregaAtualizadaEvento;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.TipoRastreamento;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RastreamentoServiceTest {
+
+    @Mock
+    private EntregaRepository entregaRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private RastreamentoService rastreamentoService;
+
+    @Test
+    void aoAtualizarEntrega_DeveEnviarStatusParaTopicoEFilasDosParticipantes() {
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.COLETANDO,
+                StatusEntrega.A_CAMINHO_ENTREGA, 7L, 10L, 20L));
+
+        ArgumentCaptor<RastreamentoEntregaDTO> mensagem = ArgumentCaptor.forClass(RastreamentoEntregaDTO.class);
+        verify(messagingTemplate).convertAndSend(eq("/topico/entregas/5"), mensagem.capture());
+        verify(messagingTemplate).convertAndSendToUser(eq("10"), eq("/fila/entregas"), any(RastreamentoEntregaDTO.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("20"), eq("/fila/entregas"), any(RastreamentoEntregaDTO.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/fila/entregas"), any(RastreamentoEntregaDTO.class));
+        assertThat(mensagem.getValue().tipo()).isEqualTo(TipoRastreamento.STATUS);
+        assertThat(mensagem.getValue().status()).isEqualTo(StatusEntrega.A_CAMINHO_ENTREGA);
+    }
+
+    @Test
+    void publicarPosicao_DeveRepassarParaEntregaEmAndamentoDoEntregador() {
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.A_CAMINHO_COLETA,
+                StatusEntrega.COLETANDO, 7L, 10L, 20L));
+        clearInvocations(messagingTemplate);
+
+        boolean enviada = rastreamentoService.publicarPosicao(7L, -22.9068, -43.1729, LocalDateTime.now());
+
+        ArgumentCaptor<RastreamentoEntregaDTO> mensagem = ArgumentCaptor.forClass(RastreamentoEntregaDTO.class);
+        assertThat(enviada).isTrue();
+        verify(messagingTemplate).convertAndSend(eq("/topico/entregas/5"), mensagem.capture());
+        verify(messagingTemplate).convertAndSendToUser(eq("20"), eq("/fila/entregas"), any(RastreamentoEntregaDTO.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("7"), eq("/fila/entregas"), any(RastreamentoEntregaDTO.class));
+        assertThat(mensagem.getValue().tipo()).isEqualTo(TipoRastreamento.LOCALIZACAO);
+        assertThat(mensagem.getValue().latitude()).isEqualTo(-22.9068);
+        verifyNoInteractions(entregaRepository);
+    }
+
+    @Test
+    void publicarPosicao_DeveIgnorarEntregaForaDeAndamentoMesmoComEntregador() {
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, null,
+                StatusEntrega.A_CAMINHO_COLETA, 7L, 10L, 20L));
+
+        assertThat(rastreamentoService.publicarPosicao(7L, -22.9068, -43.1729, LocalDateTime.now())).isFalse();
+        assertThat(rastreamentoService.acompanhaEntregador(20L, 7L)).isFalse();
+    }
+
+    @Test
+    void publicarPosicao_DeveIgnorarEntregadorSemEntregaEmAndamento() {
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.A_CAMINHO_COLETA,
+                StatusEntrega.COLETANDO, 7L, 10L, 20L));
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.CHEGOU_DESTINO,
+                StatusEntrega.ENTREGUE, 7L, 10L, 20L));
+        clearInvocations(messagingTemplate);
+
+        assertThat(rastreamentoService.publicarPosicao(7L, 0.0, 0.0, LocalDateTime.now())).isFalse();
+        assertThat(rastreamentoService.publicarPosicao(8L, 0.0, 0.0, LocalDateTime.now())).isFalse();
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void acompanhaEntregador_DeveValerSoParaLojaEClienteDaEntregaEmAndamento() {
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.A_CAMINHO_COLETA,
+                StatusEntrega.COLETANDO, 7L, 10L, 20L));
+
+        assertThat(rastreamentoService.acompanhaEntregador(10L, 7L)).isTrue();
+        assertThat(rastreamentoService.acompanhaEntregador(20L, 7L)).isTrue();
+        assertThat(rastreamentoService.acompanhaEntregador(21L, 7L)).isFalse();
+        assertThat(rastreamentoService.acompanhaEntregador(null, 7L)).isFalse();
+
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.CHEGOU_DESTINO,
+                StatusEntrega.ENTREGUE, 7L, 10L, 20L));
+        assertThat(rastreamentoService.acompanhaEntregador(20L, 7L)).isFalse();
+    }
+
+    @Test
+    void podeAcompanhar_DeveAceitarSoParticipantesDaEntrega() {
+        rastreamentoService.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.A_CAMINHO_COLETA,
+                StatusEntrega.COLETANDO, 7L, 10L, 20L));
+
+        assertThat(rastreamentoService.podeAcompanhar(7L, 5L)).isTrue();
+        assertThat(rastreamentoService.podeAcompanhar(10L, 5L)).isTrue();
+        assertThat(rastreamentoService.podeAcompanhar(20L, 5L)).isTrue();
+        assertThat(rastreamentoService.podeAcompanhar(21L, 5L)).isFalse();
+        // Entrega em andamento responde da memória
+        verifyNoInteractions(entregaRepository);
+    }
+
+    @Test
+    void podeAcompanhar_DeveConsultarBancoParaEntregaForaDoRastreamento() {
+        EntregaRepository.RotaEntrega rota = mock(EntregaRepository.RotaEntrega.class);
+        when(rota.getLojaId()).thenReturn(10L);
+        when(rota.getClienteId()).thenReturn(20L);
+        when(entregaRepository.buscarRota(6L)).thenReturn(Optional.of(rota));
+
+        assertThat(rastreamentoService.podeAcompanhar(20L, 6L)).isTrue();
+        assertThat(rastreamentoService.podeAcompanhar(21L, 6L)).isFalse();
+        assertThat(rastreamentoService.podeAcompanhar(20L, 99L)).isFalse();
+    }
+
+    @Test
+    void carregar_DeveRecuperarEntregasEmAndamentoAposReinicio() {
+        EntregaRepository.RotaEntrega rota = mock(EntregaRepository.RotaEntrega.class);
+        when(rota.getId()).thenReturn(5L);
+        when(rota.getStatus()).thenReturn(StatusEntrega.A_CAMINHO_ENTREGA);
+        when(rota.getEntregadorId()).thenReturn(7L);
+        when(rota.getLojaId()).thenReturn(10L);
+        when(rota.getClienteId()).thenReturn(20L);
+        when(entregaRepository.buscarRotasEmAndamento()).thenReturn(List.of(rota));
+
+        rastreamentoService.carregar();
+
+        assertThat(rastreamentoService.publicarPosicao(7L, 1.0, 2.0, LocalDateTime.now())).isTrue();
+        verify(messagingTemplate).convertAndSend(eq("/topico/entregas/5"), any(RastreamentoEntregaDTO.class));
+    }
+}
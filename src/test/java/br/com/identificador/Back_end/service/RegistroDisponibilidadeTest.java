@@ -0,0 +1,203 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.evento.EntregaAtualizadaEvento;
+import br.com.identificador.Back_end.evento.EntregadorStatusAlteradoEvento;
+import br.com.identificador.Back_end.evento.EntregadoresRemovidosEvento;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.enuns.Aplicativo;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistroDisponibilidadeTest {
+
+    @Mock
+    private EntregadorRepository entregadorRepository;
+
+    private RegistroDisponibilidade registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RegistroDisponibilidade(entregadorRepository, new SimpleMeterRegistry(), 1024);
+    }
+
+    private static RegistroDisponibilidade.Situacao situacao(long id, StatusEntregador status, Aplicativo... aplicativos) {
+        return new RegistroDisponibilidade.Situacao(id, "Entregador " + id, status, Set.of(aplicativos), 4.5, 10, 10);
+    }
+
+    private static EntregadorRepository.SituacaoEntregador linha(long id, StatusEntregador status, Aplicativo... aplicativos) {
+        EntregadorRepository.SituacaoEntregador linha = mock(EntregadorRepository.SituacaoEntregador.class);
+        when(linha.getId()).thenReturn(id);
+        when(linha.getNome()).thenReturn("Entregador " + id);
+        when(linha.getStatus()).thenReturn(status);
+        when(linha.getAplicativos()).thenReturn(Set.of(aplicativos));
+        return linha;
+    }
+
+    @Test
+    void reconciliar_DeveCarregarSituacoesDoBanco() {
+        List<EntregadorRepository.SituacaoEntregador> linhas = List.of(
+                linha(1L, StatusEntregador.DISPONIVEL, Aplicativo.IFOOD), linha(2L, StatusEntregador.OFFLINE),
+                linha(3L, StatusEntregador.DISPONIVEL, Aplicativo.RAPPI, Aplicativo.IFOOD));
+        when(entregadorRepository.buscarSituacoes()).thenReturn(linhas);
+
+        registro.reconciliar();
+
+        assertThat(registro.isPronto()).isTrue();
+        assertThat(registro.contar(StatusEntregador.DISPONIVEL)).isEqualTo(2);
+        assertThat(registro.contar(StatusEntregador.OFFLINE)).isEqualTo(1);
+        assertThat(registro.buscar(StatusEntregador.DISPONIVEL, Aplicativo.RAPPI))
+                .extracting(RegistroDisponibilidade.Situacao::id)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void reconciliar_NaoDeveSobrescreverAlteracoesFeitasDuranteALeitura() {
+        registro.atualizar(situacao(1L, StatusEntregador.DISPONIVEL, Aplicativo.IFOOD));
+        registro.atualizar(situacao(2L, StatusEntregador.DISPONIVEL));
+        List<EntregadorRepository.SituacaoEntregador> linhas = List.of(
+                linha(1L, StatusEntregador.DISPONIVEL, Aplicativo.IFOOD), linha(2L, StatusEntregador.DISPONIVEL),
+                linha(3L, StatusEntregador.OFFLINE));
+        // Eventos que chegam enquanto a consulta da reconciliação está em andamento
+        when(entregadorRepository.buscarSituacoes()).thenAnswer(inv -> {
+            registro.aoAlterarStatus(new EntregadorStatusAlteradoEvento(1L, StatusEntregador.PAUSADO));
+            registro.aoRemoverEmLote(new EntregadoresRemovidosEvento(List.of(2L)));
+            registro.atualizar(situacao(4L, StatusEntregador.DISPONIVEL));
+            return linhas;
+        });
+
+        registro.reconciliar();
+
+        assertThat(registro.buscar(1L).status()).isEqualTo(StatusEntregador.PAUSADO);
+        assertThat(registro.buscar(2L)).isNull();
+        assertThat(registro.buscar(3L).status()).isEqualTo(StatusEntregador.OFFLINE);
+        assertThat(registro.buscar(4L)).isNotNull();
+        assertThat(registro.contar(StatusEntregador.DISPONIVEL)).isEqualTo(1);
+
+        // Na passada seguinte o banco volta a valer
+        when(entregadorRepository.buscarSituacoes()).thenReturn(linhas);
+        registro.reconciliar();
+
+        assertThat(registro.buscar(1L).status()).isEqualTo(StatusEntregador.DISPONIVEL);
+        assertThat(registro.buscar(2L)).isNotNull();
+        assertThat(registro.buscar(4L)).isNull();
+    }
+
+    @Test
+    void aoAlterarStatus_DeveMoverEntregadorEntreStatus() {
+        registro.atualizar(situacao(1L, StatusEntregador.DISPONIVEL, Aplicativo.IFOOD));
+        registro.atualizar(situacao(2L, StatusEntregador.DISPONIVEL, Aplicativo.IFOOD));
+
+        registro.aoAlterarStatus(new EntregadorStatusAlteradoEvento(1L, StatusEntregador.PAUSADO));
+
+        assertThat(registro.buscar(StatusEntregador.DISPONIVEL, Aplicativo.IFOOD))
+                .extracting(RegistroDisponibilidade.Situacao::id)
+                .containsExactly(2L);
+        assertThat(registro.buscar(StatusEntregador.PAUSADO, null))
+                .extracting(RegistroDisponibilidade.Situacao::id)
+                .containsExactly(1L);
+        assertThat(registro.contar(StatusEntregador.DISPONIVEL)).isEqualTo(1);
+        verifyNoInteractions(entregadorRepository);
+    }
+
+    @Test
+    void aoAtualizarEntrega_DeveRecarregarEntregadorLiberado() {
+        registro.atualizar(situacao(1L, StatusEntregador.EM_ROTA, Aplicativo.IFOOD));
+        Entregador entregador = new Entregador("Entregador 1", "e1@email.com", "11888888888",
+                "senha123", "cpf1", "rg1", "cnh1");
+        entregador.setId(1L);
+        entregador.setStatus(StatusEntregador.DISPONIVEL);
+        entregador.setTotalEntregas(11);
+        entregador.setAplicativos(Set.of(Aplicativo.IFOOD));
+        when(entregadorRepository.findById(1L)).thenReturn(Optional.of(entregador));
+
+        registro.aoAtualizarEntrega(new EntregaAtualizadaEvento(5L, StatusEntrega.CHEGOU_DESTINO,
+                StatusEntrega.ENTREGUE, 1L, 10L, 20L));
+
+        assertThat(registro.buscar(1L).status()).isEqualTo(StatusEntregador.DISPONIVEL);
+        assertThat(registro.buscar(1L).totalEntregas()).isEqualTo(11);
+        assertThat(registro.contar(StatusEntregador.EM_ROTA)).isZero();
+    }
+
+    @Test
+    void remover_DeveLiberarPosicaoParaReuso() {
+        registro.atualizar(situacao(1L, StatusEntregador.DISPONIVEL, Aplicativo.IFOOD));
+        when(entregadorRepository.findById(1L)).thenReturn(Optional.empty());
+
+        registro.recarregar(1L);
+        registro.atualizar(situacao(2L, StatusEntregador.OFFLINE, Aplicativo.RAPPI));
+
+        assertThat(registro.buscar(1L)).isNull();
+        assertThat(registro.buscar(StatusEntregador.DISPONIVEL, null)).isEmpty();
+        assertThat(registro.buscar(StatusEntregador.OFFLINE, Aplicativo.IFOOD)).isEmpty();
+        assertThat(registro.buscar(StatusEntregador.OFFLINE, Aplicativo.RAPPI)).hasSize(1);
+    }
+
+    @Test
+    void melhoresAvaliados_DeveAcompanharMudancasDeAvaliacao() {
+        registro.atualizar(new RegistroDisponibilidade.Situacao(1L, "A", StatusEntregador.DISPONIVEL, Set.of(), 4.0, 10, 10));
+        registro.atualizar(new RegistroDisponibilidade.Situacao(2L, "B", StatusEntregador.OFFLINE, Set.of(), 4.8, 3, 3));
+        registro.atualizar(new RegistroDisponibilidade.Situacao(3L, "C", StatusEntregador.DISPONIVEL, Set.of(), 4.5, 0, 0));
+
+        registro.atualizar(new RegistroDisponibilidade.Situacao(1L, "A", StatusEntregador.DISPONIVEL, Set.of(), 4.9, 11, 11));
+
+        assertThat(registro.melhoresAvaliados(2))
+                .extracting(RegistroDisponibilidade.Classificacao::id)
+                .containsExactly(1L, 2L);
+        assertThat(registro.experientes(3))
+                .extracting(RegistroDisponibilidade.Classificacao::id)
+                .containsExactly(1L, 2L);
+        // Quem ainda não foi avaliado fica fora da média
+        assertThat(registro.avaliacaoMediaGeral()).isEqualTo(4.85);
+    }
+
+    @Test
+    void avaliacaoMediaGeral_DeveDescontarEntregadorRemovido() {
+        registro.atualizar(new RegistroDisponibilidade.Situacao(1L, "A", StatusEntregador.DISPONIVEL, Set.of(), 4.0, 10, 10));
+        registro.atualizar(new RegistroDisponibilidade.Situacao(2L, "B", StatusEntregador.DISPONIVEL, Set.of(), 5.0, 10, 10));
+
+        registro.remover(2L);
+
+        assertThat(registro.avaliacaoMediaGeral()).isEqualTo(4.0);
+        assertThat(registro.melhoresAvaliados(10)).hasSize(1);
+    }
+
+    @Test
+    void atualizar_DeveManterContagensSobConcorrencia() throws InterruptedException {
+        for (long id = 0; id < 200; id++) registro.atualizar(situacao(id, StatusEntregador.OFFLINE, Aplicativo.IFOOD));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int rodada = 0; rodada < 50; rodada++) {
+            for (long id = 0; id < 200; id++) {
+                StatusEntregador status = (id + rodada) % 2 == 0 ? StatusEntregador.DISPONIVEL : StatusEntregador.OFFLINE;
+                long entregadorId = id;
+                executor.submit(() -> registro.atualizar(situacao(entregadorId, status, Aplicativo.IFOOD)));
+            }
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        long disponiveis = registro.buscar(StatusEntregador.DISPONIVEL, Aplicativo.IFOOD).size();
+        long offline = registro.buscar(StatusEntregador.OFFLINE, null).size();
+        assertThat(disponiveis + offline).isEqualTo(200);
+        assertThat(registro.contar(StatusEntregador.DISPONIVEL)).isEqualTo(disponiveis);
+        assertThat(registro.contar(StatusEntregador.OFFLINE)).isEqualTo(offline);
+    }
+}
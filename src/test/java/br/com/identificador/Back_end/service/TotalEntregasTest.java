@@ -0,0 +1,93 @@
+package br.com.identificador.Back_end.service;
+
+import br.com.identificador.Back_end.dto.AtualizarStatusEntregaDTO;
+import br.com.identificador.Back_end.model.Cliente;
+import br.com.identificador.Back_end.model.Entrega;
+import br.com.identificador.Back_end.model.Entregador;
+import br.com.identificador.Back_end.model.Loja;
+import br.com.identificador.Back_end.model.enuns.StatusEntrega;
+import br.com.identificador.Back_end.model.enuns.StatusEntregador;
+import br.com.identificador.Back_end.repository.ClienteRepository;
+import br.com.identificador.Back_end.repository.EntregaRepository;
+import br.com.identificador.Back_end.repository.EntregadorRepository;
+import br.com.identificador.Back_end.repository.LojaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entrega concluída: o total de entregas sobe no banco por UPDATE nativo e o registro de
+ * disponibilidade, que recarrega o entregador após o commit, precisa enxergar o total novo
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EntregaService.class, RegistroDisponibilidade.class, SimpleMeterRegistry.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TotalEntregasTest {
+
+    @Autowired
+    private EntregaService entregaService;
+
+    @Autowired
+    private RegistroDisponibilidade registro;
+
+    @Autowired
+    private EntregaRepository entregaRepository;
+
+    @Autowired
+    private EntregadorRepository entregadorRepository;
+
+    @Autowired
+    private LojaRepository lojaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Long entregaId;
+    private Long entregadorId;
+
+    @BeforeEach
+    void setUp() {
+        Loja loja = lojaRepository.save(new Loja("Loja Exemplo", "loja@email.com", "11777777777", "$2a$10$hash",
+                "12345678000123", "Av. Principal, 1000"));
+        Cliente cliente = clienteRepository.save(new Cliente("João Cliente", "cliente@email.com", "11999999999",
+                "$2a$10$hash"));
+        Entregador entregador = new Entregador("Maria Entregadora", "entregador@email.com", "11888888888",
+                "$2a$10$hash", "98765432100", "123456789", "12345678901");
+        entregador.setStatus(StatusEntregador.DISPONIVEL);
+        entregadorId = entregadorRepository.save(entregador).getId();
+        entregaId = entregaRepository.save(new Entrega(loja, cliente, "Origem", "Destino", "Produto",
+                BigDecimal.TEN, 30)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entregaRepository.deleteAll();
+        entregadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+        lojaRepository.deleteAll();
+    }
+
+    @Test
+    void atualizarStatusEntrega_EntregueDeveChegarAoRegistroComTotalDoBanco() {
+        entregaService.aceitarEntrega(entregaId, entregadorId);
+        entregaService.atualizarStatusEntrega(entregaId, new AtualizarStatusEntregaDTO(StatusEntrega.ENTREGUE, null, null));
+
+        assertThat(entregadorRepository.findById(entregadorId).orElseThrow().getTotalEntregas()).isEqualTo(1);
+        assertThat(registro.buscar(entregadorId).totalEntregas()).isEqualTo(1);
+        assertThat(registro.buscar(entregadorId).status()).isEqualTo(StatusEntregador.DISPONIVEL);
+    }
+}